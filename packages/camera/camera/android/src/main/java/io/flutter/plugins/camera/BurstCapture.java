@@ -0,0 +1,123 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera;
+
+import androidx.annotation.NonNull;
+import io.flutter.plugin.common.MethodChannel;
+import java.util.Arrays;
+
+/**
+ * Keeps track of the frames of a burst of still captures.
+ *
+ * <p>Every frame of the burst is either captured and saved, or fails. Once all frames have been
+ * saved, the paths of the saved files are sent to the {@link MethodChannel.Result} in capture
+ * order. The first error fails the whole burst, later errors are ignored.
+ */
+class BurstCapture {
+  private final int count;
+  private final long intervalMs;
+  private final MethodChannel.Result result;
+  private final DartMessenger dartMessenger;
+  private final String[] paths;
+
+  private int capturedFrames;
+  private int savedFrames;
+  private boolean finished;
+
+  /**
+   * Creates a new instance of the {@link BurstCapture} class.
+   *
+   * @param count the number of frames to capture, at least 1.
+   * @param intervalMs the time between two captures in milliseconds, 0 to capture as fast as
+   *     possible.
+   * @param result the result that receives the list of saved files.
+   * @param dartMessenger used to answer the result on the main thread.
+   */
+  BurstCapture(
+      int count,
+      long intervalMs,
+      @NonNull MethodChannel.Result result,
+      @NonNull DartMessenger dartMessenger) {
+    this.count = count;
+    this.intervalMs = intervalMs;
+    this.result = result;
+    this.dartMessenger = dartMessenger;
+    this.paths = new String[count];
+  }
+
+  /** Gets the number of frames in the burst. */
+  int getCount() {
+    return count;
+  }
+
+  /** Gets the time between two captures in milliseconds, 0 when captured back to back. */
+  long getIntervalMs() {
+    return intervalMs;
+  }
+
+  /**
+   * Indicates whether every frame of the burst has been captured or has failed.
+   *
+   * @return true when no more images are expected from the camera.
+   */
+  synchronized boolean isCaptureComplete() {
+    return capturedFrames >= count;
+  }
+
+  /**
+   * Registers the image of the next frame of the burst.
+   *
+   * @return the callback that should be informed about the result of saving the image.
+   */
+  @NonNull
+  synchronized ImageSaver.Callback onFrameCaptured() {
+    final int index = capturedFrames++;
+    return new ImageSaver.Callback() {
+      @Override
+      public void onComplete(String absolutePath) {
+        onFrameSaved(index, absolutePath);
+      }
+
+      @Override
+      public void onError(String errorCode, String errorMessage) {
+        fail(errorCode, errorMessage);
+      }
+    };
+  }
+
+  /**
+   * Registers a frame that did not produce an image and fails the burst.
+   *
+   * @param errorCode the error code sent to Dart.
+   * @param errorMessage the error message sent to Dart.
+   */
+  synchronized void onFrameFailed(String errorCode, String errorMessage) {
+    capturedFrames++;
+    fail(errorCode, errorMessage);
+  }
+
+  /**
+   * Fails the burst, unless it has already finished.
+   *
+   * @param errorCode the error code sent to Dart.
+   * @param errorMessage the error message sent to Dart.
+   */
+  synchronized void fail(String errorCode, String errorMessage) {
+    if (finished) {
+      return;
+    }
+    finished = true;
+    dartMessenger.error(result, errorCode, errorMessage, null);
+  }
+
+  private synchronized void onFrameSaved(int index, String absolutePath) {
+    paths[index] = absolutePath;
+    savedFrames++;
+    if (savedFrames == count && !finished) {
+      finished = true;
+      dartMessenger.finish(result, Arrays.asList(paths));
+    }
+  }
+}
@@ -12,9 +12,11 @@ import android.graphics.ImageFormat;
 import android.graphics.SurfaceTexture;
 import android.hardware.camera2.CameraAccessException;
 import android.hardware.camera2.CameraCaptureSession;
+import android.hardware.camera2.CameraConstrainedHighSpeedCaptureSession;
 import android.hardware.camera2.CameraDevice;
 import android.hardware.camera2.CameraManager;
 import android.hardware.camera2.CameraMetadata;
+import android.hardware.camera2.CaptureFailure;
 import android.hardware.camera2.CaptureRequest;
 import android.hardware.camera2.TotalCaptureResult;
 import android.hardware.camera2.params.OutputConfiguration;
@@ -30,13 +32,16 @@ import android.os.Build.VERSION_CODES;
 import android.os.Handler;
 import android.os.HandlerThread;
 import android.os.Looper;
+import android.os.PowerManager;
 import android.util.Log;
+import android.util.Range;
 import android.util.Size;
 import android.view.Display;
 import android.view.Surface;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
+import androidx.core.math.MathUtils;
 import io.flutter.embedding.engine.systemchannels.PlatformChannel;
 import io.flutter.plugin.common.EventChannel;
 import io.flutter.plugin.common.MethodChannel;
@@ -54,25 +59,32 @@ import io.flutter.plugins.camera.features.exposurepoint.ExposurePointFeature;
 import io.flutter.plugins.camera.features.flash.FlashFeature;
 import io.flutter.plugins.camera.features.flash.FlashMode;
 import io.flutter.plugins.camera.features.focuspoint.FocusPointFeature;
+import io.flutter.plugins.camera.features.resolution.AdaptivePreviewResolution;
 import io.flutter.plugins.camera.features.resolution.ResolutionFeature;
 import io.flutter.plugins.camera.features.resolution.ResolutionPreset;
 import io.flutter.plugins.camera.features.sensororientation.DeviceOrientationManager;
 import io.flutter.plugins.camera.features.sensororientation.SensorOrientationFeature;
 import io.flutter.plugins.camera.features.zoomlevel.ZoomLevelFeature;
+import io.flutter.plugins.camera.media.ImageStreamFlowController;
+import io.flutter.plugins.camera.media.MediaCodecRecorder;
 import io.flutter.plugins.camera.media.MediaRecorderBuilder;
 import io.flutter.plugins.camera.types.CameraCaptureProperties;
+import io.flutter.plugins.camera.types.CameraSettingsUpdate;
 import io.flutter.plugins.camera.types.CaptureTimeoutsWrapper;
+import io.flutter.plugins.camera.types.ImageStreamOptions;
+import io.flutter.plugins.camera.types.VideoEncodingOptions;
 import io.flutter.view.TextureRegistry.SurfaceTextureEntry;
 import java.io.File;
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 @FunctionalInterface
 interface ErrorCallback {
@@ -94,6 +106,13 @@ interface CameraDeviceWrapper {
       @Nullable Handler handler)
       throws CameraAccessException;
 
+  @TargetApi(VERSION_CODES.M)
+  void createConstrainedHighSpeedCaptureSession(
+      @NonNull List<Surface> outputs,
+      @NonNull CameraCaptureSession.StateCallback callback,
+      @Nullable Handler handler)
+      throws CameraAccessException;
+
   void close();
 }
 
@@ -115,13 +134,14 @@ class Camera
    * Holds all of the camera features/settings and will be used to update the request builder when
    * one changes.
    */
-  private final CameraFeatures cameraFeatures;
+  private CameraFeatures cameraFeatures;
 
   private final SurfaceTextureEntry flutterTexture;
   private final boolean enableAudio;
   private final Context applicationContext;
   private final DartMessenger dartMessenger;
-  private final CameraProperties cameraProperties;
+  private CameraProperties cameraProperties;
+  private final ResolutionPreset resolutionPreset;
   private final CameraFeatureFactory cameraFeatureFactory;
   private final Activity activity;
   /** A {@link CameraCaptureSession.CaptureCallback} that handles events related to JPEG capture. */
@@ -132,14 +152,58 @@ class Camera
   /** An additional thread for running tasks that shouldn't block the UI. */
   private HandlerThread backgroundHandlerThread;
 
+  /** A {@link Handler} used to deliver image stream frames on the main thread. */
+  private final Handler mainHandler;
+
+  /** Decides which image stream frames are sent to Dart, null when not streaming. */
+  @Nullable private volatile ImageStreamFlowController imageStreamFlowController;
+
   private CameraDeviceWrapper cameraDevice;
   private CameraCaptureSession captureSession;
   private ImageReader pictureImageReader;
   private ImageReader imageStreamReader;
+  /** The image format of the {@link #imageStreamReader}. */
+  private int imageStreamFormat = ImageFormat.YUV_420_888;
+  /** True while image stream frames are requested by Dart. */
+  private boolean streamingImages;
+  /** Receives image stream frames, null until Dart listens to the image stream. */
+  @Nullable private EventChannel.EventSink imageStreamSink;
+  /**
+   * The index of the image stream resolution in {@link #getImageStreamFallbackSizes()}, -1 while
+   * the image stream uses the preview resolution.
+   */
+  private int imageStreamFallbackIndex = -1;
+  /** Writes captured JPEG images to disk, off the camera background thread. */
+  private ImageSaverExecutor imageSaverExecutor;
+  /** The burst of still captures in progress, null when taking single pictures. */
+  @Nullable private volatile BurstCapture burstCapture;
   /** {@link CaptureRequest.Builder} for the camera preview */
   private CaptureRequest.Builder previewRequestBuilder;
+  /** Reuses request builders while switching between the outputs of the current session. */
+  private final CaptureRequestBuilderCache requestBuilderCache = new CaptureRequestBuilderCache();
+  /** The surfaces the current capture session was configured with. */
+  private List<Surface> sessionSurfaces = Collections.emptyList();
+  /** The Flutter surface of the current capture session. */
+  @Nullable private Surface previewSurface;
+  /**
+   * False once the camera failed to configure a preview session that also includes the image
+   * stream reader.
+   */
+  private boolean imageStreamInPreviewSession = true;
+  /** The video size of the next session while recording at a high frame rate, null otherwise. */
+  @Nullable private Size highSpeedVideoSize;
+  /** Whether the current capture session is a constrained high speed capture session. */
+  private boolean highSpeedSession;
+  /** Adapts the preview resolution to frame times and thermal status, null while disabled. */
+  @Nullable private volatile AdaptivePreviewResolution adaptivePreviewResolution;
+  /** Limits zoom and focus point updates of gestures to one repeating request per frame. */
+  private final GestureUpdateCoalescer gestureUpdates;
+
+  @Nullable private PowerManager.OnThermalStatusChangedListener thermalStatusListener;
 
   private MediaRecorder mediaRecorder;
+  /** Records with the hardware encoder when encoding options are supplied, null otherwise. */
+  @Nullable private MediaCodecRecorder mediaCodecRecorder;
   /** True when recording video. */
   private boolean recordingVideo;
   /** True when the preview is paused. */
@@ -154,6 +218,22 @@ class Camera
 
   private MethodChannel.Result flutterResult;
 
+  /** The image format group the camera was opened with, reused when switching cameras. */
+  private String imageFormatGroup;
+  /**
+   * Incremented every time a camera device is opened, so callbacks of a device that was replaced by
+   * {@link #switchCamera} can be told apart from those of the current device.
+   */
+  private int cameraOpenCount;
+  /** The result of a {@link #switchCamera} call, answered once the new device opened or failed. */
+  private final AtomicReference<Result> switchCameraResult = new AtomicReference<>();
+  /** Durations of the phases of the last camera open. */
+  @Nullable private CameraOpenTimings openTimings;
+  /** Aggregates the durations of opening the camera and taking pictures. */
+  private final CameraLatencyRecorder latencyRecorder;
+  /** The moment the current still capture was requested, 0 when no capture is running. */
+  private volatile long stillCaptureStartNanos;
+
   /** A CameraDeviceWrapper implementation that forwards calls to a CameraDevice. */
   private class DefaultCameraDeviceWrapper implements CameraDeviceWrapper {
     private final CameraDevice cameraDevice;
@@ -186,6 +266,17 @@ class Camera
       cameraDevice.createCaptureSession(outputs, callback, backgroundHandler);
     }
 
+    @TargetApi(VERSION_CODES.M)
+    @SuppressWarnings("deprecation")
+    @Override
+    public void createConstrainedHighSpeedCaptureSession(
+        @NonNull List<Surface> outputs,
+        @NonNull CameraCaptureSession.StateCallback callback,
+        @Nullable Handler handler)
+        throws CameraAccessException {
+      cameraDevice.createConstrainedHighSpeedCaptureSession(outputs, callback, backgroundHandler);
+    }
+
     @Override
     public void close() {
       cameraDevice.close();
@@ -211,6 +302,7 @@ class Camera
     this.applicationContext = activity.getApplicationContext();
     this.cameraProperties = cameraProperties;
     this.cameraFeatureFactory = cameraFeatureFactory;
+    this.resolutionPreset = resolutionPreset;
     this.cameraFeatures =
         CameraFeatures.init(
             cameraFeatureFactory, cameraProperties, activity, dartMessenger, resolutionPreset);
@@ -220,11 +312,17 @@ class Camera
     captureProps = new CameraCaptureProperties();
     cameraCaptureCallback = CameraCaptureCallback.create(this, captureTimeouts, captureProps);
 
+    latencyRecorder = new CameraLatencyRecorder();
+
+    mainHandler = HandlerFactory.create(Looper.getMainLooper());
+    gestureUpdates = new GestureUpdateCoalescer(mainHandler, this::applyGestureUpdate);
+    cameraCaptureCallback.setOnFrameCapturedListener(this::onFrameCaptured);
     startBackgroundThread();
   }
 
   @Override
   public void onConverged() {
+    latencyRecorder.recordSince(CameraLatencyRecorder.Phase.PRECAPTURE, stillCaptureStartNanos);
     takePictureAfterPrecapture();
   }
 
@@ -252,10 +350,6 @@ class Camera
       mediaRecorder.release();
     }
 
-    final PlatformChannel.DeviceOrientation lockedOrientation =
-        ((SensorOrientationFeature) cameraFeatures.getSensorOrientation())
-            .getLockedCaptureOrientation();
-
     MediaRecorderBuilder mediaRecorderBuilder;
 
     if (Build.VERSION.SDK_INT >= 31) {
@@ -267,35 +361,142 @@ class Camera
     mediaRecorder =
         mediaRecorderBuilder
             .setEnableAudio(enableAudio)
-            .setMediaOrientation(
-                lockedOrientation == null
-                    ? getDeviceOrientationManager().getVideoOrientation()
-                    : getDeviceOrientationManager().getVideoOrientation(lockedOrientation))
+            .setMediaOrientation(getRecordingOrientation())
             .build();
   }
 
+  private void prepareMediaCodecRecorder(
+      String outputFilePath, @NonNull VideoEncodingOptions encodingOptions) throws IOException {
+    Log.i(TAG, "prepareMediaCodecRecorder");
+
+    if (mediaCodecRecorder != null) {
+      mediaCodecRecorder.release();
+      mediaCodecRecorder = null;
+    }
+
+    MediaCodecRecorder recorder =
+        new MediaCodecRecorder(encodingOptions, outputFilePath)
+            .setEnableAudio(enableAudio)
+            .setMediaOrientation(getRecordingOrientation());
+
+    // The encoding options only override the video bitrate and the frame rate, the other values
+    // still come from the recording profile of the selected resolution.
+    int width;
+    int height;
+    int frameRate;
+    int bitrate;
+    if (Build.VERSION.SDK_INT >= 31) {
+      EncoderProfiles recordingProfile = getRecordingProfile();
+      EncoderProfiles.VideoProfile videoProfile = recordingProfile.getVideoProfiles().get(0);
+      width = videoProfile.getWidth();
+      height = videoProfile.getHeight();
+      frameRate = videoProfile.getFrameRate();
+      bitrate = videoProfile.getBitrate();
+      if (!recordingProfile.getAudioProfiles().isEmpty()) {
+        EncoderProfiles.AudioProfile audioProfile = recordingProfile.getAudioProfiles().get(0);
+        recorder.setAudioEncoding(
+            audioProfile.getBitrate(),
+            audioProfile.getSampleRate(),
+            Math.min(audioProfile.getChannels(), 2));
+      }
+    } else {
+      CamcorderProfile recordingProfile = getRecordingProfileLegacy();
+      width = recordingProfile.videoFrameWidth;
+      height = recordingProfile.videoFrameHeight;
+      frameRate = recordingProfile.videoFrameRate;
+      bitrate = recordingProfile.videoBitRate;
+      recorder.setAudioEncoding(
+          recordingProfile.audioBitRate,
+          recordingProfile.audioSampleRate,
+          Math.min(recordingProfile.audioChannels, 2));
+    }
+
+    highSpeedVideoSize = null;
+    if (encodingOptions.usesHighSpeed()) {
+      int highSpeedFrameRate = encodingOptions.getHighSpeedFrameRate();
+      Size videoSize =
+          cameraFeatures
+              .getFpsRange()
+              .selectHighSpeedVideoSize(highSpeedFrameRate, new Size(width, height));
+      if (videoSize == null) {
+        recorder.release();
+        throw new IOException(
+            "Recording at " + highSpeedFrameRate + " fps is not supported by this camera.");
+      }
+      // Keep the bits per pixel of the profile for the smaller, faster video.
+      double scale =
+          (double) highSpeedFrameRate
+              / frameRate
+              * videoSize.getWidth()
+              * videoSize.getHeight()
+              / ((long) width * height);
+      bitrate = (int) Math.min(Integer.MAX_VALUE, bitrate * scale);
+      width = videoSize.getWidth();
+      height = videoSize.getHeight();
+      frameRate = highSpeedFrameRate;
+      highSpeedVideoSize = videoSize;
+    }
+    recorder
+        .setVideoSize(width, height)
+        .setVideoFrameRate(frameRate)
+        .setDefaultVideoBitrate(bitrate);
+
+    try {
+      recorder.prepare();
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      // Thrown by MediaCodec when the encoder does not accept the requested format.
+      recorder.release();
+      highSpeedVideoSize = null;
+      throw new IOException(e.getMessage(), e);
+    } catch (IOException e) {
+      recorder.release();
+      highSpeedVideoSize = null;
+      throw e;
+    }
+    mediaCodecRecorder = recorder;
+  }
+
+  private int getRecordingOrientation() {
+    final PlatformChannel.DeviceOrientation lockedOrientation =
+        ((SensorOrientationFeature) cameraFeatures.getSensorOrientation())
+            .getLockedCaptureOrientation();
+
+    return lockedOrientation == null
+        ? getDeviceOrientationManager().getVideoOrientation()
+        : getDeviceOrientationManager().getVideoOrientation(lockedOrientation);
+  }
+
   @SuppressLint("MissingPermission")
   public void open(String imageFormatGroup) throws CameraAccessException {
+    final CameraOpenTimings timings = new CameraOpenTimings();
+    openTimings = timings;
+    this.imageFormatGroup = imageFormatGroup;
+    final int openCount = ++cameraOpenCount;
     final ResolutionFeature resolutionFeature = cameraFeatures.getResolution();
 
     if (!resolutionFeature.checkIsSupported()) {
       // Tell the user that the camera they are trying to open is not supported,
       // as its {@link android.media.CamcorderProfile} cannot be fetched due to the name
       // not being a valid parsable integer.
-      dartMessenger.sendCameraErrorEvent(
+      final String errorDescription =
           "Camera with name \""
               + cameraProperties.getCameraName()
-              + "\" is not supported by this plugin.");
+              + "\" is not supported by this plugin.";
+      finishSwitchCamera(errorDescription);
+      dartMessenger.sendCameraErrorEvent(errorDescription);
       return;
     }
 
     // Always capture using JPEG format.
     pictureImageReader =
-        ImageReader.newInstance(
-            resolutionFeature.getCaptureSize().getWidth(),
-            resolutionFeature.getCaptureSize().getHeight(),
+        reuseOrCreateImageReader(
+            pictureImageReader,
+            resolutionFeature.getCaptureSize(),
             ImageFormat.JPEG,
-            1);
+            ImageSaverExecutor.MAX_PENDING_IMAGES);
+    if (imageSaverExecutor == null) {
+      createImageSaverExecutor();
+    }
 
     // For image streaming, use the provided image format or fall back to YUV420.
     Integer imageFormat = supportedImageFormats.get(imageFormatGroup);
@@ -303,12 +504,11 @@ class Camera
       Log.w(TAG, "The selected imageFormatGroup is not supported by Android. Defaulting to yuv420");
       imageFormat = ImageFormat.YUV_420_888;
     }
+    imageStreamFormat = imageFormat;
+    imageStreamFallbackIndex = -1;
     imageStreamReader =
-        ImageReader.newInstance(
-            resolutionFeature.getPreviewSize().getWidth(),
-            resolutionFeature.getPreviewSize().getHeight(),
-            imageFormat,
-            1);
+        reuseOrCreateImageReader(
+            imageStreamReader, resolutionFeature.getPreviewSize(), imageFormat, 1);
 
     // Open the camera.
     CameraManager cameraManager = CameraUtils.getCameraManager(activity);
@@ -317,17 +517,26 @@ class Camera
         new CameraDevice.StateCallback() {
           @Override
           public void onOpened(@NonNull CameraDevice device) {
+            timings.markDeviceOpened();
             cameraDevice = new DefaultCameraDeviceWrapper(device);
+            cameraCaptureCallback.setOnNextCaptureCompletedListener(
+                () -> {
+                  timings.markFirstFrame();
+                  timings.reportTo(latencyRecorder);
+                  Log.i(TAG, "open | " + timings);
+                });
             try {
               startPreview();
               dartMessenger.sendCameraInitializedEvent(
                   resolutionFeature.getPreviewSize().getWidth(),
                   resolutionFeature.getPreviewSize().getHeight(),
-                  cameraFeatures.getExposureLock().getValue(),
+                  cameraFeatures.getExposureMode(),
                   cameraFeatures.getAutoFocus().getValue(),
-                  cameraFeatures.getExposurePoint().checkIsSupported(),
-                  cameraFeatures.getFocusPoint().checkIsSupported());
+                  cameraFeatures.isExposurePointSupported(),
+                  cameraFeatures.isFocusPointSupported());
+              finishSwitchCamera(null);
             } catch (CameraAccessException e) {
+              finishSwitchCamera(e.getMessage());
               dartMessenger.sendCameraErrorEvent(e.getMessage());
               close();
             }
@@ -336,6 +545,10 @@ class Camera
           @Override
           public void onClosed(@NonNull CameraDevice camera) {
             Log.i(TAG, "open | onClosed");
+            if (openCount != cameraOpenCount) {
+              // This device was replaced by switchCamera, the camera itself stays open.
+              return;
+            }
 
             // Prevents calls to methods that would otherwise result in IllegalStateException exceptions.
             cameraDevice = null;
@@ -346,7 +559,11 @@ class Camera
           @Override
           public void onDisconnected(@NonNull CameraDevice cameraDevice) {
             Log.i(TAG, "open | onDisconnected");
+            if (openCount != cameraOpenCount) {
+              return;
+            }
 
+            finishSwitchCamera("The camera was disconnected.");
             close();
             dartMessenger.sendCameraErrorEvent("The camera was disconnected.");
           }
@@ -354,8 +571,10 @@ class Camera
           @Override
           public void onError(@NonNull CameraDevice cameraDevice, int errorCode) {
             Log.i(TAG, "open | onError");
+            if (openCount != cameraOpenCount) {
+              return;
+            }
 
-            close();
             String errorDescription;
             switch (errorCode) {
               case ERROR_CAMERA_IN_USE:
@@ -376,12 +595,143 @@ class Camera
               default:
                 errorDescription = "Unknown camera error";
             }
+            finishSwitchCamera(errorDescription);
+            close();
             dartMessenger.sendCameraErrorEvent(errorDescription);
           }
         },
         backgroundHandler);
   }
 
+  private void createImageSaverExecutor() {
+    imageSaverExecutor =
+        new ImageSaverExecutor(
+            (file, queueDurationNanos, writeDurationNanos) ->
+                latencyRecorder.record(
+                    CameraLatencyRecorder.Phase.IMAGE_SAVE,
+                    queueDurationNanos + writeDurationNanos));
+    // Images that could not be accepted while the writers were busy are picked up again once an
+    // earlier image has been written.
+    imageSaverExecutor.setOnCapacityAvailableListener(
+        () -> {
+          final Handler handler = backgroundHandler;
+          if (handler != null) {
+            handler.post(this::savePendingPictures);
+          }
+        });
+  }
+
+  /**
+   * Keeps an existing {@link ImageReader} when it already produces images of the requested size
+   * and format, so switching between cameras with matching resolutions does not allocate new
+   * buffers.
+   *
+   * @param reader the current reader, may be null.
+   * @param size the requested image size.
+   * @param format the requested image format.
+   * @param maxImages the maximum number of images the reader should hold.
+   * @return the existing reader, or a newly created one.
+   */
+  private static ImageReader reuseOrCreateImageReader(
+      @Nullable ImageReader reader, @NonNull Size size, int format, int maxImages) {
+    if (reader != null) {
+      if (reader.getWidth() == size.getWidth()
+          && reader.getHeight() == size.getHeight()
+          && reader.getImageFormat() == format
+          && reader.getMaxImages() == maxImages) {
+        return reader;
+      }
+      reader.close();
+    }
+    return ImageReader.newInstance(size.getWidth(), size.getHeight(), format, maxImages);
+  }
+
+  /**
+   * Switches this camera to another camera device, for example from the back to the front lens.
+   *
+   * <p>Unlike disposing the camera and creating a new one, this keeps the background thread, the
+   * Flutter texture, the image readers (when the new resolution matches) and the picture writers
+   * alive, so only the camera device and its capture session are replaced. A camera initialized
+   * event is sent once the new device is open.
+   *
+   * @param cameraProperties the properties of the camera to switch to.
+   * @param result the result that is answered once the new camera is open, or with an error when it
+   *     failed to open.
+   */
+  public void switchCamera(@NonNull CameraProperties cameraProperties, @NonNull Result result) {
+    if (recordingVideo) {
+      result.error("switchCameraFailed", "Cannot switch cameras while recording a video.", null);
+      return;
+    }
+    if (imageStreamFlowController != null) {
+      result.error("switchCameraFailed", "Cannot switch cameras while streaming images.", null);
+      return;
+    }
+    if (cameraCaptureCallback.getCameraState() != CameraState.STATE_PREVIEW) {
+      result.error("switchCameraFailed", "Cannot switch cameras while taking a picture.", null);
+      return;
+    }
+    if (!switchCameraResult.compareAndSet(null, result)) {
+      result.error("switchCameraFailed", "Another camera switch is in progress.", null);
+      return;
+    }
+    Log.i(TAG, "switchCamera | " + cameraProperties.getCameraName());
+
+    closeCaptureSession();
+    if (cameraDevice != null) {
+      cameraDevice.close();
+      cameraDevice = null;
+    }
+
+    getDeviceOrientationManager().stop();
+    this.cameraProperties = cameraProperties;
+    this.cameraFeatures =
+        CameraFeatures.init(
+            cameraFeatureFactory, cameraProperties, activity, dartMessenger, resolutionPreset);
+    if (adaptivePreviewResolution != null) {
+      // The adaptive preview sizes belong to the previous camera, start over with the new one.
+      stopThermalStatusListener();
+      adaptivePreviewResolution = null;
+      setAdaptivePreviewResolution(true);
+    }
+
+    try {
+      open(imageFormatGroup);
+    } catch (CameraAccessException e) {
+      if (switchCameraResult.compareAndSet(result, null)) {
+        result.error("CameraAccess", e.getMessage(), null);
+      }
+    }
+  }
+
+  /**
+   * Answers the pending {@link #switchCamera} call, if any.
+   *
+   * @param errorDescription null when the new camera opened, otherwise why it failed to open.
+   */
+  private void finishSwitchCamera(@Nullable String errorDescription) {
+    final Result result = switchCameraResult.getAndSet(null);
+    if (result == null) {
+      return;
+    }
+    if (errorDescription == null) {
+      dartMessenger.finish(result, null);
+    } else {
+      dartMessenger.error(result, "switchCameraFailed", errorDescription, null);
+    }
+  }
+
+  /**
+   * Gets percentiles of the durations of opening the camera and taking pictures.
+   *
+   * @param reset whether to forget the aggregated durations once they have been read.
+   * @return the statistics per phase, see {@link CameraLatencyRecorder#getStatistics(boolean)}.
+   */
+  @NonNull
+  public Map<String, Object> getLatencyStatistics(boolean reset) {
+    return latencyRecorder.getStatistics(reset);
+  }
+
   private void createCaptureSession(int templateType, Surface... surfaces)
       throws CameraAccessException {
     createCaptureSession(templateType, null, surfaces);
@@ -390,34 +740,58 @@ class Camera
   private void createCaptureSession(
       int templateType, Runnable onSuccessCallback, Surface... surfaces)
       throws CameraAccessException {
+    createCaptureSession(templateType, onSuccessCallback, null, surfaces);
+  }
+
+  private void createCaptureSession(
+      int templateType,
+      @Nullable Runnable onSuccessCallback,
+      @Nullable Runnable onConfigureFailedCallback,
+      Surface... surfaces)
+      throws CameraAccessException {
+    List<Surface> remainingSurfaces = Arrays.asList(surfaces);
+
+    // A session that is already configured with all surfaces only needs a new repeating request,
+    // which is much faster than configuring a new session.
+    if (captureSession != null
+        && previewSurface != null
+        && !highSpeedSession
+        && highSpeedVideoSize == null
+        && sessionSurfaces.containsAll(remainingSurfaces)) {
+      Log.i(TAG, "Reusing the configured capture session");
+      Surface[] targets = getRequestTargets(templateType, previewSurface, surfaces);
+      previewRequestBuilder = requestBuilderCache.get(cameraDevice, templateType, targets);
+      updateCameraBoundaries();
+      updateBuilderSettings(previewRequestBuilder);
+      refreshPreviewCaptureSession(
+          onSuccessCallback, (code, message) -> dartMessenger.sendCameraErrorEvent(message));
+      return;
+    }
+
     // Close any existing capture session.
     closeCaptureSession();
 
-    // Create a new capture builder.
-    previewRequestBuilder = cameraDevice.createCaptureRequest(templateType);
-
-    // Build Flutter surface to render to.
-    ResolutionFeature resolutionFeature = cameraFeatures.getResolution();
+    // Build Flutter surface to render to. In a high speed session all outputs must have the size
+    // of the video.
+    final Size highSpeedSize = highSpeedVideoSize;
+    Size bufferSize =
+        highSpeedSize != null ? highSpeedSize : cameraFeatures.getResolution().getPreviewSize();
     SurfaceTexture surfaceTexture = flutterTexture.surfaceTexture();
-    surfaceTexture.setDefaultBufferSize(
-        resolutionFeature.getPreviewSize().getWidth(),
-        resolutionFeature.getPreviewSize().getHeight());
+    surfaceTexture.setDefaultBufferSize(bufferSize.getWidth(), bufferSize.getHeight());
     Surface flutterSurface = new Surface(surfaceTexture);
-    previewRequestBuilder.addTarget(flutterSurface);
 
-    List<Surface> remainingSurfaces = Arrays.asList(surfaces);
-    if (templateType != CameraDevice.TEMPLATE_PREVIEW) {
-      // If it is not preview mode, add all surfaces as targets.
-      for (Surface surface : remainingSurfaces) {
-        previewRequestBuilder.addTarget(surface);
-      }
-    }
+    // Create a new capture builder, the builders of the previous session target other surfaces.
+    requestBuilderCache.clear();
+    previewRequestBuilder =
+        requestBuilderCache.get(
+            cameraDevice, templateType, getRequestTargets(templateType, flutterSurface, surfaces));
 
     // Update camera regions.
-    Size cameraBoundaries =
-        CameraRegionUtils.getCameraBoundaries(cameraProperties, previewRequestBuilder);
-    cameraFeatures.getExposurePoint().setCameraBoundaries(cameraBoundaries);
-    cameraFeatures.getFocusPoint().setCameraBoundaries(cameraBoundaries);
+    updateCameraBoundaries();
+
+    final List<Surface> outputs = new ArrayList<>();
+    outputs.add(flutterSurface);
+    outputs.addAll(remainingSurfaces);
 
     // Prepare the callback.
     CameraCaptureSession.StateCallback callback =
@@ -433,6 +807,13 @@ class Camera
               return;
             }
             captureSession = session;
+            sessionSurfaces = outputs;
+            previewSurface = flutterSurface;
+            highSpeedSession = highSpeedSize != null;
+            final CameraOpenTimings timings = openTimings;
+            if (timings != null) {
+              timings.markSessionConfigured();
+            }
 
             Log.i(TAG, "Updating builder settings");
             updateBuilderSettings(previewRequestBuilder);
@@ -444,6 +825,10 @@ class Camera
           @Override
           public void onConfigureFailed(@NonNull CameraCaptureSession cameraCaptureSession) {
             Log.i(TAG, "CameraCaptureSession onConfigureFailed");
+            if (onConfigureFailedCallback != null) {
+              onConfigureFailedCallback.run();
+              return;
+            }
             dartMessenger.sendCameraErrorEvent("Failed to configure camera session.");
           }
 
@@ -451,6 +836,11 @@ class Camera
           public void onClosed(@NonNull CameraCaptureSession session) {
             Log.i(TAG, "CameraCaptureSession onClosed");
             captureSessionClosed = true;
+            if (session == captureSession) {
+              // Never reuse a session the camera closed, for example after an error.
+              sessionSurfaces = Collections.emptyList();
+              previewSurface = null;
+            }
           }
         };
 
@@ -458,27 +848,127 @@ class Camera
     if (VERSION.SDK_INT >= VERSION_CODES.P) {
       // Collect all surfaces to render to.
       List<OutputConfiguration> configs = new ArrayList<>();
-      configs.add(new OutputConfiguration(flutterSurface));
-      for (Surface surface : remainingSurfaces) {
+      for (Surface surface : outputs) {
         configs.add(new OutputConfiguration(surface));
       }
-      createCaptureSessionWithSessionConfig(configs, callback);
+      createCaptureSessionWithSessionConfig(
+          highSpeedSize != null
+              ? SessionConfiguration.SESSION_HIGH_SPEED
+              : SessionConfiguration.SESSION_REGULAR,
+          configs,
+          callback);
+    } else if (highSpeedSize != null) {
+      cameraDevice.createConstrainedHighSpeedCaptureSession(outputs, callback, backgroundHandler);
     } else {
-      // Collect all surfaces to render to.
-      List<Surface> surfaceList = new ArrayList<>();
-      surfaceList.add(flutterSurface);
-      surfaceList.addAll(remainingSurfaces);
-      createCaptureSession(surfaceList, callback);
+      createCaptureSession(outputs, callback);
+    }
+  }
+
+  /**
+   * Gets the surfaces the repeating request targets. Preview requests only target the Flutter
+   * surface, other requests target every surface of the session.
+   */
+  private static Surface[] getRequestTargets(
+      int templateType, @NonNull Surface flutterSurface, Surface... surfaces) {
+    if (templateType == CameraDevice.TEMPLATE_PREVIEW) {
+      return new Surface[] {flutterSurface};
+    }
+    Surface[] targets = new Surface[surfaces.length + 1];
+    targets[0] = flutterSurface;
+    System.arraycopy(surfaces, 0, targets, 1, surfaces.length);
+    return targets;
+  }
+
+  private void updateCameraBoundaries() {
+    Size cameraBoundaries =
+        CameraRegionUtils.getCameraBoundaries(cameraProperties, previewRequestBuilder);
+    cameraFeatures.setCameraBoundaries(cameraBoundaries);
+  }
+
+  /**
+   * Creates a capture session for the outputs that are in use: the preview, the video recorder
+   * while recording and the image stream reader while streaming images.
+   *
+   * <p>Not every camera can combine a video recording with an image stream at the preview
+   * resolution. When such a session cannot be configured, the image stream falls back to smaller
+   * resolutions until the camera accepts the combination.
+   *
+   * @param onSuccessCallback called once the session has been configured.
+   */
+  private void createVideoCaptureSession(@Nullable Runnable onSuccessCallback)
+      throws CameraAccessException {
+    updateImageStreamSize();
+
+    List<Surface> surfaces = new ArrayList<>();
+    if (recordingVideo) {
+      surfaces.add(getRecordingSurface());
+    }
+    if (streamingImages) {
+      surfaces.add(imageStreamReader.getSurface());
+    }
+
+    createCaptureSession(
+        CameraDevice.TEMPLATE_RECORD,
+        onSuccessCallback,
+        recordingVideo && streamingImages
+            ? () -> retryWithSmallerImageStream(onSuccessCallback)
+            : null,
+        surfaces.toArray(new Surface[0]));
+  }
+
+  private void retryWithSmallerImageStream(@Nullable Runnable onSuccessCallback) {
+    List<Size> fallbackSizes = getImageStreamFallbackSizes();
+    if (imageStreamFallbackIndex + 1 >= fallbackSizes.size()) {
+      dartMessenger.sendCameraErrorEvent("Failed to configure camera session.");
+      return;
+    }
+
+    imageStreamFallbackIndex++;
+    Log.w(
+        TAG,
+        "Cannot record and stream images at once, lowering the image stream resolution to "
+            + fallbackSizes.get(imageStreamFallbackIndex));
+    try {
+      createVideoCaptureSession(onSuccessCallback);
+    } catch (CameraAccessException e) {
+      dartMessenger.sendCameraErrorEvent(e.getMessage());
+    }
+  }
+
+  private List<Size> getImageStreamFallbackSizes() {
+    return ImageStreamSizes.getFallbackSizes(
+        cameraFeatures.getResolution().getPreviewSize(),
+        cameraProperties.getOutputSizes(imageStreamFormat));
+  }
+
+  /** Resizes the image stream reader to the resolution selected by the fallback index. */
+  private void updateImageStreamSize() {
+    Size size = cameraFeatures.getResolution().getPreviewSize();
+    if (imageStreamFallbackIndex >= 0) {
+      List<Size> fallbackSizes = getImageStreamFallbackSizes();
+      if (imageStreamFallbackIndex < fallbackSizes.size()) {
+        size = fallbackSizes.get(imageStreamFallbackIndex);
+      }
+    }
+
+    ImageReader reader = reuseOrCreateImageReader(imageStreamReader, size, imageStreamFormat, 1);
+    if (reader != imageStreamReader) {
+      imageStreamReader = reader;
+      if (imageStreamFlowController != null) {
+        attachImageStreamListener();
+      }
     }
   }
 
   @TargetApi(VERSION_CODES.P)
   private void createCaptureSessionWithSessionConfig(
-      List<OutputConfiguration> outputConfigs, CameraCaptureSession.StateCallback callback)
+      int sessionType,
+      List<OutputConfiguration> outputConfigs,
+      CameraCaptureSession.StateCallback callback)
       throws CameraAccessException {
     cameraDevice.createCaptureSession(
         new SessionConfiguration(
-            SessionConfiguration.SESSION_REGULAR,
+            sessionType,
             outputConfigs,
             Executors.newSingleThreadExecutor(),
             callback));
@@ -507,8 +997,7 @@ class Camera
 
     try {
       if (!pausedPreview) {
-        captureSession.setRepeatingRequest(
-            previewRequestBuilder.build(), cameraCaptureCallback, backgroundHandler);
+        setRepeatingPreviewRequest(cameraCaptureCallback);
       }
 
       if (onSuccessCallback != null) {
@@ -522,12 +1011,63 @@ class Camera
     }
   }
 
+  /**
+   * Repeats the preview request. Constrained high speed sessions only accept the bursts of requests
+   * created by {@link CameraConstrainedHighSpeedCaptureSession#createHighSpeedRequestList}.
+   */
+  private void setRepeatingPreviewRequest(@Nullable CameraCaptureSession.CaptureCallback callback)
+      throws CameraAccessException {
+    if (highSpeedSession && VERSION.SDK_INT >= VERSION_CODES.M) {
+      CameraConstrainedHighSpeedCaptureSession highSpeedCaptureSession =
+          (CameraConstrainedHighSpeedCaptureSession) captureSession;
+      highSpeedCaptureSession.setRepeatingBurst(
+          highSpeedCaptureSession.createHighSpeedRequestList(previewRequestBuilder.build()),
+          callback,
+          backgroundHandler);
+    } else {
+      captureSession.setRepeatingRequest(
+          previewRequestBuilder.build(), callback, backgroundHandler);
+    }
+  }
+
+  /**
+   * Captures the preview request once, e.g. to send an auto focus trigger. Like the repeating
+   * request, constrained high speed sessions only accept a burst created by {@link
+   * CameraConstrainedHighSpeedCaptureSession#createHighSpeedRequestList}, which only sets the
+   * trigger on its first request.
+   */
+  private void capturePreviewRequest() throws CameraAccessException {
+    if (highSpeedSession && VERSION.SDK_INT >= VERSION_CODES.M) {
+      CameraConstrainedHighSpeedCaptureSession highSpeedCaptureSession =
+          (CameraConstrainedHighSpeedCaptureSession) captureSession;
+      highSpeedCaptureSession.captureBurst(
+          highSpeedCaptureSession.createHighSpeedRequestList(previewRequestBuilder.build()),
+          null,
+          backgroundHandler);
+    } else {
+      captureSession.capture(previewRequestBuilder.build(), null, backgroundHandler);
+    }
+  }
+
   public void takePicture(@NonNull final Result result) {
     // Only take one picture at a time.
     if (cameraCaptureCallback.getCameraState() != CameraState.STATE_PREVIEW) {
       result.error("captureAlreadyActive", "Picture is currently already being captured", null);
       return;
     }
+    if (highSpeedSession) {
+      result.error(
+          "captureAlreadyActive",
+          "Pictures cannot be taken while recording at a high frame rate.",
+          null);
+      return;
+    }
+
+    // Only allow as many pictures as can be held while earlier ones are still being written.
+    if (imageSaverExecutor != null && !imageSaverExecutor.hasCapacity()) {
+      result.error("captureAlreadyActive", "Too many pictures are currently being saved", null);
+      return;
+    }
 
     flutterResult = result;
 
@@ -541,6 +1081,49 @@ class Camera
       return;
     }
 
+    runStillCaptureSequence();
+  }
+
+  /**
+   * Captures a burst of still pictures and returns the list of files they were saved to.
+   *
+   * <p>Focus and exposure are only locked once, before the first frame. With an interval of 0 all
+   * frames are submitted as a single {@link CameraCaptureSession#captureBurst}, otherwise one
+   * frame is captured every {@code intervalMs} milliseconds while the preview keeps running.
+   *
+   * @param result the result that receives the list of saved files.
+   * @param count the number of pictures to take.
+   * @param intervalMs the time between two pictures in milliseconds.
+   */
+  public void takePictureBurst(@NonNull final Result result, int count, long intervalMs) {
+    if (cameraCaptureCallback.getCameraState() != CameraState.STATE_PREVIEW) {
+      result.error("captureAlreadyActive", "Picture is currently already being captured", null);
+      return;
+    }
+    if (highSpeedSession) {
+      result.error(
+          "captureAlreadyActive",
+          "Pictures cannot be taken while recording at a high frame rate.",
+          null);
+      return;
+    }
+    if (count < 1 || intervalMs < 0) {
+      result.error(
+          "invalidArgument", "The count must be positive and the interval non-negative.", null);
+      return;
+    }
+
+    flutterResult = result;
+    burstCapture = new BurstCapture(count, intervalMs, result, dartMessenger);
+    captureTimeouts.reset();
+
+    runStillCaptureSequence();
+  }
+
+  /** Locks focus and exposure for a still capture, taking the picture once they are converged. */
+  private void runStillCaptureSequence() {
+    stillCaptureStartNanos = CameraLatencyRecorder.now();
+
     // Listen for picture being taken.
     pictureImageReader.setOnImageAvailableListener(this, backgroundHandler);
 
@@ -602,12 +1185,13 @@ class Camera
     // This is the CaptureRequest.Builder that is used to take a picture.
     CaptureRequest.Builder stillBuilder;
     try {
-      stillBuilder = cameraDevice.createCaptureRequest(CameraDevice.TEMPLATE_STILL_CAPTURE);
+      stillBuilder =
+          requestBuilderCache.get(
+              cameraDevice, CameraDevice.TEMPLATE_STILL_CAPTURE, pictureImageReader.getSurface());
     } catch (CameraAccessException e) {
       dartMessenger.error(flutterResult, "cameraAccess", e.getMessage(), null);
       return;
     }
-    stillBuilder.addTarget(pictureImageReader.getSurface());
 
     // Zoom.
     stillBuilder.set(
@@ -627,8 +1211,24 @@ class Camera
             ? getDeviceOrientationManager().getPhotoOrientation()
             : getDeviceOrientationManager().getPhotoOrientation(lockedOrientation));
 
+    final BurstCapture burst = burstCapture;
+    if (burst != null) {
+      captureBurstAfterPrecapture(stillBuilder, burst);
+      return;
+    }
+
     CameraCaptureSession.CaptureCallback captureCallback =
         new CameraCaptureSession.CaptureCallback() {
+          @Override
+          public void onCaptureStarted(
+              @NonNull CameraCaptureSession session,
+              @NonNull CaptureRequest request,
+              long timestamp,
+              long frameNumber) {
+            latencyRecorder.recordSince(
+                CameraLatencyRecorder.Phase.SHUTTER_LAG, stillCaptureStartNanos);
+          }
+
           @Override
           public void onCaptureCompleted(
               @NonNull CameraCaptureSession session,
@@ -647,30 +1247,159 @@ class Camera
     }
   }
 
-  @SuppressWarnings("deprecation")
-  private Display getDefaultDisplay() {
-    return activity.getWindowManager().getDefaultDisplay();
-  }
+  /**
+   * Captures all frames of a burst. This method should be called once focus and exposure have
+   * converged for the first frame.
+   */
+  private void captureBurstAfterPrecapture(
+      @NonNull CaptureRequest.Builder stillBuilder, @NonNull BurstCapture burst) {
+    Log.i(TAG, "captureBurst | count: " + burst.getCount());
 
-  /** Starts a background thread and its {@link Handler}. */
-  public void startBackgroundThread() {
-    if (backgroundHandlerThread != null) {
-      return;
-    }
+    // 3A has already converged, so the frames must not trigger another focus or metering run.
+    stillBuilder.set(CaptureRequest.CONTROL_AF_TRIGGER, CameraMetadata.CONTROL_AF_TRIGGER_IDLE);
+    stillBuilder.set(
+        CaptureRequest.CONTROL_AE_PRECAPTURE_TRIGGER,
+        CameraMetadata.CONTROL_AE_PRECAPTURE_TRIGGER_IDLE);
+    final CaptureRequest stillRequest = stillBuilder.build();
 
-    backgroundHandlerThread = HandlerThreadFactory.create("CameraBackground");
     try {
-      backgroundHandlerThread.start();
-    } catch (IllegalThreadStateException e) {
-      // Ignore exception in case the thread has already started.
+      if (burst.getIntervalMs() == 0) {
+        captureSession.stopRepeating();
+        captureSession.captureBurst(
+            Collections.nCopies(burst.getCount(), stillRequest),
+            new CameraCaptureSession.CaptureCallback() {
+              @Override
+              public void onCaptureFailed(
+                  @NonNull CameraCaptureSession session,
+                  @NonNull CaptureRequest request,
+                  @NonNull CaptureFailure failure) {
+                onBurstFrameFailed(burst);
+              }
+
+              @Override
+              public void onCaptureSequenceCompleted(
+                  @NonNull CameraCaptureSession session, int sequenceId, long frameNumber) {
+                unlockAutoFocus();
+              }
+            },
+            backgroundHandler);
+      } else {
+        captureBurstFrame(stillRequest, burst, burst.getCount());
+      }
+    } catch (CameraAccessException | IllegalStateException e) {
+      burstCapture = null;
+      cameraCaptureCallback.setCameraState(CameraState.STATE_PREVIEW);
+      unlockAfterBurstFailure();
+      burst.fail("cameraAccess", e.getMessage());
     }
-    backgroundHandler = HandlerFactory.create(backgroundHandlerThread.getLooper());
   }
 
-  /** Stops the background thread and its {@link Handler}. */
-  public void stopBackgroundThread() {
-    if (backgroundHandlerThread != null) {
-      backgroundHandlerThread.quitSafely();
+  /**
+   * Captures a single frame of a burst with an interval and schedules the next one.
+   *
+   * @param stillRequest the request used for every frame of the burst.
+   * @param burst the burst the frame belongs to.
+   * @param remainingFrames the number of frames still to capture, including this one.
+   */
+  private void captureBurstFrame(
+      @NonNull CaptureRequest stillRequest, @NonNull BurstCapture burst, int remainingFrames)
+      throws CameraAccessException {
+    final boolean lastFrame = remainingFrames == 1;
+    captureSession.capture(
+        stillRequest,
+        new CameraCaptureSession.CaptureCallback() {
+          @Override
+          public void onCaptureCompleted(
+              @NonNull CameraCaptureSession session,
+              @NonNull CaptureRequest request,
+              @NonNull TotalCaptureResult result) {
+            if (lastFrame) {
+              unlockAutoFocus();
+            }
+          }
+
+          @Override
+          public void onCaptureFailed(
+              @NonNull CameraCaptureSession session,
+              @NonNull CaptureRequest request,
+              @NonNull CaptureFailure failure) {
+            onBurstFrameFailed(burst);
+            if (lastFrame) {
+              unlockAutoFocus();
+            }
+          }
+        },
+        backgroundHandler);
+
+    if (!lastFrame) {
+      backgroundHandler.postDelayed(
+          () -> {
+            if (burstCapture != burst) {
+              return;
+            }
+            try {
+              captureBurstFrame(stillRequest, burst, remainingFrames - 1);
+            } catch (CameraAccessException | IllegalStateException e) {
+              unlockAfterBurstFailure();
+              // The remaining frames will never produce an image.
+              for (int i = 1; i < remainingFrames; i++) {
+                onBurstFrameFailed(burst);
+              }
+            }
+          },
+          burst.getIntervalMs());
+    }
+  }
+
+  /**
+   * Releases the focus and exposure locks of a burst that could not capture all of its frames, so
+   * the preview does not stay locked until the next picture is taken.
+   */
+  private void unlockAfterBurstFailure() {
+    previewRequestBuilder.set(
+        CaptureRequest.CONTROL_AE_PRECAPTURE_TRIGGER,
+        CameraMetadata.CONTROL_AE_PRECAPTURE_TRIGGER_IDLE);
+    unlockAutoFocus();
+  }
+
+  private void onBurstFrameFailed(@NonNull BurstCapture burst) {
+    burst.onFrameFailed("captureFailed", "A frame of the burst could not be captured.");
+    if (burst.isCaptureComplete()) {
+      finishBurstCapture(burst);
+    }
+  }
+
+  private void finishBurstCapture(@NonNull BurstCapture burst) {
+    if (burstCapture == burst) {
+      burstCapture = null;
+      cameraCaptureCallback.setCameraState(CameraState.STATE_PREVIEW);
+    }
+  }
+
+  @SuppressWarnings("deprecation")
+  private Display getDefaultDisplay() {
+    return activity.getWindowManager().getDefaultDisplay();
+  }
+
+  /** Starts a background thread and its {@link Handler}. */
+  public void startBackgroundThread() {
+    if (backgroundHandlerThread != null) {
+      return;
+    }
+
+    backgroundHandlerThread = HandlerThreadFactory.create("CameraBackground");
+    try {
+      backgroundHandlerThread.start();
+    } catch (IllegalThreadStateException e) {
+      // Ignore exception in case the thread has already started.
+    }
+    backgroundHandler = HandlerFactory.create(backgroundHandlerThread.getLooper());
+  }
+
+  /** Stops the background thread and its {@link Handler}. */
+  public void stopBackgroundThread() {
+    if (backgroundHandlerThread != null) {
+      backgroundHandlerThread.quitSafely();
       try {
         backgroundHandlerThread.join();
       } catch (InterruptedException e) {
@@ -701,7 +1430,7 @@ class Camera
         CaptureRequest.CONTROL_AF_TRIGGER, CaptureRequest.CONTROL_AF_TRIGGER_START);
 
     try {
-      captureSession.capture(previewRequestBuilder.build(), null, backgroundHandler);
+      capturePreviewRequest();
     } catch (CameraAccessException e) {
       dartMessenger.sendCameraErrorEvent(e.getMessage());
     }
@@ -718,13 +1447,13 @@ class Camera
       // Cancel existing AF state.
       previewRequestBuilder.set(
           CaptureRequest.CONTROL_AF_TRIGGER, CameraMetadata.CONTROL_AF_TRIGGER_CANCEL);
-      captureSession.capture(previewRequestBuilder.build(), null, backgroundHandler);
+      capturePreviewRequest();
 
       // Set AF state to idle again.
       previewRequestBuilder.set(
           CaptureRequest.CONTROL_AF_TRIGGER, CameraMetadata.CONTROL_AF_TRIGGER_IDLE);
 
-      captureSession.capture(previewRequestBuilder.build(), null, backgroundHandler);
+      capturePreviewRequest();
     } catch (CameraAccessException e) {
       dartMessenger.sendCameraErrorEvent(e.getMessage());
       return;
@@ -737,6 +1466,33 @@ class Camera
   }
 
   public void startVideoRecording(@NonNull Result result) {
+    startVideoRecording(result, null);
+  }
+
+  /**
+   * Starts recording a video.
+   *
+   * @param result the result that is answered once recording has started.
+   * @param encodingOptions options for recording with the hardware encoder directly, or null to
+   *     record with {@link MediaRecorder} using the recording profile of the selected resolution.
+   */
+  public void startVideoRecording(
+      @NonNull Result result, @Nullable VideoEncodingOptions encodingOptions) {
+    if (encodingOptions != null && encodingOptions.usesHighSpeed()) {
+      if (Build.VERSION.SDK_INT < VERSION_CODES.M) {
+        result.error(
+            "videoRecordingFailed", "High speed recording requires Android API +23.", null);
+        return;
+      }
+      // Constrained high speed sessions only accept the preview and the recording as outputs.
+      if (streamingImages) {
+        result.error(
+            "videoRecordingFailed",
+            "Images cannot be streamed while recording at a high frame rate.",
+            null);
+        return;
+      }
+    }
     final File outputDir = applicationContext.getCacheDir();
     try {
       captureFile = File.createTempFile("REC", ".mp4", outputDir);
@@ -745,7 +1501,11 @@ class Camera
       return;
     }
     try {
-      prepareMediaRecorder(captureFile.getAbsolutePath());
+      if (encodingOptions != null) {
+        prepareMediaCodecRecorder(captureFile.getAbsolutePath(), encodingOptions);
+      } else {
+        prepareMediaRecorder(captureFile.getAbsolutePath());
+      }
     } catch (IOException e) {
       recordingVideo = false;
       captureFile = null;
@@ -755,18 +1515,61 @@ class Camera
     // Re-create autofocus feature so it's using video focus mode now.
     cameraFeatures.setAutoFocus(
         cameraFeatureFactory.createAutoFocusFeature(cameraProperties, true));
+    if (highSpeedVideoSize != null) {
+      cameraFeatures.getFpsRange().enableHighSpeed(encodingOptions.getHighSpeedFrameRate());
+    }
     recordingVideo = true;
     try {
-      createCaptureSession(
-          CameraDevice.TEMPLATE_RECORD, () -> mediaRecorder.start(), mediaRecorder.getSurface());
+      // The recording shares its session with the image stream when images are being streamed.
+      createVideoCaptureSession(this::startRecorder);
       result.success(null);
     } catch (CameraAccessException e) {
       recordingVideo = false;
       captureFile = null;
+      releaseMediaCodecRecorder();
+      disableHighSpeed();
       result.error("videoRecordingFailed", e.getMessage(), null);
     }
   }
 
+  private void disableHighSpeed() {
+    highSpeedVideoSize = null;
+    cameraFeatures.getFpsRange().disableHighSpeed();
+  }
+
+  /**
+   * Gets the frame rates at which videos can be recorded in a constrained high speed capture
+   * session.
+   *
+   * @return the supported frame rates in ascending order, empty when high speed recording is not
+   *     supported.
+   */
+  @NonNull
+  public List<Integer> getHighSpeedFrameRates() {
+    return cameraFeatures.getFpsRange().getHighSpeedFrameRates();
+  }
+
+  private Surface getRecordingSurface() {
+    return mediaCodecRecorder != null
+        ? mediaCodecRecorder.getSurface()
+        : mediaRecorder.getSurface();
+  }
+
+  private void startRecorder() {
+    if (mediaCodecRecorder != null) {
+      mediaCodecRecorder.start();
+    } else {
+      mediaRecorder.start();
+    }
+  }
+
+  private void releaseMediaCodecRecorder() {
+    if (mediaCodecRecorder != null) {
+      mediaCodecRecorder.release();
+      mediaCodecRecorder = null;
+    }
+  }
+
   public void stopVideoRecording(@NonNull final Result result) {
     if (!recordingVideo) {
       result.success(null);
@@ -776,21 +1579,54 @@ class Camera
     cameraFeatures.setAutoFocus(
         cameraFeatureFactory.createAutoFocusFeature(cameraProperties, false));
     recordingVideo = false;
+    final MediaCodecRecorder codecRecorder = mediaCodecRecorder;
+    mediaCodecRecorder = null;
     try {
       captureSession.abortCaptures();
-      mediaRecorder.stop();
+      if (codecRecorder == null) {
+        mediaRecorder.stop();
+      }
     } catch (CameraAccessException | IllegalStateException e) {
       // Ignore exceptions and try to continue (changes are camera session already aborted capture).
     }
-    mediaRecorder.reset();
+    if (codecRecorder == null) {
+      mediaRecorder.reset();
+    }
+    // Without the recording, the image stream can use the preview resolution again.
+    imageStreamFallbackIndex = -1;
+    // The recorder surface has been abandoned, so the session cannot be reused.
+    closeCaptureSession();
+    disableHighSpeed();
+    final String filePath = captureFile.getAbsolutePath();
+    captureFile = null;
+    String previewError = null;
     try {
-      startPreview();
+      if (streamingImages) {
+        createVideoCaptureSession(null);
+      } else {
+        startPreview();
+      }
     } catch (CameraAccessException | IllegalStateException e) {
-      result.error("videoRecordingFailed", e.getMessage(), null);
-      return;
+      previewError = e.getMessage();
+    }
+
+    if (codecRecorder != null) {
+      // The encoders are drained and the file is finalized on a background thread.
+      final String error = previewError;
+      codecRecorder.stop(
+          recorderError -> {
+            if (error != null || recorderError != null) {
+              dartMessenger.error(
+                  result, "videoRecordingFailed", error != null ? error : recorderError, null);
+            } else {
+              dartMessenger.finish(result, filePath);
+            }
+          });
+    } else if (previewError != null) {
+      result.error("videoRecordingFailed", previewError, null);
+    } else {
+      result.success(filePath);
     }
-    result.success(captureFile.getAbsolutePath());
-    captureFile = null;
   }
 
   public void pauseVideoRecording(@NonNull final Result result) {
@@ -800,7 +1636,9 @@ class Camera
     }
 
     try {
-      if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+      if (mediaCodecRecorder != null) {
+        mediaCodecRecorder.pause();
+      } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
         mediaRecorder.pause();
       } else {
         result.error("videoRecordingFailed", "pauseVideoRecording requires Android API +24.", null);
@@ -821,7 +1659,9 @@ class Camera
     }
 
     try {
-      if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+      if (mediaCodecRecorder != null) {
+        mediaCodecRecorder.resume();
+      } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
         mediaRecorder.resume();
       } else {
         result.error(
@@ -932,8 +1772,7 @@ class Camera
               CaptureRequest.CONTROL_AF_TRIGGER, CameraMetadata.CONTROL_AF_TRIGGER_IDLE);
 
           try {
-            captureSession.setRepeatingRequest(
-                previewRequestBuilder.build(), null, backgroundHandler);
+            setRepeatingPreviewRequest(null);
           } catch (CameraAccessException e) {
             if (result != null) {
               result.error(
@@ -1042,6 +1881,170 @@ class Camera
         (code, message) -> result.error("setZoomLevelFailed", "Could not set zoom level.", null));
   }
 
+  /**
+   * Applies several settings at once and refreshes the preview with a single repeating request.
+   *
+   * <p>The settings that can be out of range or unsupported by the camera, the zoom level, the
+   * exposure offset and the exposure and focus points, are validated before any setting is
+   * applied, so an invalid setting leaves all settings unchanged.
+   *
+   * @param result Flutter result.
+   * @param update the settings to change.
+   */
+  public void updateSettings(@NonNull final Result result, @NonNull CameraSettingsUpdate update) {
+    if (!validateSettingsUpdate(result, update)) {
+      return;
+    }
+
+    final Float zoom = update.getZoomLevel();
+    if (update.getFlashMode() != null) {
+      updateFeature(cameraFeatures.getFlash(), update.getFlashMode());
+    }
+    if (update.getExposureMode() != null) {
+      updateFeature(cameraFeatures.getExposureLock(), update.getExposureMode());
+    }
+    if (update.getExposurePoint() != null) {
+      updateFeature(cameraFeatures.getExposurePoint(), update.getExposurePoint());
+    }
+    if (update.getExposureOffset() != null) {
+      updateFeature(cameraFeatures.getExposureOffset(), update.getExposureOffset());
+    }
+    if (update.getFocusMode() != null) {
+      updateFeature(cameraFeatures.getAutoFocus(), update.getFocusMode());
+    }
+    if (update.getFocusPoint() != null) {
+      updateFeature(cameraFeatures.getFocusPoint(), update.getFocusPoint());
+    }
+    if (zoom != null) {
+      updateFeature(cameraFeatures.getZoomLevel(), zoom);
+    }
+
+    // Like setFocusMode, restart or lock the focus so it moves into the state of the new mode. The
+    // trigger is sent as a single capture, the repeating request below keeps the trigger idle.
+    if (update.updatesFocus() && !pausedPreview && captureSession != null) {
+      final int trigger =
+          cameraFeatures.getAutoFocus().getValue() == FocusMode.locked
+              ? CameraMetadata.CONTROL_AF_TRIGGER_START
+              : CameraMetadata.CONTROL_AF_TRIGGER_CANCEL;
+      try {
+        previewRequestBuilder.set(CaptureRequest.CONTROL_AF_TRIGGER, trigger);
+        capturePreviewRequest();
+      } catch (CameraAccessException e) {
+        result.error("updateSettingsFailed", "Error updating focus: " + e.getMessage(), null);
+        return;
+      } finally {
+        previewRequestBuilder.set(
+            CaptureRequest.CONTROL_AF_TRIGGER, CameraMetadata.CONTROL_AF_TRIGGER_IDLE);
+      }
+    }
+
+    refreshPreviewCaptureSession(
+        () -> result.success(null),
+        (code, message) ->
+            result.error("updateSettingsFailed", "Could not update camera settings.", null));
+  }
+
+  /**
+   * Checks the settings of an {@link #updateSettings} call that can be out of range or unsupported
+   * by the camera, and answers the result with an error for the first invalid one.
+   *
+   * @return true when every setting can be applied.
+   */
+  private boolean validateSettingsUpdate(
+      @NonNull final Result result, @NonNull CameraSettingsUpdate update) {
+    final Float zoom = update.getZoomLevel();
+    if (zoom != null) {
+      final ZoomLevelFeature zoomLevel = cameraFeatures.getZoomLevel();
+      float maxZoom = zoomLevel.getMaximumZoomLevel();
+      float minZoom = zoomLevel.getMinimumZoomLevel();
+      if (zoom > maxZoom || zoom < minZoom) {
+        String errorMessage =
+            String.format(
+                Locale.ENGLISH,
+                "Zoom level out of bounds (zoom level should be between %f and %f).",
+                minZoom,
+                maxZoom);
+        result.error("ZOOM_ERROR", errorMessage, null);
+        return false;
+      }
+    }
+
+    final Double exposureOffset = update.getExposureOffset();
+    if (exposureOffset != null) {
+      final ExposureOffsetFeature exposureOffsetFeature = cameraFeatures.getExposureOffset();
+      double minOffset = exposureOffsetFeature.getMinExposureOffset();
+      double maxOffset = exposureOffsetFeature.getMaxExposureOffset();
+      if (exposureOffset < minOffset || exposureOffset > maxOffset) {
+        String errorMessage =
+            String.format(
+                Locale.ENGLISH,
+                "Exposure offset out of bounds (offset should be between %f and %f).",
+                minOffset,
+                maxOffset);
+        result.error("updateSettingsFailed", errorMessage, null);
+        return false;
+      }
+    }
+
+    if (update.getExposurePoint() != null
+        && !cameraFeatures.getExposurePoint().checkIsSupported()) {
+      result.error(
+          "updateSettingsFailed", "Setting an exposure point is not supported by the camera.", null);
+      return false;
+    }
+    if (update.getFocusPoint() != null && !cameraFeatures.getFocusPoint().checkIsSupported()) {
+      result.error(
+          "updateSettingsFailed", "Setting a focus point is not supported by the camera.", null);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Queues a zoom level and focus point update of a gesture from dart, like a pinch to zoom.
+   *
+   * <p>Unlike {@link #setZoomLevel} and {@link #setFocusPoint}, updates that arrive faster than the
+   * camera produces frames are coalesced, so at most one repeating request is sent per preview
+   * frame. The zoom level is clamped to the supported range instead of being rejected, and the
+   * focus is not triggered again, so a locked focus only moves to the new point once {@link
+   * #setFocusPoint} is called.
+   *
+   * @param zoomLevel the new zoom level, or null to keep the current zoom level.
+   * @param focusPoint the new focus point, or null to keep the current focus point.
+   */
+  public void updateGesture(@Nullable Float zoomLevel, @Nullable Point focusPoint) {
+    gestureUpdates.update(zoomLevel, focusPoint);
+  }
+
+  private void applyGestureUpdate(@Nullable Float zoom, @Nullable Point focusPoint) {
+    if (zoom != null) {
+      final ZoomLevelFeature zoomLevel = cameraFeatures.getZoomLevel();
+      updateFeature(
+          zoomLevel,
+          MathUtils.clamp(zoom, zoomLevel.getMinimumZoomLevel(), zoomLevel.getMaximumZoomLevel()));
+    }
+    if (focusPoint != null) {
+      updateFeature(cameraFeatures.getFocusPoint(), focusPoint);
+    }
+
+    refreshPreviewCaptureSession(
+        null, (code, message) -> dartMessenger.sendCameraErrorEvent(message));
+  }
+
+  /** Informs the consumers of completed preview frames. Called on the background thread. */
+  private void onFrameCaptured(long sensorTimestampNanos) {
+    final AdaptivePreviewResolution adaptive = adaptivePreviewResolution;
+    if (adaptive != null) {
+      adaptive.onFrame(sensorTimestampNanos);
+    }
+    gestureUpdates.onFrameCaptured();
+  }
+
+  private <T> void updateFeature(@NonNull CameraFeature<T> feature, @NonNull T value) {
+    feature.setValue(value);
+    feature.updateBuilder(previewRequestBuilder);
+  }
+
   /**
    * Lock capture orientation from dart.
    *
@@ -1073,28 +2076,237 @@ class Camera
     if (pictureImageReader == null || pictureImageReader.getSurface() == null) return;
     Log.i(TAG, "startPreview");
 
-    createCaptureSession(CameraDevice.TEMPLATE_PREVIEW, pictureImageReader.getSurface());
+    if (imageStreamReader == null || !imageStreamInPreviewSession) {
+      createCaptureSession(CameraDevice.TEMPLATE_PREVIEW, pictureImageReader.getSurface());
+      return;
+    }
+
+    // Also configure the image stream reader, so image streams can be started and stopped by only
+    // replacing the repeating request. A preview, a YUV stream at preview size and a JPEG stream
+    // are a guaranteed combination, but some resolution presets exceed the preview size.
+    createCaptureSession(
+        CameraDevice.TEMPLATE_PREVIEW,
+        null,
+        () -> {
+          imageStreamInPreviewSession = false;
+          try {
+            startPreview();
+          } catch (CameraAccessException e) {
+            dartMessenger.sendCameraErrorEvent(e.getMessage());
+          }
+        },
+        pictureImageReader.getSurface(),
+        imageStreamReader.getSurface());
   }
 
-  public void startPreviewWithImageStream(EventChannel imageStreamChannel)
+  /**
+   * Starts streaming images, while recording a video as well.
+   *
+   * <p>Adding the image stream reader to the session of a recording would require a new session,
+   * which drops recorded frames. So while recording, images can only be streamed when the session
+   * was configured with the image stream reader, i.e. the image stream was started before the
+   * recording.
+   */
+  public void startPreviewWithImageStream(
+      EventChannel imageStreamChannel, @NonNull ImageStreamOptions imageStreamOptions)
       throws CameraAccessException {
-    createCaptureSession(CameraDevice.TEMPLATE_RECORD, imageStreamReader.getSurface());
+    if (highSpeedVideoSize != null) {
+      // Constrained high speed sessions only accept the preview and the recording as outputs.
+      throw new CameraAccessException(
+          CameraAccessException.CAMERA_ERROR,
+          "Images cannot be streamed while recording at a high frame rate.");
+    }
+    if (recordingVideo
+        && (imageStreamReader == null
+            || !sessionSurfaces.contains(imageStreamReader.getSurface()))) {
+      throw new CameraAccessException(
+          CameraAccessException.CAMERA_ERROR,
+          "Images can only be streamed while recording when the image stream was started before "
+              + "the recording.");
+    }
+    streamingImages = true;
+    try {
+      createVideoCaptureSession(null);
+    } catch (CameraAccessException e) {
+      streamingImages = false;
+      throw e;
+    }
     Log.i(TAG, "startPreviewWithImageStream");
 
     imageStreamChannel.setStreamHandler(
         new EventChannel.StreamHandler() {
           @Override
           public void onListen(Object o, EventChannel.EventSink imageStreamSink) {
-            setImageStreamImageAvailableListener(imageStreamSink);
+            setImageStreamImageAvailableListener(imageStreamSink, imageStreamOptions);
           }
 
           @Override
           public void onCancel(Object o) {
             imageStreamReader.setOnImageAvailableListener(null, backgroundHandler);
+            imageStreamSink = null;
+            if (imageStreamFlowController != null) {
+              imageStreamFlowController.stop();
+              imageStreamFlowController = null;
+            }
           }
         });
   }
 
+  /**
+   * Stops requesting image stream frames.
+   *
+   * <p>While recording a video, the recording continues in the current capture session and only the
+   * image stream reader is no longer targeted. Otherwise the preview session is restored.
+   */
+  public void stopImageStream() throws CameraAccessException {
+    streamingImages = false;
+    if (recordingVideo) {
+      createVideoCaptureSession(null);
+    } else {
+      startPreview();
+    }
+  }
+
+  /**
+   * Enables or disables adapting the preview resolution at runtime.
+   *
+   * <p>While enabled, the preview and image stream resolution is stepped down to the resolution of
+   * a lower {@link ResolutionPreset} when frames arrive considerably slower than the target frame
+   * rate or when the device reports a severe thermal status, and stepped back up once frames keep
+   * up again. Every change is reported to Dart. The resolution is not changed while a video is
+   * recorded or a picture is taken. Switching cameras keeps the setting, starting from the preview
+   * resolution of the new camera.
+   *
+   * @param enabled whether the preview resolution should be adapted.
+   */
+  public void setAdaptivePreviewResolution(boolean enabled) {
+    if (enabled == (adaptivePreviewResolution != null)) {
+      return;
+    }
+
+    ResolutionFeature resolutionFeature = cameraFeatures.getResolution();
+    if (!enabled) {
+      stopThermalStatusListener();
+      adaptivePreviewResolution = null;
+      Size size = resolutionFeature.getPreviewSize();
+      resolutionFeature.setPreviewSizeOverride(null);
+      Size defaultSize = resolutionFeature.getPreviewSize();
+      if (!defaultSize.equals(size) && !recordingVideo) {
+        reconfigurePreviewSession();
+        dartMessenger.sendPreviewResolutionChangedEvent(
+            defaultSize.getWidth(), defaultSize.getHeight(), "disabled");
+      }
+      return;
+    }
+
+    List<Size> sizes = resolutionFeature.getAdaptivePreviewSizes();
+    if (sizes.size() < 2) {
+      Log.i(TAG, "No lower preview resolution available, the preview resolution is not adapted.");
+      return;
+    }
+    // Steps of an instance that has been replaced, e.g. by switching cameras, are ignored.
+    final AtomicReference<AdaptivePreviewResolution> adaptive = new AtomicReference<>();
+    adaptive.set(
+        new AdaptivePreviewResolution(
+            sizes,
+            getTargetFrameRate(),
+            (size, reason) ->
+                mainHandler.post(
+                    () -> applyAdaptivePreviewSize(adaptive.get(), size, reason.toString()))));
+    adaptivePreviewResolution = adaptive.get();
+    if (VERSION.SDK_INT >= VERSION_CODES.Q) {
+      startThermalStatusListener();
+    }
+  }
+
+  private int getTargetFrameRate() {
+    Range<Integer> fpsRange = cameraFeatures.getFpsRange().getValue();
+    return fpsRange != null && fpsRange.getUpper() > 0 ? fpsRange.getUpper() : 30;
+  }
+
+  private void applyAdaptivePreviewSize(
+      @NonNull AdaptivePreviewResolution adaptive, @NonNull Size size, @NonNull String reason) {
+    if (adaptive != adaptivePreviewResolution || cameraDevice == null) {
+      return;
+    }
+
+    ResolutionFeature resolutionFeature = cameraFeatures.getResolution();
+    // A recording and a picture in progress depend on the outputs of the current session.
+    if (recordingVideo
+        || pausedPreview
+        || burstCapture != null
+        || cameraCaptureCallback.getCameraState() != CameraState.STATE_PREVIEW) {
+      adaptive.setCurrentSize(resolutionFeature.getPreviewSize());
+      return;
+    }
+
+    resolutionFeature.setPreviewSizeOverride(size);
+    reconfigurePreviewSession();
+    // Frames stop while the session is configured, which is not a sign of a slow preview.
+    adaptive.reset();
+    dartMessenger.sendPreviewResolutionChangedEvent(size.getWidth(), size.getHeight(), reason);
+  }
+
+  /** Creates a new capture session, so the preview and image stream use the new preview size. */
+  private void reconfigurePreviewSession() {
+    // Reusing the session would keep the buffer size the preview surface was configured with.
+    closeCaptureSession();
+    // The preview size is only adapted while nothing is recorded, so the image stream no longer
+    // needs a smaller fallback size and is rebuilt at the adapted preview size.
+    imageStreamFallbackIndex = -1;
+    try {
+      if (imageStreamReader != null) {
+        updateImageStreamSize();
+      }
+      if (streamingImages) {
+        createVideoCaptureSession(null);
+      } else {
+        startPreview();
+      }
+    } catch (CameraAccessException | IllegalStateException e) {
+      dartMessenger.sendCameraErrorEvent(e.getMessage());
+    }
+  }
+
+  @TargetApi(VERSION_CODES.Q)
+  private void startThermalStatusListener() {
+    PowerManager powerManager = applicationContext.getSystemService(PowerManager.class);
+    if (powerManager == null) {
+      return;
+    }
+    thermalStatusListener =
+        status -> {
+          final AdaptivePreviewResolution adaptive = adaptivePreviewResolution;
+          if (adaptive != null) {
+            adaptive.onThermalStatusChanged(status);
+          }
+        };
+    thermalStatusListener.onThermalStatusChanged(powerManager.getCurrentThermalStatus());
+    powerManager.addThermalStatusListener(thermalStatusListener);
+  }
+
+  private void stopThermalStatusListener() {
+    if (thermalStatusListener == null || VERSION.SDK_INT < VERSION_CODES.Q) {
+      return;
+    }
+    PowerManager powerManager = applicationContext.getSystemService(PowerManager.class);
+    if (powerManager != null) {
+      powerManager.removeThermalStatusListener(thermalStatusListener);
+    }
+    thermalStatusListener = null;
+  }
+
+  /**
+   * Acknowledges that Dart finished processing an image stream frame, allowing the next frame to be
+   * sent when flow control is enabled.
+   */
+  public void receivedImageStreamData() {
+    final ImageStreamFlowController flowController = imageStreamFlowController;
+    if (flowController != null) {
+      flowController.onFrameProcessed();
+    }
+  }
+
   /**
    * This a callback object for the {@link ImageReader}. "onImageAvailable" will be called when a
    * still image is ready to be saved.
@@ -1102,67 +2314,106 @@ class Camera
   @Override
   public void onImageAvailable(ImageReader reader) {
     Log.i(TAG, "onImageAvailable");
+    savePendingPictures();
+  }
 
-    backgroundHandler.post(
-        new ImageSaver(
-            // Use acquireNextImage since image reader is only for one image.
-            reader.acquireNextImage(),
-            captureFile,
-            new ImageSaver.Callback() {
-              @Override
-              public void onComplete(String absolutePath) {
-                dartMessenger.finish(flutterResult, absolutePath);
-              }
+  /**
+   * Hands captured images to the writer threads, for as long as they can accept more. Images that
+   * do not fit stay in the {@link #pictureImageReader} until an earlier image has been written.
+   */
+  private void savePendingPictures() {
+    final ImageReader reader = pictureImageReader;
+    final ImageSaverExecutor executor = imageSaverExecutor;
+    if (reader == null || executor == null) {
+      return;
+    }
 
-              @Override
-              public void onError(String errorCode, String errorMessage) {
-                dartMessenger.error(flutterResult, errorCode, errorMessage, null);
-              }
-            }));
+    while (executor.hasCapacity()) {
+      final Image image = reader.acquireNextImage();
+      if (image == null) {
+        return;
+      }
+
+      final BurstCapture burst = burstCapture;
+      if (burst != null) {
+        saveBurstPicture(image, burst, executor);
+      } else {
+        savePicture(image, executor);
+      }
+    }
+  }
+
+  private void savePicture(@NonNull Image image, @NonNull ImageSaverExecutor executor) {
+    // The next picture may be taken while this one is still being written, so hold on to the
+    // result and file that belong to this capture.
+    final MethodChannel.Result result = flutterResult;
+    final File file = captureFile;
+
+    executor.save(
+        image,
+        file,
+        new ImageSaver.Callback() {
+          @Override
+          public void onComplete(String absolutePath) {
+            dartMessenger.finish(result, absolutePath);
+          }
+
+          @Override
+          public void onError(String errorCode, String errorMessage) {
+            dartMessenger.error(result, errorCode, errorMessage, null);
+          }
+        });
     cameraCaptureCallback.setCameraState(CameraState.STATE_PREVIEW);
   }
 
-  private void setImageStreamImageAvailableListener(final EventChannel.EventSink imageStreamSink) {
+  private void saveBurstPicture(
+      @NonNull Image image, @NonNull BurstCapture burst, @NonNull ImageSaverExecutor executor) {
+    final ImageSaver.Callback callback = burst.onFrameCaptured();
+    try {
+      final File file = File.createTempFile("CAP", ".jpg", applicationContext.getCacheDir());
+      executor.save(image, file, callback);
+    } catch (IOException | SecurityException e) {
+      image.close();
+      callback.onError("cannotCreateFile", e.getMessage());
+    }
+
+    if (burst.isCaptureComplete()) {
+      finishBurstCapture(burst);
+    }
+  }
+
+  private void setImageStreamImageAvailableListener(
+      final EventChannel.EventSink imageStreamSink,
+      @NonNull ImageStreamOptions imageStreamOptions) {
+    this.imageStreamSink = imageStreamSink;
+    imageStreamFlowController =
+        new ImageStreamFlowController(
+            mainHandler, imageStreamOptions, dartMessenger::sendImageStreamFramesDroppedEvent);
+    attachImageStreamListener();
+  }
+
+  private void attachImageStreamListener() {
+    final ImageStreamFlowController flowController = imageStreamFlowController;
+    final EventChannel.EventSink imageStreamSink = this.imageStreamSink;
+
     imageStreamReader.setOnImageAvailableListener(
         reader -> {
           Image img = reader.acquireNextImage();
           // Use acquireNextImage since image reader is only for one image.
           if (img == null) return;
 
-          List<Map<String, Object>> planes = new ArrayList<>();
-          for (Image.Plane plane : img.getPlanes()) {
-            ByteBuffer buffer = plane.getBuffer();
-
-            byte[] bytes = new byte[buffer.remaining()];
-            buffer.get(bytes, 0, bytes.length);
-
-            Map<String, Object> planeBuffer = new HashMap<>();
-            planeBuffer.put("bytesPerRow", plane.getRowStride());
-            planeBuffer.put("bytesPerPixel", plane.getPixelStride());
-            planeBuffer.put("bytes", bytes);
-
-            planes.add(planeBuffer);
-          }
-
-          Map<String, Object> imageBuffer = new HashMap<>();
-          imageBuffer.put("width", img.getWidth());
-          imageBuffer.put("height", img.getHeight());
-          imageBuffer.put("format", img.getFormat());
-          imageBuffer.put("planes", planes);
-          imageBuffer.put("lensAperture", this.captureProps.getLastLensAperture());
-          imageBuffer.put("sensorExposureTime", this.captureProps.getLastSensorExposureTime());
-          Integer sensorSensitivity = this.captureProps.getLastSensorSensitivity();
-          imageBuffer.put(
-              "sensorSensitivity", sensorSensitivity == null ? null : (double) sensorSensitivity);
-
-          final Handler handler = new Handler(Looper.getMainLooper());
-          handler.post(() -> imageStreamSink.success(imageBuffer));
+          flowController.onImageAvailable(
+              img, captureProps.getSnapshot(img.getTimestamp()), imageStreamSink);
           img.close();
         },
         backgroundHandler);
   }
 
   private void closeCaptureSession() {
+    gestureUpdates.reset();
+    sessionSurfaces = Collections.emptyList();
+    previewSurface = null;
+    highSpeedSession = false;
     if (captureSession != null) {
       Log.i(TAG, "closeCaptureSession");
 
@@ -1173,16 +2424,34 @@ class Camera
 
   public void close() {
     Log.i(TAG, "close");
+    finishSwitchCamera("The camera was closed before it finished opening.");
     closeCaptureSession();
+    final AdaptivePreviewResolution adaptive = adaptivePreviewResolution;
+    if (adaptive != null) {
+      adaptive.reset();
+    }
 
     if (cameraDevice != null) {
       cameraDevice.close();
       cameraDevice = null;
     }
+    if (burstCapture != null) {
+      burstCapture.fail("cameraAccess", "The camera was closed during a burst capture.");
+      burstCapture = null;
+    }
     if (pictureImageReader != null) {
-      pictureImageReader.close();
+      // Let pending images finish writing before their reader is closed.
+      final ImageReader reader = pictureImageReader;
+      if (imageSaverExecutor != null) {
+        imageSaverExecutor.shutdown(reader::close);
+      } else {
+        reader.close();
+      }
       pictureImageReader = null;
+    } else if (imageSaverExecutor != null) {
+      imageSaverExecutor.shutdown(null);
     }
+    imageSaverExecutor = null;
     if (imageStreamReader != null) {
       imageStreamReader.close();
       imageStreamReader = null;
@@ -1192,6 +2461,7 @@ class Camera
       mediaRecorder.release();
       mediaRecorder = null;
     }
+    releaseMediaCodecRecorder();
 
     stopBackgroundThread();
   }
@@ -1200,6 +2470,7 @@ class Camera
     Log.i(TAG, "dispose");
 
     close();
+    stopThermalStatusListener();
     flutterTexture.release();
     getDeviceOrientationManager().stop();
   }
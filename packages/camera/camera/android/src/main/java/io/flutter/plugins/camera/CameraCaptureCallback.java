@@ -11,7 +11,9 @@ import android.hardware.camera2.CaptureResult;
 import android.hardware.camera2.TotalCaptureResult;
 import android.util.Log;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import io.flutter.plugins.camera.types.CameraCaptureProperties;
+import io.flutter.plugins.camera.types.CaptureResultSnapshot;
 import io.flutter.plugins.camera.types.CaptureTimeoutsWrapper;
 
 /**
@@ -24,6 +26,8 @@ class CameraCaptureCallback extends CaptureCallback {
   private CameraState cameraState;
   private final CaptureTimeoutsWrapper captureTimeouts;
   private final CameraCaptureProperties captureProps;
+  @Nullable private volatile Runnable onNextCaptureCompletedListener;
+  @Nullable private volatile OnFrameCapturedListener onFrameCapturedListener;
 
   private CameraCaptureCallback(
       @NonNull CameraCaptureStateListener cameraStateListener,
@@ -68,21 +72,53 @@ class CameraCaptureCallback extends CaptureCallback {
     cameraState = state;
   }
 
-  private void process(CaptureResult result) {
-    Integer aeState = result.get(CaptureResult.CONTROL_AE_STATE);
-    Integer afState = result.get(CaptureResult.CONTROL_AF_STATE);
+  /**
+   * Sets a listener that is called once, when the next capture completes.
+   *
+   * @param listener the listener to call, or null to remove a pending listener.
+   */
+  public void setOnNextCaptureCompletedListener(@Nullable Runnable listener) {
+    onNextCaptureCompletedListener = listener;
+  }
+
+  /**
+   * Sets a listener that is informed about the sensor timestamp of every completed capture.
+   *
+   * @param listener the listener to inform, or null to stop informing a listener.
+   */
+  public void setOnFrameCapturedListener(@Nullable OnFrameCapturedListener listener) {
+    onFrameCapturedListener = listener;
+  }
 
+  private void process(CaptureResult result) {
     // Update capture properties
     if (result instanceof TotalCaptureResult) {
-      Float lensAperture = result.get(CaptureResult.LENS_APERTURE);
-      Long sensorExposureTime = result.get(CaptureResult.SENSOR_EXPOSURE_TIME);
-      Integer sensorSensitivity = result.get(CaptureResult.SENSOR_SENSITIVITY);
-      this.captureProps.setLastLensAperture(lensAperture);
-      this.captureProps.setLastSensorExposureTime(sensorExposureTime);
-      this.captureProps.setLastSensorSensitivity(sensorSensitivity);
+      Long sensorTimestamp = result.get(CaptureResult.SENSOR_TIMESTAMP);
+      this.captureProps.publish(
+          new CaptureResultSnapshot(
+              result.get(CaptureResult.LENS_APERTURE),
+              result.get(CaptureResult.SENSOR_EXPOSURE_TIME),
+              result.get(CaptureResult.SENSOR_SENSITIVITY),
+              result.getFrameNumber(),
+              sensorTimestamp == null ? 0 : sensorTimestamp));
+
+      final OnFrameCapturedListener frameListener = onFrameCapturedListener;
+      if (frameListener != null && sensorTimestamp != null) {
+        frameListener.onFrameCaptured(sensorTimestamp);
+      }
+    }
+
+    // Focus and exposure states are only needed while a picture is being taken, so skip looking
+    // them up for every preview frame.
+    if (cameraState == CameraState.STATE_PREVIEW) {
+      return;
     }
 
-    if (cameraState != CameraState.STATE_PREVIEW) {
+    Integer aeState = result.get(CaptureResult.CONTROL_AE_STATE);
+    Integer afState = result.get(CaptureResult.CONTROL_AF_STATE);
+
+    // Avoid building the message for every frame unless debug logging was enabled for the tag.
+    if (Log.isLoggable(TAG, Log.DEBUG)) {
       Log.d(
           TAG,
           "CameraCaptureCallback | state: "
@@ -166,6 +202,11 @@ class CameraCaptureCallback extends CaptureCallback {
       @NonNull CameraCaptureSession session,
       @NonNull CaptureRequest request,
       @NonNull TotalCaptureResult result) {
+    final Runnable listener = onNextCaptureCompletedListener;
+    if (listener != null) {
+      onNextCaptureCompletedListener = null;
+      listener.run();
+    }
     process(result);
   }
 
@@ -180,4 +221,14 @@ class CameraCaptureCallback extends CaptureCallback {
      */
     void onPrecapture();
   }
+
+  /** Informed about every capture completed by the camera device. */
+  interface OnFrameCapturedListener {
+    /**
+     * Called when a capture has completed.
+     *
+     * @param sensorTimestampNanos the time the sensor started exposing the frame, in nanoseconds.
+     */
+    void onFrameCaptured(long sensorTimestampNanos);
+  }
 }
@@ -0,0 +1,142 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera;
+
+import android.content.Context;
+import android.hardware.camera2.CameraAccessException;
+import android.hardware.camera2.CameraCharacteristics;
+import android.hardware.camera2.CameraManager;
+import android.hardware.camera2.CameraMetadata;
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of the camera id list and the {@link CameraCharacteristics} of each camera.
+ *
+ * <p>Querying characteristics requires a call into the camera service, which adds noticeable
+ * latency when cameras are enumerated and opened repeatedly. The characteristics of a built-in
+ * camera never change, so they are kept for the lifetime of the process. Once {@link
+ * #startMonitoring(Context)} has been called, the cache listens to camera availability changes and
+ * forgets the id list and the characteristics of external cameras as they are connected or
+ * disconnected.
+ */
+final class CameraCharacteristicsCache extends CameraManager.AvailabilityCallback {
+  private static final CameraCharacteristicsCache instance = new CameraCharacteristicsCache();
+
+  private final Map<String, CameraCharacteristics> characteristics = new ConcurrentHashMap<>();
+  @Nullable private volatile String[] cameraIdList;
+  private boolean monitoring;
+
+  @VisibleForTesting
+  CameraCharacteristicsCache() {}
+
+  /**
+   * Gets the process-wide cache instance.
+   *
+   * @return the {@link CameraCharacteristicsCache} singleton.
+   */
+  @NonNull
+  static CameraCharacteristicsCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * Starts listening to camera availability changes, unless the cache is already doing so.
+   *
+   * <p>The callback is registered with the {@link CameraManager} of the application context, so the
+   * cache never holds on to an activity.
+   *
+   * @param context any context of the application.
+   */
+  synchronized void startMonitoring(@NonNull Context context) {
+    if (monitoring) {
+      return;
+    }
+
+    Context applicationContext = context.getApplicationContext();
+    if (applicationContext == null) {
+      return;
+    }
+
+    CameraUtils.getCameraManager(applicationContext)
+        .registerAvailabilityCallback(this, new Handler(Looper.getMainLooper()));
+    monitoring = true;
+  }
+
+  /**
+   * Gets the ids of the cameras connected to the device.
+   *
+   * @param cameraManager the manager used when the list is not cached yet.
+   * @return the camera ids, as returned by {@link CameraManager#getCameraIdList()}.
+   * @throws CameraAccessException when the camera service could not be reached.
+   */
+  @NonNull
+  String[] getCameraIdList(@NonNull CameraManager cameraManager) throws CameraAccessException {
+    String[] ids = cameraIdList;
+    if (ids == null) {
+      ids = cameraManager.getCameraIdList();
+      cameraIdList = ids;
+    }
+    return ids;
+  }
+
+  /**
+   * Gets the characteristics of the supplied camera.
+   *
+   * @param cameraManager the manager used when the characteristics are not cached yet.
+   * @param cameraId the id of the camera.
+   * @return the characteristics of the camera.
+   * @throws CameraAccessException when the camera service could not be reached.
+   */
+  @NonNull
+  CameraCharacteristics getCameraCharacteristics(
+      @NonNull CameraManager cameraManager, @NonNull String cameraId)
+      throws CameraAccessException {
+    CameraCharacteristics cameraCharacteristics = characteristics.get(cameraId);
+    if (cameraCharacteristics == null) {
+      cameraCharacteristics = cameraManager.getCameraCharacteristics(cameraId);
+      characteristics.put(cameraId, cameraCharacteristics);
+    }
+    return cameraCharacteristics;
+  }
+
+  /** Forgets all cached values. */
+  void invalidate() {
+    cameraIdList = null;
+    characteristics.clear();
+  }
+
+  @Override
+  public void onCameraAvailable(@NonNull String cameraId) {
+    // A camera that is not in the list has just been connected.
+    String[] ids = cameraIdList;
+    if (ids != null && !Arrays.asList(ids).contains(cameraId)) {
+      cameraIdList = null;
+      characteristics.remove(cameraId);
+    }
+  }
+
+  @Override
+  public void onCameraUnavailable(@NonNull String cameraId) {
+    // Built-in cameras become unavailable whenever they are opened, which does not affect their
+    // characteristics. Only external cameras can also be disconnected.
+    CameraCharacteristics cameraCharacteristics = characteristics.get(cameraId);
+    if (cameraCharacteristics == null) {
+      return;
+    }
+
+    Integer lensFacing = cameraCharacteristics.get(CameraCharacteristics.LENS_FACING);
+    if (lensFacing != null && lensFacing == CameraMetadata.LENS_FACING_EXTERNAL) {
+      cameraIdList = null;
+      characteristics.remove(cameraId);
+    }
+  }
+}
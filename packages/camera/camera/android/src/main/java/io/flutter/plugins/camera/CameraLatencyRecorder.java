@@ -0,0 +1,160 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera;
+
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records how long the phases of opening a camera and taking a picture take, and aggregates the
+ * most recent durations of each phase into percentiles.
+ *
+ * <p>Timestamps are taken from {@link SystemClock#elapsedRealtimeNanos()}, which is monotonic and
+ * keeps counting while the device sleeps.
+ */
+class CameraLatencyRecorder {
+  /** The number of most recent durations each phase keeps for its percentiles. */
+  @VisibleForTesting static final int MAX_SAMPLES = 100;
+
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  /** The phases whose durations are recorded. */
+  enum Phase {
+    /** From requesting the camera to open until the device is opened. */
+    DEVICE_OPEN("deviceOpen"),
+    /** From the device being opened until the capture session is configured. */
+    SESSION_CONFIGURATION("sessionConfiguration"),
+    /** From the capture session being configured until the first preview frame is captured. */
+    FIRST_FRAME("firstFrame"),
+    /** From requesting the camera to open until the first preview frame is captured. */
+    TIME_TO_FIRST_FRAME("timeToFirstFrame"),
+    /** From requesting a picture until focus and exposure have converged. */
+    PRECAPTURE("precapture"),
+    /** From requesting a picture until the sensor starts exposing it. */
+    SHUTTER_LAG("shutterLag"),
+    /** From handing a JPEG image to the writers until it has been written to disk. */
+    IMAGE_SAVE("imageSave");
+
+    private final String name;
+
+    Phase(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  private final Map<Phase, Samples> samples = new EnumMap<>(Phase.class);
+
+  /**
+   * Gets the current monotonic timestamp, to be used as the start of a phase.
+   *
+   * @return the timestamp in nanoseconds.
+   */
+  static long now() {
+    return SystemClock.elapsedRealtimeNanos();
+  }
+
+  /**
+   * Records a phase that started at the supplied timestamp and ends now.
+   *
+   * @param phase the phase that was measured.
+   * @param startNanos the timestamp returned by {@link #now()} when the phase started, ignored when
+   *     0.
+   */
+  void recordSince(@NonNull Phase phase, long startNanos) {
+    if (startNanos != 0) {
+      record(phase, now() - startNanos);
+    }
+  }
+
+  /**
+   * Records the duration of a phase.
+   *
+   * @param phase the phase that was measured.
+   * @param durationNanos the duration of the phase in nanoseconds, ignored when negative.
+   */
+  synchronized void record(@NonNull Phase phase, long durationNanos) {
+    if (durationNanos < 0) {
+      return;
+    }
+
+    Samples phaseSamples = samples.get(phase);
+    if (phaseSamples == null) {
+      phaseSamples = new Samples();
+      samples.put(phase, phaseSamples);
+    }
+    phaseSamples.add(durationNanos);
+  }
+
+  /**
+   * Aggregates the recorded durations of every phase.
+   *
+   * @param reset whether to forget all recorded durations once they have been aggregated.
+   * @return a map from the name of each measured phase to a map holding the total number of
+   *     recorded durations under "count", and the "mean", "p50", "p90", "p99" and "max" of the most
+   *     recent {@link #MAX_SAMPLES} durations in milliseconds.
+   */
+  @NonNull
+  synchronized Map<String, Object> getStatistics(boolean reset) {
+    Map<String, Object> statistics = new HashMap<>();
+    for (Map.Entry<Phase, Samples> entry : samples.entrySet()) {
+      statistics.put(entry.getKey().toString(), entry.getValue().toMap());
+    }
+    if (reset) {
+      samples.clear();
+    }
+    return statistics;
+  }
+
+  static double toMillis(long nanos) {
+    return nanos / NANOS_PER_MILLI;
+  }
+
+  /** A ring buffer holding the most recent durations of a single phase. */
+  private static class Samples {
+    private final long[] durations = new long[MAX_SAMPLES];
+    private long count;
+
+    void add(long durationNanos) {
+      durations[(int) (count % MAX_SAMPLES)] = durationNanos;
+      count++;
+    }
+
+    Map<String, Object> toMap() {
+      int size = (int) Math.min(count, MAX_SAMPLES);
+      long[] sorted = Arrays.copyOf(durations, size);
+      Arrays.sort(sorted);
+
+      long sum = 0;
+      for (long duration : sorted) {
+        sum += duration;
+      }
+
+      Map<String, Object> map = new HashMap<>();
+      map.put("count", count);
+      map.put("mean", toMillis(sum / size));
+      map.put("p50", toMillis(percentile(sorted, 50)));
+      map.put("p90", toMillis(percentile(sorted, 90)));
+      map.put("p99", toMillis(percentile(sorted, 99)));
+      map.put("max", toMillis(sorted[size - 1]));
+      return map;
+    }
+
+    /** Uses the nearest-rank method, so the result is always one of the recorded durations. */
+    private static long percentile(long[] sorted, int percentile) {
+      int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+      return sorted[Math.max(rank, 1) - 1];
+    }
+  }
+}
@@ -0,0 +1,120 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera;
+
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures how long each phase of opening a camera takes.
+ *
+ * <p>The phases are opening the camera device, configuring the capture session and receiving the
+ * first preview frame. All timestamps are taken from {@link SystemClock#elapsedRealtimeNanos()},
+ * the same clock used by {@link CameraLatencyRecorder}.
+ */
+class CameraOpenTimings {
+  private final long openRequestedNanos;
+  private volatile long deviceOpenedNanos;
+  private volatile long sessionConfiguredNanos;
+  private volatile long firstFrameNanos;
+
+  /** Creates a new instance, marking the moment the camera was requested to open. */
+  CameraOpenTimings() {
+    this.openRequestedNanos = SystemClock.elapsedRealtimeNanos();
+  }
+
+  /** Marks the moment the camera device was opened. */
+  void markDeviceOpened() {
+    deviceOpenedNanos = SystemClock.elapsedRealtimeNanos();
+  }
+
+  /** Marks the moment the first capture session was configured, later sessions are ignored. */
+  void markSessionConfigured() {
+    if (sessionConfiguredNanos == 0) {
+      sessionConfiguredNanos = SystemClock.elapsedRealtimeNanos();
+    }
+  }
+
+  /** Marks the moment the first preview frame was captured, later frames are ignored. */
+  void markFirstFrame() {
+    if (firstFrameNanos == 0) {
+      firstFrameNanos = SystemClock.elapsedRealtimeNanos();
+    }
+  }
+
+  /**
+   * Indicates whether every phase has been measured.
+   *
+   * @return true once the first frame has been captured.
+   */
+  boolean isComplete() {
+    return firstFrameNanos != 0;
+  }
+
+  /**
+   * Serializes the durations of the phases that have completed so far.
+   *
+   * @return a map with the durations in milliseconds of "deviceOpen", "sessionConfiguration",
+   *     "firstFrame" and "total". Phases that have not completed yet are left out.
+   */
+  @NonNull
+  Map<String, Object> toMap() {
+    Map<String, Object> timings = new HashMap<>();
+    long deviceOpened = deviceOpenedNanos;
+    long sessionConfigured = sessionConfiguredNanos;
+    long firstFrame = firstFrameNanos;
+
+    if (deviceOpened != 0) {
+      timings.put("deviceOpen", toMillis(deviceOpened - openRequestedNanos));
+    }
+    if (deviceOpened != 0 && sessionConfigured != 0) {
+      timings.put("sessionConfiguration", toMillis(sessionConfigured - deviceOpened));
+    }
+    if (sessionConfigured != 0 && firstFrame != 0) {
+      timings.put("firstFrame", toMillis(firstFrame - sessionConfigured));
+    }
+    if (firstFrame != 0) {
+      timings.put("total", toMillis(firstFrame - openRequestedNanos));
+    }
+    return timings;
+  }
+
+  /**
+   * Records the durations of the phases that have completed so far.
+   *
+   * @param recorder the recorder that aggregates the durations.
+   */
+  void reportTo(@NonNull CameraLatencyRecorder recorder) {
+    long deviceOpened = deviceOpenedNanos;
+    long sessionConfigured = sessionConfiguredNanos;
+    long firstFrame = firstFrameNanos;
+
+    if (deviceOpened != 0) {
+      recorder.record(CameraLatencyRecorder.Phase.DEVICE_OPEN, deviceOpened - openRequestedNanos);
+    }
+    if (deviceOpened != 0 && sessionConfigured != 0) {
+      recorder.record(
+          CameraLatencyRecorder.Phase.SESSION_CONFIGURATION, sessionConfigured - deviceOpened);
+    }
+    if (sessionConfigured != 0 && firstFrame != 0) {
+      recorder.record(CameraLatencyRecorder.Phase.FIRST_FRAME, firstFrame - sessionConfigured);
+    }
+    if (firstFrame != 0) {
+      recorder.record(
+          CameraLatencyRecorder.Phase.TIME_TO_FIRST_FRAME, firstFrame - openRequestedNanos);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "CameraOpenTimings" + toMap();
+  }
+
+  private static double toMillis(long nanos) {
+    return CameraLatencyRecorder.toMillis(nanos);
+  }
+}
@@ -8,11 +8,14 @@ import android.graphics.Rect;
 import android.hardware.camera2.CameraAccessException;
 import android.hardware.camera2.CameraCharacteristics;
 import android.hardware.camera2.CameraManager;
+import android.hardware.camera2.params.StreamConfigurationMap;
 import android.os.Build.VERSION_CODES;
 import android.util.Range;
 import android.util.Rational;
 import android.util.Size;
 import androidx.annotation.RequiresApi;
+import java.util.HashMap;
+import java.util.Map;
 
 /** An interface allowing access to the different characteristics of the device's camera. */
 public interface CameraProperties {
@@ -235,20 +238,80 @@ public interface CameraProperties {
    * @return int[] List of noise reduction modes that are supported by this camera device.
    */
   int[] getAvailableNoiseReductionModes();
+
+  /**
+   * Returns the output sizes this camera device supports for the supplied image format.
+   *
+   * <p>By default maps to the @see
+   * android.hardware.camera2.params.StreamConfigurationMap#getOutputSizes(int) method of the @see
+   * android.hardware.camera2.CameraCharacteristics#SCALER_STREAM_CONFIGURATION_MAP key.
+   *
+   * @param format an image format from @see android.graphics.ImageFormat.
+   * @return Size[] List of supported output sizes, or null when the format is not supported.
+   */
+  Size[] getOutputSizes(int format);
+
+  /**
+   * Returns the video sizes this camera device supports in constrained high speed capture sessions.
+   *
+   * <p>By default maps to the @see
+   * android.hardware.camera2.params.StreamConfigurationMap#getHighSpeedVideoSizes() method of
+   * the @see android.hardware.camera2.CameraCharacteristics#SCALER_STREAM_CONFIGURATION_MAP key.
+   *
+   * @return Size[] List of supported high speed video sizes, empty or null when high speed capture
+   *     is not supported.
+   */
+  @RequiresApi(api = VERSION_CODES.M)
+  Size[] getHighSpeedVideoSizes();
+
+  /**
+   * Returns the frame rate ranges this camera device supports in constrained high speed capture
+   * sessions for the supplied video size.
+   *
+   * <p>By default maps to the @see
+   * android.hardware.camera2.params.StreamConfigurationMap#getHighSpeedVideoFpsRangesFor(Size)
+   * method of the @see
+   * android.hardware.camera2.CameraCharacteristics#SCALER_STREAM_CONFIGURATION_MAP key.
+   *
+   * @param size one of the sizes returned by {@link #getHighSpeedVideoSizes()}.
+   * @return android.util.Range<Integer>[] List of supported high speed frame rate ranges.
+   */
+  @RequiresApi(api = VERSION_CODES.M)
+  Range<Integer>[] getHighSpeedVideoFpsRangesFor(Size size);
 }
 
 /**
  * Implementation of the @see CameraProperties interface using the @see
  * android.hardware.camera2.CameraCharacteristics class to access the different characteristics.
+ *
+ * <p>The characteristics are taken from the process-wide {@link CameraCharacteristicsCache}, and
+ * every value is only read from them once.
  */
 class CameraPropertiesImpl implements CameraProperties {
   private final CameraCharacteristics cameraCharacteristics;
   private final String cameraName;
+  private final Map<CameraCharacteristics.Key<?>, Object> values = new HashMap<>();
 
   public CameraPropertiesImpl(String cameraName, CameraManager cameraManager)
       throws CameraAccessException {
     this.cameraName = cameraName;
-    this.cameraCharacteristics = cameraManager.getCameraCharacteristics(cameraName);
+    this.cameraCharacteristics =
+        CameraCharacteristicsCache.getInstance()
+            .getCameraCharacteristics(cameraManager, cameraName);
+  }
+
+  /**
+   * Gets the value of a characteristic, reading it from the {@link CameraCharacteristics} only the
+   * first time it is requested.
+   */
+  @SuppressWarnings("unchecked")
+  private synchronized <T> T get(CameraCharacteristics.Key<T> key) {
+    if (values.containsKey(key)) {
+      return (T) values.get(key);
+    }
+    T value = cameraCharacteristics.get(key);
+    values.put(key, value);
+    return value;
   }
 
   @Override
@@ -258,93 +321,125 @@ class CameraPropertiesImpl implements CameraProperties {
 
   @Override
   public Range<Integer>[] getControlAutoExposureAvailableTargetFpsRanges() {
-    return cameraCharacteristics.get(CameraCharacteristics.CONTROL_AE_AVAILABLE_TARGET_FPS_RANGES);
+    return get(CameraCharacteristics.CONTROL_AE_AVAILABLE_TARGET_FPS_RANGES);
   }
 
   @Override
   public Range<Integer> getControlAutoExposureCompensationRange() {
-    return cameraCharacteristics.get(CameraCharacteristics.CONTROL_AE_COMPENSATION_RANGE);
+    return get(CameraCharacteristics.CONTROL_AE_COMPENSATION_RANGE);
   }
 
   @Override
   public double getControlAutoExposureCompensationStep() {
-    Rational rational =
-        cameraCharacteristics.get(CameraCharacteristics.CONTROL_AE_COMPENSATION_STEP);
+    Rational rational = get(CameraCharacteristics.CONTROL_AE_COMPENSATION_STEP);
 
     return rational == null ? 0.0 : rational.doubleValue();
   }
 
   @Override
   public int[] getControlAutoFocusAvailableModes() {
-    return cameraCharacteristics.get(CameraCharacteristics.CONTROL_AF_AVAILABLE_MODES);
+    return get(CameraCharacteristics.CONTROL_AF_AVAILABLE_MODES);
   }
 
   @Override
   public Integer getControlMaxRegionsAutoExposure() {
-    return cameraCharacteristics.get(CameraCharacteristics.CONTROL_MAX_REGIONS_AE);
+    return get(CameraCharacteristics.CONTROL_MAX_REGIONS_AE);
   }
 
   @Override
   public Integer getControlMaxRegionsAutoFocus() {
-    return cameraCharacteristics.get(CameraCharacteristics.CONTROL_MAX_REGIONS_AF);
+    return get(CameraCharacteristics.CONTROL_MAX_REGIONS_AF);
   }
 
   @RequiresApi(api = VERSION_CODES.P)
   @Override
   public int[] getDistortionCorrectionAvailableModes() {
-    return cameraCharacteristics.get(CameraCharacteristics.DISTORTION_CORRECTION_AVAILABLE_MODES);
+    return get(CameraCharacteristics.DISTORTION_CORRECTION_AVAILABLE_MODES);
   }
 
   @Override
   public Boolean getFlashInfoAvailable() {
-    return cameraCharacteristics.get(CameraCharacteristics.FLASH_INFO_AVAILABLE);
+    return get(CameraCharacteristics.FLASH_INFO_AVAILABLE);
   }
 
   @Override
   public int getLensFacing() {
-    return cameraCharacteristics.get(CameraCharacteristics.LENS_FACING);
+    return get(CameraCharacteristics.LENS_FACING);
   }
 
   @Override
   public Float getLensInfoMinimumFocusDistance() {
-    return cameraCharacteristics.get(CameraCharacteristics.LENS_INFO_MINIMUM_FOCUS_DISTANCE);
+    return get(CameraCharacteristics.LENS_INFO_MINIMUM_FOCUS_DISTANCE);
   }
 
   @Override
   public Float getScalerAvailableMaxDigitalZoom() {
-    return cameraCharacteristics.get(CameraCharacteristics.SCALER_AVAILABLE_MAX_DIGITAL_ZOOM);
+    return get(CameraCharacteristics.SCALER_AVAILABLE_MAX_DIGITAL_ZOOM);
   }
 
   @Override
   public Rect getSensorInfoActiveArraySize() {
-    return cameraCharacteristics.get(CameraCharacteristics.SENSOR_INFO_ACTIVE_ARRAY_SIZE);
+    return get(CameraCharacteristics.SENSOR_INFO_ACTIVE_ARRAY_SIZE);
   }
 
   @Override
   public Size getSensorInfoPixelArraySize() {
-    return cameraCharacteristics.get(CameraCharacteristics.SENSOR_INFO_PIXEL_ARRAY_SIZE);
+    return get(CameraCharacteristics.SENSOR_INFO_PIXEL_ARRAY_SIZE);
   }
 
   @RequiresApi(api = VERSION_CODES.M)
   @Override
   public Rect getSensorInfoPreCorrectionActiveArraySize() {
-    return cameraCharacteristics.get(
-        CameraCharacteristics.SENSOR_INFO_PRE_CORRECTION_ACTIVE_ARRAY_SIZE);
+    return get(CameraCharacteristics.SENSOR_INFO_PRE_CORRECTION_ACTIVE_ARRAY_SIZE);
   }
 
   @Override
   public int getSensorOrientation() {
-    return cameraCharacteristics.get(CameraCharacteristics.SENSOR_ORIENTATION);
+    return get(CameraCharacteristics.SENSOR_ORIENTATION);
   }
 
   @Override
   public int getHardwareLevel() {
-    return cameraCharacteristics.get(CameraCharacteristics.INFO_SUPPORTED_HARDWARE_LEVEL);
+    return get(CameraCharacteristics.INFO_SUPPORTED_HARDWARE_LEVEL);
   }
 
   @Override
   public int[] getAvailableNoiseReductionModes() {
-    return cameraCharacteristics.get(
-        CameraCharacteristics.NOISE_REDUCTION_AVAILABLE_NOISE_REDUCTION_MODES);
+    return get(CameraCharacteristics.NOISE_REDUCTION_AVAILABLE_NOISE_REDUCTION_MODES);
+  }
+
+  @Override
+  public Size[] getOutputSizes(int format) {
+    StreamConfigurationMap streamConfigurationMap =
+        get(CameraCharacteristics.SCALER_STREAM_CONFIGURATION_MAP);
+
+    return streamConfigurationMap == null ? null : streamConfigurationMap.getOutputSizes(format);
+  }
+
+  @RequiresApi(api = VERSION_CODES.M)
+  @Override
+  public Size[] getHighSpeedVideoSizes() {
+    StreamConfigurationMap streamConfigurationMap =
+        get(CameraCharacteristics.SCALER_STREAM_CONFIGURATION_MAP);
+
+    return streamConfigurationMap == null ? null : streamConfigurationMap.getHighSpeedVideoSizes();
+  }
+
+  @RequiresApi(api = VERSION_CODES.M)
+  @SuppressWarnings("unchecked")
+  @Override
+  public Range<Integer>[] getHighSpeedVideoFpsRangesFor(Size size) {
+    StreamConfigurationMap streamConfigurationMap =
+        get(CameraCharacteristics.SCALER_STREAM_CONFIGURATION_MAP);
+    if (streamConfigurationMap == null) {
+      return new Range[0];
+    }
+
+    try {
+      return streamConfigurationMap.getHighSpeedVideoFpsRangesFor(size);
+    } catch (IllegalArgumentException e) {
+      // The size is not a supported high speed video size.
+      return new Range[0];
+    }
   }
 }
@@ -94,7 +94,8 @@ public final class CameraUtils {
   public static List<Map<String, Object>> getAvailableCameras(Activity activity)
       throws CameraAccessException {
     CameraManager cameraManager = (CameraManager) activity.getSystemService(Context.CAMERA_SERVICE);
-    String[] cameraNames = cameraManager.getCameraIdList();
+    CameraCharacteristicsCache cache = CameraCharacteristicsCache.getInstance();
+    String[] cameraNames = cache.getCameraIdList(cameraManager);
     List<Map<String, Object>> cameras = new ArrayList<>();
     for (String cameraName : cameraNames) {
       int cameraId;
@@ -108,7 +109,8 @@ public final class CameraUtils {
       }
 
       HashMap<String, Object> details = new HashMap<>();
-      CameraCharacteristics characteristics = cameraManager.getCameraCharacteristics(cameraName);
+      CameraCharacteristics characteristics =
+          cache.getCameraCharacteristics(cameraManager, cameraName);
       details.put("name", cameraName);
       int sensorOrientation = characteristics.get(CameraCharacteristics.SENSOR_ORIENTATION);
       details.put("sensorOrientation", sensorOrientation);
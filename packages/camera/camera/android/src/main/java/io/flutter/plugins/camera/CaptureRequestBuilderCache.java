@@ -0,0 +1,90 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera;
+
+import android.hardware.camera2.CameraAccessException;
+import android.hardware.camera2.CaptureRequest;
+import android.view.Surface;
+import androidx.annotation.NonNull;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches {@link CaptureRequest.Builder} instances, keyed by their request template and the surfaces
+ * they target.
+ *
+ * <p>Creating a builder asks the camera service for the defaults of its template. When the camera
+ * switches between outputs of a capture session that is already configured, for example when an
+ * image stream is started or stopped, the builder created the previous time is reused instead.
+ *
+ * <p>Builders are only valid for the camera device that created them and for the surfaces of the
+ * current capture session, so the cache has to be cleared whenever a new session is created.
+ */
+class CaptureRequestBuilderCache {
+  private final Map<Key, CaptureRequest.Builder> builders = new HashMap<>();
+
+  /**
+   * Gets the builder for the supplied template and targets, creating it when it is not cached yet.
+   *
+   * <p>The caller is responsible for applying the current camera settings to the builder.
+   *
+   * @param cameraDevice the device used to create the builder.
+   * @param templateType the request template, like {@link
+   *     android.hardware.camera2.CameraDevice#TEMPLATE_PREVIEW}.
+   * @param targets the surfaces the requests are sent to.
+   * @return the cached or newly created builder.
+   * @throws CameraAccessException when the builder could not be created.
+   */
+  @NonNull
+  synchronized CaptureRequest.Builder get(
+      @NonNull CameraDeviceWrapper cameraDevice, int templateType, @NonNull Surface... targets)
+      throws CameraAccessException {
+    Key key = new Key(templateType, targets);
+    CaptureRequest.Builder builder = builders.get(key);
+    if (builder == null) {
+      builder = cameraDevice.createCaptureRequest(templateType);
+      for (Surface target : targets) {
+        builder.addTarget(target);
+      }
+      builders.put(key, builder);
+    }
+    return builder;
+  }
+
+  /** Forgets all cached builders. */
+  synchronized void clear() {
+    builders.clear();
+  }
+
+  /** Surfaces do not override {@link Object#equals(Object)}, so targets are compared by identity. */
+  private static final class Key {
+    private final int templateType;
+    private final List<Surface> targets;
+
+    Key(int templateType, Surface[] targets) {
+      this.templateType = templateType;
+      this.targets = Arrays.asList(targets.clone());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return templateType == other.templateType && targets.equals(other.targets);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * templateType + targets.hashCode();
+    }
+  }
+}
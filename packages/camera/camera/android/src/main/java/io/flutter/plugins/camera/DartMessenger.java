@@ -13,11 +13,20 @@ import io.flutter.plugin.common.BinaryMessenger;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugins.camera.features.autofocus.FocusMode;
 import io.flutter.plugins.camera.features.exposurelock.ExposureMode;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 
 /** Utility class that facilitates communication to the Flutter client */
 public class DartMessenger {
+  /**
+   * The arguments of the orientation changed event for every orientation. They never change, so
+   * they are created once and shared by every event.
+   */
+  private static final Map<PlatformChannel.DeviceOrientation, Map<String, Object>>
+      orientationEventArgs = createOrientationEventArgs();
+
   @NonNull private final Handler handler;
   @Nullable private MethodChannel cameraChannel;
   @Nullable private MethodChannel deviceChannel;
@@ -40,7 +49,11 @@ public class DartMessenger {
     /** Indicates that the camera is closing. */
     CLOSING("camera_closing"),
     /** Indicates that the camera is initialized. */
-    INITIALIZED("initialized");
+    INITIALIZED("initialized"),
+    /** Indicates that image stream frames were dropped before reaching Dart. */
+    IMAGE_STREAM_FRAMES_DROPPED("image_stream_frames_dropped"),
+    /** Indicates that the preview resolution was adapted while the camera is running. */
+    PREVIEW_RESOLUTION_CHANGED("preview_resolution_changed");
 
     private final String method;
 
@@ -76,13 +89,21 @@ public class DartMessenger {
    */
   public void sendDeviceOrientationChangeEvent(PlatformChannel.DeviceOrientation orientation) {
     assert (orientation != null);
-    this.send(
-        DeviceEventType.ORIENTATION_CHANGED,
-        new HashMap<String, Object>() {
-          {
-            put("orientation", CameraUtils.serializeDeviceOrientation(orientation));
-          }
-        });
+    this.send(DeviceEventType.ORIENTATION_CHANGED, orientationEventArgs.get(orientation));
+  }
+
+  private static Map<PlatformChannel.DeviceOrientation, Map<String, Object>>
+      createOrientationEventArgs() {
+    Map<PlatformChannel.DeviceOrientation, Map<String, Object>> args =
+        new EnumMap<>(PlatformChannel.DeviceOrientation.class);
+    for (PlatformChannel.DeviceOrientation orientation :
+        PlatformChannel.DeviceOrientation.values()) {
+      args.put(
+          orientation,
+          Collections.singletonMap(
+              "orientation", CameraUtils.serializeDeviceOrientation(orientation)));
+    }
+    return args;
   }
 
   /**
@@ -122,6 +143,42 @@ public class DartMessenger {
         });
   }
 
+  /**
+   * Sends a message to the Flutter client informing that image stream frames have been dropped.
+   *
+   * @param droppedFrames the total number of frames dropped since the image stream was started.
+   */
+  void sendImageStreamFramesDroppedEvent(long droppedFrames) {
+    this.send(
+        CameraEventType.IMAGE_STREAM_FRAMES_DROPPED,
+        new HashMap<String, Object>() {
+          {
+            put("droppedFrames", droppedFrames);
+          }
+        });
+  }
+
+  /**
+   * Sends a message to the Flutter client informing that the preview resolution was adapted.
+   *
+   * @param previewWidth the new width of the preview.
+   * @param previewHeight the new height of the preview.
+   * @param reason why the resolution changed: "frameInterval", "thermal", "recovered" or
+   *     "disabled".
+   */
+  void sendPreviewResolutionChangedEvent(
+      int previewWidth, int previewHeight, @NonNull String reason) {
+    this.send(
+        CameraEventType.PREVIEW_RESOLUTION_CHANGED,
+        new HashMap<String, Object>() {
+          {
+            put("previewWidth", (double) previewWidth);
+            put("previewHeight", (double) previewHeight);
+            put("reason", reason);
+          }
+        });
+  }
+
   /** Sends a message to the Flutter client informing that the camera is closing. */
   void sendCameraClosingEvent() {
     send(CameraEventType.CLOSING);
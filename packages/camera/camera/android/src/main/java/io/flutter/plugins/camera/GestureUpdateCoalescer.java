@@ -0,0 +1,116 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera;
+
+import android.os.Handler;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.flutter.plugins.camera.features.Point;
+
+/**
+ * Coalesces high frequency zoom and focus point updates, like those of a pinch gesture, into at
+ * most one repeating request per preview frame.
+ *
+ * <p>The first update is submitted right away. Updates that arrive before the camera completed the
+ * next frame only replace the pending values, which are submitted together once that frame has
+ * been captured. The latest value of every setting always wins.
+ */
+class GestureUpdateCoalescer {
+  /** Applies the coalesced settings and submits a single repeating request. */
+  interface Submitter {
+    /**
+     * Called on the thread of the handler the coalescer was created with.
+     *
+     * @param zoomLevel the zoom level to apply, or null to keep the current zoom level.
+     * @param focusPoint the focus point to apply, or null to keep the current focus point.
+     */
+    void submit(@Nullable Float zoomLevel, @Nullable Point focusPoint);
+  }
+
+  private final Handler handler;
+  private final Submitter submitter;
+  private final Runnable flushRunnable = this::flush;
+
+  @Nullable private Float pendingZoomLevel;
+  @Nullable private Point pendingFocusPoint;
+  private boolean awaitingFrame;
+  private boolean flushScheduled;
+
+  /**
+   * Creates a new instance of the {@link GestureUpdateCoalescer} class.
+   *
+   * @param handler the handler of the thread that owns the preview request builder.
+   * @param submitter applies the coalesced settings.
+   */
+  GestureUpdateCoalescer(@NonNull Handler handler, @NonNull Submitter submitter) {
+    this.handler = handler;
+    this.submitter = submitter;
+  }
+
+  /**
+   * Queues new settings. Must be called on the thread of the handler.
+   *
+   * @param zoomLevel the new zoom level, or null to keep the pending or current zoom level.
+   * @param focusPoint the new focus point, or null to keep the pending or current focus point.
+   */
+  void update(@Nullable Float zoomLevel, @Nullable Point focusPoint) {
+    synchronized (this) {
+      if (zoomLevel != null) {
+        pendingZoomLevel = zoomLevel;
+      }
+      if (focusPoint != null) {
+        pendingFocusPoint = focusPoint;
+      }
+      if (awaitingFrame || flushScheduled) {
+        return;
+      }
+    }
+    flush();
+  }
+
+  /** Informs the coalescer that the camera completed a frame. May be called on any thread. */
+  void onFrameCaptured() {
+    synchronized (this) {
+      awaitingFrame = false;
+      if (flushScheduled || (pendingZoomLevel == null && pendingFocusPoint == null)) {
+        return;
+      }
+      flushScheduled = true;
+    }
+    handler.post(flushRunnable);
+  }
+
+  /**
+   * Forgets the frame the coalescer is waiting for, for example when the capture session was closed
+   * and no frame of the last request will arrive. Pending settings are submitted right away.
+   */
+  void reset() {
+    synchronized (this) {
+      awaitingFrame = false;
+      if (flushScheduled || (pendingZoomLevel == null && pendingFocusPoint == null)) {
+        return;
+      }
+      flushScheduled = true;
+    }
+    handler.post(flushRunnable);
+  }
+
+  private void flush() {
+    Float zoomLevel;
+    Point focusPoint;
+    synchronized (this) {
+      flushScheduled = false;
+      zoomLevel = pendingZoomLevel;
+      focusPoint = pendingFocusPoint;
+      pendingZoomLevel = null;
+      pendingFocusPoint = null;
+      if (zoomLevel == null && focusPoint == null) {
+        return;
+      }
+      awaitingFrame = true;
+    }
+    submitter.submit(zoomLevel, focusPoint);
+  }
+}
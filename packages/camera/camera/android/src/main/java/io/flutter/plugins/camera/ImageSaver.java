@@ -12,6 +12,7 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /** Saves a JPEG {@link Image} into the specified {@link File}. */
 public class ImageSaver implements Runnable {
@@ -41,12 +42,14 @@ public class ImageSaver implements Runnable {
   @Override
   public void run() {
     ByteBuffer buffer = image.getPlanes()[0].getBuffer();
-    byte[] bytes = new byte[buffer.remaining()];
-    buffer.get(bytes);
     FileOutputStream output = null;
     try {
       output = FileOutputStreamFactory.create(file);
-      output.write(bytes);
+      // Write straight from the plane buffer instead of copying the JPEG into a byte array first.
+      FileChannel channel = output.getChannel();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
 
       callback.onComplete(file.getAbsolutePath());
 
@@ -0,0 +1,210 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera;
+
+import android.media.Image;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import java.io.File;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs {@link ImageSaver} tasks on a small, bounded pool of dedicated writer threads.
+ *
+ * <p>Writing JPEG files off the camera background thread keeps disk I/O from delaying capture
+ * callbacks, and allows several captures to be persisted at the same time.
+ */
+class ImageSaverExecutor {
+  private static final String TAG = "ImageSaverExecutor";
+
+  /** The number of threads writing images in parallel. */
+  @VisibleForTesting static final int WRITER_THREADS = 2;
+
+  /**
+   * The maximum number of images that can be pending at once, either being written or waiting for
+   * a writer thread. The still capture {@link android.media.ImageReader} should be able to hold
+   * this many images.
+   */
+  static final int MAX_PENDING_IMAGES = 3;
+
+  /** Receives the time each capture spent waiting for and being written by a writer thread. */
+  interface OnImageSavedListener {
+    /**
+     * Called on the writer thread after an image has been written successfully.
+     *
+     * @param file the file the image was written to.
+     * @param queueDurationNanos time between submitting the image and the start of the write.
+     * @param writeDurationNanos time it took to write the image.
+     */
+    void onImageSaved(@NonNull File file, long queueDurationNanos, long writeDurationNanos);
+  }
+
+  /** Informed when an image is no longer pending, so another image can be accepted. */
+  interface OnCapacityAvailableListener {
+    /** Called on the writer thread after an image was written or failed to be written. */
+    void onCapacityAvailable();
+  }
+
+  private final ExecutorService executor;
+  @Nullable private final OnImageSavedListener onImageSavedListener;
+  @Nullable private volatile OnCapacityAvailableListener onCapacityAvailableListener;
+  private final AtomicInteger pendingImages = new AtomicInteger();
+  private final AtomicReference<Runnable> onTerminatedCallback = new AtomicReference<>();
+
+  /**
+   * Creates a new instance of the {@link ImageSaverExecutor} class.
+   *
+   * @param onImageSavedListener optional listener that receives per-capture write latencies.
+   */
+  ImageSaverExecutor(@Nullable OnImageSavedListener onImageSavedListener) {
+    this(
+        new ThreadPoolExecutor(
+            WRITER_THREADS,
+            WRITER_THREADS,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_PENDING_IMAGES - WRITER_THREADS),
+            runnable -> new Thread(runnable, "CameraImageSaver")),
+        onImageSavedListener);
+  }
+
+  @VisibleForTesting
+  ImageSaverExecutor(
+      @NonNull ExecutorService executor, @Nullable OnImageSavedListener onImageSavedListener) {
+    this.executor = executor;
+    this.onImageSavedListener = onImageSavedListener;
+  }
+
+  /**
+   * Sets the listener informed whenever an image is no longer pending.
+   *
+   * @param onCapacityAvailableListener the listener, or null to remove it.
+   */
+  void setOnCapacityAvailableListener(
+      @Nullable OnCapacityAvailableListener onCapacityAvailableListener) {
+    this.onCapacityAvailableListener = onCapacityAvailableListener;
+  }
+
+  /**
+   * Indicates whether another image can be accepted.
+   *
+   * @return true when fewer than {@link #MAX_PENDING_IMAGES} images are pending.
+   */
+  boolean hasCapacity() {
+    return pendingImages.get() < MAX_PENDING_IMAGES;
+  }
+
+  /**
+   * Gets the number of images that are being written or waiting to be written.
+   *
+   * @return the number of pending images.
+   */
+  int getPendingImages() {
+    return pendingImages.get();
+  }
+
+  /**
+   * Writes the supplied JPEG image to the file on one of the writer threads.
+   *
+   * <p>The image is closed once it has been written. When no more images can be accepted the image
+   * is closed immediately and the callback is informed about the error.
+   *
+   * @param image the JPEG image to write.
+   * @param file the file to write the image to.
+   * @param callback the callback informed about the result of the write.
+   */
+  void save(@NonNull Image image, @NonNull File file, @NonNull ImageSaver.Callback callback) {
+    pendingImages.incrementAndGet();
+    try {
+      executor.execute(new TimedImageSaver(image, file, callback));
+    } catch (RejectedExecutionException e) {
+      pendingImages.decrementAndGet();
+      Log.w(TAG, "Rejected image, too many images are being saved.");
+      image.close();
+      callback.onError("IOError", "Too many images are being saved");
+    }
+  }
+
+  /**
+   * Stops accepting images and stops the writer threads once all pending images have been written.
+   *
+   * <p>Does not wait for the pending images, so it is safe to call from the main thread.
+   *
+   * @param onTerminated optional callback that runs once no image is pending anymore, either on
+   *     the calling thread or on the writer thread that wrote the last image.
+   */
+  void shutdown(@Nullable Runnable onTerminated) {
+    executor.shutdown();
+    if (onTerminated == null) {
+      return;
+    }
+    onTerminatedCallback.set(onTerminated);
+    if (pendingImages.get() == 0) {
+      runOnTerminatedCallback();
+    }
+  }
+
+  private void runOnTerminatedCallback() {
+    final Runnable onTerminated = onTerminatedCallback.getAndSet(null);
+    if (onTerminated != null) {
+      onTerminated.run();
+    }
+  }
+
+  /** Runs an {@link ImageSaver} and measures how long the image waited and took to be written. */
+  private class TimedImageSaver implements Runnable, ImageSaver.Callback {
+    private final File file;
+    private final ImageSaver.Callback callback;
+    private final ImageSaver imageSaver;
+    private final long submitTime;
+    private long startTime;
+
+    TimedImageSaver(Image image, File file, ImageSaver.Callback callback) {
+      this.file = file;
+      this.callback = callback;
+      this.imageSaver = new ImageSaver(image, file, this);
+      this.submitTime = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+      startTime = System.nanoTime();
+      try {
+        imageSaver.run();
+      } finally {
+        final boolean isLastImage = pendingImages.decrementAndGet() == 0;
+        final OnCapacityAvailableListener listener = onCapacityAvailableListener;
+        if (listener != null) {
+          listener.onCapacityAvailable();
+        }
+        if (isLastImage && executor.isShutdown()) {
+          runOnTerminatedCallback();
+        }
+      }
+    }
+
+    @Override
+    public void onComplete(String absolutePath) {
+      if (onImageSavedListener != null) {
+        onImageSavedListener.onImageSaved(
+            file, startTime - submitTime, System.nanoTime() - startTime);
+      }
+      callback.onComplete(absolutePath);
+    }
+
+    @Override
+    public void onError(String errorCode, String errorMessage) {
+      callback.onError(errorCode, errorMessage);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera;
+
+import android.util.Size;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Selects smaller image stream resolutions to fall back to when the camera cannot combine the image
+ * stream with the other outputs of a capture session, for example while recording a video.
+ */
+final class ImageStreamSizes {
+  /** The most fallback resolutions that are tried before giving up. */
+  @VisibleForTesting static final int MAX_FALLBACK_SIZES = 3;
+
+  /** The smallest width that is still useful for analyzing frames. */
+  @VisibleForTesting static final int MIN_WIDTH = 320;
+
+  private static final double ASPECT_RATIO_TOLERANCE = 0.01;
+
+  private ImageStreamSizes() {}
+
+  /**
+   * Gets the resolutions to fall back to, largest first.
+   *
+   * <p>Only supported sizes smaller than the requested size are returned. Sizes with the aspect
+   * ratio of the requested size are preferred, so frames keep matching the preview, followed by the
+   * other sizes.
+   *
+   * @param requestedSize the resolution the image stream would normally use.
+   * @param supportedSizes the output sizes the camera supports for the image stream format.
+   * @return at most {@link #MAX_FALLBACK_SIZES} sizes.
+   */
+  @NonNull
+  static List<Size> getFallbackSizes(
+      @NonNull Size requestedSize, @Nullable Size[] supportedSizes) {
+    List<Size> sameAspectRatio = new ArrayList<>();
+    List<Size> otherAspectRatio = new ArrayList<>();
+    if (supportedSizes == null) {
+      return sameAspectRatio;
+    }
+
+    long requestedArea = area(requestedSize);
+    double requestedAspectRatio = aspectRatio(requestedSize);
+    for (Size size : supportedSizes) {
+      if (area(size) >= requestedArea || size.getWidth() < MIN_WIDTH) {
+        continue;
+      }
+      if (Math.abs(aspectRatio(size) - requestedAspectRatio) <= ASPECT_RATIO_TOLERANCE) {
+        sameAspectRatio.add(size);
+      } else {
+        otherAspectRatio.add(size);
+      }
+    }
+
+    Collections.sort(sameAspectRatio, (a, b) -> Long.compare(area(b), area(a)));
+    Collections.sort(otherAspectRatio, (a, b) -> Long.compare(area(b), area(a)));
+    sameAspectRatio.addAll(otherAspectRatio);
+    return sameAspectRatio.size() > MAX_FALLBACK_SIZES
+        ? new ArrayList<>(sameAspectRatio.subList(0, MAX_FALLBACK_SIZES))
+        : sameAspectRatio;
+  }
+
+  private static long area(Size size) {
+    return (long) size.getWidth() * size.getHeight();
+  }
+
+  private static double aspectRatio(Size size) {
+    return (double) size.getWidth() / size.getHeight();
+  }
+}
@@ -23,6 +23,11 @@ import io.flutter.plugins.camera.features.autofocus.FocusMode;
 import io.flutter.plugins.camera.features.exposurelock.ExposureMode;
 import io.flutter.plugins.camera.features.flash.FlashMode;
 import io.flutter.plugins.camera.features.resolution.ResolutionPreset;
+import io.flutter.plugins.camera.types.CameraSettingsUpdate;
+import io.flutter.plugins.camera.types.FrameDropPolicy;
+import io.flutter.plugins.camera.types.ImageStreamOptions;
+import io.flutter.plugins.camera.types.ImageStreamOutputFormat;
+import io.flutter.plugins.camera.types.VideoEncodingOptions;
 import io.flutter.view.TextureRegistry;
 import java.util.HashMap;
 import java.util.Map;
@@ -52,6 +57,9 @@ final class MethodCallHandlerImpl implements MethodChannel.MethodCallHandler {
     methodChannel = new MethodChannel(messenger, "plugins.flutter.io/camera");
     imageStreamChannel = new EventChannel(messenger, "plugins.flutter.io/camera/imageStream");
     methodChannel.setMethodCallHandler(this);
+
+    // Keep cached camera characteristics up to date when external cameras come and go.
+    CameraCharacteristicsCache.getInstance().startMonitoring(activity);
   }
 
   @Override
@@ -109,6 +117,39 @@ final class MethodCallHandlerImpl implements MethodChannel.MethodCallHandler {
           camera.takePicture(result);
           break;
         }
+      case "switchCamera":
+        {
+          if (camera == null) {
+            result.error(
+                "cameraNotFound",
+                "Camera not found. Please call the 'create' method before calling 'switchCamera'.",
+                null);
+            break;
+          }
+          try {
+            camera.switchCamera(getCameraProperties(call.argument("cameraName")), result);
+          } catch (Exception e) {
+            handleException(e, result);
+          }
+          break;
+        }
+      case "getLatencyStatistics":
+        {
+          Boolean reset = call.argument("reset");
+          result.success(
+              camera == null
+                  ? new HashMap<String, Object>()
+                  : camera.getLatencyStatistics(reset != null && reset));
+          break;
+        }
+      case "takePictureBurst":
+        {
+          Integer count = call.argument("count");
+          Number intervalMs = call.argument("intervalMs");
+          camera.takePictureBurst(
+              result, count == null ? 1 : count, intervalMs == null ? 0 : intervalMs.longValue());
+          break;
+        }
       case "prepareForVideoRecording":
         {
           // This optimization is not required for Android.
@@ -117,7 +158,16 @@ final class MethodCallHandlerImpl implements MethodChannel.MethodCallHandler {
         }
       case "startVideoRecording":
         {
-          camera.startVideoRecording(result);
+          Map<String, Object> encodingOptions = call.argument("encodingOptions");
+          if (encodingOptions == null) {
+            camera.startVideoRecording(result);
+            break;
+          }
+          try {
+            camera.startVideoRecording(result, parseVideoEncodingOptions(encodingOptions));
+          } catch (IllegalArgumentException e) {
+            result.error("videoRecordingFailed", e.getMessage(), null);
+          }
           break;
         }
       case "stopVideoRecording":
@@ -181,6 +231,25 @@ final class MethodCallHandlerImpl implements MethodChannel.MethodCallHandler {
           }
           break;
         }
+      case "updateSettings":
+        {
+          try {
+            camera.updateSettings(result, parseCameraSettingsUpdate(call));
+          } catch (Exception e) {
+            handleException(e, result);
+          }
+          break;
+        }
+      case "updateGesture":
+        {
+          Double zoomLevel = call.argument("zoomLevel");
+          Map<String, Object> focusPoint = call.argument("focusPoint");
+          camera.updateGesture(
+              zoomLevel == null ? null : zoomLevel.floatValue(),
+              focusPoint == null ? null : parsePoint(focusPoint));
+          result.success(null);
+          break;
+        }
       case "getMinExposureOffset":
         {
           try {
@@ -250,18 +319,33 @@ final class MethodCallHandlerImpl implements MethodChannel.MethodCallHandler {
         }
       case "startImageStream":
         {
+          final ImageStreamOptions imageStreamOptions;
           try {
-            camera.startPreviewWithImageStream(imageStreamChannel);
+            imageStreamOptions = parseImageStreamOptions(call);
+          } catch (IllegalArgumentException e) {
+            result.error("startImageStreamFailed", e.getMessage(), null);
+            break;
+          }
+          try {
+            camera.startPreviewWithImageStream(imageStreamChannel, imageStreamOptions);
             result.success(null);
           } catch (Exception e) {
             handleException(e, result);
           }
           break;
         }
+      case "receivedImageStreamData":
+        {
+          if (camera != null) {
+            camera.receivedImageStreamData();
+          }
+          result.success(null);
+          break;
+        }
       case "stopImageStream":
         {
           try {
-            camera.startPreview();
+            camera.stopImageStream();
             result.success(null);
           } catch (Exception e) {
             handleException(e, result);
@@ -292,6 +376,30 @@ final class MethodCallHandlerImpl implements MethodChannel.MethodCallHandler {
           }
           break;
         }
+      case "getHighSpeedFrameRates":
+        {
+          assert camera != null;
+
+          try {
+            result.success(camera.getHighSpeedFrameRates());
+          } catch (Exception e) {
+            handleException(e, result);
+          }
+          break;
+        }
+      case "setAdaptivePreviewResolution":
+        {
+          assert camera != null;
+          Boolean enabled = call.argument("enabled");
+
+          try {
+            camera.setAdaptivePreviewResolution(Boolean.TRUE.equals(enabled));
+            result.success(null);
+          } catch (Exception e) {
+            handleException(e, result);
+          }
+          break;
+        }
       case "setZoomLevel":
         {
           assert camera != null;
@@ -378,8 +486,7 @@ final class MethodCallHandlerImpl implements MethodChannel.MethodCallHandler {
     DartMessenger dartMessenger =
         new DartMessenger(
             messenger, flutterSurfaceTexture.id(), new Handler(Looper.getMainLooper()));
-    CameraProperties cameraProperties =
-        new CameraPropertiesImpl(cameraName, CameraUtils.getCameraManager(activity));
+    CameraProperties cameraProperties = getCameraProperties(cameraName);
     ResolutionPreset resolutionPreset = ResolutionPreset.valueOf(preset);
 
     camera =
@@ -397,6 +504,120 @@ final class MethodCallHandlerImpl implements MethodChannel.MethodCallHandler {
     result.success(reply);
   }
 
+  private ImageStreamOptions parseImageStreamOptions(MethodCall call) {
+    ImageStreamOptions.Builder builder = new ImageStreamOptions.Builder();
+
+    Integer maxPendingFrames = call.argument("maxPendingFrames");
+    if (maxPendingFrames != null) {
+      builder.setMaxPendingFrames(maxPendingFrames);
+    }
+    FrameDropPolicy frameDropPolicy =
+        FrameDropPolicy.getValueForString(call.argument("frameDropPolicy"));
+    if (frameDropPolicy != null) {
+      builder.setFrameDropPolicy(frameDropPolicy);
+    }
+    builder.setLuminanceOnly("luminance".equals(call.argument("planes")));
+    Map<String, Integer> regionOfInterest = call.argument("regionOfInterest");
+    if (regionOfInterest != null) {
+      builder.setRegionOfInterest(
+          getRegionOfInterestValue(regionOfInterest, "left"),
+          getRegionOfInterestValue(regionOfInterest, "top"),
+          getRegionOfInterestValue(regionOfInterest, "width"),
+          getRegionOfInterestValue(regionOfInterest, "height"));
+    }
+    Integer subsampleFactor = call.argument("subsampleFactor");
+    if (subsampleFactor != null) {
+      builder.setSubsampleFactor(subsampleFactor);
+    }
+    ImageStreamOutputFormat outputFormat =
+        ImageStreamOutputFormat.getValueForString(call.argument("outputFormat"));
+    if (outputFormat != null) {
+      builder.setOutputFormat(outputFormat);
+    }
+
+    return builder.build();
+  }
+
+  private static int getRegionOfInterestValue(Map<String, Integer> regionOfInterest, String key) {
+    Integer value = regionOfInterest.get(key);
+    if (value == null) {
+      throw new IllegalArgumentException("regionOfInterest is missing \"" + key + "\".");
+    }
+    return value;
+  }
+
+  private CameraProperties getCameraProperties(String cameraName) throws CameraAccessException {
+    return new CameraPropertiesImpl(cameraName, CameraUtils.getCameraManager(activity));
+  }
+
+  private CameraSettingsUpdate parseCameraSettingsUpdate(MethodCall call) {
+    CameraSettingsUpdate.Builder builder = new CameraSettingsUpdate.Builder();
+
+    FlashMode flashMode = FlashMode.getValueForString(call.argument("flashMode"));
+    if (flashMode != null) {
+      builder.setFlashMode(flashMode);
+    }
+    ExposureMode exposureMode = ExposureMode.getValueForString(call.argument("exposureMode"));
+    if (exposureMode != null) {
+      builder.setExposureMode(exposureMode);
+    }
+    Map<String, Object> exposurePoint = call.argument("exposurePoint");
+    if (exposurePoint != null) {
+      builder.setExposurePoint(parsePoint(exposurePoint));
+    }
+    Double exposureOffset = call.argument("exposureOffset");
+    if (exposureOffset != null) {
+      builder.setExposureOffset(exposureOffset);
+    }
+    FocusMode focusMode = FocusMode.getValueForString(call.argument("focusMode"));
+    if (focusMode != null) {
+      builder.setFocusMode(focusMode);
+    }
+    Map<String, Object> focusPoint = call.argument("focusPoint");
+    if (focusPoint != null) {
+      builder.setFocusPoint(parsePoint(focusPoint));
+    }
+    Double zoomLevel = call.argument("zoomLevel");
+    if (zoomLevel != null) {
+      builder.setZoomLevel(zoomLevel.floatValue());
+    }
+
+    return builder.build();
+  }
+
+  private static VideoEncodingOptions parseVideoEncodingOptions(Map<String, Object> arguments) {
+    VideoEncodingOptions.Builder builder = new VideoEncodingOptions.Builder();
+
+    Integer bitrate = (Integer) arguments.get("bitrate");
+    if (bitrate != null) {
+      builder.setBitrate(bitrate);
+    }
+    Integer keyFrameIntervalMs = (Integer) arguments.get("keyFrameInterval");
+    if (keyFrameIntervalMs != null) {
+      builder.setKeyFrameIntervalMs(keyFrameIntervalMs);
+    }
+    builder.setPreferHevc("hevc".equals(arguments.get("codec")));
+    Integer constantQuality = (Integer) arguments.get("constantQuality");
+    if (constantQuality != null) {
+      builder.setConstantQuality(constantQuality);
+    }
+    Integer highSpeedFrameRate = (Integer) arguments.get("highSpeedFrameRate");
+    if (highSpeedFrameRate != null) {
+      builder.setHighSpeedFrameRate(highSpeedFrameRate);
+    }
+
+    return builder.build();
+  }
+
+  /** Parses a point sent with a "reset" flag, like the arguments of "setExposurePoint". */
+  private static Point parsePoint(Map<String, Object> arguments) {
+    Boolean reset = (Boolean) arguments.get("reset");
+    if (reset != null && reset) {
+      return new Point(null, null);
+    }
+    return new Point((Double) arguments.get("x"), (Double) arguments.get("y"));
+  }
+
   // We move catching CameraAccessException out of onMethodCall because it causes a crash
   // on plugin registration for sdks incompatible with Camera2 (< 21). We want this plugin to
   // to be able to compile with <21 sdks for apps that want the camera and support earlier version.
@@ -5,10 +5,14 @@
 package io.flutter.plugins.camera.features;
 
 import android.app.Activity;
+import android.util.Size;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import io.flutter.plugins.camera.CameraProperties;
 import io.flutter.plugins.camera.DartMessenger;
 import io.flutter.plugins.camera.features.autofocus.AutoFocusFeature;
 import io.flutter.plugins.camera.features.exposurelock.ExposureLockFeature;
+import io.flutter.plugins.camera.features.exposurelock.ExposureMode;
 import io.flutter.plugins.camera.features.exposureoffset.ExposureOffsetFeature;
 import io.flutter.plugins.camera.features.exposurepoint.ExposurePointFeature;
 import io.flutter.plugins.camera.features.flash.FlashFeature;
@@ -19,13 +23,21 @@ import io.flutter.plugins.camera.features.resolution.ResolutionFeature;
 import io.flutter.plugins.camera.features.resolution.ResolutionPreset;
 import io.flutter.plugins.camera.features.sensororientation.SensorOrientationFeature;
 import io.flutter.plugins.camera.features.zoomlevel.ZoomLevelFeature;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * These are all of our available features in the camera. Used in the Camera to access all features
  * in a simpler way.
+ *
+ * <p>Features whose default setting matches the capture request templates are created on first
+ * use. Until then they are not part of {@link #getAllFeatures()}, so they neither query the {@link
+ * CameraProperties} while the camera opens nor touch the capture request, which keeps the template
+ * defaults they would have set anyway. Features with other defaults, like the automatic flash, are
+ * created right away.
  */
 public class CameraFeatures {
   private static final String AUTO_FOCUS = "AUTO_FOCUS";
@@ -41,6 +53,12 @@ public class CameraFeatures {
   private static final String SENSOR_ORIENTATION = "SENSOR_ORIENTATION";
   private static final String ZOOM_LEVEL = "ZOOM_LEVEL";
 
+  /** Creates a feature the first time it is used. */
+  private interface FeatureProvider {
+    @NonNull
+    CameraFeature<?> create();
+  }
+
   public static CameraFeatures init(
       CameraFeatureFactory cameraFeatureFactory,
       CameraProperties cameraProperties,
@@ -48,41 +66,177 @@ public class CameraFeatures {
       DartMessenger dartMessenger,
       ResolutionPreset resolutionPreset) {
     CameraFeatures cameraFeatures = new CameraFeatures();
+    cameraFeatures.cameraProperties = cameraProperties;
+    // These features are needed to open the camera or their defaults differ from the templates.
     cameraFeatures.setAutoFocus(
         cameraFeatureFactory.createAutoFocusFeature(cameraProperties, false));
-    cameraFeatures.setExposureLock(
-        cameraFeatureFactory.createExposureLockFeature(cameraProperties));
-    cameraFeatures.setExposureOffset(
-        cameraFeatureFactory.createExposureOffsetFeature(cameraProperties));
-    SensorOrientationFeature sensorOrientationFeature =
-        cameraFeatureFactory.createSensorOrientationFeature(
-            cameraProperties, activity, dartMessenger);
-    cameraFeatures.setSensorOrientation(sensorOrientationFeature);
-    cameraFeatures.setExposurePoint(
-        cameraFeatureFactory.createExposurePointFeature(
-            cameraProperties, sensorOrientationFeature));
     cameraFeatures.setFlash(cameraFeatureFactory.createFlashFeature(cameraProperties));
-    cameraFeatures.setFocusPoint(
-        cameraFeatureFactory.createFocusPointFeature(cameraProperties, sensorOrientationFeature));
     cameraFeatures.setFpsRange(cameraFeatureFactory.createFpsRangeFeature(cameraProperties));
     cameraFeatures.setNoiseReduction(
         cameraFeatureFactory.createNoiseReductionFeature(cameraProperties));
     cameraFeatures.setResolution(
         cameraFeatureFactory.createResolutionFeature(
             cameraProperties, resolutionPreset, cameraProperties.getCameraName()));
-    cameraFeatures.setZoomLevel(cameraFeatureFactory.createZoomLevelFeature(cameraProperties));
+    // Reports device orientation changes to Dart from the start.
+    cameraFeatures.setSensorOrientation(
+        cameraFeatureFactory.createSensorOrientationFeature(
+            cameraProperties, activity, dartMessenger));
+
+    // The default settings of these features match the capture request templates.
+    cameraFeatures.registerProvider(
+        EXPOSURE_LOCK, () -> cameraFeatureFactory.createExposureLockFeature(cameraProperties));
+    cameraFeatures.registerProvider(
+        EXPOSURE_OFFSET, () -> cameraFeatureFactory.createExposureOffsetFeature(cameraProperties));
+    cameraFeatures.registerProvider(
+        EXPOSURE_POINT,
+        () -> {
+          ExposurePointFeature exposurePoint =
+              cameraFeatureFactory.createExposurePointFeature(
+                  cameraProperties, cameraFeatures.getSensorOrientation());
+          if (cameraFeatures.cameraBoundaries != null) {
+            exposurePoint.setCameraBoundaries(cameraFeatures.cameraBoundaries);
+          }
+          return exposurePoint;
+        });
+    cameraFeatures.registerProvider(
+        FOCUS_POINT,
+        () -> {
+          FocusPointFeature focusPoint =
+              cameraFeatureFactory.createFocusPointFeature(
+                  cameraProperties, cameraFeatures.getSensorOrientation());
+          if (cameraFeatures.cameraBoundaries != null) {
+            focusPoint.setCameraBoundaries(cameraFeatures.cameraBoundaries);
+          }
+          return focusPoint;
+        });
+    cameraFeatures.registerProvider(
+        ZOOM_LEVEL, () -> cameraFeatureFactory.createZoomLevelFeature(cameraProperties));
     return cameraFeatures;
   }
 
-  private Map<String, CameraFeature> featureMap = new HashMap<>();
+  private final Map<String, CameraFeature> featureMap = new HashMap<>();
+  private final Map<String, FeatureProvider> providers = new HashMap<>();
+  @Nullable private Size cameraBoundaries;
+  @Nullable private CameraProperties cameraProperties;
+
+  /**
+   * Registers a provider that creates the feature for the supplied key on first use, unless the
+   * feature is set before that.
+   *
+   * @param key the key of the feature.
+   * @param provider creates the feature.
+   */
+  private synchronized void registerProvider(
+      @NonNull String key, @NonNull FeatureProvider provider) {
+    if (!featureMap.containsKey(key)) {
+      providers.put(key, provider);
+    }
+  }
+
+  private synchronized CameraFeature get(String key) {
+    CameraFeature feature = featureMap.get(key);
+    if (feature == null) {
+      FeatureProvider provider = providers.remove(key);
+      if (provider != null) {
+        feature = provider.create();
+        if (feature != null) {
+          featureMap.put(key, feature);
+        }
+      }
+    }
+    return feature;
+  }
+
+  private synchronized void put(String key, CameraFeature feature) {
+    providers.remove(key);
+    featureMap.put(key, feature);
+  }
+
+  /**
+   * Gets a collection of all features that have been created.
+   *
+   * <p>Features that have not been used yet are left out, as they do not affect the capture
+   * request.
+   *
+   * @return A collection of all features that have been created.
+   */
+  public synchronized Collection<CameraFeature> getAllFeatures() {
+    return new ArrayList<>(this.featureMap.values());
+  }
+
+  /**
+   * Gets the exposure mode without creating the exposure lock feature.
+   *
+   * @return the exposure mode of the exposure lock feature, or auto when it has not been created.
+   */
+  @NonNull
+  public ExposureMode getExposureMode() {
+    ExposureLockFeature exposureLock;
+    synchronized (this) {
+      exposureLock = (ExposureLockFeature) featureMap.get(EXPOSURE_LOCK);
+    }
+    return exposureLock != null ? exposureLock.getValue() : ExposureMode.auto;
+  }
+
+  /**
+   * Checks whether the camera can set the exposure point without creating the exposure point
+   * feature.
+   *
+   * @return true when setting an exposure point is supported.
+   */
+  public boolean isExposurePointSupported() {
+    ExposurePointFeature exposurePoint;
+    synchronized (this) {
+      exposurePoint = (ExposurePointFeature) featureMap.get(EXPOSURE_POINT);
+    }
+    if (exposurePoint != null) {
+      return exposurePoint.checkIsSupported();
+    }
+    return cameraProperties != null && ExposurePointFeature.isSupported(cameraProperties);
+  }
+
+  /**
+   * Checks whether the camera can set the focus point without creating the focus point feature.
+   *
+   * @return true when setting a focus point is supported.
+   */
+  public boolean isFocusPointSupported() {
+    FocusPointFeature focusPoint;
+    synchronized (this) {
+      focusPoint = (FocusPointFeature) featureMap.get(FOCUS_POINT);
+    }
+    if (focusPoint != null) {
+      return focusPoint.checkIsSupported();
+    }
+    return cameraProperties != null && FocusPointFeature.isSupported(cameraProperties);
+  }
 
   /**
-   * Gets a collection of all features that have been set.
+   * Sets the boundaries of the camera regions on the exposure and focus point features, including
+   * the ones that are created later.
+   *
+   * <p>The boundaries are computed again whenever a capture session or request builder is set up,
+   * but rarely change. The metering rectangles are only rebuilt when they do.
    *
-   * @return A collection of all features that have been set.
+   * @param cameraBoundaries the boundaries of the camera regions.
    */
-  public Collection<CameraFeature> getAllFeatures() {
-    return this.featureMap.values();
+  public void setCameraBoundaries(@NonNull Size cameraBoundaries) {
+    ExposurePointFeature exposurePoint;
+    FocusPointFeature focusPoint;
+    synchronized (this) {
+      if (Objects.equals(cameraBoundaries, this.cameraBoundaries)) {
+        return;
+      }
+      this.cameraBoundaries = cameraBoundaries;
+      exposurePoint = (ExposurePointFeature) featureMap.get(EXPOSURE_POINT);
+      focusPoint = (FocusPointFeature) featureMap.get(FOCUS_POINT);
+    }
+    if (exposurePoint != null) {
+      exposurePoint.setCameraBoundaries(cameraBoundaries);
+    }
+    if (focusPoint != null) {
+      focusPoint.setCameraBoundaries(cameraBoundaries);
+    }
   }
 
   /**
@@ -91,7 +245,7 @@ public class CameraFeatures {
    * @return the auto focus feature.
    */
   public AutoFocusFeature getAutoFocus() {
-    return (AutoFocusFeature) featureMap.get(AUTO_FOCUS);
+    return (AutoFocusFeature) get(AUTO_FOCUS);
   }
 
   /**
@@ -100,7 +254,7 @@ public class CameraFeatures {
    * @param autoFocus the {@link AutoFocusFeature} instance to set.
    */
   public void setAutoFocus(AutoFocusFeature autoFocus) {
-    this.featureMap.put(AUTO_FOCUS, autoFocus);
+    put(AUTO_FOCUS, autoFocus);
   }
 
   /**
@@ -109,7 +263,7 @@ public class CameraFeatures {
    * @return the exposure lock feature.
    */
   public ExposureLockFeature getExposureLock() {
-    return (ExposureLockFeature) featureMap.get(EXPOSURE_LOCK);
+    return (ExposureLockFeature) get(EXPOSURE_LOCK);
   }
 
   /**
@@ -118,7 +272,7 @@ public class CameraFeatures {
    * @param exposureLock the {@link ExposureLockFeature} instance to set.
    */
   public void setExposureLock(ExposureLockFeature exposureLock) {
-    this.featureMap.put(EXPOSURE_LOCK, exposureLock);
+    put(EXPOSURE_LOCK, exposureLock);
   }
 
   /**
@@ -127,7 +281,7 @@ public class CameraFeatures {
    * @return the exposure offset feature.
    */
   public ExposureOffsetFeature getExposureOffset() {
-    return (ExposureOffsetFeature) featureMap.get(EXPOSURE_OFFSET);
+    return (ExposureOffsetFeature) get(EXPOSURE_OFFSET);
   }
 
   /**
@@ -136,7 +290,7 @@ public class CameraFeatures {
    * @param exposureOffset the {@link ExposureOffsetFeature} instance to set.
    */
   public void setExposureOffset(ExposureOffsetFeature exposureOffset) {
-    this.featureMap.put(EXPOSURE_OFFSET, exposureOffset);
+    put(EXPOSURE_OFFSET, exposureOffset);
   }
 
   /**
@@ -145,7 +299,7 @@ public class CameraFeatures {
    * @return the exposure point feature.
    */
   public ExposurePointFeature getExposurePoint() {
-    return (ExposurePointFeature) featureMap.get(EXPOSURE_POINT);
+    return (ExposurePointFeature) get(EXPOSURE_POINT);
   }
 
   /**
@@ -154,7 +308,7 @@ public class CameraFeatures {
    * @param exposurePoint the {@link ExposurePointFeature} instance to set.
    */
   public void setExposurePoint(ExposurePointFeature exposurePoint) {
-    this.featureMap.put(EXPOSURE_POINT, exposurePoint);
+    put(EXPOSURE_POINT, exposurePoint);
   }
 
   /**
@@ -163,7 +317,7 @@ public class CameraFeatures {
    * @return the flash feature.
    */
   public FlashFeature getFlash() {
-    return (FlashFeature) featureMap.get(FLASH);
+    return (FlashFeature) get(FLASH);
   }
 
   /**
@@ -172,7 +326,7 @@ public class CameraFeatures {
    * @param flash the {@link FlashFeature} instance to set.
    */
   public void setFlash(FlashFeature flash) {
-    this.featureMap.put(FLASH, flash);
+    put(FLASH, flash);
   }
 
   /**
@@ -181,7 +335,7 @@ public class CameraFeatures {
    * @return the focus point feature.
    */
   public FocusPointFeature getFocusPoint() {
-    return (FocusPointFeature) featureMap.get(FOCUS_POINT);
+    return (FocusPointFeature) get(FOCUS_POINT);
   }
 
   /**
@@ -190,7 +344,7 @@ public class CameraFeatures {
    * @param focusPoint the {@link FocusPointFeature} instance to set.
    */
   public void setFocusPoint(FocusPointFeature focusPoint) {
-    this.featureMap.put(FOCUS_POINT, focusPoint);
+    put(FOCUS_POINT, focusPoint);
   }
 
   /**
@@ -199,7 +353,7 @@ public class CameraFeatures {
    * @return the fps range feature.
    */
   public FpsRangeFeature getFpsRange() {
-    return (FpsRangeFeature) featureMap.get(FPS_RANGE);
+    return (FpsRangeFeature) get(FPS_RANGE);
   }
 
   /**
@@ -208,7 +362,7 @@ public class CameraFeatures {
    * @param fpsRange the {@link FpsRangeFeature} instance to set.
    */
   public void setFpsRange(FpsRangeFeature fpsRange) {
-    this.featureMap.put(FPS_RANGE, fpsRange);
+    put(FPS_RANGE, fpsRange);
   }
 
   /**
@@ -217,7 +371,7 @@ public class CameraFeatures {
    * @return the noise reduction feature.
    */
   public NoiseReductionFeature getNoiseReduction() {
-    return (NoiseReductionFeature) featureMap.get(NOISE_REDUCTION);
+    return (NoiseReductionFeature) get(NOISE_REDUCTION);
   }
 
   /**
@@ -226,7 +380,7 @@ public class CameraFeatures {
    * @param noiseReduction the {@link NoiseReductionFeature} instance to set.
    */
   public void setNoiseReduction(NoiseReductionFeature noiseReduction) {
-    this.featureMap.put(NOISE_REDUCTION, noiseReduction);
+    put(NOISE_REDUCTION, noiseReduction);
   }
 
   /**
@@ -235,7 +389,7 @@ public class CameraFeatures {
    * @return the resolution feature.
    */
   public ResolutionFeature getResolution() {
-    return (ResolutionFeature) featureMap.get(RESOLUTION);
+    return (ResolutionFeature) get(RESOLUTION);
   }
 
   /**
@@ -244,7 +398,7 @@ public class CameraFeatures {
    * @param resolution the {@link ResolutionFeature} instance to set.
    */
   public void setResolution(ResolutionFeature resolution) {
-    this.featureMap.put(RESOLUTION, resolution);
+    put(RESOLUTION, resolution);
   }
 
   /**
@@ -253,7 +407,7 @@ public class CameraFeatures {
    * @return the sensor orientation feature.
    */
   public SensorOrientationFeature getSensorOrientation() {
-    return (SensorOrientationFeature) featureMap.get(SENSOR_ORIENTATION);
+    return (SensorOrientationFeature) get(SENSOR_ORIENTATION);
   }
 
   /**
@@ -262,7 +416,7 @@ public class CameraFeatures {
    * @param sensorOrientation the {@link SensorOrientationFeature} instance to set.
    */
   public void setSensorOrientation(SensorOrientationFeature sensorOrientation) {
-    this.featureMap.put(SENSOR_ORIENTATION, sensorOrientation);
+    put(SENSOR_ORIENTATION, sensorOrientation);
   }
 
   /**
@@ -271,7 +425,7 @@ public class CameraFeatures {
    * @return the zoom level feature.
    */
   public ZoomLevelFeature getZoomLevel() {
-    return (ZoomLevelFeature) featureMap.get(ZOOM_LEVEL);
+    return (ZoomLevelFeature) get(ZOOM_LEVEL);
   }
 
   /**
@@ -280,6 +434,6 @@ public class CameraFeatures {
    * @param zoomLevel the {@link ZoomLevelFeature} instance to set.
    */
   public void setZoomLevel(ZoomLevelFeature zoomLevel) {
-    this.featureMap.put(ZOOM_LEVEL, zoomLevel);
+    put(ZOOM_LEVEL, zoomLevel);
   }
 }
@@ -21,6 +21,7 @@ public class ExposurePointFeature extends CameraFeature<Point> {
   private Size cameraBoundaries;
   private Point exposurePoint;
   private MeteringRectangle exposureRectangle;
+  private MeteringRectangle[] exposureRegions;
   private final SensorOrientationFeature sensorOrientationFeature;
 
   /**
@@ -63,6 +64,16 @@ public class ExposurePointFeature extends CameraFeature<Point> {
   // Whether or not this camera can set the exposure point.
   @Override
   public boolean checkIsSupported() {
+    return isSupported(cameraProperties);
+  }
+
+  /**
+   * Checks whether the camera can set the exposure point, without creating the feature.
+   *
+   * @param cameraProperties the properties of the camera.
+   * @return true when the camera supports at least one auto exposure region.
+   */
+  public static boolean isSupported(@NonNull CameraProperties cameraProperties) {
     Integer supportedRegions = cameraProperties.getControlMaxRegionsAutoExposure();
     return supportedRegions != null && supportedRegions > 0;
   }
@@ -72,9 +83,7 @@ public class ExposurePointFeature extends CameraFeature<Point> {
     if (!checkIsSupported()) {
       return;
     }
-    requestBuilder.set(
-        CaptureRequest.CONTROL_AE_REGIONS,
-        exposureRectangle == null ? null : new MeteringRectangle[] {exposureRectangle});
+    requestBuilder.set(CaptureRequest.CONTROL_AE_REGIONS, exposureRegions);
   }
 
   private void buildExposureRectangle() {
@@ -95,5 +104,7 @@ public class ExposurePointFeature extends CameraFeature<Point> {
           CameraRegionUtils.convertPointToMeteringRectangle(
               this.cameraBoundaries, this.exposurePoint.x, this.exposurePoint.y, orientation);
     }
+    this.exposureRegions =
+        this.exposureRectangle == null ? null : new MeteringRectangle[] {this.exposureRectangle};
   }
 }
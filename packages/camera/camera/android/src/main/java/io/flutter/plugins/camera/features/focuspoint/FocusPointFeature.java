@@ -21,6 +21,8 @@ public class FocusPointFeature extends CameraFeature<Point> {
   private Size cameraBoundaries;
   private Point focusPoint;
   private MeteringRectangle focusRectangle;
+  // The regions are set on every request, so the array is only created when the rectangle changes.
+  private MeteringRectangle[] focusRegions;
   private final SensorOrientationFeature sensorOrientationFeature;
 
   /**
@@ -63,6 +65,16 @@ public class FocusPointFeature extends CameraFeature<Point> {
   // Whether or not this camera can set the focus point.
   @Override
   public boolean checkIsSupported() {
+    return isSupported(cameraProperties);
+  }
+
+  /**
+   * Checks whether the camera can set the focus point, without creating the feature.
+   *
+   * @param cameraProperties the properties of the camera.
+   * @return true when the camera supports at least one auto focus region.
+   */
+  public static boolean isSupported(@NonNull CameraProperties cameraProperties) {
     Integer supportedRegions = cameraProperties.getControlMaxRegionsAutoFocus();
     return supportedRegions != null && supportedRegions > 0;
   }
@@ -72,9 +84,7 @@ public class FocusPointFeature extends CameraFeature<Point> {
     if (!checkIsSupported()) {
       return;
     }
-    requestBuilder.set(
-        CaptureRequest.CONTROL_AF_REGIONS,
-        focusRectangle == null ? null : new MeteringRectangle[] {focusRectangle});
+    requestBuilder.set(CaptureRequest.CONTROL_AF_REGIONS, focusRegions);
   }
 
   private void buildFocusRectangle() {
@@ -95,5 +105,7 @@ public class FocusPointFeature extends CameraFeature<Point> {
           CameraRegionUtils.convertPointToMeteringRectangle(
               this.cameraBoundaries, this.focusPoint.x, this.focusPoint.y, orientation);
     }
+    this.focusRegions =
+        this.focusRectangle == null ? null : new MeteringRectangle[] {this.focusRectangle};
   }
 }
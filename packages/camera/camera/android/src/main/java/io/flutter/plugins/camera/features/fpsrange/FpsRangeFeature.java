@@ -4,19 +4,31 @@
 
 package io.flutter.plugins.camera.features.fpsrange;
 
+import android.annotation.TargetApi;
 import android.hardware.camera2.CaptureRequest;
 import android.os.Build;
+import android.os.Build.VERSION_CODES;
 import android.util.Range;
+import android.util.Size;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import io.flutter.plugins.camera.CameraProperties;
 import io.flutter.plugins.camera.features.CameraFeature;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
 
 /**
  * Controls the frames per seconds (FPS) range configuration on the {@link android.hardware.camera2}
  * API.
+ *
+ * <p>Besides the regular target FPS ranges, the feature can switch to one of the ranges of
+ * constrained high speed capture sessions, see {@link #enableHighSpeed(int)}.
  */
 public class FpsRangeFeature extends CameraFeature<Range<Integer>> {
   private static final Range<Integer> MAX_PIXEL4A_RANGE = new Range<>(30, 30);
   private Range<Integer> currentSetting;
+  @Nullable private Range<Integer> highSpeedSetting;
 
   /**
    * Creates a new instance of the {@link FpsRangeFeature}.
@@ -62,7 +74,7 @@ public class FpsRangeFeature extends CameraFeature<Range<Integer>> {
 
   @Override
   public Range<Integer> getValue() {
-    return currentSetting;
+    return highSpeedSetting != null ? highSpeedSetting : currentSetting;
   }
 
   @Override
@@ -82,6 +94,101 @@ public class FpsRangeFeature extends CameraFeature<Range<Integer>> {
       return;
     }
 
-    requestBuilder.set(CaptureRequest.CONTROL_AE_TARGET_FPS_RANGE, currentSetting);
+    requestBuilder.set(CaptureRequest.CONTROL_AE_TARGET_FPS_RANGE, getValue());
+  }
+
+  /**
+   * Gets the frame rates at which the camera can record in a constrained high speed capture
+   * session.
+   *
+   * @return the supported frame rates in ascending order, empty when the camera does not support
+   *     high speed capture.
+   */
+  @NonNull
+  public List<Integer> getHighSpeedFrameRates() {
+    TreeSet<Integer> frameRates = new TreeSet<>();
+    if (Build.VERSION.SDK_INT < VERSION_CODES.M) {
+      return new ArrayList<>(frameRates);
+    }
+
+    for (Size size : getHighSpeedVideoSizes()) {
+      for (Range<Integer> range : cameraProperties.getHighSpeedVideoFpsRangesFor(size)) {
+        frameRates.add(range.getUpper());
+      }
+    }
+    return new ArrayList<>(frameRates);
+  }
+
+  /**
+   * Selects the largest video size at which the camera can record at the supplied frame rate in a
+   * constrained high speed capture session.
+   *
+   * @param frameRate the frame rate to record at, like 120 or 240.
+   * @param maxSize the largest size that may be selected, usually the recording size of the
+   *     resolution preset.
+   * @return the selected size, or null when the camera does not support the frame rate.
+   */
+  @Nullable
+  public Size selectHighSpeedVideoSize(int frameRate, @NonNull Size maxSize) {
+    if (Build.VERSION.SDK_INT < VERSION_CODES.M) {
+      return null;
+    }
+
+    long maxArea = (long) maxSize.getWidth() * maxSize.getHeight();
+    Size selectedSize = null;
+    long selectedArea = 0;
+    for (Size size : getHighSpeedVideoSizes()) {
+      long area = (long) size.getWidth() * size.getHeight();
+      if (area > maxArea || area <= selectedArea) {
+        continue;
+      }
+      if (findFixedHighSpeedRange(frameRate, size) != null) {
+        selectedSize = size;
+        selectedArea = area;
+      }
+    }
+    return selectedSize;
+  }
+
+  /**
+   * Switches to the fixed high speed range of the supplied frame rate, which constrained high speed
+   * capture sessions require while recording.
+   *
+   * @param frameRate the frame rate to record at.
+   */
+  public void enableHighSpeed(int frameRate) {
+    highSpeedSetting = new Range<>(frameRate, frameRate);
+  }
+
+  /** Switches back to the regular frame rate range. */
+  public void disableHighSpeed() {
+    highSpeedSetting = null;
+  }
+
+  /**
+   * Returns whether a high speed range is selected.
+   *
+   * @return true between {@link #enableHighSpeed(int)} and {@link #disableHighSpeed()}.
+   */
+  public boolean isHighSpeed() {
+    return highSpeedSetting != null;
+  }
+
+  @TargetApi(VERSION_CODES.M)
+  @NonNull
+  private Size[] getHighSpeedVideoSizes() {
+    Size[] sizes = cameraProperties.getHighSpeedVideoSizes();
+    return sizes == null ? new Size[0] : sizes;
+  }
+
+  @TargetApi(VERSION_CODES.M)
+  @Nullable
+  private Range<Integer> findFixedHighSpeedRange(int frameRate, @NonNull Size size) {
+    for (Range<Integer> range : cameraProperties.getHighSpeedVideoFpsRangesFor(size)) {
+      if (range.getLower() == frameRate && range.getUpper() == frameRate) {
+        return range;
+      }
+    }
+    return null;
   }
 }
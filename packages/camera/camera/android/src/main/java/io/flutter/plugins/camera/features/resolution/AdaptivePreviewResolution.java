@@ -0,0 +1,242 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.features.resolution;
+
+import android.os.PowerManager;
+import android.util.Size;
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decides when the preview resolution should be stepped down or up while the camera is running.
+ *
+ * <p>The preview starts at the largest of the supplied sizes. Frame intervals are averaged over
+ * windows of {@link #WINDOW_FRAMES} frames. The resolution is stepped down after {@link
+ * #SLOW_WINDOWS_TO_STEP_DOWN} consecutive windows whose average interval is well above the target
+ * interval, or as soon as the device reports a severe thermal status. It is only stepped back up
+ * after {@link #HEALTHY_WINDOWS_TO_STEP_UP} consecutive healthy windows while the device is not
+ * throttling, so a resolution that barely keeps up does not flip back and forth. Two steps are
+ * always at least {@link #MIN_STEP_INTERVAL_NANOS} apart.
+ *
+ * <p>All decisions are made on the sensor timestamps of the frames, so thermal status changes take
+ * effect with the next frame.
+ */
+public class AdaptivePreviewResolution {
+  /** The number of frame intervals that are averaged before a window is judged. */
+  @VisibleForTesting static final int WINDOW_FRAMES = 30;
+
+  /** The number of consecutive slow windows after which the resolution is stepped down. */
+  @VisibleForTesting static final int SLOW_WINDOWS_TO_STEP_DOWN = 2;
+
+  /** The number of consecutive healthy windows after which the resolution is stepped up. */
+  @VisibleForTesting static final int HEALTHY_WINDOWS_TO_STEP_UP = 10;
+
+  /** The minimum time between two steps, in nanoseconds. */
+  @VisibleForTesting static final long MIN_STEP_INTERVAL_NANOS = 3_000_000_000L;
+
+  /** A window is slow when its average frame interval exceeds the target by this factor. */
+  private static final double SLOW_FRAME_INTERVAL_FACTOR = 1.5;
+
+  /** A window is healthy when its average frame interval stays within the target by this factor. */
+  private static final double HEALTHY_FRAME_INTERVAL_FACTOR = 1.1;
+
+  /** Intervals longer than this are gaps, like a paused preview, instead of slow frames. */
+  private static final long MAX_FRAME_INTERVAL_NANOS = 1_000_000_000L;
+
+  /** The reasons the preview resolution is changed for. */
+  public enum Reason {
+    /** Frames arrived considerably slower than the target frame rate. */
+    FRAME_INTERVAL("frameInterval"),
+    /** The device reported a severe thermal status. */
+    THERMAL("thermal"),
+    /** Frames arrived at the target frame rate for a sustained period. */
+    RECOVERED("recovered");
+
+    private final String name;
+
+    Reason(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  /** Informed about every change of the preview resolution. */
+  public interface OnStepChangedListener {
+    /**
+     * Called when the preview resolution should change.
+     *
+     * <p>This is called on the thread that reported the frame.
+     *
+     * @param size the preview size to use from now on.
+     * @param reason the reason for the change.
+     */
+    void onStepChanged(@NonNull Size size, @NonNull Reason reason);
+  }
+
+  private final List<Size> sizes;
+  private final long targetFrameIntervalNanos;
+  private final OnStepChangedListener listener;
+
+  private int step;
+  private int thermalStatus = PowerManager.THERMAL_STATUS_NONE;
+  private long lastFrameTimestampNanos = -1;
+  private long lastStepTimestampNanos = -1;
+  private long windowIntervalSumNanos;
+  private int windowFrames;
+  private int slowWindows;
+  private int healthyWindows;
+
+  /**
+   * Creates a new instance of the {@link AdaptivePreviewResolution} class.
+   *
+   * @param sizes the preview sizes to choose from, ordered from the largest to the smallest.
+   * @param targetFrameRate the frame rate the preview should reach.
+   * @param listener informed about every change of the preview resolution.
+   */
+  public AdaptivePreviewResolution(
+      @NonNull List<Size> sizes, int targetFrameRate, @NonNull OnStepChangedListener listener) {
+    if (sizes.isEmpty()) {
+      throw new IllegalArgumentException("At least one preview size is required.");
+    }
+    if (targetFrameRate <= 0) {
+      throw new IllegalArgumentException("The target frame rate must be positive.");
+    }
+    this.sizes = Collections.unmodifiableList(new ArrayList<>(sizes));
+    this.targetFrameIntervalNanos = 1_000_000_000L / targetFrameRate;
+    this.listener = listener;
+  }
+
+  /**
+   * Gets the preview size that should currently be used.
+   *
+   * @return the current preview size.
+   */
+  @NonNull
+  public synchronized Size getCurrentSize() {
+    return sizes.get(step);
+  }
+
+  /**
+   * Updates the thermal status of the device.
+   *
+   * @param status one of the {@code PowerManager.THERMAL_STATUS_*} constants.
+   */
+  public synchronized void onThermalStatusChanged(int status) {
+    thermalStatus = status;
+  }
+
+  /**
+   * Reports a captured frame.
+   *
+   * @param sensorTimestampNanos the sensor timestamp of the frame, in nanoseconds.
+   */
+  public void onFrame(long sensorTimestampNanos) {
+    Size changedSize = null;
+    Reason reason = null;
+    synchronized (this) {
+      long previousTimestampNanos = lastFrameTimestampNanos;
+      lastFrameTimestampNanos = sensorTimestampNanos;
+      if (lastStepTimestampNanos < 0) {
+        lastStepTimestampNanos = sensorTimestampNanos;
+      }
+      if (previousTimestampNanos < 0) {
+        return;
+      }
+
+      long intervalNanos = sensorTimestampNanos - previousTimestampNanos;
+      if (intervalNanos > 0 && intervalNanos <= MAX_FRAME_INTERVAL_NANOS) {
+        windowIntervalSumNanos += intervalNanos;
+        windowFrames++;
+      }
+
+      boolean canStep = sensorTimestampNanos - lastStepTimestampNanos >= MIN_STEP_INTERVAL_NANOS;
+      if (thermalStatus >= PowerManager.THERMAL_STATUS_SEVERE) {
+        if (canStep && step < sizes.size() - 1) {
+          reason = Reason.THERMAL;
+          step++;
+        }
+      } else if (windowFrames >= WINDOW_FRAMES) {
+        judgeWindow();
+        if (canStep && slowWindows >= SLOW_WINDOWS_TO_STEP_DOWN && step < sizes.size() - 1) {
+          reason = Reason.FRAME_INTERVAL;
+          step++;
+        } else if (canStep
+            && healthyWindows >= HEALTHY_WINDOWS_TO_STEP_UP
+            && thermalStatus < PowerManager.THERMAL_STATUS_MODERATE
+            && step > 0) {
+          reason = Reason.RECOVERED;
+          step--;
+        }
+      }
+
+      if (reason != null) {
+        lastStepTimestampNanos = sensorTimestampNanos;
+        resetWindows();
+        changedSize = sizes.get(step);
+      }
+    }
+
+    if (changedSize != null) {
+      listener.onStepChanged(changedSize, reason);
+    }
+  }
+
+  /**
+   * Forgets the frames reported so far, for example after the capture session was recreated.
+   *
+   * <p>The current preview size is kept.
+   */
+  public synchronized void reset() {
+    lastFrameTimestampNanos = -1;
+    lastStepTimestampNanos = -1;
+    resetWindows();
+  }
+
+  /**
+   * Makes the supplied size the current preview size without informing the listener, for example
+   * when a change could not be applied.
+   *
+   * @param size one of the sizes this instance was created with.
+   */
+  public synchronized void setCurrentSize(@NonNull Size size) {
+    int index = sizes.indexOf(size);
+    if (index < 0) {
+      throw new IllegalArgumentException("Unknown preview size: " + size);
+    }
+    step = index;
+    reset();
+  }
+
+  private void judgeWindow() {
+    long averageIntervalNanos = windowIntervalSumNanos / windowFrames;
+    windowIntervalSumNanos = 0;
+    windowFrames = 0;
+
+    if (averageIntervalNanos > targetFrameIntervalNanos * SLOW_FRAME_INTERVAL_FACTOR) {
+      slowWindows++;
+      healthyWindows = 0;
+    } else if (averageIntervalNanos <= targetFrameIntervalNanos * HEALTHY_FRAME_INTERVAL_FACTOR) {
+      healthyWindows++;
+      slowWindows = 0;
+    } else {
+      slowWindows = 0;
+      healthyWindows = 0;
+    }
+  }
+
+  private void resetWindows() {
+    windowIntervalSumNanos = 0;
+    windowFrames = 0;
+    slowWindows = 0;
+    healthyWindows = 0;
+  }
+}
@@ -10,9 +10,12 @@ import android.media.CamcorderProfile;
 import android.media.EncoderProfiles;
 import android.os.Build;
 import android.util.Size;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import io.flutter.plugins.camera.CameraProperties;
 import io.flutter.plugins.camera.features.CameraFeature;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -25,6 +28,7 @@ import java.util.List;
 public class ResolutionFeature extends CameraFeature<ResolutionPreset> {
   private Size captureSize;
   private Size previewSize;
+  @Nullable private Size previewSizeOverride;
   private CamcorderProfile recordingProfileLegacy;
   private EncoderProfiles recordingProfile;
   private ResolutionPreset currentSetting;
@@ -65,12 +69,56 @@ public class ResolutionFeature extends CameraFeature<ResolutionPreset> {
   }
 
   /**
-   * Gets the optimal preview size based on the configured resolution.
+   * Gets the optimal preview size based on the configured resolution, or the size set through
+   * {@link #setPreviewSizeOverride(Size)}.
    *
    * @return The optimal preview size.
    */
   public Size getPreviewSize() {
-    return this.previewSize;
+    return previewSizeOverride != null ? previewSizeOverride : this.previewSize;
+  }
+
+  /**
+   * Replaces the preview size computed from the configured resolution until the resolution changes.
+   *
+   * @param size the preview size to use, or null to use the computed preview size again.
+   */
+  public void setPreviewSizeOverride(@Nullable Size size) {
+    this.previewSizeOverride = size;
+  }
+
+  /**
+   * Gets the preview sizes the preview can step down to when frames arrive too slowly.
+   *
+   * <p>The list starts with the preview size of the configured resolution, followed by the distinct
+   * preview sizes of every lower {@link ResolutionPreset}, from the largest to the smallest.
+   *
+   * @return The preview sizes, or an empty list when the resolution is not supported.
+   */
+  @NonNull
+  public List<Size> getAdaptivePreviewSizes() {
+    List<Size> sizes = new ArrayList<>();
+    if (!checkIsSupported() || previewSize == null) {
+      return sizes;
+    }
+
+    sizes.add(previewSize);
+    long previousArea = (long) previewSize.getWidth() * previewSize.getHeight();
+    int highest = Math.min(currentSetting.ordinal(), ResolutionPreset.high.ordinal());
+    for (int i = highest - 1; i >= 0; i--) {
+      Size size;
+      try {
+        size = computeBestPreviewSize(cameraId, ResolutionPreset.values()[i]);
+      } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+        continue;
+      }
+      long area = (long) size.getWidth() * size.getHeight();
+      if (area < previousArea) {
+        sizes.add(size);
+        previousArea = area;
+      }
+    }
+    return sizes;
   }
 
   /**
@@ -95,6 +143,7 @@ public class ResolutionFeature extends CameraFeature<ResolutionPreset> {
   @Override
   public void setValue(ResolutionPreset value) {
     this.currentSetting = value;
+    this.previewSizeOverride = null;
     configureResolution(currentSetting, cameraId);
   }
 
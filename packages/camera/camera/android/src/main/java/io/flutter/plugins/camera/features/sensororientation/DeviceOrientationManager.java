@@ -10,6 +10,8 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.content.res.Configuration;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.Display;
 import android.view.Surface;
 import android.view.WindowManager;
@@ -21,9 +23,17 @@ import io.flutter.plugins.camera.DartMessenger;
 
 /**
  * Support class to help to determine the media orientation based on the orientation of the device.
+ *
+ * <p>While the device is being rotated, the UI orientation can change several times in quick
+ * succession. Orientation changes are therefore only sent to Dart once the orientation has not
+ * changed for a settle window, and only when the settled orientation differs from the one sent
+ * last. The last known orientation used for photos and videos is updated right away.
  */
 public class DeviceOrientationManager {
 
+  /** The default time an orientation has to stay unchanged before it is sent to Dart. */
+  public static final long DEFAULT_SETTLE_WINDOW_MS = 300;
+
   private static final IntentFilter orientationIntentFilter =
       new IntentFilter(Intent.ACTION_CONFIGURATION_CHANGED);
 
@@ -31,7 +41,11 @@ public class DeviceOrientationManager {
   private final DartMessenger messenger;
   private final boolean isFrontFacing;
   private final int sensorOrientation;
+  private final Handler handler;
+  private final long settleWindowMs;
+  private final Runnable settledOrientationSender = this::sendSettledOrientation;
   private PlatformChannel.DeviceOrientation lastOrientation;
+  private PlatformChannel.DeviceOrientation sentOrientation;
   private BroadcastReceiver broadcastReceiver;
 
   /** Factory method to create a device orientation manager. */
@@ -40,18 +54,65 @@ public class DeviceOrientationManager {
       @NonNull DartMessenger messenger,
       boolean isFrontFacing,
       int sensorOrientation) {
-    return new DeviceOrientationManager(activity, messenger, isFrontFacing, sensorOrientation);
+    return create(activity, messenger, isFrontFacing, sensorOrientation, DEFAULT_SETTLE_WINDOW_MS);
+  }
+
+  /**
+   * Factory method to create a device orientation manager with a custom settle window.
+   *
+   * @param settleWindowMs the time in milliseconds an orientation has to stay unchanged before it
+   *     is sent to Dart, or 0 to send every change right away.
+   */
+  public static DeviceOrientationManager create(
+      @NonNull Activity activity,
+      @NonNull DartMessenger messenger,
+      boolean isFrontFacing,
+      int sensorOrientation,
+      long settleWindowMs) {
+    return create(
+        activity,
+        messenger,
+        isFrontFacing,
+        sensorOrientation,
+        new Handler(Looper.getMainLooper()),
+        settleWindowMs);
+  }
+
+  /**
+   * Factory method to create a device orientation manager that settles orientations on the
+   * supplied handler.
+   *
+   * <p>This method is visible for testing purposes only and should never be used outside this
+   * class.
+   */
+  @VisibleForTesting
+  static DeviceOrientationManager create(
+      @NonNull Activity activity,
+      @NonNull DartMessenger messenger,
+      boolean isFrontFacing,
+      int sensorOrientation,
+      @NonNull Handler handler,
+      long settleWindowMs) {
+    if (settleWindowMs < 0) {
+      throw new IllegalArgumentException("The settle window cannot be negative.");
+    }
+    return new DeviceOrientationManager(
+        activity, messenger, isFrontFacing, sensorOrientation, handler, settleWindowMs);
   }
 
   private DeviceOrientationManager(
       @NonNull Activity activity,
       @NonNull DartMessenger messenger,
       boolean isFrontFacing,
-      int sensorOrientation) {
+      int sensorOrientation,
+      @NonNull Handler handler,
+      long settleWindowMs) {
     this.activity = activity;
     this.messenger = messenger;
     this.isFrontFacing = isFrontFacing;
     this.sensorOrientation = sensorOrientation;
+    this.handler = handler;
+    this.settleWindowMs = settleWindowMs;
   }
 
   /**
@@ -88,6 +149,7 @@ public class DeviceOrientationManager {
     }
     activity.unregisterReceiver(broadcastReceiver);
     broadcastReceiver = null;
+    handler.removeCallbacks(settledOrientationSender);
   }
 
   /**
@@ -207,14 +269,26 @@ public class DeviceOrientationManager {
   /**
    * Handles orientation changes based on change events triggered by the OrientationIntentFilter.
    *
+   * <p>The first orientation is sent right away. Later changes are sent once the orientation has
+   * settled, restarting the settle window on every change.
+   *
    * <p>This method is visible for testing purposes only and should never be used outside this
    * class.
    */
   @VisibleForTesting
   void handleUIOrientationChange() {
-    PlatformChannel.DeviceOrientation orientation = getUIOrientation();
-    handleOrientationChange(orientation, lastOrientation, messenger);
-    lastOrientation = orientation;
+    lastOrientation = getUIOrientation();
+    handler.removeCallbacks(settledOrientationSender);
+    if (sentOrientation == null || settleWindowMs == 0) {
+      sendSettledOrientation();
+    } else if (lastOrientation != sentOrientation) {
+      handler.postDelayed(settledOrientationSender, settleWindowMs);
+    }
+  }
+
+  private void sendSettledOrientation() {
+    handleOrientationChange(lastOrientation, sentOrientation, messenger);
+    sentOrientation = lastOrientation;
   }
 
   /**
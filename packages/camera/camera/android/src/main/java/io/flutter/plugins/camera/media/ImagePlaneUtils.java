@@ -0,0 +1,73 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.media;
+
+import androidx.annotation.NonNull;
+import java.nio.ByteBuffer;
+
+/** Provides utilities to copy parts of {@link android.media.Image.Plane} buffers. */
+public final class ImagePlaneUtils {
+
+  private ImagePlaneUtils() {}
+
+  /**
+   * Copies a rectangular, optionally subsampled, part of an image plane into a tightly packed
+   * array with one byte per pixel.
+   *
+   * <p>Row and pixel strides of the source plane are honoured, so the result can be used directly
+   * as a plane with a row stride of {@code outputWidth} and a pixel stride of 1.
+   *
+   * @param source the plane buffer to copy from.
+   * @param rowStride the row stride of the source plane, in bytes.
+   * @param pixelStride the pixel stride of the source plane, in bytes.
+   * @param left the left edge of the region to copy, in plane pixels.
+   * @param top the top edge of the region to copy, in plane pixels.
+   * @param outputWidth the number of pixels to copy per row.
+   * @param outputHeight the number of rows to copy.
+   * @param step the subsample step; every {@code step}th pixel of every {@code step}th row is
+   *     copied.
+   * @param destination the array to copy into, at least {@code outputWidth * outputHeight} long.
+   */
+  public static void copyPlane(
+      @NonNull ByteBuffer source,
+      int rowStride,
+      int pixelStride,
+      int left,
+      int top,
+      int outputWidth,
+      int outputHeight,
+      int step,
+      @NonNull byte[] destination) {
+    int destinationIndex = 0;
+    int sourcePixelStep = pixelStride * step;
+
+    for (int row = 0; row < outputHeight; row++) {
+      int sourceIndex = (top + row * step) * rowStride + left * pixelStride;
+
+      if (sourcePixelStep == 1) {
+        // Contiguous row, copy it in bulk.
+        source.position(sourceIndex);
+        source.get(destination, destinationIndex, outputWidth);
+        destinationIndex += outputWidth;
+      } else {
+        for (int column = 0; column < outputWidth; column++) {
+          destination[destinationIndex++] = source.get(sourceIndex);
+          sourceIndex += sourcePixelStep;
+        }
+      }
+    }
+  }
+
+  /**
+   * Computes the size of a plane after it has been subsampled.
+   *
+   * @param size the width or height of the plane before subsampling.
+   * @param step the subsample step.
+   * @return the number of pixels left after subsampling, at least 1.
+   */
+  public static int getSubsampledSize(int size, int step) {
+    return Math.max(1, (size + step - 1) / step);
+  }
+}
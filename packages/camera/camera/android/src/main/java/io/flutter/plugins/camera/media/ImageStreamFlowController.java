@@ -0,0 +1,186 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.media;
+
+import android.media.Image;
+import android.os.Handler;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import io.flutter.plugin.common.EventChannel;
+import io.flutter.plugins.camera.types.CaptureResultSnapshot;
+import io.flutter.plugins.camera.types.FrameDropPolicy;
+import io.flutter.plugins.camera.types.ImageStreamOptions;
+import java.util.ArrayDeque;
+
+/**
+ * Decides which image stream frames are sent to Dart.
+ *
+ * <p>Frames are copied into an {@link ImageStreamFramePool} on the camera background thread and
+ * posted to the main thread. When flow control is enabled in the {@link ImageStreamOptions}, at
+ * most {@link ImageStreamOptions#getMaxPendingFrames()} frames may be outstanding until Dart
+ * acknowledges them through {@link #onFrameProcessed()}. Once that window is full, either the
+ * oldest frame that is still queued on the main thread or the incoming frame is dropped, depending
+ * on the configured {@link FrameDropPolicy}.
+ */
+public class ImageStreamFlowController implements ImageStreamFramePool.OnFrameDeliveredListener {
+  /** Minimum time between two dropped frame reports. */
+  @VisibleForTesting static final long DROPPED_FRAMES_REPORT_INTERVAL_MS = 1000;
+
+  /** Informs interested parties about frames that were not sent to Dart. */
+  public interface OnFramesDroppedListener {
+    /**
+     * Called when frames have been dropped, at most once every second.
+     *
+     * @param droppedFrames the total number of frames dropped since the stream was started.
+     */
+    void onFramesDropped(long droppedFrames);
+  }
+
+  private final Handler mainHandler;
+  private final ImageStreamOptions options;
+  private final OnFramesDroppedListener onFramesDroppedListener;
+  private final ImageStreamFramePool framePool;
+  private final ArrayDeque<ImageStreamFramePool.Frame> queuedFrames = new ArrayDeque<>();
+
+  private int pendingFrames;
+  private long droppedFrames;
+  private long lastDroppedFramesReportTime = -DROPPED_FRAMES_REPORT_INTERVAL_MS;
+
+  /**
+   * Creates a new instance of the {@link ImageStreamFlowController} class.
+   *
+   * @param mainHandler the handler used to deliver frames on the main thread.
+   * @param options the options of the image stream.
+   * @param onFramesDroppedListener listener informed about dropped frames.
+   */
+  public ImageStreamFlowController(
+      @NonNull Handler mainHandler,
+      @NonNull ImageStreamOptions options,
+      @NonNull OnFramesDroppedListener onFramesDroppedListener) {
+    this.mainHandler = mainHandler;
+    this.options = options;
+    this.onFramesDroppedListener = onFramesDroppedListener;
+    this.framePool =
+        new ImageStreamFramePool(
+            Math.max(ImageStreamFramePool.DEFAULT_CAPACITY, options.getMaxPendingFrames()),
+            options,
+            this);
+  }
+
+  /**
+   * Copies the supplied image and posts it to the main thread, unless it has to be dropped.
+   *
+   * <p>This method should be called on the camera background thread. The image is not closed.
+   *
+   * @param image the image received from the image stream reader.
+   * @param captureResult the capture result metadata of the frame that produced the image.
+   * @param imageStreamSink the sink the frame should be delivered to.
+   */
+  public synchronized void onImageAvailable(
+      @NonNull Image image,
+      @NonNull CaptureResultSnapshot captureResult,
+      @NonNull EventChannel.EventSink imageStreamSink) {
+    if (options.isFlowControlEnabled() && pendingFrames >= options.getMaxPendingFrames()) {
+      if (!dropOldestQueuedFrame()) {
+        recordDroppedFrame();
+        return;
+      }
+    }
+
+    ImageStreamFramePool.Frame frame = framePool.acquire(image, captureResult, imageStreamSink);
+    if (frame == null && dropOldestQueuedFrame()) {
+      frame = framePool.acquire(image, captureResult, imageStreamSink);
+    }
+    if (frame == null) {
+      recordDroppedFrame();
+      return;
+    }
+
+    if (options.isFlowControlEnabled()) {
+      pendingFrames++;
+    }
+    queuedFrames.add(frame);
+    mainHandler.post(frame);
+  }
+
+  /** Acknowledges that Dart finished processing a frame, freeing up a slot in the window. */
+  public synchronized void onFrameProcessed() {
+    if (pendingFrames > 0) {
+      pendingFrames--;
+    }
+  }
+
+  /** Cancels all frames that have not been delivered yet. */
+  public synchronized void stop() {
+    ImageStreamFramePool.Frame frame;
+    while ((frame = queuedFrames.poll()) != null) {
+      if (frame.cancel()) {
+        mainHandler.removeCallbacks(frame);
+      }
+    }
+    pendingFrames = 0;
+  }
+
+  @Override
+  public synchronized void onFrameDelivered(@NonNull ImageStreamFramePool.Frame frame) {
+    queuedFrames.remove(frame);
+  }
+
+  /**
+   * Gets the number of frames that were sent but not yet acknowledged.
+   *
+   * @return the number of pending frames.
+   */
+  @VisibleForTesting
+  synchronized int getPendingFrames() {
+    return pendingFrames;
+  }
+
+  /**
+   * Gets the total number of dropped frames.
+   *
+   * @return the total number of dropped frames since the stream was started.
+   */
+  public synchronized long getDroppedFrames() {
+    return droppedFrames;
+  }
+
+  /**
+   * Cancels the oldest frame still waiting on the main thread, if the drop policy allows it.
+   *
+   * @return true when a queued frame was dropped to make room for a new one.
+   */
+  private boolean dropOldestQueuedFrame() {
+    if (options.getFrameDropPolicy() != FrameDropPolicy.dropOldest) {
+      return false;
+    }
+
+    ImageStreamFramePool.Frame frame;
+    while ((frame = queuedFrames.poll()) != null) {
+      // Frames that were delivered in the meantime can no longer be cancelled.
+      if (frame.cancel()) {
+        mainHandler.removeCallbacks(frame);
+        if (options.isFlowControlEnabled() && pendingFrames > 0) {
+          pendingFrames--;
+        }
+        recordDroppedFrame();
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private void recordDroppedFrame() {
+    droppedFrames++;
+
+    long now = SystemClock.elapsedRealtime();
+    if (now - lastDroppedFramesReportTime >= DROPPED_FRAMES_REPORT_INTERVAL_MS) {
+      lastDroppedFramesReportTime = now;
+      onFramesDroppedListener.onFramesDropped(droppedFrames);
+    }
+  }
+}
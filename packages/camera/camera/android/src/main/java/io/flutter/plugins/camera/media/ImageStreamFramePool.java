@@ -0,0 +1,391 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.media;
+
+import android.graphics.ImageFormat;
+import android.graphics.PixelFormat;
+import android.media.Image;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import io.flutter.plugin.common.EventChannel;
+import io.flutter.plugins.camera.types.CaptureResultSnapshot;
+import io.flutter.plugins.camera.types.ImageStreamOptions;
+import io.flutter.plugins.camera.types.ImageStreamOutputFormat;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A fixed ring of reusable image stream frames.
+ *
+ * <p>Each frame owns the plane byte arrays and the metadata maps that are handed to the image
+ * stream {@link EventChannel.EventSink}. Once the frame has been delivered on the main thread it is
+ * returned to the ring, so in steady state streaming an image does not allocate new plane buffers
+ * or containers.
+ */
+public class ImageStreamFramePool {
+  /** The number of frames kept in the ring when no capacity is specified. */
+  public static final int DEFAULT_CAPACITY = 3;
+
+  /** Informs interested parties that a frame has been delivered to its sink. */
+  public interface OnFrameDeliveredListener {
+    /**
+     * Called on the delivering thread after the frame has been sent to its sink.
+     *
+     * @param frame the frame that was delivered.
+     */
+    void onFrameDelivered(@NonNull Frame frame);
+  }
+
+  private final Frame[] frames;
+  private int nextFrameIndex;
+
+  /** Creates a new instance of the {@link ImageStreamFramePool} with the default capacity. */
+  public ImageStreamFramePool() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates a new instance of the {@link ImageStreamFramePool}.
+   *
+   * @param capacity the number of frames in the ring.
+   */
+  public ImageStreamFramePool(int capacity) {
+    this(capacity, new ImageStreamOptions(), null);
+  }
+
+  /**
+   * Creates a new instance of the {@link ImageStreamFramePool}.
+   *
+   * @param capacity the number of frames in the ring.
+   * @param options the options describing which part of each image is copied.
+   * @param onFrameDeliveredListener optional listener that is informed whenever a frame has been
+   *     delivered.
+   */
+  public ImageStreamFramePool(
+      int capacity,
+      @NonNull ImageStreamOptions options,
+      @Nullable OnFrameDeliveredListener onFrameDeliveredListener) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("The frame pool needs a capacity of at least 1.");
+    }
+
+    frames = new Frame[capacity];
+    for (int i = 0; i < capacity; i++) {
+      frames[i] = new Frame(options, onFrameDeliveredListener);
+    }
+  }
+
+  /**
+   * Copies the supplied image into the next free frame of the ring.
+   *
+   * <p>The returned frame is marked as in use until it has been delivered by calling {@link
+   * Frame#run()}, typically by posting it to the main thread.
+   *
+   * @param image the image to copy. The image is not closed by this method.
+   * @param captureResult the capture result metadata of the frame to attach to the frame.
+   * @param imageStreamSink the sink the frame will be delivered to.
+   * @return the filled frame, or null when every frame in the ring is still waiting to be
+   *     delivered.
+   */
+  @Nullable
+  public Frame acquire(
+      @NonNull Image image,
+      @NonNull CaptureResultSnapshot captureResult,
+      @NonNull EventChannel.EventSink imageStreamSink) {
+    for (int i = 0; i < frames.length; i++) {
+      Frame frame = frames[(nextFrameIndex + i) % frames.length];
+      if (!frame.inUse) {
+        nextFrameIndex = (nextFrameIndex + i + 1) % frames.length;
+        frame.inUse = true;
+        frame.fill(image, captureResult, imageStreamSink);
+        return frame;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Gets the number of frames in the ring.
+   *
+   * @return the number of frames in the ring.
+   */
+  public int getCapacity() {
+    return frames.length;
+  }
+
+  /**
+   * A single reusable image stream frame. Running the frame sends it to its sink and returns it to
+   * the ring.
+   */
+  public static class Frame implements Runnable {
+    private final Map<String, Object> imageBuffer = new HashMap<>();
+    private final List<Map<String, Object>> planes = new ArrayList<>();
+    private final List<Map<String, Object>> planeBuffers = new ArrayList<>();
+    private final List<byte[]> planeBytes = new ArrayList<>();
+    private final YuvConverter yuvConverter = new YuvConverter();
+    private final YuvConverter.YuvPlanes yuvPlanes = new YuvConverter.YuvPlanes();
+
+    private final ImageStreamOptions options;
+    @Nullable private final OnFrameDeliveredListener onFrameDeliveredListener;
+    private volatile boolean inUse;
+    @Nullable private EventChannel.EventSink imageStreamSink;
+    // The region selected by updateRegion, kept in fields so copying a frame does not allocate.
+    private int regionLeft;
+    private int regionTop;
+    private int regionWidth;
+    private int regionHeight;
+
+    private Frame(
+        ImageStreamOptions options, @Nullable OnFrameDeliveredListener onFrameDeliveredListener) {
+      this.options = options;
+      this.onFrameDeliveredListener = onFrameDeliveredListener;
+      imageBuffer.put("planes", planes);
+    }
+
+    private void fill(
+        Image image, CaptureResultSnapshot captureResult, EventChannel.EventSink imageStreamSink) {
+      this.imageStreamSink = imageStreamSink;
+
+      planes.clear();
+      boolean isYuv = image.getFormat() == ImageFormat.YUV_420_888;
+      if (isYuv && options.getOutputFormat() != ImageStreamOutputFormat.yuv420) {
+        fillConvertedPlane(image);
+      } else if (isYuv && options.hasTransformations()) {
+        fillTransformedPlanes(image);
+        imageBuffer.put("format", image.getFormat());
+      } else {
+        fillPlanes(image);
+        imageBuffer.put("format", image.getFormat());
+      }
+
+      imageBuffer.put("lensAperture", captureResult.getLensAperture());
+      imageBuffer.put("sensorExposureTime", captureResult.getSensorExposureTime());
+      Integer sensorSensitivity = captureResult.getSensorSensitivity();
+      imageBuffer.put(
+          "sensorSensitivity", sensorSensitivity == null ? null : (double) sensorSensitivity);
+    }
+
+    private void fillPlanes(Image image) {
+      Image.Plane[] imagePlanes = image.getPlanes();
+      for (int i = 0; i < imagePlanes.length; i++) {
+        Image.Plane plane = imagePlanes[i];
+        ByteBuffer buffer = plane.getBuffer();
+
+        Map<String, Object> planeBuffer = obtainPlaneBuffer(i);
+        byte[] bytes = obtainPlaneBytes(i, buffer.remaining());
+        buffer.get(bytes, 0, bytes.length);
+
+        planeBuffer.put("bytesPerRow", plane.getRowStride());
+        planeBuffer.put("bytesPerPixel", plane.getPixelStride());
+        planeBuffer.put("bytes", bytes);
+        planes.add(planeBuffer);
+      }
+
+      imageBuffer.put("width", image.getWidth());
+      imageBuffer.put("height", image.getHeight());
+    }
+
+    /**
+     * Copies the configured region of a YUV_420_888 image, skipping the chroma planes when only
+     * luminance was requested. The chroma planes of YUV_420_888 images are subsampled by 2 in both
+     * directions, so the region is aligned to even coordinates.
+     */
+    private void fillTransformedPlanes(Image image) {
+      updateRegion(image.getWidth(), image.getHeight());
+      int left = regionLeft;
+      int top = regionTop;
+      int width = regionWidth;
+      int height = regionHeight;
+      int step = options.getSubsampleFactor();
+
+      Image.Plane[] imagePlanes = image.getPlanes();
+      int planeCount = options.isLuminanceOnly() ? 1 : imagePlanes.length;
+      for (int i = 0; i < planeCount; i++) {
+        Image.Plane plane = imagePlanes[i];
+        int scale = i == 0 ? 1 : 2;
+        int outputWidth = ImagePlaneUtils.getSubsampledSize(width / scale, step);
+        int outputHeight = ImagePlaneUtils.getSubsampledSize(height / scale, step);
+
+        Map<String, Object> planeBuffer = obtainPlaneBuffer(i);
+        byte[] bytes = obtainPlaneBytes(i, outputWidth * outputHeight);
+        ImagePlaneUtils.copyPlane(
+            plane.getBuffer(),
+            plane.getRowStride(),
+            plane.getPixelStride(),
+            left / scale,
+            top / scale,
+            outputWidth,
+            outputHeight,
+            step,
+            bytes);
+
+        planeBuffer.put("bytesPerRow", outputWidth);
+        planeBuffer.put("bytesPerPixel", 1);
+        planeBuffer.put("bytes", bytes);
+        planes.add(planeBuffer);
+      }
+
+      imageBuffer.put("width", ImagePlaneUtils.getSubsampledSize(width, step));
+      imageBuffer.put("height", ImagePlaneUtils.getSubsampledSize(height, step));
+    }
+
+    /**
+     * Converts the configured region of a YUV_420_888 image into a single NV21 or RGBA plane. The
+     * conversion runs on the thread that acquires the frame, so it stays off the main thread. Plane
+     * selection and subsampling are ignored, as they only apply to the YUV planes.
+     */
+    private void fillConvertedPlane(Image image) {
+      updateRegion(image.getWidth() & ~1, image.getHeight() & ~1);
+      int left = regionLeft;
+      int top = regionTop;
+      int width = regionWidth;
+      int height = regionHeight;
+
+      Image.Plane[] imagePlanes = image.getPlanes();
+      yuvPlanes.set(
+          imagePlanes[0].getBuffer(),
+          imagePlanes[0].getRowStride(),
+          imagePlanes[0].getPixelStride(),
+          imagePlanes[1].getBuffer(),
+          imagePlanes[2].getBuffer(),
+          imagePlanes[1].getRowStride(),
+          imagePlanes[1].getPixelStride());
+
+      Map<String, Object> planeBuffer = obtainPlaneBuffer(0);
+      byte[] bytes;
+      if (options.getOutputFormat() == ImageStreamOutputFormat.rgba8888) {
+        bytes = obtainPlaneBytes(0, YuvConverter.getRgbaSize(width, height));
+        yuvConverter.toRgba(yuvPlanes, left, top, width, height, bytes);
+        planeBuffer.put("bytesPerRow", width * 4);
+        planeBuffer.put("bytesPerPixel", 4);
+        imageBuffer.put("format", PixelFormat.RGBA_8888);
+      } else {
+        bytes = obtainPlaneBytes(0, YuvConverter.getNv21Size(width, height));
+        yuvConverter.toNv21(yuvPlanes, left, top, width, height, bytes);
+        planeBuffer.put("bytesPerRow", width);
+        planeBuffer.put("bytesPerPixel", 1);
+        imageBuffer.put("format", ImageFormat.NV21);
+      }
+      planeBuffer.put("bytes", bytes);
+      planes.add(planeBuffer);
+
+      imageBuffer.put("width", width);
+      imageBuffer.put("height", height);
+    }
+
+    /**
+     * Selects the part of an image of the given size that is copied: the whole image, or the
+     * configured region of interest clamped to the image and aligned to even coordinates.
+     */
+    private void updateRegion(int imageWidth, int imageHeight) {
+      if (!options.hasRegionOfInterest()) {
+        regionLeft = 0;
+        regionTop = 0;
+        regionWidth = imageWidth;
+        regionHeight = imageHeight;
+        return;
+      }
+
+      regionLeft = Math.min(options.getRegionLeft(), imageWidth - 2) & ~1;
+      regionTop = Math.min(options.getRegionTop(), imageHeight - 2) & ~1;
+      regionWidth = Math.max(2, Math.min(options.getRegionWidth(), imageWidth - regionLeft) & ~1);
+      regionHeight = Math.max(2, Math.min(options.getRegionHeight(), imageHeight - regionTop) & ~1);
+    }
+
+    private Map<String, Object> obtainPlaneBuffer(int index) {
+      if (index < planeBuffers.size()) {
+        return planeBuffers.get(index);
+      }
+
+      Map<String, Object> planeBuffer = new HashMap<>();
+      planeBuffers.add(planeBuffer);
+      return planeBuffer;
+    }
+
+    private byte[] obtainPlaneBytes(int index, int size) {
+      if (index < planeBytes.size()) {
+        byte[] bytes = planeBytes.get(index);
+        if (bytes.length == size) {
+          return bytes;
+        }
+
+        bytes = new byte[size];
+        planeBytes.set(index, bytes);
+        return bytes;
+      }
+
+      byte[] bytes = new byte[size];
+      planeBytes.add(bytes);
+      return bytes;
+    }
+
+    /**
+     * Gets the image data that will be sent to the image stream sink.
+     *
+     * @return the image data of this frame.
+     */
+    @VisibleForTesting
+    public Map<String, Object> getImageBuffer() {
+      return imageBuffer;
+    }
+
+    /**
+     * Indicates whether the frame is still waiting to be delivered.
+     *
+     * @return true when the frame has been acquired but not yet delivered.
+     */
+    public boolean isInUse() {
+      return inUse;
+    }
+
+    /**
+     * Returns the frame to the ring without delivering it.
+     *
+     * @return true when the frame was still waiting to be delivered and has been cancelled, false
+     *     when it was already delivered.
+     */
+    public synchronized boolean cancel() {
+      if (!inUse) {
+        return false;
+      }
+
+      imageStreamSink = null;
+      inUse = false;
+      return true;
+    }
+
+    /**
+     * Sends the frame to the image stream sink and returns it to the ring. The standard message
+     * codec encodes the frame synchronously, so its buffers can safely be reused afterwards.
+     */
+    @Override
+    public void run() {
+      synchronized (this) {
+        if (!inUse) {
+          // The frame was cancelled before it could be delivered.
+          return;
+        }
+
+        try {
+          if (imageStreamSink != null) {
+            imageStreamSink.success(imageBuffer);
+          }
+        } finally {
+          imageStreamSink = null;
+          inUse = false;
+        }
+      }
+
+      if (onFrameDeliveredListener != null) {
+        onFrameDeliveredListener.onFrameDelivered(this);
+      }
+    }
+  }
+}
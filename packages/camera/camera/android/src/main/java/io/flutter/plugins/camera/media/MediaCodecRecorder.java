@@ -0,0 +1,656 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.media;
+
+import android.annotation.SuppressLint;
+import android.media.AudioFormat;
+import android.media.AudioRecord;
+import android.media.MediaCodec;
+import android.media.MediaCodecInfo;
+import android.media.MediaCodecList;
+import android.media.MediaFormat;
+import android.media.MediaMuxer;
+import android.media.MediaRecorder;
+import android.os.Build;
+import android.os.Bundle;
+import android.util.Log;
+import android.view.Surface;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import io.flutter.plugins.camera.types.VideoEncodingOptions;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records videos by feeding camera frames into the input surface of a hardware {@link MediaCodec}
+ * encoder and writing the encoded samples with a {@link MediaMuxer}.
+ *
+ * <p>Unlike {@link android.media.MediaRecorder}, the bitrate, the key frame interval, the codec
+ * and the bitrate mode of the encoder can be configured through {@link VideoEncodingOptions}.
+ *
+ * <p>The encoders are drained on their own threads. Frames produced while the recorder is paused,
+ * or before it is started, are dropped, and recording continues with a key frame once the recorder
+ * is resumed. Timestamps are shifted so the paused time does not show up in the video.
+ */
+public class MediaCodecRecorder {
+  private static final String TAG = "MediaCodecRecorder";
+  private static final long DEQUEUE_TIMEOUT_US = 10_000;
+  private static final long STOP_TIMEOUT_MS = 2_000;
+  private static final int AUDIO_SAMPLES_PER_FRAME = 1024;
+
+  /**
+   * The maximum number of encoded samples kept while waiting for the format of the other track,
+   * which is about eight seconds of 30 fps video. Later samples are dropped.
+   */
+  @VisibleForTesting static final int MAX_PENDING_SAMPLES = 256;
+
+  /** Informed once a recording has been finalized, see {@link #stop(OnStoppedListener)}. */
+  public interface OnStoppedListener {
+    /**
+     * Called on a background thread once the encoders have been drained and released.
+     *
+     * @param errorMessage null when the output file was finalized, otherwise why it is not valid.
+     */
+    void onStopped(@Nullable String errorMessage);
+  }
+
+  /** Creates the Android media objects used by the recorder, so they can be mocked in tests. */
+  static class Factory {
+    MediaCodec createEncoder(@NonNull String mimeType) throws IOException {
+      return MediaCodec.createEncoderByType(mimeType);
+    }
+
+    MediaMuxer createMuxer(@NonNull String outputFilePath) throws IOException {
+      return new MediaMuxer(outputFilePath, MediaMuxer.OutputFormat.MUXER_OUTPUT_MPEG_4);
+    }
+
+    @SuppressLint("MissingPermission")
+    AudioRecord createAudioRecord(int sampleRate, int channelConfig, int bufferSize) {
+      return new AudioRecord(
+          MediaRecorder.AudioSource.MIC,
+          sampleRate,
+          channelConfig,
+          AudioFormat.ENCODING_PCM_16BIT,
+          bufferSize);
+    }
+
+    boolean isEncoderAvailable(@NonNull String mimeType, int width, int height) {
+      MediaCodecList codecList = new MediaCodecList(MediaCodecList.REGULAR_CODECS);
+      for (MediaCodecInfo codecInfo : codecList.getCodecInfos()) {
+        if (!codecInfo.isEncoder()) {
+          continue;
+        }
+        for (String type : codecInfo.getSupportedTypes()) {
+          if (type.equalsIgnoreCase(mimeType)
+              && codecInfo
+                  .getCapabilitiesForType(type)
+                  .getVideoCapabilities()
+                  .isSizeSupported(width, height)) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+  }
+
+  private final String outputFilePath;
+  private final VideoEncodingOptions encodingOptions;
+  private final Factory factory;
+  private final Object muxerLock = new Object();
+
+  private boolean enableAudio;
+  private int mediaOrientation;
+  private int videoWidth;
+  private int videoHeight;
+  private int videoFrameRate = 30;
+  private int defaultVideoBitrate;
+  private int audioBitrate = 64_000;
+  private int audioSampleRate = 44_100;
+  private int audioChannels = 1;
+
+  @Nullable private MediaCodec videoEncoder;
+  @Nullable private MediaCodec audioEncoder;
+  @Nullable private AudioRecord audioRecord;
+  @Nullable private MediaMuxer muxer;
+  @Nullable private Surface inputSurface;
+  @Nullable private Thread videoThread;
+  @Nullable private Thread audioThread;
+
+  private Track videoTrack;
+  @Nullable private Track audioTrack;
+  private boolean muxerStarted;
+  private final List<PendingSample> pendingSamples = new ArrayList<>();
+
+  private volatile boolean paused = true;
+  private volatile boolean stopping;
+  private volatile boolean released;
+
+  public MediaCodecRecorder(
+      @NonNull VideoEncodingOptions encodingOptions, @NonNull String outputFilePath) {
+    this(encodingOptions, outputFilePath, new Factory());
+  }
+
+  @VisibleForTesting
+  MediaCodecRecorder(
+      @NonNull VideoEncodingOptions encodingOptions,
+      @NonNull String outputFilePath,
+      @NonNull Factory factory) {
+    this.encodingOptions = encodingOptions;
+    this.outputFilePath = outputFilePath;
+    this.factory = factory;
+  }
+
+  public MediaCodecRecorder setEnableAudio(boolean enableAudio) {
+    this.enableAudio = enableAudio;
+    return this;
+  }
+
+  public MediaCodecRecorder setMediaOrientation(int orientation) {
+    this.mediaOrientation = orientation;
+    return this;
+  }
+
+  public MediaCodecRecorder setVideoSize(int width, int height) {
+    this.videoWidth = width;
+    this.videoHeight = height;
+    return this;
+  }
+
+  public MediaCodecRecorder setVideoFrameRate(int frameRate) {
+    this.videoFrameRate = frameRate;
+    return this;
+  }
+
+  /** Sets the bitrate used when the encoding options do not set one. */
+  public MediaCodecRecorder setDefaultVideoBitrate(int bitrate) {
+    this.defaultVideoBitrate = bitrate;
+    return this;
+  }
+
+  public MediaCodecRecorder setAudioEncoding(int bitrate, int sampleRate, int channels) {
+    this.audioBitrate = bitrate;
+    this.audioSampleRate = sampleRate;
+    this.audioChannels = channels;
+    return this;
+  }
+
+  /**
+   * Creates and starts the encoders and the muxer. Frames rendered into {@link #getSurface()} are
+   * dropped until {@link #start()} is called.
+   *
+   * @throws IOException when an encoder or the output file could not be created.
+   */
+  public void prepare() throws IOException {
+    String videoMimeType = getVideoMimeType();
+    videoEncoder = factory.createEncoder(videoMimeType);
+    MediaFormat videoFormat = createVideoFormat(videoMimeType, getCapabilities(videoMimeType));
+    videoEncoder.configure(videoFormat, null, null, MediaCodec.CONFIGURE_FLAG_ENCODE);
+    inputSurface = videoEncoder.createInputSurface();
+    videoTrack = new Track(1_000_000L / Math.max(videoFrameRate, 1));
+
+    if (enableAudio) {
+      audioEncoder = factory.createEncoder(MediaFormat.MIMETYPE_AUDIO_AAC);
+      audioEncoder.configure(createAudioFormat(), null, null, MediaCodec.CONFIGURE_FLAG_ENCODE);
+      int channelConfig =
+          audioChannels == 2 ? AudioFormat.CHANNEL_IN_STEREO : AudioFormat.CHANNEL_IN_MONO;
+      int minBufferSize =
+          AudioRecord.getMinBufferSize(
+              audioSampleRate, channelConfig, AudioFormat.ENCODING_PCM_16BIT);
+      audioRecord =
+          factory.createAudioRecord(
+              audioSampleRate, channelConfig, Math.max(minBufferSize, 8 * AUDIO_SAMPLES_PER_FRAME));
+      audioTrack = new Track(AUDIO_SAMPLES_PER_FRAME * 1_000_000L / audioSampleRate);
+    }
+
+    muxer = factory.createMuxer(outputFilePath);
+    muxer.setOrientationHint(mediaOrientation);
+
+    videoEncoder.start();
+    videoThread = new Thread(this::drainVideo, "MediaCodecRecorder-video");
+    videoThread.start();
+    if (audioEncoder != null) {
+      audioEncoder.start();
+      audioRecord.startRecording();
+      audioThread = new Thread(this::encodeAudio, "MediaCodecRecorder-audio");
+      audioThread.start();
+    }
+  }
+
+  /** Gets the surface the camera renders the frames to record into. */
+  @NonNull
+  public Surface getSurface() {
+    if (inputSurface == null) {
+      throw new IllegalStateException("The recorder has not been prepared.");
+    }
+    return inputSurface;
+  }
+
+  /** Starts writing the frames rendered into the input surface. */
+  public void start() {
+    resume();
+  }
+
+  /** Stops writing frames until {@link #resume()} is called. */
+  public void pause() {
+    paused = true;
+  }
+
+  /** Continues writing frames, starting with a new key frame. */
+  public void resume() {
+    if (!paused) {
+      return;
+    }
+    synchronized (muxerLock) {
+      videoTrack.waitForKeyFrame();
+      if (audioTrack != null) {
+        audioTrack.markResumed();
+      }
+    }
+    if (videoEncoder != null) {
+      Bundle parameters = new Bundle();
+      parameters.putInt(MediaCodec.PARAMETER_KEY_REQUEST_SYNC_FRAME, 0);
+      videoEncoder.setParameters(parameters);
+    }
+    paused = false;
+  }
+
+  /**
+   * Ends the recording, then finalizes the output file and releases the recorder without blocking
+   * the calling thread.
+   *
+   * <p>The muxer is only stopped once both encoders have been drained, the listener is informed
+   * afterwards. The recorder must not be used after calling this method.
+   *
+   * @param listener informed once the output file has been finalized or failed to.
+   */
+  public void stop(@NonNull OnStoppedListener listener) {
+    stopping = true;
+    if (videoEncoder != null) {
+      videoEncoder.signalEndOfInputStream();
+    }
+    new Thread(() -> listener.onStopped(finish()), "MediaCodecRecorder-stop").start();
+  }
+
+  /**
+   * Waits for the encoders to drain, stops the muxer and releases the recorder.
+   *
+   * @return null when the output file was finalized, otherwise why it is not valid.
+   */
+  @VisibleForTesting
+  @Nullable
+  String finish() {
+    // Join both threads even when the first one does not finish in time.
+    boolean audioDrained = join(audioThread);
+    boolean videoDrained = join(videoThread);
+
+    String errorMessage = null;
+    synchronized (muxerLock) {
+      if (!audioDrained || !videoDrained) {
+        errorMessage = "The encoders did not finish in time.";
+      } else if (!muxerStarted) {
+        errorMessage = "No video frames were recorded.";
+      } else {
+        try {
+          muxer.stop();
+        } catch (IllegalStateException e) {
+          errorMessage = e.getMessage();
+        }
+      }
+    }
+    released = true;
+    releaseResources();
+    return errorMessage;
+  }
+
+  /**
+   * Releases the encoders, the microphone and the muxer without finalizing the output file.
+   *
+   * <p>Does not wait for the encoder threads, resources still used by them are released on a
+   * background thread once they have finished.
+   */
+  public void release() {
+    stopping = true;
+    released = true;
+    if (isAlive(audioThread) || isAlive(videoThread)) {
+      new Thread(
+              () -> {
+                join(audioThread);
+                join(videoThread);
+                releaseResources();
+              },
+              "MediaCodecRecorder-release")
+          .start();
+    } else {
+      releaseResources();
+    }
+  }
+
+  private void releaseResources() {
+    synchronized (muxerLock) {
+      if (audioRecord != null) {
+        audioRecord.release();
+        audioRecord = null;
+      }
+      if (audioEncoder != null) {
+        audioEncoder.release();
+        audioEncoder = null;
+      }
+      if (videoEncoder != null) {
+        videoEncoder.release();
+        videoEncoder = null;
+      }
+      if (inputSurface != null) {
+        inputSurface.release();
+        inputSurface = null;
+      }
+      if (muxer != null) {
+        muxer.release();
+        muxer = null;
+      }
+    }
+  }
+
+  @VisibleForTesting
+  String getVideoMimeType() {
+    // MediaMuxer only writes HEVC into MPEG-4 files since Android N.
+    if (encodingOptions.getPreferHevc()
+        && Build.VERSION.SDK_INT >= Build.VERSION_CODES.N
+        && factory.isEncoderAvailable(MediaFormat.MIMETYPE_VIDEO_HEVC, videoWidth, videoHeight)) {
+      return MediaFormat.MIMETYPE_VIDEO_HEVC;
+    }
+    return MediaFormat.MIMETYPE_VIDEO_AVC;
+  }
+
+  @Nullable
+  private MediaCodecInfo.EncoderCapabilities getCapabilities(@NonNull String mimeType) {
+    try {
+      return videoEncoder.getCodecInfo().getCapabilitiesForType(mimeType).getEncoderCapabilities();
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Creates the format of the video encoder.
+   *
+   * <p>Constant quality encoding is only requested from encoders that support it on Android P and
+   * higher, where the quality can be set. Otherwise a variable bitrate is used.
+   */
+  @VisibleForTesting
+  MediaFormat createVideoFormat(
+      @NonNull String mimeType, @Nullable MediaCodecInfo.EncoderCapabilities capabilities) {
+    MediaFormat format = MediaFormat.createVideoFormat(mimeType, videoWidth, videoHeight);
+    format.setInteger(
+        MediaFormat.KEY_COLOR_FORMAT, MediaCodecInfo.CodecCapabilities.COLOR_FormatSurface);
+    format.setInteger(MediaFormat.KEY_FRAME_RATE, videoFrameRate);
+    if (encodingOptions.usesHighSpeed() && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+      // Encoders assume real time rates by default and may drop frames of high speed captures.
+      format.setInteger(MediaFormat.KEY_OPERATING_RATE, videoFrameRate);
+    }
+
+    int bitrate =
+        encodingOptions.getBitrate() > 0 ? encodingOptions.getBitrate() : defaultVideoBitrate;
+    format.setInteger(MediaFormat.KEY_BIT_RATE, bitrate);
+
+    if (encodingOptions.usesConstantQuality()
+        && Build.VERSION.SDK_INT >= Build.VERSION_CODES.P
+        && capabilities != null
+        && capabilities.isBitrateModeSupported(
+            MediaCodecInfo.EncoderCapabilities.BITRATE_MODE_CQ)) {
+      format.setInteger(
+          MediaFormat.KEY_BITRATE_MODE, MediaCodecInfo.EncoderCapabilities.BITRATE_MODE_CQ);
+      int lower = capabilities.getQualityRange().getLower();
+      int upper = capabilities.getQualityRange().getUpper();
+      format.setInteger(
+          MediaFormat.KEY_QUALITY,
+          lower + (upper - lower) * encodingOptions.getConstantQuality() / 100);
+    } else {
+      format.setInteger(
+          MediaFormat.KEY_BITRATE_MODE, MediaCodecInfo.EncoderCapabilities.BITRATE_MODE_VBR);
+    }
+
+    int keyFrameIntervalMs = encodingOptions.getKeyFrameIntervalMs();
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N_MR1) {
+      format.setFloat(MediaFormat.KEY_I_FRAME_INTERVAL, keyFrameIntervalMs / 1000f);
+    } else {
+      format.setInteger(
+          MediaFormat.KEY_I_FRAME_INTERVAL, Math.max(1, Math.round(keyFrameIntervalMs / 1000f)));
+    }
+    return format;
+  }
+
+  @VisibleForTesting
+  MediaFormat createAudioFormat() {
+    MediaFormat format =
+        MediaFormat.createAudioFormat(
+            MediaFormat.MIMETYPE_AUDIO_AAC, audioSampleRate, audioChannels);
+    format.setInteger(MediaFormat.KEY_AAC_PROFILE, MediaCodecInfo.CodecProfileLevel.AACObjectLC);
+    format.setInteger(MediaFormat.KEY_BIT_RATE, audioBitrate);
+    return format;
+  }
+
+  private void drainVideo() {
+    try {
+      drain(videoEncoder, videoTrack, DEQUEUE_TIMEOUT_US);
+    } catch (IllegalStateException e) {
+      Log.e(TAG, "Failed encoding video", e);
+    }
+  }
+
+  private void encodeAudio() {
+    // The fields are cleared when the recorder is released while this thread still runs.
+    final MediaCodec encoder = audioEncoder;
+    final AudioRecord record = audioRecord;
+    try {
+      long samplesRead = 0;
+      boolean endOfStreamQueued = false;
+      int bytesPerSample = 2 * audioChannels;
+      while (!endOfStreamQueued) {
+        int index = encoder.dequeueInputBuffer(DEQUEUE_TIMEOUT_US);
+        if (index >= 0) {
+          ByteBuffer buffer = encoder.getInputBuffer(index);
+          buffer.clear();
+          int read = record.read(buffer, buffer.capacity());
+          long presentationTimeUs = samplesRead * 1_000_000L / audioSampleRate;
+          if (stopping) {
+            encoder.queueInputBuffer(
+                index, 0, 0, presentationTimeUs, MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+            endOfStreamQueued = true;
+          } else if (read <= 0 || paused) {
+            // The microphone is read while paused as well, so no stale audio is recorded later.
+            encoder.queueInputBuffer(index, 0, 0, presentationTimeUs, 0);
+          } else {
+            encoder.queueInputBuffer(index, 0, read, presentationTimeUs, 0);
+            samplesRead += read / bytesPerSample;
+          }
+        }
+        drain(encoder, audioTrack, 0);
+      }
+      drain(encoder, audioTrack, DEQUEUE_TIMEOUT_US);
+    } catch (IllegalStateException e) {
+      Log.e(TAG, "Failed encoding audio", e);
+    }
+  }
+
+  /**
+   * Writes the output of the encoder to the muxer.
+   *
+   * @param timeoutUs 0 to return as soon as no output is available, otherwise the output is
+   *     drained until the end of the stream or until the recorder is released.
+   */
+  private void drain(MediaCodec encoder, Track track, long timeoutUs) {
+    MediaCodec.BufferInfo info = new MediaCodec.BufferInfo();
+    while (true) {
+      int index = encoder.dequeueOutputBuffer(info, timeoutUs);
+      if (index == MediaCodec.INFO_TRY_AGAIN_LATER) {
+        if (timeoutUs == 0 || released) {
+          return;
+        }
+        continue;
+      } else if (index == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED) {
+        addTrack(track, encoder.getOutputFormat());
+        continue;
+      } else if (index < 0) {
+        continue;
+      }
+
+      boolean endOfStream = (info.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0;
+      boolean codecConfig = (info.flags & MediaCodec.BUFFER_FLAG_CODEC_CONFIG) != 0;
+      if (info.size > 0 && !codecConfig && !paused) {
+        writeSample(track, encoder.getOutputBuffer(index), info);
+      }
+      encoder.releaseOutputBuffer(index, false);
+      if (endOfStream) {
+        return;
+      }
+    }
+  }
+
+  private void addTrack(Track track, MediaFormat format) {
+    synchronized (muxerLock) {
+      if (muxer == null) {
+        // Released while the encoder was still running.
+        return;
+      }
+      track.index = muxer.addTrack(format);
+      if (videoTrack.index < 0 || (audioTrack != null && audioTrack.index < 0)) {
+        return;
+      }
+      muxer.start();
+      muxerStarted = true;
+      for (PendingSample sample : pendingSamples) {
+        muxer.writeSampleData(sample.track.index, sample.data, sample.info);
+      }
+      pendingSamples.clear();
+    }
+  }
+
+  @VisibleForTesting
+  void writeSample(Track track, ByteBuffer data, MediaCodec.BufferInfo info) {
+    synchronized (muxerLock) {
+      if (muxer == null) {
+        return;
+      }
+      boolean keyFrame = (info.flags & MediaCodec.BUFFER_FLAG_KEY_FRAME) != 0;
+      long presentationTimeUs = track.toOutputTime(info.presentationTimeUs, keyFrame);
+      if (presentationTimeUs < 0) {
+        return;
+      }
+
+      MediaCodec.BufferInfo outputInfo = new MediaCodec.BufferInfo();
+      data.position(info.offset);
+      data.limit(info.offset + info.size);
+      if (muxerStarted) {
+        // The muxer reads the sample from the offset of the info, not from the buffer position.
+        outputInfo.set(info.offset, info.size, presentationTimeUs, info.flags);
+        muxer.writeSampleData(track.index, data, outputInfo);
+      } else if (pendingSamples.size() < MAX_PENDING_SAMPLES) {
+        // The other track has not reported its format yet, so the muxer cannot be started.
+        ByteBuffer copy = ByteBuffer.allocateDirect(info.size);
+        copy.put(data);
+        copy.flip();
+        outputInfo.set(0, info.size, presentationTimeUs, info.flags);
+        pendingSamples.add(new PendingSample(track, copy, outputInfo));
+      } else if (track == videoTrack) {
+        // Video frames depend on the dropped ones, so continue with the next key frame.
+        track.waitForKeyFrame();
+      }
+    }
+  }
+
+  /**
+   * Waits up to {@link #STOP_TIMEOUT_MS} for the thread to finish.
+   *
+   * @return true when the thread has finished.
+   */
+  private static boolean join(@Nullable Thread thread) {
+    if (thread == null) {
+      return true;
+    }
+    try {
+      thread.join(STOP_TIMEOUT_MS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return !thread.isAlive();
+  }
+
+  private static boolean isAlive(@Nullable Thread thread) {
+    return thread != null && thread.isAlive();
+  }
+
+  /**
+   * Maps the timestamps of a single encoder to the timestamps written to the file, which start at
+   * zero and leave out the time the recorder was paused.
+   */
+  @VisibleForTesting
+  static class Track {
+    private final long sampleDurationUs;
+    int index = -1;
+    private long offsetUs = -1;
+    private long lastOutputTimeUs = -1;
+    private boolean resumed;
+    private boolean waitingForKeyFrame;
+
+    Track(long sampleDurationUs) {
+      this.sampleDurationUs = sampleDurationUs;
+    }
+
+    /** Drops samples until the next key frame, and continues the timeline from there. */
+    void waitForKeyFrame() {
+      waitingForKeyFrame = true;
+      resumed = true;
+    }
+
+    /** Continues the timeline from the next sample. */
+    void markResumed() {
+      resumed = true;
+    }
+
+    /**
+     * Maps the timestamp of an encoded sample.
+     *
+     * @return the timestamp to write, or -1 when the sample has to be dropped.
+     */
+    long toOutputTime(long presentationTimeUs, boolean keyFrame) {
+      if (waitingForKeyFrame && !keyFrame) {
+        return -1;
+      }
+      waitingForKeyFrame = false;
+
+      if (offsetUs < 0) {
+        offsetUs = presentationTimeUs;
+      } else if (resumed) {
+        // Continue one sample after the last written one, whatever the length of the pause.
+        offsetUs = presentationTimeUs - lastOutputTimeUs - sampleDurationUs;
+      }
+      resumed = false;
+
+      long outputTimeUs = presentationTimeUs - offsetUs;
+      if (outputTimeUs <= lastOutputTimeUs) {
+        // The muxer requires increasing timestamps for each track.
+        return -1;
+      }
+      lastOutputTimeUs = outputTimeUs;
+      return outputTimeUs;
+    }
+  }
+
+  private static class PendingSample {
+    final Track track;
+    final ByteBuffer data;
+    final MediaCodec.BufferInfo info;
+
+    PendingSample(Track track, ByteBuffer data, MediaCodec.BufferInfo info) {
+      this.track = track;
+      this.data = data;
+      this.info = info;
+    }
+  }
+}
@@ -0,0 +1,211 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.media;
+
+import androidx.annotation.NonNull;
+import java.nio.ByteBuffer;
+
+/**
+ * Converts the planes of {@link android.graphics.ImageFormat#YUV_420_888} images into a single
+ * NV21 or RGBA buffer.
+ *
+ * <p>Row and pixel strides of the source planes are honoured, so any YUV_420_888 layout is
+ * supported. Source rows are read in bulk into row buffers that are kept between conversions, so
+ * converting images of the same size does not allocate. Instances are not thread safe.
+ */
+public final class YuvConverter {
+  // Full range BT.601 coefficients, scaled by 1024.
+  private static final int V_TO_R = 1436;
+  private static final int U_TO_G = 352;
+  private static final int V_TO_G = 731;
+  private static final int U_TO_B = 1815;
+
+  private byte[] lumaRow = new byte[0];
+  private byte[] uRow = new byte[0];
+  private byte[] vRow = new byte[0];
+
+  /**
+   * Gets the size of the NV21 buffer of an image region.
+   *
+   * @param width the width of the region, an even number.
+   * @param height the height of the region, an even number.
+   * @return the number of bytes of the NV21 buffer.
+   */
+  public static int getNv21Size(int width, int height) {
+    return width * height * 3 / 2;
+  }
+
+  /**
+   * Gets the size of the RGBA buffer of an image region.
+   *
+   * @param width the width of the region.
+   * @param height the height of the region.
+   * @return the number of bytes of the RGBA buffer.
+   */
+  public static int getRgbaSize(int width, int height) {
+    return width * height * 4;
+  }
+
+  /**
+   * Converts a region of a YUV_420_888 image into NV21: the luminance plane followed by the
+   * interleaved V and U samples.
+   *
+   * @param planes the Y, U and V planes of the image.
+   * @param left the left edge of the region, an even number.
+   * @param top the top edge of the region, an even number.
+   * @param width the width of the region, an even number.
+   * @param height the height of the region, an even number.
+   * @param destination the array to convert into, at least {@link #getNv21Size(int, int)} long.
+   */
+  public void toNv21(
+      @NonNull YuvPlanes planes,
+      int left,
+      int top,
+      int width,
+      int height,
+      @NonNull byte[] destination) {
+    ImagePlaneUtils.copyPlane(
+        planes.y, planes.yRowStride, planes.yPixelStride, left, top, width, height, 1, destination);
+
+    int chromaWidth = width / 2;
+    int chromaHeight = height / 2;
+    int chromaLength = rowLength(chromaWidth, planes.uvPixelStride);
+    ensureChromaRows(chromaLength);
+    int destinationIndex = width * height;
+    for (int row = 0; row < chromaHeight; row++) {
+      int sourceIndex = (top / 2 + row) * planes.uvRowStride + (left / 2) * planes.uvPixelStride;
+      readRow(planes.u, sourceIndex, uRow, chromaLength);
+      readRow(planes.v, sourceIndex, vRow, chromaLength);
+      for (int column = 0, index = 0; column < chromaWidth; column++) {
+        destination[destinationIndex++] = vRow[index];
+        destination[destinationIndex++] = uRow[index];
+        index += planes.uvPixelStride;
+      }
+    }
+  }
+
+  /**
+   * Converts a region of a YUV_420_888 image into RGBA with 8 bits per channel and an opaque alpha
+   * channel.
+   *
+   * @param planes the Y, U and V planes of the image.
+   * @param left the left edge of the region, an even number.
+   * @param top the top edge of the region, an even number.
+   * @param width the width of the region.
+   * @param height the height of the region.
+   * @param destination the array to convert into, at least {@link #getRgbaSize(int, int)} long.
+   */
+  public void toRgba(
+      @NonNull YuvPlanes planes,
+      int left,
+      int top,
+      int width,
+      int height,
+      @NonNull byte[] destination) {
+    int lumaLength = rowLength(width, planes.yPixelStride);
+    if (lumaRow.length < lumaLength) {
+      lumaRow = new byte[lumaLength];
+    }
+    int chromaWidth = (width + 1) / 2;
+    int chromaLength = rowLength(chromaWidth, planes.uvPixelStride);
+    ensureChromaRows(chromaLength);
+
+    int destinationIndex = 0;
+    for (int row = 0; row < height; row++) {
+      readRow(
+          planes.y,
+          (top + row) * planes.yRowStride + left * planes.yPixelStride,
+          lumaRow,
+          lumaLength);
+      // Every chroma row is shared by two luminance rows.
+      if (row % 2 == 0) {
+        int chromaIndex =
+            (top / 2 + row / 2) * planes.uvRowStride + (left / 2) * planes.uvPixelStride;
+        readRow(planes.u, chromaIndex, uRow, chromaLength);
+        readRow(planes.v, chromaIndex, vRow, chromaLength);
+      }
+
+      for (int column = 0; column < width; column++) {
+        int luma = lumaRow[column * planes.yPixelStride] & 0xFF;
+        int chromaIndex = (column / 2) * planes.uvPixelStride;
+        int u = (uRow[chromaIndex] & 0xFF) - 128;
+        int v = (vRow[chromaIndex] & 0xFF) - 128;
+
+        destination[destinationIndex++] = clamp(luma + ((V_TO_R * v) >> 10));
+        destination[destinationIndex++] = clamp(luma - ((U_TO_G * u + V_TO_G * v) >> 10));
+        destination[destinationIndex++] = clamp(luma + ((U_TO_B * u) >> 10));
+        destination[destinationIndex++] = (byte) 0xFF;
+      }
+    }
+  }
+
+  private void ensureChromaRows(int length) {
+    if (uRow.length < length) {
+      uRow = new byte[length];
+      vRow = new byte[length];
+    }
+  }
+
+  /** Gets the number of bytes spanned by a row of pixels, without trailing padding. */
+  private static int rowLength(int pixels, int pixelStride) {
+    return pixels == 0 ? 0 : (pixels - 1) * pixelStride + 1;
+  }
+
+  private static void readRow(ByteBuffer source, int index, byte[] row, int length) {
+    source.position(index);
+    source.get(row, 0, length);
+  }
+
+  private static byte clamp(int value) {
+    return (byte) (value < 0 ? 0 : (value > 255 ? 255 : value));
+  }
+
+  /**
+   * The buffers and strides of the planes of a YUV_420_888 image. Instances can be updated for
+   * every image, so they do not need to be allocated per frame.
+   */
+  public static final class YuvPlanes {
+    private ByteBuffer y;
+    private ByteBuffer u;
+    private ByteBuffer v;
+    private int yRowStride;
+    private int yPixelStride;
+    private int uvRowStride;
+    private int uvPixelStride;
+
+    /**
+     * Sets the planes of the image to convert.
+     *
+     * <p>The U and V planes of YUV_420_888 images always share their row and pixel strides.
+     *
+     * @param y the luminance plane.
+     * @param yRowStride the row stride of the luminance plane, in bytes.
+     * @param yPixelStride the pixel stride of the luminance plane, in bytes.
+     * @param u the U (Cb) plane.
+     * @param v the V (Cr) plane.
+     * @param uvRowStride the row stride of the chroma planes, in bytes.
+     * @param uvPixelStride the pixel stride of the chroma planes, in bytes.
+     * @return this instance.
+     */
+    @NonNull
+    public YuvPlanes set(
+        @NonNull ByteBuffer y,
+        int yRowStride,
+        int yPixelStride,
+        @NonNull ByteBuffer u,
+        @NonNull ByteBuffer v,
+        int uvRowStride,
+        int uvPixelStride) {
+      this.y = y;
+      this.u = u;
+      this.v = v;
+      this.yRowStride = yRowStride;
+      this.yPixelStride = yPixelStride;
+      this.uvRowStride = uvRowStride;
+      this.uvPixelStride = uvPixelStride;
+      return this;
+    }
+  }
+}
@@ -4,11 +4,71 @@
 
 package io.flutter.plugins.camera.types;
 
+import androidx.annotation.NonNull;
+
+/**
+ * Holds the capture result metadata of the most recent frames.
+ *
+ * <p>The metadata of each frame is published as an immutable {@link CaptureResultSnapshot} with a
+ * single volatile write, so it can be read from any thread without locking. A short history of
+ * snapshots is kept, so images can be matched with the metadata of the frame that produced them.
+ */
 public class CameraCaptureProperties {
+  /** The number of most recent snapshots that can be looked up by sensor timestamp. */
+  static final int HISTORY_SIZE = 8;
+
+  // Only written by the thread publishing snapshots. Entries are published to other threads by the
+  // volatile write of latestSnapshot that follows them.
+  private final CaptureResultSnapshot[] history = new CaptureResultSnapshot[HISTORY_SIZE];
+  private int nextHistoryIndex;
+
+  @NonNull private volatile CaptureResultSnapshot latestSnapshot = CaptureResultSnapshot.EMPTY;
+
+  /**
+   * Publishes the metadata of a new frame.
+   *
+   * <p>This method should always be called from the same thread, typically the thread receiving
+   * capture results.
+   *
+   * @param snapshot the metadata of the frame.
+   */
+  public void publish(@NonNull CaptureResultSnapshot snapshot) {
+    history[nextHistoryIndex] = snapshot;
+    nextHistoryIndex = (nextHistoryIndex + 1) % HISTORY_SIZE;
+    latestSnapshot = snapshot;
+  }
 
-  private Float lastLensAperture;
-  private Long lastSensorExposureTime;
-  private Integer lastSensorSensitivity;
+  /**
+   * Gets the metadata of the most recent frame.
+   *
+   * @return the most recent snapshot, {@link CaptureResultSnapshot#EMPTY} when none was published.
+   */
+  @NonNull
+  public CaptureResultSnapshot getSnapshot() {
+    return latestSnapshot;
+  }
+
+  /**
+   * Gets the metadata of the frame that started exposing at the supplied timestamp.
+   *
+   * @param sensorTimestamp the timestamp of an image, see {@link android.media.Image#getTimestamp}.
+   * @return the snapshot of the matching frame, or the most recent snapshot when the frame is not
+   *     among the most recent {@link #HISTORY_SIZE} frames.
+   */
+  @NonNull
+  public CaptureResultSnapshot getSnapshot(long sensorTimestamp) {
+    // Reading the volatile field first makes every snapshot published before it visible.
+    final CaptureResultSnapshot latest = latestSnapshot;
+    if (latest.getSensorTimestamp() == sensorTimestamp) {
+      return latest;
+    }
+    for (CaptureResultSnapshot snapshot : history) {
+      if (snapshot != null && snapshot.getSensorTimestamp() == sensorTimestamp) {
+        return snapshot;
+      }
+    }
+    return latest;
+  }
 
   /**
    * Gets the last known lens aperture. (As f-stop value)
@@ -16,7 +76,7 @@ public class CameraCaptureProperties {
    * @return the last known lens aperture. (As f-stop value)
    */
   public Float getLastLensAperture() {
-    return lastLensAperture;
+    return latestSnapshot.getLensAperture();
   }
 
   /**
@@ -25,7 +85,14 @@ public class CameraCaptureProperties {
    * @param lastLensAperture - The last known lens aperture to set. (As f-stop value)
    */
   public void setLastLensAperture(Float lastLensAperture) {
-    this.lastLensAperture = lastLensAperture;
+    final CaptureResultSnapshot latest = latestSnapshot;
+    latestSnapshot =
+        new CaptureResultSnapshot(
+            lastLensAperture,
+            latest.getSensorExposureTime(),
+            latest.getSensorSensitivity(),
+            latest.getFrameNumber(),
+            latest.getSensorTimestamp());
   }
 
   /**
@@ -34,7 +101,7 @@ public class CameraCaptureProperties {
    * @return the last known sensor exposure time in nanoseconds.
    */
   public Long getLastSensorExposureTime() {
-    return lastSensorExposureTime;
+    return latestSnapshot.getSensorExposureTime();
   }
 
   /**
@@ -43,7 +110,14 @@ public class CameraCaptureProperties {
    * @param lastSensorExposureTime - The last known sensor exposure time to set, in nanoseconds.
    */
   public void setLastSensorExposureTime(Long lastSensorExposureTime) {
-    this.lastSensorExposureTime = lastSensorExposureTime;
+    final CaptureResultSnapshot latest = latestSnapshot;
+    latestSnapshot =
+        new CaptureResultSnapshot(
+            latest.getLensAperture(),
+            lastSensorExposureTime,
+            latest.getSensorSensitivity(),
+            latest.getFrameNumber(),
+            latest.getSensorTimestamp());
   }
 
   /**
@@ -52,7 +126,7 @@ public class CameraCaptureProperties {
    * @return the last known sensor sensitivity in ISO arithmetic units.
    */
   public Integer getLastSensorSensitivity() {
-    return lastSensorSensitivity;
+    return latestSnapshot.getSensorSensitivity();
   }
 
   /**
@@ -62,6 +136,13 @@ public class CameraCaptureProperties {
    *     units.
    */
   public void setLastSensorSensitivity(Integer lastSensorSensitivity) {
-    this.lastSensorSensitivity = lastSensorSensitivity;
+    final CaptureResultSnapshot latest = latestSnapshot;
+    latestSnapshot =
+        new CaptureResultSnapshot(
+            latest.getLensAperture(),
+            latest.getSensorExposureTime(),
+            lastSensorSensitivity,
+            latest.getFrameNumber(),
+            latest.getSensorTimestamp());
   }
 }
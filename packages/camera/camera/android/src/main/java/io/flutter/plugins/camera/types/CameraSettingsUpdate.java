@@ -0,0 +1,194 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.types;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.flutter.plugins.camera.features.Point;
+import io.flutter.plugins.camera.features.autofocus.FocusMode;
+import io.flutter.plugins.camera.features.exposurelock.ExposureMode;
+import io.flutter.plugins.camera.features.flash.FlashMode;
+
+/**
+ * A set of camera settings that are applied together, with a single update of the repeating
+ * preview request.
+ *
+ * <p>Settings that are not set keep their current value.
+ */
+public class CameraSettingsUpdate {
+  @Nullable private final FlashMode flashMode;
+  @Nullable private final ExposureMode exposureMode;
+  @Nullable private final Point exposurePoint;
+  @Nullable private final Double exposureOffset;
+  @Nullable private final FocusMode focusMode;
+  @Nullable private final Point focusPoint;
+  @Nullable private final Float zoomLevel;
+
+  private CameraSettingsUpdate(Builder builder) {
+    this.flashMode = builder.flashMode;
+    this.exposureMode = builder.exposureMode;
+    this.exposurePoint = builder.exposurePoint;
+    this.exposureOffset = builder.exposureOffset;
+    this.focusMode = builder.focusMode;
+    this.focusPoint = builder.focusPoint;
+    this.zoomLevel = builder.zoomLevel;
+  }
+
+  /** Gets the new flash mode, or null to keep the current one. */
+  @Nullable
+  public FlashMode getFlashMode() {
+    return flashMode;
+  }
+
+  /** Gets the new exposure mode, or null to keep the current one. */
+  @Nullable
+  public ExposureMode getExposureMode() {
+    return exposureMode;
+  }
+
+  /**
+   * Gets the new exposure point, or null to keep the current one. A point without coordinates
+   * resets the exposure point.
+   */
+  @Nullable
+  public Point getExposurePoint() {
+    return exposurePoint;
+  }
+
+  /** Gets the new exposure offset in EV units, or null to keep the current one. */
+  @Nullable
+  public Double getExposureOffset() {
+    return exposureOffset;
+  }
+
+  /** Gets the new focus mode, or null to keep the current one. */
+  @Nullable
+  public FocusMode getFocusMode() {
+    return focusMode;
+  }
+
+  /**
+   * Gets the new focus point, or null to keep the current one. A point without coordinates resets
+   * the focus point.
+   */
+  @Nullable
+  public Point getFocusPoint() {
+    return focusPoint;
+  }
+
+  /** Gets the new zoom level, or null to keep the current one. */
+  @Nullable
+  public Float getZoomLevel() {
+    return zoomLevel;
+  }
+
+  /**
+   * Indicates whether the update changes how the camera focuses, which requires the auto focus
+   * routine to be triggered again.
+   *
+   * @return true when the focus mode or the focus point is updated.
+   */
+  public boolean updatesFocus() {
+    return focusMode != null || focusPoint != null;
+  }
+
+  /** Builds {@link CameraSettingsUpdate} instances. */
+  public static class Builder {
+    @Nullable private FlashMode flashMode;
+    @Nullable private ExposureMode exposureMode;
+    @Nullable private Point exposurePoint;
+    @Nullable private Double exposureOffset;
+    @Nullable private FocusMode focusMode;
+    @Nullable private Point focusPoint;
+    @Nullable private Float zoomLevel;
+
+    /**
+     * Sets the new flash mode.
+     *
+     * @param flashMode the flash mode.
+     * @return this builder.
+     */
+    public Builder setFlashMode(@NonNull FlashMode flashMode) {
+      this.flashMode = flashMode;
+      return this;
+    }
+
+    /**
+     * Sets the new exposure mode.
+     *
+     * @param exposureMode the exposure mode.
+     * @return this builder.
+     */
+    public Builder setExposureMode(@NonNull ExposureMode exposureMode) {
+      this.exposureMode = exposureMode;
+      return this;
+    }
+
+    /**
+     * Sets the new exposure point.
+     *
+     * @param exposurePoint the exposure point, a point without coordinates resets it.
+     * @return this builder.
+     */
+    public Builder setExposurePoint(@NonNull Point exposurePoint) {
+      this.exposurePoint = exposurePoint;
+      return this;
+    }
+
+    /**
+     * Sets the new exposure offset.
+     *
+     * @param exposureOffset the exposure offset in EV units.
+     * @return this builder.
+     */
+    public Builder setExposureOffset(double exposureOffset) {
+      this.exposureOffset = exposureOffset;
+      return this;
+    }
+
+    /**
+     * Sets the new focus mode.
+     *
+     * @param focusMode the focus mode.
+     * @return this builder.
+     */
+    public Builder setFocusMode(@NonNull FocusMode focusMode) {
+      this.focusMode = focusMode;
+      return this;
+    }
+
+    /**
+     * Sets the new focus point.
+     *
+     * @param focusPoint the focus point, a point without coordinates resets it.
+     * @return this builder.
+     */
+    public Builder setFocusPoint(@NonNull Point focusPoint) {
+      this.focusPoint = focusPoint;
+      return this;
+    }
+
+    /**
+     * Sets the new zoom level.
+     *
+     * @param zoomLevel the zoom level.
+     * @return this builder.
+     */
+    public Builder setZoomLevel(float zoomLevel) {
+      this.zoomLevel = zoomLevel;
+      return this;
+    }
+
+    /**
+     * Creates the {@link CameraSettingsUpdate} with the configured values.
+     *
+     * @return the settings update.
+     */
+    @NonNull
+    public CameraSettingsUpdate build() {
+      return new CameraSettingsUpdate(this);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.types;
+
+import androidx.annotation.Nullable;
+
+/**
+ * An immutable copy of the capture result metadata of a single frame.
+ *
+ * <p>Instances can be shared between threads without synchronization.
+ */
+public final class CaptureResultSnapshot {
+  /** A snapshot of a frame for which no metadata is known. */
+  public static final CaptureResultSnapshot EMPTY =
+      new CaptureResultSnapshot(null, null, null, -1, 0);
+
+  @Nullable private final Float lensAperture;
+  @Nullable private final Long sensorExposureTime;
+  @Nullable private final Integer sensorSensitivity;
+  private final long frameNumber;
+  private final long sensorTimestamp;
+
+  /**
+   * Creates a new instance of the {@link CaptureResultSnapshot} class.
+   *
+   * @param lensAperture the lens aperture as f-stop value.
+   * @param sensorExposureTime the sensor exposure time in nanoseconds.
+   * @param sensorSensitivity the sensor sensitivity in ISO arithmetic units.
+   * @param frameNumber the frame number of the capture result, or -1 when unknown.
+   * @param sensorTimestamp the start of exposure of the frame, or 0 when unknown. This matches the
+   *     timestamp of the images the frame produced.
+   */
+  public CaptureResultSnapshot(
+      @Nullable Float lensAperture,
+      @Nullable Long sensorExposureTime,
+      @Nullable Integer sensorSensitivity,
+      long frameNumber,
+      long sensorTimestamp) {
+    this.lensAperture = lensAperture;
+    this.sensorExposureTime = sensorExposureTime;
+    this.sensorSensitivity = sensorSensitivity;
+    this.frameNumber = frameNumber;
+    this.sensorTimestamp = sensorTimestamp;
+  }
+
+  /** Gets the lens aperture as f-stop value. */
+  @Nullable
+  public Float getLensAperture() {
+    return lensAperture;
+  }
+
+  /** Gets the sensor exposure time in nanoseconds. */
+  @Nullable
+  public Long getSensorExposureTime() {
+    return sensorExposureTime;
+  }
+
+  /** Gets the sensor sensitivity in ISO arithmetic units. */
+  @Nullable
+  public Integer getSensorSensitivity() {
+    return sensorSensitivity;
+  }
+
+  /** Gets the frame number of the capture result, or -1 when unknown. */
+  public long getFrameNumber() {
+    return frameNumber;
+  }
+
+  /** Gets the start of exposure of the frame in nanoseconds, or 0 when unknown. */
+  public long getSensorTimestamp() {
+    return sensorTimestamp;
+  }
+}
@@ -0,0 +1,40 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.types;
+
+// Mirrors image_stream_options.dart
+public enum FrameDropPolicy {
+  /** Drops the oldest frame that has not been delivered yet, so Dart receives the latest frame. */
+  dropOldest("dropOldest"),
+  /** Drops the incoming frame, keeping the frames that are already queued. */
+  dropNewest("dropNewest");
+
+  private final String strValue;
+
+  FrameDropPolicy(String strValue) {
+    this.strValue = strValue;
+  }
+
+  /**
+   * Tries to convert the supplied string into a {@see FrameDropPolicy} enum value.
+   *
+   * <p>When the supplied string doesn't match a valid {@see FrameDropPolicy} enum value, null is
+   * returned.
+   *
+   * @param policyStr String value to convert into an {@see FrameDropPolicy} enum value.
+   * @return Matching {@see FrameDropPolicy} enum value, or null if no match is found.
+   */
+  public static FrameDropPolicy getValueForString(String policyStr) {
+    for (FrameDropPolicy value : values()) {
+      if (value.strValue.equals(policyStr)) return value;
+    }
+    return null;
+  }
+
+  @Override
+  public String toString() {
+    return strValue;
+  }
+}
@@ -0,0 +1,244 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.types;
+
+import androidx.annotation.NonNull;
+
+/** Options that control how image stream frames are processed and delivered to Dart. */
+public class ImageStreamOptions {
+  private final int maxPendingFrames;
+  @NonNull private final FrameDropPolicy frameDropPolicy;
+  private final boolean luminanceOnly;
+  private final int regionLeft;
+  private final int regionTop;
+  private final int regionWidth;
+  private final int regionHeight;
+  private final int subsampleFactor;
+  @NonNull private final ImageStreamOutputFormat outputFormat;
+
+  /** Creates options that deliver every full frame without waiting for acknowledgements. */
+  public ImageStreamOptions() {
+    this(new Builder());
+  }
+
+  /**
+   * Creates a new instance of the {@link ImageStreamOptions} class that only configures flow
+   * control.
+   *
+   * @param maxPendingFrames the maximum number of frames that may be sent to Dart without being
+   *     acknowledged. A value of 0 or less disables acknowledgement based flow control.
+   * @param frameDropPolicy decides which frame is dropped when the maximum number of pending frames
+   *     is reached.
+   */
+  public ImageStreamOptions(int maxPendingFrames, @NonNull FrameDropPolicy frameDropPolicy) {
+    this(new Builder().setMaxPendingFrames(maxPendingFrames).setFrameDropPolicy(frameDropPolicy));
+  }
+
+  private ImageStreamOptions(Builder builder) {
+    this.maxPendingFrames = builder.maxPendingFrames;
+    this.frameDropPolicy = builder.frameDropPolicy;
+    this.luminanceOnly = builder.luminanceOnly;
+    this.regionLeft = builder.regionLeft;
+    this.regionTop = builder.regionTop;
+    this.regionWidth = builder.regionWidth;
+    this.regionHeight = builder.regionHeight;
+    this.subsampleFactor = builder.subsampleFactor;
+    this.outputFormat = builder.outputFormat;
+  }
+
+  /**
+   * Gets the maximum number of frames that may be sent to Dart without being acknowledged.
+   *
+   * @return the maximum number of pending frames, or 0 or less when flow control is disabled.
+   */
+  public int getMaxPendingFrames() {
+    return maxPendingFrames;
+  }
+
+  /**
+   * Indicates whether frames need to be acknowledged by Dart.
+   *
+   * @return true when acknowledgement based flow control is enabled.
+   */
+  public boolean isFlowControlEnabled() {
+    return maxPendingFrames > 0;
+  }
+
+  /**
+   * Gets the policy used to decide which frame is dropped when too many frames are pending.
+   *
+   * @return the frame drop policy.
+   */
+  @NonNull
+  public FrameDropPolicy getFrameDropPolicy() {
+    return frameDropPolicy;
+  }
+
+  /**
+   * Indicates whether only the luminance (Y) plane of YUV frames should be sent.
+   *
+   * @return true when the chroma planes are left out.
+   */
+  public boolean isLuminanceOnly() {
+    return luminanceOnly;
+  }
+
+  /**
+   * Indicates whether a region of interest has been configured.
+   *
+   * @return true when frames are cropped before being sent.
+   */
+  public boolean hasRegionOfInterest() {
+    return regionWidth > 0 && regionHeight > 0;
+  }
+
+  /** Gets the left edge of the region of interest, in image pixels. */
+  public int getRegionLeft() {
+    return regionLeft;
+  }
+
+  /** Gets the top edge of the region of interest, in image pixels. */
+  public int getRegionTop() {
+    return regionTop;
+  }
+
+  /** Gets the width of the region of interest, in image pixels. */
+  public int getRegionWidth() {
+    return regionWidth;
+  }
+
+  /** Gets the height of the region of interest, in image pixels. */
+  public int getRegionHeight() {
+    return regionHeight;
+  }
+
+  /**
+   * Gets the integer factor by which frames are subsampled in both directions.
+   *
+   * @return the subsample factor, 1 when frames are sent at full resolution.
+   */
+  public int getSubsampleFactor() {
+    return subsampleFactor;
+  }
+
+  /**
+   * Indicates whether the image data needs to be transformed before it is sent.
+   *
+   * @return true when plane selection, cropping or subsampling is configured.
+   */
+  public boolean hasTransformations() {
+    return luminanceOnly || hasRegionOfInterest() || subsampleFactor > 1;
+  }
+
+  /**
+   * Gets the format YUV_420_888 frames are converted into before they are sent.
+   *
+   * <p>Plane selection and subsampling only apply to {@link ImageStreamOutputFormat#yuv420}, the
+   * region of interest applies to every format.
+   *
+   * @return the output format of YUV frames.
+   */
+  @NonNull
+  public ImageStreamOutputFormat getOutputFormat() {
+    return outputFormat;
+  }
+
+  /** Builds {@link ImageStreamOptions} instances. */
+  public static class Builder {
+    private int maxPendingFrames;
+    @NonNull private FrameDropPolicy frameDropPolicy = FrameDropPolicy.dropOldest;
+    private boolean luminanceOnly;
+    private int regionLeft;
+    private int regionTop;
+    private int regionWidth;
+    private int regionHeight;
+    private int subsampleFactor = 1;
+    @NonNull private ImageStreamOutputFormat outputFormat = ImageStreamOutputFormat.yuv420;
+
+    /**
+     * Sets the maximum number of frames that may be sent to Dart without being acknowledged.
+     *
+     * @param maxPendingFrames the maximum number of pending frames, 0 or less disables flow
+     *     control.
+     * @return this builder.
+     */
+    public Builder setMaxPendingFrames(int maxPendingFrames) {
+      this.maxPendingFrames = maxPendingFrames;
+      return this;
+    }
+
+    /**
+     * Sets the policy used to decide which frame is dropped when too many frames are pending.
+     *
+     * @param frameDropPolicy the frame drop policy.
+     * @return this builder.
+     */
+    public Builder setFrameDropPolicy(@NonNull FrameDropPolicy frameDropPolicy) {
+      this.frameDropPolicy = frameDropPolicy;
+      return this;
+    }
+
+    /**
+     * Sets whether only the luminance (Y) plane of YUV frames should be sent.
+     *
+     * @param luminanceOnly true to leave out the chroma planes.
+     * @return this builder.
+     */
+    public Builder setLuminanceOnly(boolean luminanceOnly) {
+      this.luminanceOnly = luminanceOnly;
+      return this;
+    }
+
+    /**
+     * Sets the region of the image that is sent, in image pixels. A width or height of 0 disables
+     * cropping.
+     *
+     * @param left the left edge of the region.
+     * @param top the top edge of the region.
+     * @param width the width of the region.
+     * @param height the height of the region.
+     * @return this builder.
+     */
+    public Builder setRegionOfInterest(int left, int top, int width, int height) {
+      this.regionLeft = Math.max(0, left);
+      this.regionTop = Math.max(0, top);
+      this.regionWidth = Math.max(0, width);
+      this.regionHeight = Math.max(0, height);
+      return this;
+    }
+
+    /**
+     * Sets the integer factor by which frames are subsampled in both directions.
+     *
+     * @param subsampleFactor the subsample factor, values smaller than 1 are treated as 1.
+     * @return this builder.
+     */
+    public Builder setSubsampleFactor(int subsampleFactor) {
+      this.subsampleFactor = Math.max(1, subsampleFactor);
+      return this;
+    }
+
+    /**
+     * Sets the format YUV_420_888 frames are converted into before they are sent.
+     *
+     * @param outputFormat the output format of YUV frames.
+     * @return this builder.
+     */
+    public Builder setOutputFormat(@NonNull ImageStreamOutputFormat outputFormat) {
+      this.outputFormat = outputFormat;
+      return this;
+    }
+
+    /**
+     * Creates the {@link ImageStreamOptions} with the configured values.
+     *
+     * @return the image stream options.
+     */
+    @NonNull
+    public ImageStreamOptions build() {
+      return new ImageStreamOptions(this);
+    }
+  }
+}
@@ -0,0 +1,42 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.types;
+
+// Mirrors image_stream_options.dart
+public enum ImageStreamOutputFormat {
+  /** Sends the planes of YUV_420_888 images as they are produced by the camera. */
+  yuv420("yuv420"),
+  /** Converts YUV_420_888 images into a single NV21 plane. */
+  nv21("nv21"),
+  /** Converts YUV_420_888 images into a single RGBA plane with 8 bits per channel. */
+  rgba8888("rgba8888");
+
+  private final String strValue;
+
+  ImageStreamOutputFormat(String strValue) {
+    this.strValue = strValue;
+  }
+
+  /**
+   * Tries to convert the supplied string into a {@see ImageStreamOutputFormat} enum value.
+   *
+   * <p>When the supplied string doesn't match a valid {@see ImageStreamOutputFormat} enum value,
+   * null is returned.
+   *
+   * @param formatStr String value to convert into an {@see ImageStreamOutputFormat} enum value.
+   * @return Matching {@see ImageStreamOutputFormat} enum value, or null if no match is found.
+   */
+  public static ImageStreamOutputFormat getValueForString(String formatStr) {
+    for (ImageStreamOutputFormat value : values()) {
+      if (value.strValue.equals(formatStr)) return value;
+    }
+    return null;
+  }
+
+  @Override
+  public String toString() {
+    return strValue;
+  }
+}
@@ -0,0 +1,163 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.types;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Options for recording videos with the hardware encoder directly, instead of relying on the
+ * defaults of the recording profile.
+ *
+ * <p>Options that are not set fall back to the recording profile of the selected resolution.
+ */
+public class VideoEncodingOptions {
+  /** The key frame interval used when none is set. */
+  public static final int DEFAULT_KEY_FRAME_INTERVAL_MS = 1000;
+
+  private final int bitrate;
+  private final int keyFrameIntervalMs;
+  private final boolean preferHevc;
+  private final int constantQuality;
+  private final int highSpeedFrameRate;
+
+  private VideoEncodingOptions(Builder builder) {
+    this.bitrate = builder.bitrate;
+    this.keyFrameIntervalMs = builder.keyFrameIntervalMs;
+    this.preferHevc = builder.preferHevc;
+    this.constantQuality = builder.constantQuality;
+    this.highSpeedFrameRate = builder.highSpeedFrameRate;
+  }
+
+  /** Gets the video bitrate in bits per second, or 0 to use the bitrate of the profile. */
+  public int getBitrate() {
+    return bitrate;
+  }
+
+  /** Gets the interval between key frames in milliseconds. */
+  public int getKeyFrameIntervalMs() {
+    return keyFrameIntervalMs;
+  }
+
+  /** Indicates whether HEVC should be used when the device has an HEVC encoder. */
+  public boolean getPreferHevc() {
+    return preferHevc;
+  }
+
+  /**
+   * Gets the constant quality between 0 and 100, or -1 to encode with a variable bitrate.
+   *
+   * <p>Devices that do not support constant quality encoding use a variable bitrate instead.
+   */
+  public int getConstantQuality() {
+    return constantQuality;
+  }
+
+  /** Indicates whether constant quality encoding is requested. */
+  public boolean usesConstantQuality() {
+    return constantQuality >= 0;
+  }
+
+  /**
+   * Gets the frame rate to record at in a constrained high speed capture session, or 0 to record at
+   * the frame rate of the profile.
+   */
+  public int getHighSpeedFrameRate() {
+    return highSpeedFrameRate;
+  }
+
+  /** Indicates whether recording in a constrained high speed capture session is requested. */
+  public boolean usesHighSpeed() {
+    return highSpeedFrameRate > 0;
+  }
+
+  /** Builds {@link VideoEncodingOptions} instances. */
+  public static class Builder {
+    private int bitrate;
+    private int keyFrameIntervalMs = DEFAULT_KEY_FRAME_INTERVAL_MS;
+    private boolean preferHevc;
+    private int constantQuality = -1;
+    private int highSpeedFrameRate;
+
+    /**
+     * Sets the video bitrate.
+     *
+     * @param bitrate the bitrate in bits per second, 0 uses the bitrate of the profile.
+     * @return this builder.
+     */
+    public Builder setBitrate(int bitrate) {
+      if (bitrate < 0) {
+        throw new IllegalArgumentException("The bitrate cannot be negative.");
+      }
+      this.bitrate = bitrate;
+      return this;
+    }
+
+    /**
+     * Sets the interval between key frames.
+     *
+     * @param keyFrameIntervalMs the interval in milliseconds, must be positive.
+     * @return this builder.
+     */
+    public Builder setKeyFrameIntervalMs(int keyFrameIntervalMs) {
+      if (keyFrameIntervalMs <= 0) {
+        throw new IllegalArgumentException("The key frame interval must be positive.");
+      }
+      this.keyFrameIntervalMs = keyFrameIntervalMs;
+      return this;
+    }
+
+    /**
+     * Sets whether HEVC should be used when the device has an HEVC encoder.
+     *
+     * @param preferHevc true to prefer HEVC over H.264.
+     * @return this builder.
+     */
+    public Builder setPreferHevc(boolean preferHevc) {
+      this.preferHevc = preferHevc;
+      return this;
+    }
+
+    /**
+     * Sets the constant quality, which takes precedence over the bitrate when supported.
+     *
+     * @param constantQuality the quality between 0 and 100.
+     * @return this builder.
+     */
+    public Builder setConstantQuality(int constantQuality) {
+      if (constantQuality < 0 || constantQuality > 100) {
+        throw new IllegalArgumentException("The constant quality must be between 0 and 100.");
+      }
+      this.constantQuality = constantQuality;
+      return this;
+    }
+
+    /**
+     * Sets the frame rate to record at in a constrained high speed capture session.
+     *
+     * <p>The video size is lowered to the largest size at which the camera supports the frame rate.
+     *
+     * @param highSpeedFrameRate the frame rate, like 120 or 240, 0 uses the frame rate of the
+     *     profile.
+     * @return this builder.
+     */
+    public Builder setHighSpeedFrameRate(int highSpeedFrameRate) {
+      if (highSpeedFrameRate < 0) {
+        throw new IllegalArgumentException("The high speed frame rate cannot be negative.");
+      }
+      this.highSpeedFrameRate = highSpeedFrameRate;
+      return this;
+    }
+
+    /**
+     * Creates the {@link VideoEncodingOptions} with the configured values.
+     *
+     * @return the encoding options.
+     */
+    @NonNull
+    public VideoEncodingOptions build() {
+      return new VideoEncodingOptions(this);
+    }
+  }
+}
@@ -0,0 +1,82 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.flutter.plugin.common.MethodChannel;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BurstCaptureTest {
+  private MethodChannel.Result mockResult;
+  private DartMessenger mockDartMessenger;
+
+  @Before
+  public void before() {
+    mockResult = mock(MethodChannel.Result.class);
+    mockDartMessenger = mock(DartMessenger.class);
+  }
+
+  @Test
+  public void onFrameCaptured_shouldCompleteCaptureAfterLastFrame() {
+    BurstCapture burst = new BurstCapture(2, 0, mockResult, mockDartMessenger);
+
+    burst.onFrameCaptured();
+    assertFalse(burst.isCaptureComplete());
+
+    burst.onFrameCaptured();
+    assertTrue(burst.isCaptureComplete());
+  }
+
+  @Test
+  public void onFrameCaptured_shouldFinishWithPathsInCaptureOrder() {
+    BurstCapture burst = new BurstCapture(3, 0, mockResult, mockDartMessenger);
+    ImageSaver.Callback first = burst.onFrameCaptured();
+    ImageSaver.Callback second = burst.onFrameCaptured();
+    ImageSaver.Callback third = burst.onFrameCaptured();
+
+    third.onComplete("c");
+    first.onComplete("a");
+    verify(mockDartMessenger, never()).finish(any(), any());
+
+    second.onComplete("b");
+
+    verify(mockDartMessenger, times(1)).finish(mockResult, Arrays.asList("a", "b", "c"));
+  }
+
+  @Test
+  public void onFrameCaptured_shouldFailBurstOnceWhenSavingFails() {
+    BurstCapture burst = new BurstCapture(2, 0, mockResult, mockDartMessenger);
+    ImageSaver.Callback first = burst.onFrameCaptured();
+    ImageSaver.Callback second = burst.onFrameCaptured();
+
+    first.onError("IOError", "Failed saving image");
+    second.onError("IOError", "Failed saving image");
+
+    verify(mockDartMessenger, times(1)).error(mockResult, "IOError", "Failed saving image", null);
+    verify(mockDartMessenger, never()).finish(any(), any());
+  }
+
+  @Test
+  public void onFrameFailed_shouldCountFrameAndFailBurst() {
+    BurstCapture burst = new BurstCapture(2, 0, mockResult, mockDartMessenger);
+    ImageSaver.Callback first = burst.onFrameCaptured();
+
+    burst.onFrameFailed("captureFailed", "message");
+    first.onComplete("a");
+
+    assertTrue(burst.isCaptureComplete());
+    verify(mockDartMessenger, times(1)).error(mockResult, "captureFailed", "message", null);
+    verify(mockDartMessenger, never()).finish(any(), any());
+  }
+}
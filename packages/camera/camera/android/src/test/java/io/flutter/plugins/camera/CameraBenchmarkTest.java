@@ -0,0 +1,335 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.ImageFormat;
+import android.hardware.camera2.CameraAccessException;
+import android.hardware.camera2.CameraCaptureSession;
+import android.hardware.camera2.CaptureRequest;
+import android.hardware.camera2.CaptureResult;
+import android.hardware.camera2.TotalCaptureResult;
+import android.media.Image;
+import android.media.ImageReader;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.Size;
+import android.view.Surface;
+import androidx.annotation.NonNull;
+import io.flutter.embedding.engine.systemchannels.PlatformChannel;
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.EventChannel;
+import io.flutter.plugin.common.MethodChannel;
+import io.flutter.plugin.common.StandardMethodCodec;
+import io.flutter.plugins.camera.features.CameraFeatureFactory;
+import io.flutter.plugins.camera.features.resolution.ResolutionFeature;
+import io.flutter.plugins.camera.features.resolution.ResolutionPreset;
+import io.flutter.plugins.camera.features.sensororientation.DeviceOrientationManager;
+import io.flutter.plugins.camera.features.sensororientation.SensorOrientationFeature;
+import io.flutter.plugins.camera.types.ImageStreamOptions;
+import io.flutter.plugins.camera.utils.Benchmark;
+import io.flutter.plugins.camera.utils.TestUtils;
+import io.flutter.view.TextureRegistry;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+
+/**
+ * Drives {@link Camera} with mocked camera devices, sessions and image readers to measure the cost
+ * of its hot paths on a plain JVM.
+ *
+ * <p>Every handler runs posted messages right away, so each measured operation covers the whole
+ * path up to the message that would be sent to Dart. Skipped unless benchmarks are enabled, see
+ * {@link Benchmark}.
+ */
+public class CameraBenchmarkTest {
+  private static final int WIDTH = 1280;
+  private static final int HEIGHT = 720;
+  private static final int WARMUP_OPERATIONS = 200;
+  private static final int OPERATIONS = 1000;
+
+  @Rule public TemporaryFolder cacheDir = new TemporaryFolder();
+
+  private CameraProperties mockCameraProperties;
+  private CameraFeatureFactory cameraFeatureFactory;
+  private Camera camera;
+  private CameraCaptureSession mockCaptureSession;
+  private MockedStatic<Camera.HandlerThreadFactory> mockHandlerThreadFactory;
+  private MockedStatic<Camera.HandlerFactory> mockHandlerFactory;
+  private Handler immediateHandler;
+
+  @Before
+  public void before() {
+    Benchmark.assumeEnabled();
+
+    mockCameraProperties = mock(CameraProperties.class);
+    cameraFeatureFactory = new TestCameraFeatureFactory();
+    mockCaptureSession = mock(CameraCaptureSession.class, withSettings().stubOnly());
+    mockHandlerThreadFactory = mockStatic(Camera.HandlerThreadFactory.class);
+    mockHandlerFactory = mockStatic(Camera.HandlerFactory.class);
+    immediateHandler = createImmediateHandler();
+
+    final Activity mockActivity = mock(Activity.class);
+    final Context mockContext = mock(Context.class);
+    when(mockActivity.getApplicationContext()).thenReturn(mockContext);
+    when(mockContext.getCacheDir()).thenReturn(cacheDir.getRoot());
+    when(mockCameraProperties.getCameraName()).thenReturn("1");
+    mockHandlerFactory.when(() -> Camera.HandlerFactory.create(any())).thenReturn(immediateHandler);
+    mockHandlerThreadFactory
+        .when(() -> Camera.HandlerThreadFactory.create(any()))
+        .thenReturn(mock(HandlerThread.class));
+    stubPreviewSize();
+
+    camera =
+        new Camera(
+            mockActivity,
+            mock(TextureRegistry.SurfaceTextureEntry.class),
+            cameraFeatureFactory,
+            mock(DartMessenger.class, withSettings().stubOnly()),
+            mockCameraProperties,
+            ResolutionPreset.high,
+            false);
+
+    TestUtils.setPrivateField(camera, "captureSession", mockCaptureSession);
+    TestUtils.setPrivateField(
+        camera,
+        "previewRequestBuilder",
+        mock(CaptureRequest.Builder.class, withSettings().stubOnly()));
+  }
+
+  @After
+  public void after() {
+    if (mockHandlerFactory != null) {
+      mockHandlerThreadFactory.close();
+      mockHandlerFactory.close();
+    }
+  }
+
+  @Test
+  public void imageStream_framesPerSecondAndAllocationsPerFrame() throws CameraAccessException {
+    Surface mockFlutterSurface = mock(Surface.class);
+    Surface mockImageStreamSurface = mock(Surface.class);
+    ImageReader mockImageStreamReader = mock(ImageReader.class, withSettings().stubOnly());
+    when(mockImageStreamReader.getSurface()).thenReturn(mockImageStreamSurface);
+    when(mockImageStreamReader.getWidth()).thenReturn(WIDTH);
+    when(mockImageStreamReader.getHeight()).thenReturn(HEIGHT);
+    when(mockImageStreamReader.getImageFormat()).thenReturn(ImageFormat.YUV_420_888);
+    when(mockImageStreamReader.getMaxImages()).thenReturn(1);
+    ArgumentCaptor<ImageReader.OnImageAvailableListener> listenerCaptor =
+        ArgumentCaptor.forClass(ImageReader.OnImageAvailableListener.class);
+    doAnswer(invocation -> null)
+        .when(mockImageStreamReader)
+        .setOnImageAvailableListener(listenerCaptor.capture(), any());
+    ByteBuffer[] buffers = {
+      ByteBuffer.allocateDirect(WIDTH * HEIGHT),
+      ByteBuffer.allocateDirect(WIDTH * HEIGHT / 2 - 1),
+      ByteBuffer.allocateDirect(WIDTH * HEIGHT / 2 - 1)
+    };
+    Image image = createYuvImage(buffers);
+    when(mockImageStreamReader.acquireNextImage()).thenReturn(image);
+
+    TestUtils.setPrivateField(
+        camera,
+        "cameraDevice",
+        new FakeCameraDeviceWrapper(
+            new ArrayList<>(Collections.singletonList(mock(CaptureRequest.Builder.class)))));
+    TestUtils.setPrivateField(camera, "imageStreamReader", mockImageStreamReader);
+    TestUtils.setPrivateField(camera, "previewSurface", mockFlutterSurface);
+    TestUtils.setPrivateField(
+        camera, "sessionSurfaces", Arrays.asList(mockFlutterSurface, mockImageStreamSurface));
+
+    EventChannel mockImageStreamChannel = mock(EventChannel.class);
+    camera.startPreviewWithImageStream(mockImageStreamChannel, new ImageStreamOptions());
+    ArgumentCaptor<EventChannel.StreamHandler> streamHandlerCaptor =
+        ArgumentCaptor.forClass(EventChannel.StreamHandler.class);
+    verify(mockImageStreamChannel).setStreamHandler(streamHandlerCaptor.capture());
+    EncodingEventSink sink = new EncodingEventSink();
+    streamHandlerCaptor.getValue().onListen(null, sink);
+    ImageReader.OnImageAvailableListener listener = listenerCaptor.getValue();
+
+    Benchmark.run(
+        "image stream 720p yuv420",
+        WARMUP_OPERATIONS,
+        OPERATIONS,
+        () -> {
+          for (ByteBuffer buffer : buffers) {
+            buffer.rewind();
+          }
+          listener.onImageAvailable(mockImageStreamReader);
+        });
+
+    assertEquals(WARMUP_OPERATIONS + OPERATIONS, sink.events);
+  }
+
+  @Test
+  public void takePicture_stateMachineLatency() throws CameraAccessException {
+    ImageReader mockPictureImageReader = mock(ImageReader.class, withSettings().stubOnly());
+    when(mockPictureImageReader.getSurface()).thenReturn(mock(Surface.class));
+    TestUtils.setPrivateField(camera, "pictureImageReader", mockPictureImageReader);
+    TestUtils.setPrivateField(
+        camera,
+        "cameraDevice",
+        new FakeCameraDeviceWrapper(
+            new ArrayList<>(Collections.singletonList(mock(CaptureRequest.Builder.class)))));
+    SensorOrientationFeature mockSensorOrientationFeature =
+        cameraFeatureFactory.createSensorOrientationFeature(mockCameraProperties, null, null);
+    when(mockSensorOrientationFeature.getDeviceOrientationManager())
+        .thenReturn(mock(DeviceOrientationManager.class));
+
+    // Complete the still capture as soon as it is requested, like a camera that is always ready.
+    CaptureRequest mockRequest = mock(CaptureRequest.class);
+    TotalCaptureResult mockTotalCaptureResult = mock(TotalCaptureResult.class);
+    CameraCaptureCallback cameraCaptureCallback =
+        (CameraCaptureCallback) TestUtils.getPrivateField(camera, "cameraCaptureCallback");
+    doAnswer(
+            invocation -> {
+              CameraCaptureSession.CaptureCallback callback = invocation.getArgument(1);
+              if (callback != null && callback != cameraCaptureCallback) {
+                callback.onCaptureStarted(mockCaptureSession, mockRequest, 0, 0);
+                callback.onCaptureCompleted(
+                    mockCaptureSession, mockRequest, mockTotalCaptureResult);
+              }
+              return 0;
+            })
+        .when(mockCaptureSession)
+        .capture(any(), any(), any());
+
+    // Partial results without focus and exposure states, as reported by fixed focus cameras.
+    CaptureResult mockPartialResult = mock(CaptureResult.class);
+    MethodChannel.Result mockResult = mock(MethodChannel.Result.class, withSettings().stubOnly());
+
+    Benchmark.run(
+        "takePicture precapture to capture",
+        WARMUP_OPERATIONS,
+        OPERATIONS,
+        () -> {
+          camera.takePicture(mockResult);
+          // Precapture started, then done.
+          cameraCaptureCallback.onCaptureProgressed(
+              mockCaptureSession, mockRequest, mockPartialResult);
+          cameraCaptureCallback.onCaptureProgressed(
+              mockCaptureSession, mockRequest, mockPartialResult);
+          // Saving the picture returns the camera to the preview state.
+          assertEquals(CameraState.STATE_CAPTURING, cameraCaptureCallback.getCameraState());
+          cameraCaptureCallback.setCameraState(CameraState.STATE_PREVIEW);
+        });
+  }
+
+  @Test
+  public void dartMessenger_eventsPerSecond() {
+    CountingBinaryMessenger messenger = new CountingBinaryMessenger();
+    DartMessenger dartMessenger = new DartMessenger(messenger, 0, immediateHandler);
+    PlatformChannel.DeviceOrientation[] orientations = PlatformChannel.DeviceOrientation.values();
+
+    Benchmark.run(
+        "DartMessenger orientation events",
+        WARMUP_OPERATIONS,
+        OPERATIONS,
+        () -> {
+          for (PlatformChannel.DeviceOrientation orientation : orientations) {
+            dartMessenger.sendDeviceOrientationChangeEvent(orientation);
+          }
+        });
+    Benchmark.run(
+        "DartMessenger frames dropped events",
+        WARMUP_OPERATIONS,
+        OPERATIONS,
+        () -> dartMessenger.sendImageStreamFramesDroppedEvent(12));
+
+    assertEquals(
+        (WARMUP_OPERATIONS + OPERATIONS) * (orientations.length + 1), messenger.messages);
+  }
+
+  private void stubPreviewSize() {
+    Size mockSize = mock(Size.class);
+    when(mockSize.getWidth()).thenReturn(WIDTH);
+    when(mockSize.getHeight()).thenReturn(HEIGHT);
+    ResolutionFeature mockResolutionFeature =
+        cameraFeatureFactory.createResolutionFeature(mockCameraProperties, null, null);
+    when(mockResolutionFeature.getPreviewSize()).thenReturn(mockSize);
+  }
+
+  private static Handler createImmediateHandler() {
+    Handler handler = mock(Handler.class, withSettings().stubOnly());
+    when(handler.post(any()))
+        .thenAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return true;
+            });
+    return handler;
+  }
+
+  private static Image createYuvImage(ByteBuffer[] buffers) {
+    Image.Plane[] planes = new Image.Plane[buffers.length];
+    for (int i = 0; i < buffers.length; i++) {
+      Image.Plane plane = mock(Image.Plane.class, withSettings().stubOnly());
+      when(plane.getBuffer()).thenReturn(buffers[i]);
+      when(plane.getRowStride()).thenReturn(WIDTH);
+      when(plane.getPixelStride()).thenReturn(i == 0 ? 1 : 2);
+      planes[i] = plane;
+    }
+
+    Image image = mock(Image.class, withSettings().stubOnly());
+    when(image.getPlanes()).thenReturn(planes);
+    when(image.getWidth()).thenReturn(WIDTH);
+    when(image.getHeight()).thenReturn(HEIGHT);
+    when(image.getFormat()).thenReturn(ImageFormat.YUV_420_888);
+    return image;
+  }
+
+  /** Encodes every event like the image stream {@link EventChannel} does before sending it. */
+  private static class EncodingEventSink implements EventChannel.EventSink {
+    int events;
+
+    @Override
+    public void success(Object event) {
+      StandardMethodCodec.INSTANCE.encodeSuccessEnvelope(event);
+      events++;
+    }
+
+    @Override
+    public void error(String errorCode, String errorMessage, Object errorDetails) {}
+
+    @Override
+    public void endOfStream() {}
+  }
+
+  /** A {@link BinaryMessenger} that drops messages after counting them. */
+  private static class CountingBinaryMessenger implements BinaryMessenger {
+    int messages;
+
+    @Override
+    public void send(@NonNull String channel, ByteBuffer message) {
+      messages++;
+    }
+
+    @Override
+    public void send(@NonNull String channel, ByteBuffer message, BinaryReply callback) {
+      send(channel, message);
+    }
+
+    @Override
+    public void setMessageHandler(@NonNull String channel, BinaryMessageHandler handler) {}
+  }
+}
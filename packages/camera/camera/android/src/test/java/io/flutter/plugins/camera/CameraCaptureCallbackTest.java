@@ -4,9 +4,8 @@
 
 package io.flutter.plugins.camera;
 
-import static org.mockito.ArgumentMatchers.anyFloat;
-import static org.mockito.ArgumentMatchers.anyInt;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -18,10 +17,12 @@ import android.hardware.camera2.CaptureRequest;
 import android.hardware.camera2.CaptureResult;
 import android.hardware.camera2.TotalCaptureResult;
 import io.flutter.plugins.camera.types.CameraCaptureProperties;
+import io.flutter.plugins.camera.types.CaptureResultSnapshot;
 import io.flutter.plugins.camera.types.CaptureTimeoutsWrapper;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.robolectric.RobolectricTestRunner;
 
 @RunWith(RobolectricTestRunner.class)
@@ -49,9 +50,7 @@ public class CameraCaptureCallbackTest {
 
     cameraCaptureCallback.onCaptureProgressed(mockSession, mockRequest, mockResult);
 
-    verify(mockCaptureProps, never()).setLastLensAperture(anyFloat());
-    verify(mockCaptureProps, never()).setLastSensorExposureTime(anyLong());
-    verify(mockCaptureProps, never()).setLastSensorSensitivity(anyInt());
+    verify(mockCaptureProps, never()).publish(any());
   }
 
   @Test
@@ -62,11 +61,48 @@ public class CameraCaptureCallbackTest {
     when(mockResult.get(CaptureResult.LENS_APERTURE)).thenReturn(1.0f);
     when(mockResult.get(CaptureResult.SENSOR_EXPOSURE_TIME)).thenReturn(2L);
     when(mockResult.get(CaptureResult.SENSOR_SENSITIVITY)).thenReturn(3);
+    when(mockResult.get(CaptureResult.SENSOR_TIMESTAMP)).thenReturn(4L);
+    when(mockResult.getFrameNumber()).thenReturn(5L);
 
     cameraCaptureCallback.onCaptureCompleted(mockSession, mockRequest, mockResult);
 
-    verify(mockCaptureProps, times(1)).setLastLensAperture(1.0f);
-    verify(mockCaptureProps, times(1)).setLastSensorExposureTime(2L);
-    verify(mockCaptureProps, times(1)).setLastSensorSensitivity(3);
+    ArgumentCaptor<CaptureResultSnapshot> snapshotCaptor =
+        ArgumentCaptor.forClass(CaptureResultSnapshot.class);
+    verify(mockCaptureProps, times(1)).publish(snapshotCaptor.capture());
+    CaptureResultSnapshot snapshot = snapshotCaptor.getValue();
+    assertEquals(1.0f, snapshot.getLensAperture(), 0);
+    assertEquals(2L, (long) snapshot.getSensorExposureTime());
+    assertEquals(3, (int) snapshot.getSensorSensitivity());
+    assertEquals(4L, snapshot.getSensorTimestamp());
+    assertEquals(5L, snapshot.getFrameNumber());
+  }
+
+  @Test
+  public void onCaptureCompleted_skipsFocusAndExposureStatesInPreview() {
+    CameraCaptureSession mockSession = mock(CameraCaptureSession.class);
+    CaptureRequest mockRequest = mock(CaptureRequest.class);
+    TotalCaptureResult mockResult = mock(TotalCaptureResult.class);
+
+    cameraCaptureCallback.onCaptureCompleted(mockSession, mockRequest, mockResult);
+
+    verify(mockResult, never()).get(CaptureResult.CONTROL_AE_STATE);
+    verify(mockResult, never()).get(CaptureResult.CONTROL_AF_STATE);
+  }
+
+  @Test
+  public void onCaptureCompleted_informsFrameCapturedListener() {
+    CameraCaptureSession mockSession = mock(CameraCaptureSession.class);
+    CaptureRequest mockRequest = mock(CaptureRequest.class);
+    TotalCaptureResult mockResult = mock(TotalCaptureResult.class);
+    when(mockResult.get(CaptureResult.SENSOR_TIMESTAMP)).thenReturn(42L);
+    CameraCaptureCallback.OnFrameCapturedListener mockListener =
+        mock(CameraCaptureCallback.OnFrameCapturedListener.class);
+    cameraCaptureCallback.setOnFrameCapturedListener(mockListener);
+
+    cameraCaptureCallback.onCaptureCompleted(mockSession, mockRequest, mockResult);
+    cameraCaptureCallback.onCaptureProgressed(
+        mockSession, mockRequest, mock(CaptureResult.class));
+
+    verify(mockListener, times(1)).onFrameCaptured(42L);
   }
 }
@@ -0,0 +1,132 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+import android.hardware.camera2.CameraAccessException;
+import android.hardware.camera2.CameraCharacteristics;
+import android.hardware.camera2.CameraManager;
+import android.hardware.camera2.CameraMetadata;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CameraCharacteristicsCacheTest {
+  private CameraCharacteristicsCache cache;
+  private CameraManager mockCameraManager;
+  private CameraCharacteristics mockBackCharacteristics;
+  private CameraCharacteristics mockExternalCharacteristics;
+
+  @Before
+  public void before() throws CameraAccessException {
+    cache = new CameraCharacteristicsCache();
+    mockCameraManager = mock(CameraManager.class);
+    mockBackCharacteristics = mock(CameraCharacteristics.class);
+    mockExternalCharacteristics = mock(CameraCharacteristics.class);
+
+    when(mockBackCharacteristics.get(CameraCharacteristics.LENS_FACING))
+        .thenReturn(CameraMetadata.LENS_FACING_BACK);
+    when(mockExternalCharacteristics.get(CameraCharacteristics.LENS_FACING))
+        .thenReturn(CameraMetadata.LENS_FACING_EXTERNAL);
+    when(mockCameraManager.getCameraIdList()).thenReturn(new String[] {"0", "5"});
+    when(mockCameraManager.getCameraCharacteristics("0")).thenReturn(mockBackCharacteristics);
+    when(mockCameraManager.getCameraCharacteristics("5")).thenReturn(mockExternalCharacteristics);
+  }
+
+  @Test
+  public void getCameraCharacteristics_shouldQueryCameraManagerOnce()
+      throws CameraAccessException {
+    CameraCharacteristics first = cache.getCameraCharacteristics(mockCameraManager, "0");
+    CameraCharacteristics second = cache.getCameraCharacteristics(mockCameraManager, "0");
+
+    assertSame(mockBackCharacteristics, first);
+    assertSame(first, second);
+    verify(mockCameraManager, times(1)).getCameraCharacteristics("0");
+  }
+
+  @Test
+  public void getCameraIdList_shouldQueryCameraManagerOnce() throws CameraAccessException {
+    cache.getCameraIdList(mockCameraManager);
+    String[] ids = cache.getCameraIdList(mockCameraManager);
+
+    assertArrayEquals(new String[] {"0", "5"}, ids);
+    verify(mockCameraManager, times(1)).getCameraIdList();
+  }
+
+  @Test
+  public void onCameraAvailable_shouldForgetIdListWhenNewCameraIsConnected()
+      throws CameraAccessException {
+    cache.getCameraIdList(mockCameraManager);
+
+    cache.onCameraAvailable("0");
+    cache.getCameraIdList(mockCameraManager);
+    verify(mockCameraManager, times(1)).getCameraIdList();
+
+    cache.onCameraAvailable("7");
+    cache.getCameraIdList(mockCameraManager);
+    verify(mockCameraManager, times(2)).getCameraIdList();
+  }
+
+  @Test
+  public void onCameraUnavailable_shouldKeepBuiltInCameras() throws CameraAccessException {
+    cache.getCameraIdList(mockCameraManager);
+    cache.getCameraCharacteristics(mockCameraManager, "0");
+
+    cache.onCameraUnavailable("0");
+    cache.getCameraIdList(mockCameraManager);
+    cache.getCameraCharacteristics(mockCameraManager, "0");
+
+    verify(mockCameraManager, times(1)).getCameraIdList();
+    verify(mockCameraManager, times(1)).getCameraCharacteristics("0");
+  }
+
+  @Test
+  public void onCameraUnavailable_shouldForgetExternalCameras() throws CameraAccessException {
+    cache.getCameraIdList(mockCameraManager);
+    cache.getCameraCharacteristics(mockCameraManager, "5");
+
+    cache.onCameraUnavailable("5");
+    cache.getCameraIdList(mockCameraManager);
+    cache.getCameraCharacteristics(mockCameraManager, "5");
+
+    verify(mockCameraManager, times(2)).getCameraIdList();
+    verify(mockCameraManager, times(2)).getCameraCharacteristics("5");
+  }
+
+  @Test
+  public void invalidate_shouldForgetAllValues() throws CameraAccessException {
+    cache.getCameraIdList(mockCameraManager);
+    cache.getCameraCharacteristics(mockCameraManager, "0");
+
+    cache.invalidate();
+    cache.getCameraIdList(mockCameraManager);
+    cache.getCameraCharacteristics(mockCameraManager, "0");
+
+    verify(mockCameraManager, times(2)).getCameraIdList();
+    verify(mockCameraManager, times(2)).getCameraCharacteristics("0");
+  }
+
+  @Test
+  public void startMonitoring_shouldRegisterAvailabilityCallbackOnce() {
+    Context mockContext = mock(Context.class);
+    Context mockApplicationContext = mock(Context.class);
+    when(mockContext.getApplicationContext()).thenReturn(mockApplicationContext);
+    when(mockApplicationContext.getSystemService(Context.CAMERA_SERVICE))
+        .thenReturn(mockCameraManager);
+
+    cache.startMonitoring(mockContext);
+    cache.startMonitoring(mockContext);
+
+    verify(mockCameraManager, times(1)).registerAvailabilityCallback(eq(cache), any());
+  }
+}
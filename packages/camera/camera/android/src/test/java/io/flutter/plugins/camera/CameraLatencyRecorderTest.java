@@ -0,0 +1,100 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mockStatic;
+
+import android.os.SystemClock;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+public class CameraLatencyRecorderTest {
+  private MockedStatic<SystemClock> mockSystemClock;
+  private CameraLatencyRecorder recorder;
+
+  @Before
+  public void before() {
+    mockSystemClock = mockStatic(SystemClock.class);
+    recorder = new CameraLatencyRecorder();
+  }
+
+  @After
+  public void after() {
+    mockSystemClock.close();
+  }
+
+  @Test
+  public void recordSince_shouldRecordTimeElapsedSinceStart() {
+    mockSystemClock.when(SystemClock::elapsedRealtimeNanos).thenReturn(25_000_000L);
+
+    recorder.recordSince(CameraLatencyRecorder.Phase.SHUTTER_LAG, 5_000_000L);
+
+    Map<String, Object> shutterLag = getPhaseStatistics("shutterLag");
+    assertEquals(20.0, (double) shutterLag.get("max"), 0.001);
+  }
+
+  @Test
+  public void recordSince_shouldIgnoreMissingStart() {
+    recorder.recordSince(CameraLatencyRecorder.Phase.PRECAPTURE, 0);
+
+    assertTrue(recorder.getStatistics(false).isEmpty());
+  }
+
+  @Test
+  public void getStatistics_shouldAggregatePercentiles() {
+    for (int i = 1; i <= 100; i++) {
+      recorder.record(CameraLatencyRecorder.Phase.IMAGE_SAVE, i * 1_000_000L);
+    }
+
+    Map<String, Object> imageSave = getPhaseStatistics("imageSave");
+    assertEquals(100L, imageSave.get("count"));
+    assertEquals(50.0, (double) imageSave.get("mean"), 0.001);
+    assertEquals(50.0, (double) imageSave.get("p50"), 0.001);
+    assertEquals(90.0, (double) imageSave.get("p90"), 0.001);
+    assertEquals(99.0, (double) imageSave.get("p99"), 0.001);
+    assertEquals(100.0, (double) imageSave.get("max"), 0.001);
+  }
+
+  @Test
+  public void getStatistics_shouldOnlyAggregateMostRecentSamples() {
+    for (int i = 0; i < CameraLatencyRecorder.MAX_SAMPLES; i++) {
+      recorder.record(CameraLatencyRecorder.Phase.FIRST_FRAME, 500_000_000L);
+    }
+    for (int i = 0; i < CameraLatencyRecorder.MAX_SAMPLES; i++) {
+      recorder.record(CameraLatencyRecorder.Phase.FIRST_FRAME, 10_000_000L);
+    }
+
+    Map<String, Object> firstFrame = getPhaseStatistics("firstFrame");
+    assertEquals(2L * CameraLatencyRecorder.MAX_SAMPLES, firstFrame.get("count"));
+    assertEquals(10.0, (double) firstFrame.get("max"), 0.001);
+  }
+
+  @Test
+  public void record_shouldIgnoreNegativeDurations() {
+    recorder.record(CameraLatencyRecorder.Phase.DEVICE_OPEN, -1);
+
+    assertFalse(recorder.getStatistics(false).containsKey("deviceOpen"));
+  }
+
+  @Test
+  public void getStatistics_shouldForgetRecordedDurationsWhenReset() {
+    recorder.record(CameraLatencyRecorder.Phase.DEVICE_OPEN, 1_000_000L);
+
+    assertTrue(recorder.getStatistics(true).containsKey("deviceOpen"));
+
+    assertTrue(recorder.getStatistics(false).isEmpty());
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> getPhaseStatistics(String phase) {
+    return (Map<String, Object>) recorder.getStatistics(false).get(phase);
+  }
+}
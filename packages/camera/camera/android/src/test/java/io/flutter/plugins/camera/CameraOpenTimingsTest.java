@@ -0,0 +1,106 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import android.os.SystemClock;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+public class CameraOpenTimingsTest {
+  private MockedStatic<SystemClock> mockSystemClock;
+
+  @Before
+  public void before() {
+    mockSystemClock = mockStatic(SystemClock.class);
+    setNow(1_000_000L);
+  }
+
+  @After
+  public void after() {
+    mockSystemClock.close();
+  }
+
+  @Test
+  public void toMap_shouldReportDurationOfEveryPhase() {
+    CameraOpenTimings timings = new CameraOpenTimings();
+
+    setNow(101_000_000L);
+    timings.markDeviceOpened();
+    setNow(151_000_000L);
+    timings.markSessionConfigured();
+    setNow(201_000_000L);
+    timings.markFirstFrame();
+
+    Map<String, Object> map = timings.toMap();
+    assertTrue(timings.isComplete());
+    assertEquals(100.0, (double) map.get("deviceOpen"), 0.001);
+    assertEquals(50.0, (double) map.get("sessionConfiguration"), 0.001);
+    assertEquals(50.0, (double) map.get("firstFrame"), 0.001);
+    assertEquals(200.0, (double) map.get("total"), 0.001);
+  }
+
+  @Test
+  public void toMap_shouldLeaveOutPhasesThatDidNotComplete() {
+    CameraOpenTimings timings = new CameraOpenTimings();
+
+    setNow(11_000_000L);
+    timings.markDeviceOpened();
+
+    Map<String, Object> map = timings.toMap();
+    assertFalse(timings.isComplete());
+    assertEquals(1, map.size());
+    assertEquals(10.0, (double) map.get("deviceOpen"), 0.001);
+  }
+
+  @Test
+  public void markSessionConfigured_shouldOnlyRecordFirstSession() {
+    CameraOpenTimings timings = new CameraOpenTimings();
+    timings.markDeviceOpened();
+
+    setNow(2_000_000L);
+    timings.markSessionConfigured();
+    setNow(50_000_000L);
+    timings.markSessionConfigured();
+
+    assertEquals(1.0, (double) timings.toMap().get("sessionConfiguration"), 0.001);
+  }
+
+  @Test
+  public void reportTo_shouldRecordCompletedPhases() {
+    CameraLatencyRecorder mockRecorder = mock(CameraLatencyRecorder.class);
+    CameraOpenTimings timings = new CameraOpenTimings();
+
+    setNow(101_000_000L);
+    timings.markDeviceOpened();
+    setNow(151_000_000L);
+    timings.markSessionConfigured();
+    timings.reportTo(mockRecorder);
+
+    verify(mockRecorder, times(1)).record(CameraLatencyRecorder.Phase.DEVICE_OPEN, 100_000_000L);
+    verify(mockRecorder, times(1))
+        .record(CameraLatencyRecorder.Phase.SESSION_CONFIGURATION, 50_000_000L);
+    verify(mockRecorder, never()).record(eq(CameraLatencyRecorder.Phase.FIRST_FRAME), anyLong());
+    verify(mockRecorder, never())
+        .record(eq(CameraLatencyRecorder.Phase.TIME_TO_FIRST_FRAME), anyLong());
+  }
+
+  private void setNow(long nanos) {
+    mockSystemClock.when(SystemClock::elapsedRealtimeNanos).thenReturn(nanos);
+  }
+}
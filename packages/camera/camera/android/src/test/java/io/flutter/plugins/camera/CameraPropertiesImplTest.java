@@ -13,10 +13,12 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import android.graphics.ImageFormat;
 import android.graphics.Rect;
 import android.hardware.camera2.CameraAccessException;
 import android.hardware.camera2.CameraCharacteristics;
 import android.hardware.camera2.CameraManager;
+import android.hardware.camera2.params.StreamConfigurationMap;
 import android.util.Range;
 import android.util.Rational;
 import android.util.Size;
@@ -32,6 +34,7 @@ public class CameraPropertiesImplTest {
 
   @Before
   public void before() {
+    CameraCharacteristicsCache.getInstance().invalidate();
     try {
       when(mockCameraManager.getCameraCharacteristics(CAMERA_NAME)).thenReturn(mockCharacteristics);
       cameraProperties = new CameraPropertiesImpl(CAMERA_NAME, mockCameraManager);
@@ -62,6 +65,36 @@ public class CameraPropertiesImplTest {
     assertArrayEquals(actualRanges, mockRanges);
   }
 
+  @Test
+  public void ctor_shouldReuseCachedCharacteristics() throws CameraAccessException {
+    CameraPropertiesImpl otherCameraProperties =
+        new CameraPropertiesImpl(CAMERA_NAME, mockCameraManager);
+
+    verify(mockCameraManager, times(1)).getCameraCharacteristics(CAMERA_NAME);
+    assertNotNull(otherCameraProperties);
+  }
+
+  @Test
+  public void getControlAutoFocusAvailableModes_shouldOnlyReadCharacteristicOnce() {
+    int[] expectedModes = new int[] {0, 1, 2};
+    when(mockCharacteristics.get(CameraCharacteristics.CONTROL_AF_AVAILABLE_MODES))
+        .thenReturn(expectedModes);
+
+    cameraProperties.getControlAutoFocusAvailableModes();
+    int[] actualModes = cameraProperties.getControlAutoFocusAvailableModes();
+
+    verify(mockCharacteristics, times(1)).get(CameraCharacteristics.CONTROL_AF_AVAILABLE_MODES);
+    assertArrayEquals(expectedModes, actualModes);
+  }
+
+  @Test
+  public void getFlashInfoAvailable_shouldRememberNullValues() {
+    cameraProperties.getFlashInfoAvailable();
+    cameraProperties.getFlashInfoAvailable();
+
+    verify(mockCharacteristics, times(1)).get(CameraCharacteristics.FLASH_INFO_AVAILABLE);
+  }
+
   @Test
   @SuppressWarnings("unchecked")
   public void getControlAutoExposureCompensationRangeTest() {
@@ -276,4 +309,48 @@ public class CameraPropertiesImplTest {
         .get(CameraCharacteristics.NOISE_REDUCTION_AVAILABLE_NOISE_REDUCTION_MODES);
     assertEquals(actualReductionModes, expectedReductionModes);
   }
+
+  @Test
+  public void getOutputSizesTest() {
+    StreamConfigurationMap mockStreamConfigurationMap = mock(StreamConfigurationMap.class);
+    Size[] expectedSizes = new Size[] {mock(Size.class)};
+    when(mockStreamConfigurationMap.getOutputSizes(ImageFormat.YUV_420_888))
+        .thenReturn(expectedSizes);
+    when(mockCharacteristics.get(CameraCharacteristics.SCALER_STREAM_CONFIGURATION_MAP))
+        .thenReturn(mockStreamConfigurationMap);
+
+    Size[] actualSizes = cameraProperties.getOutputSizes(ImageFormat.YUV_420_888);
+
+    assertArrayEquals(expectedSizes, actualSizes);
+  }
+
+  @Test
+  public void getHighSpeedVideoFpsRangesForTest() {
+    StreamConfigurationMap mockStreamConfigurationMap = mock(StreamConfigurationMap.class);
+    Size mockSize = mock(Size.class);
+    @SuppressWarnings("unchecked")
+    Range<Integer>[] expectedRanges = new Range[] {mock(Range.class)};
+    when(mockStreamConfigurationMap.getHighSpeedVideoFpsRangesFor(mockSize))
+        .thenReturn(expectedRanges);
+    when(mockCharacteristics.get(CameraCharacteristics.SCALER_STREAM_CONFIGURATION_MAP))
+        .thenReturn(mockStreamConfigurationMap);
+
+    Range<Integer>[] actualRanges = cameraProperties.getHighSpeedVideoFpsRangesFor(mockSize);
+
+    assertArrayEquals(expectedRanges, actualRanges);
+  }
+
+  @Test
+  public void getHighSpeedVideoFpsRangesFor_shouldReturnEmptyArrayForUnsupportedSize() {
+    StreamConfigurationMap mockStreamConfigurationMap = mock(StreamConfigurationMap.class);
+    Size mockSize = mock(Size.class);
+    when(mockStreamConfigurationMap.getHighSpeedVideoFpsRangesFor(mockSize))
+        .thenThrow(new IllegalArgumentException());
+    when(mockCharacteristics.get(CameraCharacteristics.SCALER_STREAM_CONFIGURATION_MAP))
+        .thenReturn(mockStreamConfigurationMap);
+
+    Range<Integer>[] actualRanges = cameraProperties.getHighSpeedVideoFpsRangesFor(mockSize);
+
+    assertEquals(0, actualRanges.length);
+  }
 }
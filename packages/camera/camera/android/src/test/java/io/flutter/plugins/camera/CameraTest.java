@@ -7,8 +7,13 @@ package io.flutter.plugins.camera;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
@@ -18,8 +23,11 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import android.app.Activity;
+import android.graphics.ImageFormat;
+import android.graphics.SurfaceTexture;
 import android.hardware.camera2.CameraAccessException;
 import android.hardware.camera2.CameraCaptureSession;
+import android.hardware.camera2.CameraConstrainedHighSpeedCaptureSession;
 import android.hardware.camera2.CameraMetadata;
 import android.hardware.camera2.CaptureRequest;
 import android.hardware.camera2.params.SessionConfiguration;
@@ -28,11 +36,13 @@ import android.media.MediaRecorder;
 import android.os.Build;
 import android.os.Handler;
 import android.os.HandlerThread;
+import android.util.Size;
 import android.view.Surface;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.lifecycle.LifecycleObserver;
 import io.flutter.embedding.engine.systemchannels.PlatformChannel;
+import io.flutter.plugin.common.EventChannel;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugins.camera.features.CameraFeatureFactory;
 import io.flutter.plugins.camera.features.Point;
@@ -47,15 +57,21 @@ import io.flutter.plugins.camera.features.flash.FlashMode;
 import io.flutter.plugins.camera.features.focuspoint.FocusPointFeature;
 import io.flutter.plugins.camera.features.fpsrange.FpsRangeFeature;
 import io.flutter.plugins.camera.features.noisereduction.NoiseReductionFeature;
+import io.flutter.plugins.camera.features.resolution.AdaptivePreviewResolution;
 import io.flutter.plugins.camera.features.resolution.ResolutionFeature;
 import io.flutter.plugins.camera.features.resolution.ResolutionPreset;
 import io.flutter.plugins.camera.features.sensororientation.DeviceOrientationManager;
 import io.flutter.plugins.camera.features.sensororientation.SensorOrientationFeature;
 import io.flutter.plugins.camera.features.zoomlevel.ZoomLevelFeature;
+import io.flutter.plugins.camera.types.CameraSettingsUpdate;
+import io.flutter.plugins.camera.types.ImageStreamOptions;
 import io.flutter.plugins.camera.utils.TestUtils;
 import io.flutter.view.TextureRegistry;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -83,10 +99,114 @@ class FakeCameraDeviceWrapper implements CameraDeviceWrapper {
       @NonNull CameraCaptureSession.StateCallback callback,
       @Nullable Handler handler) {}
 
+  @Override
+  public void createConstrainedHighSpeedCaptureSession(
+      @NonNull List<Surface> outputs,
+      @NonNull CameraCaptureSession.StateCallback callback,
+      @Nullable Handler handler) {}
+
   @Override
   public void close() {}
 }
 
+/** Creates the same mock feature on every call, so tests can stub the features of a camera. */
+class TestCameraFeatureFactory implements CameraFeatureFactory {
+  private final AutoFocusFeature mockAutoFocusFeature;
+  private final ExposureLockFeature mockExposureLockFeature;
+  private final ExposureOffsetFeature mockExposureOffsetFeature;
+  private final ExposurePointFeature mockExposurePointFeature;
+  private final FlashFeature mockFlashFeature;
+  private final FocusPointFeature mockFocusPointFeature;
+  private final FpsRangeFeature mockFpsRangeFeature;
+  private final NoiseReductionFeature mockNoiseReductionFeature;
+  private final ResolutionFeature mockResolutionFeature;
+  private final SensorOrientationFeature mockSensorOrientationFeature;
+  private final ZoomLevelFeature mockZoomLevelFeature;
+
+  public TestCameraFeatureFactory() {
+    this.mockAutoFocusFeature = mock(AutoFocusFeature.class);
+    this.mockExposureLockFeature = mock(ExposureLockFeature.class);
+    this.mockExposureOffsetFeature = mock(ExposureOffsetFeature.class);
+    this.mockExposurePointFeature = mock(ExposurePointFeature.class);
+    this.mockFlashFeature = mock(FlashFeature.class);
+    this.mockFocusPointFeature = mock(FocusPointFeature.class);
+    this.mockFpsRangeFeature = mock(FpsRangeFeature.class);
+    this.mockNoiseReductionFeature = mock(NoiseReductionFeature.class);
+    this.mockResolutionFeature = mock(ResolutionFeature.class);
+    this.mockSensorOrientationFeature = mock(SensorOrientationFeature.class);
+    this.mockZoomLevelFeature = mock(ZoomLevelFeature.class);
+  }
+
+  @Override
+  public AutoFocusFeature createAutoFocusFeature(
+      @NonNull CameraProperties cameraProperties, boolean recordingVideo) {
+    return mockAutoFocusFeature;
+  }
+
+  @Override
+  public ExposureLockFeature createExposureLockFeature(
+      @NonNull CameraProperties cameraProperties) {
+    return mockExposureLockFeature;
+  }
+
+  @Override
+  public ExposureOffsetFeature createExposureOffsetFeature(
+      @NonNull CameraProperties cameraProperties) {
+    return mockExposureOffsetFeature;
+  }
+
+  @Override
+  public FlashFeature createFlashFeature(@NonNull CameraProperties cameraProperties) {
+    return mockFlashFeature;
+  }
+
+  @Override
+  public ResolutionFeature createResolutionFeature(
+      @NonNull CameraProperties cameraProperties,
+      ResolutionPreset initialSetting,
+      String cameraName) {
+    return mockResolutionFeature;
+  }
+
+  @Override
+  public FocusPointFeature createFocusPointFeature(
+      @NonNull CameraProperties cameraProperties,
+      @NonNull SensorOrientationFeature sensorOrienttionFeature) {
+    return mockFocusPointFeature;
+  }
+
+  @Override
+  public FpsRangeFeature createFpsRangeFeature(@NonNull CameraProperties cameraProperties) {
+    return mockFpsRangeFeature;
+  }
+
+  @Override
+  public SensorOrientationFeature createSensorOrientationFeature(
+      @NonNull CameraProperties cameraProperties,
+      @NonNull Activity activity,
+      @NonNull DartMessenger dartMessenger) {
+    return mockSensorOrientationFeature;
+  }
+
+  @Override
+  public ZoomLevelFeature createZoomLevelFeature(@NonNull CameraProperties cameraProperties) {
+    return mockZoomLevelFeature;
+  }
+
+  @Override
+  public ExposurePointFeature createExposurePointFeature(
+      @NonNull CameraProperties cameraProperties,
+      @NonNull SensorOrientationFeature sensorOrientationFeature) {
+    return mockExposurePointFeature;
+  }
+
+  @Override
+  public NoiseReductionFeature createNoiseReductionFeature(
+      @NonNull CameraProperties cameraProperties) {
+    return mockNoiseReductionFeature;
+  }
+}
+
 public class CameraTest {
   private CameraProperties mockCameraProperties;
   private CameraFeatureFactory mockCameraFeatureFactory;
@@ -153,7 +273,7 @@ public class CameraTest {
   }
 
   @Test
-  public void shouldCreateCameraPluginAndSetAllFeatures() {
+  public void shouldCreateCameraPluginAndSetRequiredFeatures() {
     final Activity mockActivity = mock(Activity.class);
     final TextureRegistry.SurfaceTextureEntry mockFlutterTexture =
         mock(TextureRegistry.SurfaceTextureEntry.class);
@@ -180,18 +300,17 @@ public class CameraTest {
     verify(mockCameraFeatureFactory, times(1))
         .createSensorOrientationFeature(mockCameraProperties, mockActivity, mockDartMessenger);
     verify(mockCameraFeatureFactory, times(1)).createAutoFocusFeature(mockCameraProperties, false);
-    verify(mockCameraFeatureFactory, times(1)).createExposureLockFeature(mockCameraProperties);
-    verify(mockCameraFeatureFactory, times(1))
-        .createExposurePointFeature(eq(mockCameraProperties), eq(mockSensorOrientationFeature));
-    verify(mockCameraFeatureFactory, times(1)).createExposureOffsetFeature(mockCameraProperties);
-    verify(mockCameraFeatureFactory, times(1)).createFlashFeature(mockCameraProperties);
-    verify(mockCameraFeatureFactory, times(1))
-        .createFocusPointFeature(eq(mockCameraProperties), eq(mockSensorOrientationFeature));
     verify(mockCameraFeatureFactory, times(1)).createFpsRangeFeature(mockCameraProperties);
     verify(mockCameraFeatureFactory, times(1)).createNoiseReductionFeature(mockCameraProperties);
     verify(mockCameraFeatureFactory, times(1))
         .createResolutionFeature(mockCameraProperties, resolutionPreset, cameraName);
-    verify(mockCameraFeatureFactory, times(1)).createZoomLevelFeature(mockCameraProperties);
+    // The other features are created on first use.
+    verify(mockCameraFeatureFactory, never()).createExposureLockFeature(any());
+    verify(mockCameraFeatureFactory, never()).createExposurePointFeature(any(), any());
+    verify(mockCameraFeatureFactory, never()).createExposureOffsetFeature(any());
+    verify(mockCameraFeatureFactory, never()).createFlashFeature(any());
+    verify(mockCameraFeatureFactory, never()).createFocusPointFeature(any(), any());
+    verify(mockCameraFeatureFactory, never()).createZoomLevelFeature(any());
     assertNotNull("should create a camera", camera);
   }
 
@@ -406,6 +525,40 @@ public class CameraTest {
     verify(mockResult, times(1)).error("setFlashModeFailed", "Could not set flash mode.", null);
   }
 
+  @Test
+  public void setFlashMode_shouldRepeatHighSpeedRequestListInHighSpeedSession()
+      throws CameraAccessException {
+    TestUtils.setFinalStatic(Build.VERSION.class, "SDK_INT", 23);
+    CameraConstrainedHighSpeedCaptureSession mockHighSpeedSession =
+        mock(CameraConstrainedHighSpeedCaptureSession.class);
+    List<CaptureRequest> mockRequests = new ArrayList<>();
+    mockRequests.add(mock(CaptureRequest.class));
+    when(mockHighSpeedSession.createHighSpeedRequestList(any())).thenReturn(mockRequests);
+    TestUtils.setPrivateField(camera, "captureSession", mockHighSpeedSession);
+    TestUtils.setPrivateField(camera, "highSpeedSession", true);
+    MethodChannel.Result mockResult = mock(MethodChannel.Result.class);
+
+    camera.setFlashMode(mockResult, FlashMode.torch);
+
+    verify(mockHighSpeedSession, times(1)).setRepeatingBurst(eq(mockRequests), any(), any());
+    verify(mockHighSpeedSession, never()).setRepeatingRequest(any(), any(), any());
+    verify(mockResult, times(1)).success(null);
+  }
+
+  @Test
+  public void takePicture_shouldFailInHighSpeedSession() {
+    TestUtils.setPrivateField(camera, "highSpeedSession", true);
+    MethodChannel.Result mockResult = mock(MethodChannel.Result.class);
+
+    camera.takePicture(mockResult);
+
+    verify(mockResult, times(1))
+        .error(
+            "captureAlreadyActive",
+            "Pictures cannot be taken while recording at a high frame rate.",
+            null);
+  }
+
   @Test
   public void setFocusPoint_shouldUpdateFocusPointFeature() {
     SensorOrientationFeature mockSensorOrientationFeature = mock(SensorOrientationFeature.class);
@@ -493,6 +646,21 @@ public class CameraTest {
     verify(mockZoomLevelFeature, times(1)).updateBuilder(any());
   }
 
+  @Test
+  public void updateGesture_shouldClampZoomLevelAndCoalesceUpdates() throws CameraAccessException {
+    ZoomLevelFeature mockZoomLevelFeature =
+        mockCameraFeatureFactory.createZoomLevelFeature(mockCameraProperties);
+    when(mockZoomLevelFeature.getMinimumZoomLevel()).thenReturn(1f);
+    when(mockZoomLevelFeature.getMaximumZoomLevel()).thenReturn(4f);
+
+    camera.updateGesture(8f, null);
+    camera.updateGesture(3f, null);
+
+    verify(mockZoomLevelFeature, times(1)).setValue(4f);
+    verify(mockZoomLevelFeature, never()).setValue(3f);
+    verify(mockCaptureSession, times(1)).setRepeatingRequest(any(), any(), any());
+  }
+
   @Test
   public void setZoomLevel_shouldCallErrorOnResultOnCameraAccessException()
       throws CameraAccessException {
@@ -513,6 +681,154 @@ public class CameraTest {
     verify(mockResult, times(1)).error("setZoomLevelFailed", "Could not set zoom level.", null);
   }
 
+  @Test
+  public void updateSettings_shouldUpdateAllFeaturesWithSingleRepeatingRequest()
+      throws CameraAccessException {
+    FlashFeature mockFlashFeature =
+        mockCameraFeatureFactory.createFlashFeature(mockCameraProperties);
+    ExposureLockFeature mockExposureLockFeature =
+        mockCameraFeatureFactory.createExposureLockFeature(mockCameraProperties);
+    ZoomLevelFeature mockZoomLevelFeature =
+        mockCameraFeatureFactory.createZoomLevelFeature(mockCameraProperties);
+    MethodChannel.Result mockResult = mock(MethodChannel.Result.class);
+    when(mockZoomLevelFeature.getMinimumZoomLevel()).thenReturn(1f);
+    when(mockZoomLevelFeature.getMaximumZoomLevel()).thenReturn(4f);
+
+    camera.updateSettings(
+        mockResult,
+        new CameraSettingsUpdate.Builder()
+            .setFlashMode(FlashMode.torch)
+            .setExposureMode(ExposureMode.locked)
+            .setZoomLevel(2f)
+            .build());
+
+    verify(mockFlashFeature, times(1)).setValue(FlashMode.torch);
+    verify(mockFlashFeature, times(1)).updateBuilder(mockPreviewRequestBuilder);
+    verify(mockExposureLockFeature, times(1)).setValue(ExposureMode.locked);
+    verify(mockExposureLockFeature, times(1)).updateBuilder(mockPreviewRequestBuilder);
+    verify(mockZoomLevelFeature, times(1)).setValue(2f);
+    verify(mockZoomLevelFeature, times(1)).updateBuilder(mockPreviewRequestBuilder);
+    verify(mockCaptureSession, never()).capture(any(), any(), any());
+    verify(mockCaptureSession, times(1)).setRepeatingRequest(any(), any(), any());
+    verify(mockResult, times(1)).success(null);
+  }
+
+  @Test
+  public void updateSettings_shouldNotUpdateAnyFeatureWhenZoomLevelIsOutOfBounds()
+      throws CameraAccessException {
+    FlashFeature mockFlashFeature =
+        mockCameraFeatureFactory.createFlashFeature(mockCameraProperties);
+    ZoomLevelFeature mockZoomLevelFeature =
+        mockCameraFeatureFactory.createZoomLevelFeature(mockCameraProperties);
+    MethodChannel.Result mockResult = mock(MethodChannel.Result.class);
+    when(mockZoomLevelFeature.getMinimumZoomLevel()).thenReturn(1f);
+    when(mockZoomLevelFeature.getMaximumZoomLevel()).thenReturn(4f);
+
+    camera.updateSettings(
+        mockResult,
+        new CameraSettingsUpdate.Builder().setFlashMode(FlashMode.torch).setZoomLevel(8f).build());
+
+    verify(mockFlashFeature, never()).setValue(any());
+    verify(mockZoomLevelFeature, never()).setValue(any());
+    verify(mockCaptureSession, never()).setRepeatingRequest(any(), any(), any());
+    verify(mockResult, times(1)).error(eq("ZOOM_ERROR"), any(), any());
+  }
+
+  @Test
+  public void updateSettings_shouldNotUpdateAnyFeatureWhenExposureOffsetIsOutOfBounds()
+      throws CameraAccessException {
+    FlashFeature mockFlashFeature =
+        mockCameraFeatureFactory.createFlashFeature(mockCameraProperties);
+    ExposureOffsetFeature mockExposureOffsetFeature =
+        mockCameraFeatureFactory.createExposureOffsetFeature(mockCameraProperties);
+    MethodChannel.Result mockResult = mock(MethodChannel.Result.class);
+    when(mockExposureOffsetFeature.getMinExposureOffset()).thenReturn(-2.0);
+    when(mockExposureOffsetFeature.getMaxExposureOffset()).thenReturn(2.0);
+
+    camera.updateSettings(
+        mockResult,
+        new CameraSettingsUpdate.Builder()
+            .setFlashMode(FlashMode.torch)
+            .setExposureOffset(3.0)
+            .build());
+
+    verify(mockFlashFeature, never()).setValue(any());
+    verify(mockExposureOffsetFeature, never()).setValue(any());
+    verify(mockCaptureSession, never()).setRepeatingRequest(any(), any(), any());
+    verify(mockResult, times(1)).error(eq("updateSettingsFailed"), any(), any());
+  }
+
+  @Test
+  public void updateSettings_shouldNotUpdateAnyFeatureWhenFocusPointIsNotSupported()
+      throws CameraAccessException {
+    FlashFeature mockFlashFeature =
+        mockCameraFeatureFactory.createFlashFeature(mockCameraProperties);
+    FocusPointFeature mockFocusPointFeature =
+        mockCameraFeatureFactory.createFocusPointFeature(
+            mockCameraProperties, mock(SensorOrientationFeature.class));
+    MethodChannel.Result mockResult = mock(MethodChannel.Result.class);
+    when(mockFocusPointFeature.checkIsSupported()).thenReturn(false);
+
+    camera.updateSettings(
+        mockResult,
+        new CameraSettingsUpdate.Builder()
+            .setFlashMode(FlashMode.torch)
+            .setFocusPoint(new Point(0.5, 0.5))
+            .build());
+
+    verify(mockFlashFeature, never()).setValue(any());
+    verify(mockFocusPointFeature, never()).setValue(any());
+    verify(mockResult, times(1))
+        .error(
+            "updateSettingsFailed", "Setting a focus point is not supported by the camera.", null);
+  }
+
+  @Test
+  public void updateSettings_shouldTriggerAutoFocusOnceWhenFocusChanges()
+      throws CameraAccessException {
+    AutoFocusFeature mockAutoFocusFeature =
+        mockCameraFeatureFactory.createAutoFocusFeature(mockCameraProperties, false);
+    FocusPointFeature mockFocusPointFeature =
+        mockCameraFeatureFactory.createFocusPointFeature(
+            mockCameraProperties, mock(SensorOrientationFeature.class));
+    MethodChannel.Result mockResult = mock(MethodChannel.Result.class);
+    when(mockAutoFocusFeature.getValue()).thenReturn(FocusMode.locked);
+    when(mockFocusPointFeature.checkIsSupported()).thenReturn(true);
+    Point point = new Point(0.5, 0.5);
+
+    camera.updateSettings(
+        mockResult,
+        new CameraSettingsUpdate.Builder()
+            .setFocusMode(FocusMode.locked)
+            .setFocusPoint(point)
+            .build());
+
+    verify(mockAutoFocusFeature, times(1)).setValue(FocusMode.locked);
+    verify(mockFocusPointFeature, times(1)).setValue(point);
+    verify(mockPreviewRequestBuilder, times(1))
+        .set(CaptureRequest.CONTROL_AF_TRIGGER, CameraMetadata.CONTROL_AF_TRIGGER_START);
+    verify(mockPreviewRequestBuilder, times(1))
+        .set(CaptureRequest.CONTROL_AF_TRIGGER, CameraMetadata.CONTROL_AF_TRIGGER_IDLE);
+    verify(mockCaptureSession, times(1)).capture(any(), any(), any());
+    verify(mockCaptureSession, times(1)).setRepeatingRequest(any(), any(), any());
+    verify(mockResult, times(1)).success(null);
+  }
+
+  @Test
+  public void updateSettings_shouldCallErrorOnResultOnCameraAccessException()
+      throws CameraAccessException {
+    MethodChannel.Result mockResult = mock(MethodChannel.Result.class);
+    when(mockCaptureSession.setRepeatingRequest(any(), any(), any()))
+        .thenThrow(new CameraAccessException(0, ""));
+
+    camera.updateSettings(
+        mockResult, new CameraSettingsUpdate.Builder().setFlashMode(FlashMode.always).build());
+
+    verify(mockResult, never()).success(any());
+    verify(mockResult, times(1))
+        .error("updateSettingsFailed", "Could not update camera settings.", null);
+  }
+
   @Test
   public void pauseVideoRecording_shouldSendNullResultWhenNotRecording() {
     TestUtils.setPrivateField(camera, "recordingVideo", false);
@@ -694,6 +1010,48 @@ public class CameraTest {
     verify(mockCaptureSession, times(1)).setRepeatingRequest(any(), any(), any());
   }
 
+  @Test
+  public void setFocusMode_shouldCaptureHighSpeedRequestListInHighSpeedSession()
+      throws CameraAccessException {
+    TestUtils.setFinalStatic(Build.VERSION.class, "SDK_INT", 23);
+    CameraConstrainedHighSpeedCaptureSession mockHighSpeedSession =
+        mock(CameraConstrainedHighSpeedCaptureSession.class);
+    List<CaptureRequest> mockRequests = new ArrayList<>();
+    mockRequests.add(mock(CaptureRequest.class));
+    when(mockHighSpeedSession.createHighSpeedRequestList(any())).thenReturn(mockRequests);
+    TestUtils.setPrivateField(camera, "captureSession", mockHighSpeedSession);
+    TestUtils.setPrivateField(camera, "highSpeedSession", true);
+    MethodChannel.Result mockResult = mock(MethodChannel.Result.class);
+
+    camera.setFocusMode(mockResult, FocusMode.locked);
+
+    verify(mockHighSpeedSession, times(1)).captureBurst(eq(mockRequests), any(), any());
+    verify(mockHighSpeedSession, never()).capture(any(), any(), any());
+    verify(mockHighSpeedSession, times(1)).setRepeatingBurst(eq(mockRequests), any(), any());
+    verify(mockResult, times(1)).success(null);
+  }
+
+  @Test
+  public void updateSettings_shouldCaptureHighSpeedRequestListInHighSpeedSession()
+      throws CameraAccessException {
+    TestUtils.setFinalStatic(Build.VERSION.class, "SDK_INT", 23);
+    CameraConstrainedHighSpeedCaptureSession mockHighSpeedSession =
+        mock(CameraConstrainedHighSpeedCaptureSession.class);
+    List<CaptureRequest> mockRequests = new ArrayList<>();
+    mockRequests.add(mock(CaptureRequest.class));
+    when(mockHighSpeedSession.createHighSpeedRequestList(any())).thenReturn(mockRequests);
+    TestUtils.setPrivateField(camera, "captureSession", mockHighSpeedSession);
+    TestUtils.setPrivateField(camera, "highSpeedSession", true);
+    MethodChannel.Result mockResult = mock(MethodChannel.Result.class);
+
+    camera.updateSettings(
+        mockResult, new CameraSettingsUpdate.Builder().setFocusMode(FocusMode.auto).build());
+
+    verify(mockHighSpeedSession, times(1)).captureBurst(eq(mockRequests), any(), any());
+    verify(mockHighSpeedSession, never()).capture(any(), any(), any());
+    verify(mockResult, times(1)).success(null);
+  }
+
   @Test
   public void setFocusMode_shouldSkipLockAutoFocusWhenNullCaptureSession() {
     TestUtils.setPrivateField(camera, "captureSession", null);
@@ -817,6 +1175,54 @@ public class CameraTest {
     verify(mockDartMessenger, times(1)).sendCameraErrorEvent(any());
   }
 
+  @Test
+  public void switchCamera_shouldFailWhileRecording() {
+    TestUtils.setPrivateField(camera, "recordingVideo", true);
+    MethodChannel.Result mockResult = mock(MethodChannel.Result.class);
+
+    camera.switchCamera(mock(CameraProperties.class), mockResult);
+
+    verify(mockResult, times(1))
+        .error("switchCameraFailed", "Cannot switch cameras while recording a video.", null);
+    verify(mockResult, never()).success(any());
+    verify(mockCaptureSession, never()).close();
+  }
+
+  @Test
+  public void switchCamera_shouldFailWhileAnotherSwitchIsInProgress() {
+    MethodChannel.Result pendingResult = mock(MethodChannel.Result.class);
+    TestUtils.setPrivateField(
+        camera, "switchCameraResult", new AtomicReference<>(pendingResult));
+    MethodChannel.Result mockResult = mock(MethodChannel.Result.class);
+
+    camera.switchCamera(mock(CameraProperties.class), mockResult);
+
+    verify(mockResult, times(1))
+        .error("switchCameraFailed", "Another camera switch is in progress.", null);
+    verify(mockCaptureSession, never()).close();
+  }
+
+  @Test
+  public void close_shouldFailPendingSwitchCamera() {
+    MethodChannel.Result pendingResult = mock(MethodChannel.Result.class);
+    TestUtils.setPrivateField(
+        camera, "switchCameraResult", new AtomicReference<>(pendingResult));
+
+    camera.close();
+
+    verify(mockDartMessenger, times(1))
+        .error(
+            pendingResult,
+            "switchCameraFailed",
+            "The camera was closed before it finished opening.",
+            null);
+  }
+
+  @Test
+  public void getLatencyStatistics_shouldBeEmptyBeforeOpen() {
+    assertTrue(camera.getLatencyStatistics(false).isEmpty());
+  }
+
   @Test
   public void startBackgroundThread_shouldStartNewThread() {
     camera.startBackgroundThread();
@@ -856,100 +1262,282 @@ public class CameraTest {
     verify(mockCaptureSession, never()).abortCaptures();
   }
 
-  private static class TestCameraFeatureFactory implements CameraFeatureFactory {
-    private final AutoFocusFeature mockAutoFocusFeature;
-    private final ExposureLockFeature mockExposureLockFeature;
-    private final ExposureOffsetFeature mockExposureOffsetFeature;
-    private final ExposurePointFeature mockExposurePointFeature;
-    private final FlashFeature mockFlashFeature;
-    private final FocusPointFeature mockFocusPointFeature;
-    private final FpsRangeFeature mockFpsRangeFeature;
-    private final NoiseReductionFeature mockNoiseReductionFeature;
-    private final ResolutionFeature mockResolutionFeature;
-    private final SensorOrientationFeature mockSensorOrientationFeature;
-    private final ZoomLevelFeature mockZoomLevelFeature;
-
-    public TestCameraFeatureFactory() {
-      this.mockAutoFocusFeature = mock(AutoFocusFeature.class);
-      this.mockExposureLockFeature = mock(ExposureLockFeature.class);
-      this.mockExposureOffsetFeature = mock(ExposureOffsetFeature.class);
-      this.mockExposurePointFeature = mock(ExposurePointFeature.class);
-      this.mockFlashFeature = mock(FlashFeature.class);
-      this.mockFocusPointFeature = mock(FocusPointFeature.class);
-      this.mockFpsRangeFeature = mock(FpsRangeFeature.class);
-      this.mockNoiseReductionFeature = mock(NoiseReductionFeature.class);
-      this.mockResolutionFeature = mock(ResolutionFeature.class);
-      this.mockSensorOrientationFeature = mock(SensorOrientationFeature.class);
-      this.mockZoomLevelFeature = mock(ZoomLevelFeature.class);
-    }
+  @Test
+  public void onConverged_shouldUnlockFocusAndExposureWhenAFrameOfABurstFails()
+      throws CameraAccessException {
+    CaptureRequest.Builder mockStillRequestBuilder = mock(CaptureRequest.Builder.class);
+    CaptureRequest mockStillRequest = mock(CaptureRequest.class);
+    when(mockStillRequestBuilder.build()).thenReturn(mockStillRequest);
+    ArrayList<CaptureRequest.Builder> mockRequestBuilders = new ArrayList<>();
+    mockRequestBuilders.add(mockStillRequestBuilder);
+    TestUtils.setPrivateField(
+        camera, "cameraDevice", new FakeCameraDeviceWrapper(mockRequestBuilders));
+    TestUtils.setPrivateField(camera, "pictureImageReader", mock(ImageReader.class));
+    SensorOrientationFeature mockSensorOrientationFeature =
+        mockCameraFeatureFactory.createSensorOrientationFeature(mockCameraProperties, null, null);
+    when(mockSensorOrientationFeature.getDeviceOrientationManager())
+        .thenReturn(mock(DeviceOrientationManager.class));
+    MethodChannel.Result mockResult = mock(MethodChannel.Result.class);
+    TestUtils.setPrivateField(
+        camera, "burstCapture", new BurstCapture(3, 100, mockResult, mockDartMessenger));
+    // Capture the next frame of the burst right away instead of after the interval.
+    doAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return true;
+            })
+        .when(mockHandler)
+        .postDelayed(any(Runnable.class), eq(100L));
+    // The first frame is captured, the second one fails.
+    when(mockCaptureSession.capture(eq(mockStillRequest), any(), any()))
+        .thenReturn(1)
+        .thenThrow(new CameraAccessException(0, ""));
 
-    @Override
-    public AutoFocusFeature createAutoFocusFeature(
-        @NonNull CameraProperties cameraProperties, boolean recordingVideo) {
-      return mockAutoFocusFeature;
-    }
+    camera.onConverged();
 
-    @Override
-    public ExposureLockFeature createExposureLockFeature(
-        @NonNull CameraProperties cameraProperties) {
-      return mockExposureLockFeature;
-    }
+    verify(mockCaptureSession, times(2)).capture(eq(mockStillRequest), any(), any());
+    verify(mockPreviewRequestBuilder, times(1))
+        .set(
+            CaptureRequest.CONTROL_AE_PRECAPTURE_TRIGGER,
+            CameraMetadata.CONTROL_AE_PRECAPTURE_TRIGGER_IDLE);
+    verify(mockPreviewRequestBuilder, times(1))
+        .set(CaptureRequest.CONTROL_AF_TRIGGER, CameraMetadata.CONTROL_AF_TRIGGER_CANCEL);
+    verify(mockCaptureSession, times(1)).setRepeatingRequest(any(), any(), any());
+  }
 
-    @Override
-    public ExposureOffsetFeature createExposureOffsetFeature(
-        @NonNull CameraProperties cameraProperties) {
-      return mockExposureOffsetFeature;
-    }
+  @Test
+  public void stopImageStream_shouldKeepSessionWhileRecording() throws CameraAccessException {
+    Surface mockFlutterSurface = mock(Surface.class);
+    Surface mockRecordingSurface = mock(Surface.class);
+    Surface mockImageStreamSurface = mock(Surface.class);
+    MediaRecorder mockMediaRecorder = mock(MediaRecorder.class);
+    when(mockMediaRecorder.getSurface()).thenReturn(mockRecordingSurface);
+    ImageReader mockImageStreamReader = mockImageReader(mockImageStreamSurface, 640, 480);
+    stubPreviewSize(640, 480);
+    ArrayList<CaptureRequest.Builder> mockRequestBuilders = new ArrayList<>();
+    CaptureRequest.Builder mockRecordRequestBuilder = mock(CaptureRequest.Builder.class);
+    mockRequestBuilders.add(mockRecordRequestBuilder);
+    FakeCameraDeviceWrapper fakeCamera = new FakeCameraDeviceWrapper(mockRequestBuilders);
+    TestUtils.setPrivateField(camera, "cameraDevice", fakeCamera);
+    TestUtils.setPrivateField(camera, "mediaRecorder", mockMediaRecorder);
+    TestUtils.setPrivateField(camera, "imageStreamReader", mockImageStreamReader);
+    TestUtils.setPrivateField(camera, "recordingVideo", true);
+    TestUtils.setPrivateField(camera, "streamingImages", true);
+    TestUtils.setPrivateField(camera, "previewSurface", mockFlutterSurface);
+    TestUtils.setPrivateField(
+        camera,
+        "sessionSurfaces",
+        Arrays.asList(mockFlutterSurface, mockRecordingSurface, mockImageStreamSurface));
+
+    camera.stopImageStream();
+
+    verify(mockRecordRequestBuilder, times(1)).addTarget(mockFlutterSurface);
+    verify(mockRecordRequestBuilder, times(1)).addTarget(mockRecordingSurface);
+    verify(mockRecordRequestBuilder, never()).addTarget(mockImageStreamSurface);
+    verify(mockCaptureSession, times(1)).setRepeatingRequest(any(), any(), any());
+    verify(mockCaptureSession, never()).close();
+    assertFalse((boolean) TestUtils.getPrivateField(camera, "streamingImages"));
+  }
 
-    @Override
-    public FlashFeature createFlashFeature(@NonNull CameraProperties cameraProperties) {
-      return mockFlashFeature;
+  @Test
+  public void startPreviewWithImageStream_shouldNotReconfigureSessionOfRecording()
+      throws CameraAccessException {
+    Surface mockFlutterSurface = mock(Surface.class);
+    Surface mockRecordingSurface = mock(Surface.class);
+    EventChannel mockImageStreamChannel = mock(EventChannel.class);
+    TestUtils.setPrivateField(
+        camera, "imageStreamReader", mockImageReader(mock(Surface.class), 640, 480));
+    TestUtils.setPrivateField(camera, "recordingVideo", true);
+    TestUtils.setPrivateField(camera, "previewSurface", mockFlutterSurface);
+    TestUtils.setPrivateField(
+        camera, "sessionSurfaces", Arrays.asList(mockFlutterSurface, mockRecordingSurface));
+
+    try {
+      camera.startPreviewWithImageStream(
+          mockImageStreamChannel, new ImageStreamOptions());
+      fail("Expected the image stream to be rejected while recording.");
+    } catch (CameraAccessException e) {
+      assertEquals(
+          "Images can only be streamed while recording when the image stream was started before "
+              + "the recording.",
+          e.getMessage());
     }
 
-    @Override
-    public ResolutionFeature createResolutionFeature(
-        @NonNull CameraProperties cameraProperties,
-        ResolutionPreset initialSetting,
-        String cameraName) {
-      return mockResolutionFeature;
-    }
+    verify(mockCaptureSession, never()).close();
+    verify(mockImageStreamChannel, never()).setStreamHandler(any());
+    assertFalse((boolean) TestUtils.getPrivateField(camera, "streamingImages"));
+  }
 
-    @Override
-    public FocusPointFeature createFocusPointFeature(
-        @NonNull CameraProperties cameraProperties,
-        @NonNull SensorOrientationFeature sensorOrienttionFeature) {
-      return mockFocusPointFeature;
-    }
+  @Test
+  public void startPreview_shouldReuseSessionWithTheSameSurfaces() throws CameraAccessException {
+    Surface mockFlutterSurface = mock(Surface.class);
+    Surface mockPictureSurface = mock(Surface.class);
+    Surface mockImageStreamSurface = mock(Surface.class);
+    ArrayList<CaptureRequest.Builder> mockRequestBuilders = new ArrayList<>();
+    CaptureRequest.Builder mockCachedRequestBuilder = mock(CaptureRequest.Builder.class);
+    mockRequestBuilders.add(mockCachedRequestBuilder);
+    FakeCameraDeviceWrapper fakeCamera = new FakeCameraDeviceWrapper(mockRequestBuilders);
+    TestUtils.setPrivateField(camera, "cameraDevice", fakeCamera);
+    TestUtils.setPrivateField(
+        camera, "pictureImageReader", mockImageReader(mockPictureSurface, 1920, 1080));
+    TestUtils.setPrivateField(
+        camera, "imageStreamReader", mockImageReader(mockImageStreamSurface, 640, 480));
+    TestUtils.setPrivateField(camera, "previewSurface", mockFlutterSurface);
+    TestUtils.setPrivateField(
+        camera,
+        "sessionSurfaces",
+        Arrays.asList(mockFlutterSurface, mockPictureSurface, mockImageStreamSurface));
+
+    camera.startPreview();
+    // The builder is cached, so the fake camera device is not asked for another one.
+    camera.startPreview();
+
+    verify(mockCachedRequestBuilder, times(1)).addTarget(mockFlutterSurface);
+    verify(mockCaptureSession, times(2)).setRepeatingRequest(any(), any(), any());
+    verify(mockCaptureSession, never()).close();
+    assertEquals(
+        mockCachedRequestBuilder, TestUtils.getPrivateField(camera, "previewRequestBuilder"));
+  }
 
-    @Override
-    public FpsRangeFeature createFpsRangeFeature(@NonNull CameraProperties cameraProperties) {
-      return mockFpsRangeFeature;
-    }
+  @Test
+  public void setAdaptivePreviewResolution_shouldNotAdaptWithoutLowerPreviewSizes() {
+    ResolutionFeature mockResolutionFeature =
+        mockCameraFeatureFactory.createResolutionFeature(mockCameraProperties, null, null);
+    when(mockResolutionFeature.getAdaptivePreviewSizes())
+        .thenReturn(Collections.singletonList(mock(Size.class)));
 
-    @Override
-    public SensorOrientationFeature createSensorOrientationFeature(
-        @NonNull CameraProperties cameraProperties,
-        @NonNull Activity activity,
-        @NonNull DartMessenger dartMessenger) {
-      return mockSensorOrientationFeature;
-    }
+    camera.setAdaptivePreviewResolution(true);
 
-    @Override
-    public ZoomLevelFeature createZoomLevelFeature(@NonNull CameraProperties cameraProperties) {
-      return mockZoomLevelFeature;
-    }
+    assertNull(TestUtils.getPrivateField(camera, "adaptivePreviewResolution"));
+  }
 
-    @Override
-    public ExposurePointFeature createExposurePointFeature(
-        @NonNull CameraProperties cameraProperties,
-        @NonNull SensorOrientationFeature sensorOrientationFeature) {
-      return mockExposurePointFeature;
-    }
+  @Test
+  public void setAdaptivePreviewResolution_shouldRestorePreviewSizeWhenDisabled() {
+    Size mockDefaultSize = mock(Size.class);
+    when(mockDefaultSize.getWidth()).thenReturn(1280);
+    when(mockDefaultSize.getHeight()).thenReturn(720);
+    Size mockLowerSize = mock(Size.class);
+    ResolutionFeature mockResolutionFeature =
+        mockCameraFeatureFactory.createResolutionFeature(mockCameraProperties, null, null);
+    when(mockResolutionFeature.getAdaptivePreviewSizes())
+        .thenReturn(Arrays.asList(mockDefaultSize, mockLowerSize));
+
+    camera.setAdaptivePreviewResolution(true);
+
+    assertNotNull(TestUtils.getPrivateField(camera, "adaptivePreviewResolution"));
+
+    // The preview was stepped down before adapting is disabled.
+    when(mockResolutionFeature.getPreviewSize()).thenReturn(mockLowerSize, mockDefaultSize);
+    camera.setAdaptivePreviewResolution(false);
+
+    assertNull(TestUtils.getPrivateField(camera, "adaptivePreviewResolution"));
+    verify(mockResolutionFeature, times(1)).setPreviewSizeOverride(null);
+    verify(mockCaptureSession, times(1)).close();
+    verify(mockDartMessenger, times(1)).sendPreviewResolutionChangedEvent(1280, 720, "disabled");
+  }
 
-    @Override
-    public NoiseReductionFeature createNoiseReductionFeature(
-        @NonNull CameraProperties cameraProperties) {
-      return mockNoiseReductionFeature;
+  @Test
+  public void switchCamera_shouldAdaptPreviewResolutionOfNewCamera() {
+    ResolutionFeature mockResolutionFeature =
+        mockCameraFeatureFactory.createResolutionFeature(mockCameraProperties, null, null);
+    when(mockResolutionFeature.getAdaptivePreviewSizes())
+        .thenReturn(Arrays.asList(mock(Size.class), mock(Size.class)));
+    SensorOrientationFeature mockSensorOrientationFeature =
+        mockCameraFeatureFactory.createSensorOrientationFeature(mockCameraProperties, null, null);
+    when(mockSensorOrientationFeature.getDeviceOrientationManager())
+        .thenReturn(mock(DeviceOrientationManager.class));
+    camera.setAdaptivePreviewResolution(true);
+    Object previousAdaptivePreviewResolution =
+        TestUtils.getPrivateField(camera, "adaptivePreviewResolution");
+
+    camera.switchCamera(mockCameraProperties, mock(MethodChannel.Result.class));
+
+    Object adaptivePreviewResolution =
+        TestUtils.getPrivateField(camera, "adaptivePreviewResolution");
+    assertNotNull(adaptivePreviewResolution);
+    assertNotSame(previousAdaptivePreviewResolution, adaptivePreviewResolution);
+    verify(mockResolutionFeature, times(2)).getAdaptivePreviewSizes();
+  }
+
+  @Test
+  public void adaptivePreviewResolution_shouldResizeImageStreamWhileStreaming() {
+    Size mockDefaultSize = mock(Size.class);
+    when(mockDefaultSize.getWidth()).thenReturn(1280);
+    when(mockDefaultSize.getHeight()).thenReturn(960);
+    Size mockLowerSize = mock(Size.class);
+    when(mockLowerSize.getWidth()).thenReturn(640);
+    when(mockLowerSize.getHeight()).thenReturn(480);
+    Size mockFallbackSize = mock(Size.class);
+    when(mockFallbackSize.getWidth()).thenReturn(480);
+    when(mockFallbackSize.getHeight()).thenReturn(360);
+    ResolutionFeature mockResolutionFeature =
+        mockCameraFeatureFactory.createResolutionFeature(mockCameraProperties, null, null);
+    when(mockResolutionFeature.getAdaptivePreviewSizes())
+        .thenReturn(Arrays.asList(mockDefaultSize, mockLowerSize));
+    // The preview has been stepped down once the override is applied.
+    when(mockResolutionFeature.getPreviewSize()).thenReturn(mockLowerSize);
+    when(mockCameraProperties.getOutputSizes(ImageFormat.YUV_420_888))
+        .thenReturn(new Size[] {mockFallbackSize});
+    TextureRegistry.SurfaceTextureEntry mockFlutterTexture =
+        mock(TextureRegistry.SurfaceTextureEntry.class);
+    when(mockFlutterTexture.surfaceTexture()).thenReturn(mock(SurfaceTexture.class));
+    TestUtils.setPrivateField(camera, "flutterTexture", mockFlutterTexture);
+    ArrayList<CaptureRequest.Builder> mockRequestBuilders = new ArrayList<>();
+    mockRequestBuilders.add(mock(CaptureRequest.Builder.class));
+    TestUtils.setPrivateField(
+        camera, "cameraDevice", new FakeCameraDeviceWrapper(mockRequestBuilders));
+    ImageReader mockImageStreamReader = mockImageReader(mock(Surface.class), 1280, 960);
+    TestUtils.setPrivateField(camera, "imageStreamReader", mockImageStreamReader);
+    TestUtils.setPrivateField(camera, "streamingImages", true);
+    // The image stream of an earlier recording had to fall back to a smaller size.
+    TestUtils.setPrivateField(camera, "imageStreamFallbackIndex", 0);
+    doAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return true;
+            })
+        .when(mockHandler)
+        .post(any(Runnable.class));
+    camera.setAdaptivePreviewResolution(true);
+    AdaptivePreviewResolution.OnStepChangedListener listener =
+        (AdaptivePreviewResolution.OnStepChangedListener)
+            TestUtils.getPrivateField(
+                TestUtils.getPrivateField(camera, "adaptivePreviewResolution"), "listener");
+    ImageReader mockResizedImageStreamReader = mockImageReader(mock(Surface.class), 640, 480);
+
+    try (MockedStatic<ImageReader> mockImageReaderFactory = mockStatic(ImageReader.class)) {
+      mockImageReaderFactory
+          .when(() -> ImageReader.newInstance(640, 480, ImageFormat.YUV_420_888, 1))
+          .thenReturn(mockResizedImageStreamReader);
+
+      listener.onStepChanged(mockLowerSize, AdaptivePreviewResolution.Reason.THERMAL);
     }
+
+    verify(mockResolutionFeature, times(1)).setPreviewSizeOverride(mockLowerSize);
+    verify(mockImageStreamReader, times(1)).close();
+    ImageReader imageStreamReader =
+        (ImageReader) TestUtils.getPrivateField(camera, "imageStreamReader");
+    assertEquals(640, imageStreamReader.getWidth());
+    assertEquals(480, imageStreamReader.getHeight());
+    verify(mockDartMessenger, times(1)).sendPreviewResolutionChangedEvent(640, 480, "thermal");
+  }
+
+  private static ImageReader mockImageReader(Surface surface, int width, int height) {
+    ImageReader mockImageReader = mock(ImageReader.class);
+    when(mockImageReader.getSurface()).thenReturn(surface);
+    when(mockImageReader.getWidth()).thenReturn(width);
+    when(mockImageReader.getHeight()).thenReturn(height);
+    when(mockImageReader.getImageFormat()).thenReturn(ImageFormat.YUV_420_888);
+    when(mockImageReader.getMaxImages()).thenReturn(1);
+    return mockImageReader;
+  }
+
+  private void stubPreviewSize(int width, int height) {
+    Size mockSize = mock(Size.class);
+    when(mockSize.getWidth()).thenReturn(width);
+    when(mockSize.getHeight()).thenReturn(height);
+    ResolutionFeature mockResolutionFeature =
+        mockCameraFeatureFactory.createResolutionFeature(mockCameraProperties, null, null);
+    when(mockResolutionFeature.getPreviewSize()).thenReturn(mockSize);
   }
 }
@@ -8,6 +8,8 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import android.app.Activity;
@@ -68,6 +70,7 @@ public class CameraUtilsTest {
   @Test
   public void getAvailableCameras_retrievesValidCameras()
       throws CameraAccessException, NumberFormatException {
+    CameraCharacteristicsCache.getInstance().invalidate();
     final Activity mockActivity = mock(Activity.class);
     final CameraManager mockCameraManager = mock(CameraManager.class);
     final CameraCharacteristics mockCameraCharacteristics = mock(CameraCharacteristics.class);
@@ -97,4 +100,23 @@ public class CameraUtilsTest {
     assertEquals(availableCameras.get(1).get("sensorOrientation"), mockSensorOrientation2);
     assertEquals(availableCameras.get(1).get("lensFacing"), "external");
   }
+
+  @Test
+  public void getAvailableCameras_reusesCachedCharacteristics() throws CameraAccessException {
+    CameraCharacteristicsCache.getInstance().invalidate();
+    final Activity mockActivity = mock(Activity.class);
+    final CameraManager mockCameraManager = mock(CameraManager.class);
+    final CameraCharacteristics mockCameraCharacteristics = mock(CameraCharacteristics.class);
+
+    when(mockActivity.getSystemService(Context.CAMERA_SERVICE)).thenReturn(mockCameraManager);
+    when(mockCameraManager.getCameraIdList()).thenReturn(new String[] {"0"});
+    when(mockCameraManager.getCameraCharacteristics("0")).thenReturn(mockCameraCharacteristics);
+    when(mockCameraCharacteristics.get(any())).thenReturn(0);
+
+    CameraUtils.getAvailableCameras(mockActivity);
+    CameraUtils.getAvailableCameras(mockActivity);
+
+    verify(mockCameraManager, times(1)).getCameraIdList();
+    verify(mockCameraManager, times(1)).getCameraCharacteristics("0");
+  }
 }
@@ -0,0 +1,88 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.hardware.camera2.CameraAccessException;
+import android.hardware.camera2.CameraDevice;
+import android.hardware.camera2.CaptureRequest;
+import android.view.Surface;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CaptureRequestBuilderCacheTest {
+  private CameraDeviceWrapper mockCameraDevice;
+  private Surface mockPreviewSurface;
+  private Surface mockPictureSurface;
+  private CaptureRequestBuilderCache cache;
+
+  @Before
+  public void before() throws CameraAccessException {
+    mockCameraDevice = mock(CameraDeviceWrapper.class);
+    mockPreviewSurface = mock(Surface.class);
+    mockPictureSurface = mock(Surface.class);
+    when(mockCameraDevice.createCaptureRequest(anyInt()))
+        .thenAnswer(invocation -> mock(CaptureRequest.Builder.class));
+    cache = new CaptureRequestBuilderCache();
+  }
+
+  @Test
+  public void get_shouldCreateBuilderWithTargets() throws CameraAccessException {
+    CaptureRequest.Builder builder =
+        cache.get(
+            mockCameraDevice,
+            CameraDevice.TEMPLATE_RECORD,
+            mockPreviewSurface,
+            mockPictureSurface);
+
+    verify(mockCameraDevice, times(1)).createCaptureRequest(CameraDevice.TEMPLATE_RECORD);
+    verify(builder, times(1)).addTarget(mockPreviewSurface);
+    verify(builder, times(1)).addTarget(mockPictureSurface);
+  }
+
+  @Test
+  public void get_shouldReuseBuilderForSameTemplateAndTargets() throws CameraAccessException {
+    CaptureRequest.Builder first =
+        cache.get(mockCameraDevice, CameraDevice.TEMPLATE_PREVIEW, mockPreviewSurface);
+    CaptureRequest.Builder second =
+        cache.get(mockCameraDevice, CameraDevice.TEMPLATE_PREVIEW, mockPreviewSurface);
+
+    assertEquals(first, second);
+    verify(mockCameraDevice, times(1)).createCaptureRequest(anyInt());
+  }
+
+  @Test
+  public void get_shouldCreateNewBuilderForOtherTemplateOrTargets() throws CameraAccessException {
+    CaptureRequest.Builder preview =
+        cache.get(mockCameraDevice, CameraDevice.TEMPLATE_PREVIEW, mockPreviewSurface);
+    CaptureRequest.Builder record =
+        cache.get(mockCameraDevice, CameraDevice.TEMPLATE_RECORD, mockPreviewSurface);
+    CaptureRequest.Builder picture =
+        cache.get(mockCameraDevice, CameraDevice.TEMPLATE_PREVIEW, mockPictureSurface);
+
+    assertNotEquals(preview, record);
+    assertNotEquals(preview, picture);
+    verify(mockCameraDevice, times(3)).createCaptureRequest(anyInt());
+  }
+
+  @Test
+  public void clear_shouldForgetCachedBuilders() throws CameraAccessException {
+    CaptureRequest.Builder first =
+        cache.get(mockCameraDevice, CameraDevice.TEMPLATE_PREVIEW, mockPreviewSurface);
+
+    cache.clear();
+    CaptureRequest.Builder second =
+        cache.get(mockCameraDevice, CameraDevice.TEMPLATE_PREVIEW, mockPreviewSurface);
+
+    assertNotEquals(first, second);
+  }
+}
@@ -102,6 +102,32 @@ public class DartMessengerTest {
     assertNull(call.argument("description"));
   }
 
+  @Test
+  public void sendImageStreamFramesDroppedEvent_includesDroppedFrames() {
+    doAnswer(createPostHandlerAnswer()).when(mockHandler).post(any(Runnable.class));
+    dartMessenger.sendImageStreamFramesDroppedEvent(42);
+
+    List<ByteBuffer> sentMessages = fakeBinaryMessenger.getMessages();
+    assertEquals(1, sentMessages.size());
+    MethodCall call = decodeSentMessage(sentMessages.get(0));
+    assertEquals("image_stream_frames_dropped", call.method);
+    assertEquals(42, ((Number) call.argument("droppedFrames")).longValue());
+  }
+
+  @Test
+  public void sendPreviewResolutionChangedEvent_includesSizeAndReason() {
+    doAnswer(createPostHandlerAnswer()).when(mockHandler).post(any(Runnable.class));
+    dartMessenger.sendPreviewResolutionChangedEvent(640, 480, "thermal");
+
+    List<ByteBuffer> sentMessages = fakeBinaryMessenger.getMessages();
+    assertEquals(1, sentMessages.size());
+    MethodCall call = decodeSentMessage(sentMessages.get(0));
+    assertEquals("preview_resolution_changed", call.method);
+    assertEquals(640, (int) call.argument("previewWidth"));
+    assertEquals(480, (int) call.argument("previewHeight"));
+    assertEquals("thermal", call.argument("reason"));
+  }
+
   @Test
   public void sendDeviceOrientationChangedEvent() {
     doAnswer(createPostHandlerAnswer()).when(mockHandler).post(any(Runnable.class));
@@ -0,0 +1,129 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.os.Handler;
+import io.flutter.plugins.camera.features.Point;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GestureUpdateCoalescerTest {
+  private final List<Float> submittedZoomLevels = new ArrayList<>();
+  private final List<Point> submittedFocusPoints = new ArrayList<>();
+  private final List<Runnable> postedRunnables = new ArrayList<>();
+  private Handler mockHandler;
+  private GestureUpdateCoalescer coalescer;
+
+  @Before
+  public void before() {
+    mockHandler = mock(Handler.class);
+    when(mockHandler.post(any()))
+        .thenAnswer(
+            invocation -> {
+              postedRunnables.add(invocation.getArgument(0));
+              return true;
+            });
+    coalescer =
+        new GestureUpdateCoalescer(
+            mockHandler,
+            (zoomLevel, focusPoint) -> {
+              submittedZoomLevels.add(zoomLevel);
+              submittedFocusPoints.add(focusPoint);
+            });
+  }
+
+  @Test
+  public void update_shouldSubmitFirstUpdateRightAway() {
+    coalescer.update(2f, null);
+
+    assertEquals(1, submittedZoomLevels.size());
+    assertEquals(2f, submittedZoomLevels.get(0), 0);
+    assertNull(submittedFocusPoints.get(0));
+  }
+
+  @Test
+  public void update_shouldCoalesceUpdatesUntilTheNextFrame() {
+    Point focusPoint = new Point(0.5, 0.5);
+    coalescer.update(2f, null);
+    coalescer.update(2.5f, null);
+    coalescer.update(null, focusPoint);
+    coalescer.update(3f, null);
+
+    assertEquals(1, submittedZoomLevels.size());
+    verify(mockHandler, never()).post(any());
+
+    coalescer.onFrameCaptured();
+    runPostedRunnables();
+
+    assertEquals(2, submittedZoomLevels.size());
+    assertEquals(3f, submittedZoomLevels.get(1), 0);
+    assertSame(focusPoint, submittedFocusPoints.get(1));
+  }
+
+  @Test
+  public void onFrameCaptured_shouldOnlyScheduleOneFlushPerPendingUpdate() {
+    coalescer.update(2f, null);
+    coalescer.update(3f, null);
+
+    coalescer.onFrameCaptured();
+    coalescer.onFrameCaptured();
+    runPostedRunnables();
+
+    assertEquals(2, submittedZoomLevels.size());
+  }
+
+  @Test
+  public void onFrameCaptured_shouldNotSubmitWithoutPendingUpdates() {
+    coalescer.update(2f, null);
+
+    coalescer.onFrameCaptured();
+    runPostedRunnables();
+
+    assertEquals(1, submittedZoomLevels.size());
+    verify(mockHandler, never()).post(any());
+  }
+
+  @Test
+  public void update_shouldSubmitRightAwayOnceTheFrameWasCaptured() {
+    coalescer.update(2f, null);
+    coalescer.onFrameCaptured();
+
+    coalescer.update(3f, null);
+
+    assertEquals(2, submittedZoomLevels.size());
+    assertEquals(3f, submittedZoomLevels.get(1), 0);
+  }
+
+  @Test
+  public void reset_shouldSubmitPendingUpdates() {
+    coalescer.update(2f, null);
+    coalescer.update(3f, null);
+
+    coalescer.reset();
+    runPostedRunnables();
+
+    assertEquals(2, submittedZoomLevels.size());
+    assertEquals(3f, submittedZoomLevels.get(1), 0);
+  }
+
+  private void runPostedRunnables() {
+    List<Runnable> runnables = new ArrayList<>(postedRunnables);
+    postedRunnables.clear();
+    for (Runnable runnable : runnables) {
+      runnable.run();
+    }
+  }
+}
@@ -0,0 +1,212 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.media.Image;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+public class ImageSaverExecutorTest {
+  private Image mockImage;
+  private File mockFile;
+  private ImageSaver.Callback mockCallback;
+  private ImageSaverExecutor.OnImageSavedListener mockListener;
+  private ExecutorService mockExecutorService;
+  private List<Runnable> submitted;
+  private MockedStatic<ImageSaver.FileOutputStreamFactory> mockFileOutputStreamFactory;
+
+  @Before
+  public void before() {
+    mockFile = mock(File.class);
+    when(mockFile.getAbsolutePath()).thenReturn("absolute/path");
+    Image.Plane mockPlane = mock(Image.Plane.class);
+    when(mockPlane.getBuffer()).thenReturn(ByteBuffer.allocate(0));
+    mockImage = mock(Image.class);
+    when(mockImage.getPlanes()).thenReturn(new Image.Plane[] {mockPlane});
+
+    FileOutputStream mockFileOutputStream = mock(FileOutputStream.class);
+    when(mockFileOutputStream.getChannel()).thenReturn(mock(FileChannel.class));
+    mockFileOutputStreamFactory = mockStatic(ImageSaver.FileOutputStreamFactory.class);
+    mockFileOutputStreamFactory
+        .when(() -> ImageSaver.FileOutputStreamFactory.create(any()))
+        .thenReturn(mockFileOutputStream);
+
+    mockCallback = mock(ImageSaver.Callback.class);
+    mockListener = mock(ImageSaverExecutor.OnImageSavedListener.class);
+    mockExecutorService = mock(ExecutorService.class);
+    submitted = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              submitted.add(invocation.getArgument(0));
+              return null;
+            })
+        .when(mockExecutorService)
+        .execute(any(Runnable.class));
+  }
+
+  @After
+  public void after() {
+    mockFileOutputStreamFactory.close();
+  }
+
+  @Test
+  public void save_shouldWriteImageOnExecutor() {
+    ImageSaverExecutor imageSaverExecutor =
+        new ImageSaverExecutor(mockExecutorService, mockListener);
+
+    imageSaverExecutor.save(mockImage, mockFile, mockCallback);
+
+    assertEquals(1, submitted.size());
+    verify(mockCallback, never()).onComplete(any());
+
+    submitted.get(0).run();
+
+    verify(mockCallback, times(1)).onComplete("absolute/path");
+    verify(mockImage, times(1)).close();
+  }
+
+  @Test
+  public void save_shouldReportWriteLatency() {
+    ImageSaverExecutor imageSaverExecutor =
+        new ImageSaverExecutor(mockExecutorService, mockListener);
+
+    imageSaverExecutor.save(mockImage, mockFile, mockCallback);
+    submitted.get(0).run();
+
+    verify(mockListener, times(1)).onImageSaved(eq(mockFile), anyLong(), anyLong());
+  }
+
+  @Test
+  public void save_shouldNotReportLatencyWhenWriteFails() {
+    mockFileOutputStreamFactory
+        .when(() -> ImageSaver.FileOutputStreamFactory.create(any()))
+        .thenThrow(new FileNotFoundException());
+    ImageSaverExecutor imageSaverExecutor =
+        new ImageSaverExecutor(mockExecutorService, mockListener);
+
+    imageSaverExecutor.save(mockImage, mockFile, mockCallback);
+    submitted.get(0).run();
+
+    verify(mockCallback, times(1)).onError("IOError", "Failed saving image");
+    verify(mockListener, never()).onImageSaved(any(), anyLong(), anyLong());
+    assertEquals(0, imageSaverExecutor.getPendingImages());
+  }
+
+  @Test
+  public void save_shouldTrackPendingImages() {
+    ImageSaverExecutor imageSaverExecutor =
+        new ImageSaverExecutor(mockExecutorService, mockListener);
+
+    for (int i = 0; i < ImageSaverExecutor.MAX_PENDING_IMAGES; i++) {
+      assertTrue(imageSaverExecutor.hasCapacity());
+      imageSaverExecutor.save(mockImage, mockFile, mockCallback);
+    }
+
+    assertEquals(ImageSaverExecutor.MAX_PENDING_IMAGES, imageSaverExecutor.getPendingImages());
+    assertFalse(imageSaverExecutor.hasCapacity());
+
+    submitted.get(0).run();
+
+    assertEquals(ImageSaverExecutor.MAX_PENDING_IMAGES - 1, imageSaverExecutor.getPendingImages());
+    assertTrue(imageSaverExecutor.hasCapacity());
+  }
+
+  @Test
+  public void save_shouldInformCapacityListenerAfterWrite() {
+    ImageSaverExecutor imageSaverExecutor =
+        new ImageSaverExecutor(mockExecutorService, mockListener);
+    ImageSaverExecutor.OnCapacityAvailableListener mockCapacityListener =
+        mock(ImageSaverExecutor.OnCapacityAvailableListener.class);
+    imageSaverExecutor.setOnCapacityAvailableListener(mockCapacityListener);
+
+    imageSaverExecutor.save(mockImage, mockFile, mockCallback);
+    verify(mockCapacityListener, never()).onCapacityAvailable();
+
+    submitted.get(0).run();
+
+    verify(mockCapacityListener, times(1)).onCapacityAvailable();
+  }
+
+  @Test
+  public void save_shouldCloseImageAndReportErrorWhenRejected() {
+    doThrow(new RejectedExecutionException())
+        .when(mockExecutorService)
+        .execute(any(Runnable.class));
+    ImageSaverExecutor imageSaverExecutor =
+        new ImageSaverExecutor(mockExecutorService, mockListener);
+
+    imageSaverExecutor.save(mockImage, mockFile, mockCallback);
+
+    verify(mockImage, times(1)).close();
+    verify(mockCallback, times(1)).onError("IOError", "Too many images are being saved");
+    assertEquals(0, imageSaverExecutor.getPendingImages());
+  }
+
+  @Test
+  public void shutdown_shouldNotWaitForPendingImages() throws InterruptedException {
+    ImageSaverExecutor imageSaverExecutor =
+        new ImageSaverExecutor(mockExecutorService, mockListener);
+    Runnable mockOnTerminated = mock(Runnable.class);
+    imageSaverExecutor.save(mockImage, mockFile, mockCallback);
+
+    imageSaverExecutor.shutdown(mockOnTerminated);
+
+    verify(mockExecutorService, times(1)).shutdown();
+    verify(mockExecutorService, never()).awaitTermination(anyLong(), any());
+    verify(mockOnTerminated, never()).run();
+  }
+
+  @Test
+  public void shutdown_shouldRunCallbackAfterLastPendingImage() {
+    ImageSaverExecutor imageSaverExecutor =
+        new ImageSaverExecutor(mockExecutorService, mockListener);
+    Runnable mockOnTerminated = mock(Runnable.class);
+    imageSaverExecutor.save(mockImage, mockFile, mockCallback);
+    imageSaverExecutor.shutdown(mockOnTerminated);
+    when(mockExecutorService.isShutdown()).thenReturn(true);
+
+    submitted.get(0).run();
+
+    verify(mockCallback, times(1)).onComplete("absolute/path");
+    verify(mockOnTerminated, times(1)).run();
+  }
+
+  @Test
+  public void shutdown_shouldRunCallbackImmediatelyWithoutPendingImages() {
+    ImageSaverExecutor imageSaverExecutor =
+        new ImageSaverExecutor(mockExecutorService, mockListener);
+    Runnable mockOnTerminated = mock(Runnable.class);
+
+    imageSaverExecutor.shutdown(mockOnTerminated);
+
+    verify(mockOnTerminated, times(1)).run();
+  }
+}
@@ -18,12 +18,11 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.MockedStatic;
-import org.mockito.invocation.InvocationOnMock;
-import org.mockito.stubbing.Answer;
 
 public class ImageSaverTests {
 
@@ -35,6 +34,7 @@ public class ImageSaverTests {
   ByteBuffer mockBuffer;
   MockedStatic<ImageSaver.FileOutputStreamFactory> mockFileOutputStreamFactory;
   FileOutputStream mockFileOutputStream;
+  FileChannel mockFileChannel;
 
   @Before
   public void setup() {
@@ -43,19 +43,7 @@ public class ImageSaverTests {
     when(mockFile.getAbsolutePath()).thenReturn("absolute/path");
     mockPlane = mock(Image.Plane.class);
     mockBuffer = mock(ByteBuffer.class);
-    when(mockBuffer.remaining()).thenReturn(3);
-    when(mockBuffer.get(any()))
-        .thenAnswer(
-            new Answer<Object>() {
-              @Override
-              public Object answer(InvocationOnMock invocation) throws Throwable {
-                byte[] bytes = invocation.getArgument(0);
-                bytes[0] = 0x42;
-                bytes[1] = 0x00;
-                bytes[2] = 0x13;
-                return mockBuffer;
-              }
-            });
+    when(mockBuffer.hasRemaining()).thenReturn(true, false);
 
     // Set up mocked image dependency
     mockImage = mock(Image.class);
@@ -65,6 +53,8 @@ public class ImageSaverTests {
     // Set up mocked FileOutputStream
     mockFileOutputStreamFactory = mockStatic(ImageSaver.FileOutputStreamFactory.class);
     mockFileOutputStream = mock(FileOutputStream.class);
+    mockFileChannel = mock(FileChannel.class);
+    when(mockFileOutputStream.getChannel()).thenReturn(mockFileChannel);
     mockFileOutputStreamFactory
         .when(() -> ImageSaver.FileOutputStreamFactory.create(any()))
         .thenReturn(mockFileOutputStream);
@@ -80,17 +70,18 @@ public class ImageSaverTests {
   }
 
   @Test
-  public void runWritesBytesToFileAndFinishesWithPath() throws IOException {
+  public void runWritesBufferToFileAndFinishesWithPath() throws IOException {
     imageSaver.run();
 
-    verify(mockFileOutputStream, times(1)).write(new byte[] {0x42, 0x00, 0x13});
+    verify(mockFileChannel, times(1)).write(mockBuffer);
+    verify(mockFileOutputStream, never()).write(any(byte[].class));
     verify(mockCallback, times(1)).onComplete("absolute/path");
     verify(mockCallback, never()).onError(any(), any());
   }
 
   @Test
   public void runCallsErrorOnWriteIoexception() throws IOException {
-    doThrow(new IOException()).when(mockFileOutputStream).write(any());
+    doThrow(new IOException()).when(mockFileChannel).write(any(ByteBuffer.class));
     imageSaver.run();
     verify(mockCallback, times(1)).onError("IOError", "Failed saving image");
     verify(mockCallback, never()).onComplete(any());
@@ -102,4 +93,21 @@ public class ImageSaverTests {
     imageSaver.run();
     verify(mockCallback, times(1)).onError("cameraAccess", "message");
   }
+
+  @Test
+  public void runKeepsWritingUntilBufferIsEmpty() throws IOException {
+    when(mockBuffer.hasRemaining()).thenReturn(true, true, false);
+
+    imageSaver.run();
+
+    verify(mockFileChannel, times(2)).write(mockBuffer);
+    verify(mockCallback, times(1)).onComplete("absolute/path");
+  }
+
+  @Test
+  public void runClosesImage() {
+    imageSaver.run();
+
+    verify(mockImage, times(1)).close();
+  }
 }
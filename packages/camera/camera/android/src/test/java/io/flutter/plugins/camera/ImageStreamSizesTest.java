@@ -0,0 +1,53 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.util.Size;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class ImageStreamSizesTest {
+  @Test
+  public void getFallbackSizes_shouldPreferSmallerSizesWithSameAspectRatio() {
+    Size[] supportedSizes =
+        new Size[] {
+          new Size(1920, 1080),
+          new Size(640, 480),
+          new Size(1280, 720),
+          new Size(3840, 2160),
+          new Size(960, 540),
+        };
+
+    List<Size> fallbackSizes =
+        ImageStreamSizes.getFallbackSizes(new Size(1920, 1080), supportedSizes);
+
+    assertEquals(3, fallbackSizes.size());
+    assertEquals(new Size(1280, 720), fallbackSizes.get(0));
+    assertEquals(new Size(960, 540), fallbackSizes.get(1));
+    assertEquals(new Size(640, 480), fallbackSizes.get(2));
+  }
+
+  @Test
+  public void getFallbackSizes_shouldSkipSizesThatAreTooSmall() {
+    Size[] supportedSizes = new Size[] {new Size(320, 240), new Size(176, 144)};
+
+    List<Size> fallbackSizes =
+        ImageStreamSizes.getFallbackSizes(new Size(640, 480), supportedSizes);
+
+    assertEquals(1, fallbackSizes.size());
+    assertEquals(new Size(320, 240), fallbackSizes.get(0));
+  }
+
+  @Test
+  public void getFallbackSizes_shouldReturnEmptyListWithoutSupportedSizes() {
+    assertTrue(ImageStreamSizes.getFallbackSizes(new Size(640, 480), null).isEmpty());
+  }
+}
@@ -4,11 +4,17 @@
 
 package io.flutter.plugins.camera;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 import android.app.Activity;
 import android.hardware.camera2.CameraAccessException;
@@ -16,10 +22,17 @@ import androidx.lifecycle.LifecycleObserver;
 import io.flutter.plugin.common.BinaryMessenger;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
+import io.flutter.plugins.camera.features.Point;
+import io.flutter.plugins.camera.features.flash.FlashMode;
+import io.flutter.plugins.camera.types.CameraSettingsUpdate;
+import io.flutter.plugins.camera.types.VideoEncodingOptions;
 import io.flutter.plugins.camera.utils.TestUtils;
 import io.flutter.view.TextureRegistry;
+import java.util.HashMap;
+import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class MethodCallHandlerImplTest {
 
@@ -74,4 +87,171 @@ public class MethodCallHandlerImplTest {
     verify(mockCamera, times(1)).resumePreview();
     verify(mockResult, times(1)).success(null);
   }
+
+  @Test
+  public void onMethodCall_receivedImageStreamData_shouldAcknowledgeFrame() {
+    handler.onMethodCall(new MethodCall("receivedImageStreamData", null), mockResult);
+
+    verify(mockCamera, times(1)).receivedImageStreamData();
+    verify(mockResult, times(1)).success(null);
+  }
+
+  @Test
+  public void onMethodCall_takePictureBurst_shouldPassCountAndInterval() {
+    Map<String, Object> arguments = new HashMap<>();
+    arguments.put("count", 10);
+    arguments.put("intervalMs", 100);
+
+    handler.onMethodCall(new MethodCall("takePictureBurst", arguments), mockResult);
+
+    verify(mockCamera, times(1)).takePictureBurst(mockResult, 10, 100L);
+  }
+
+  @Test
+  public void onMethodCall_updateSettings_shouldOnlyPassSuppliedSettings() {
+    Map<String, Object> exposurePoint = new HashMap<>();
+    exposurePoint.put("reset", true);
+    Map<String, Object> focusPoint = new HashMap<>();
+    focusPoint.put("reset", false);
+    focusPoint.put("x", 0.25);
+    focusPoint.put("y", 0.75);
+    Map<String, Object> arguments = new HashMap<>();
+    arguments.put("flashMode", "torch");
+    arguments.put("exposurePoint", exposurePoint);
+    arguments.put("focusPoint", focusPoint);
+    arguments.put("zoomLevel", 2.0);
+
+    handler.onMethodCall(new MethodCall("updateSettings", arguments), mockResult);
+
+    ArgumentCaptor<CameraSettingsUpdate> updateCaptor =
+        ArgumentCaptor.forClass(CameraSettingsUpdate.class);
+    verify(mockCamera, times(1)).updateSettings(eq(mockResult), updateCaptor.capture());
+    CameraSettingsUpdate update = updateCaptor.getValue();
+    assertEquals(FlashMode.torch, update.getFlashMode());
+    assertNull(update.getExposureMode());
+    assertNull(update.getExposurePoint().x);
+    assertNull(update.getExposureOffset());
+    assertNull(update.getFocusMode());
+    assertEquals(0.25, update.getFocusPoint().x, 0);
+    assertEquals(0.75, update.getFocusPoint().y, 0);
+    assertEquals(2f, update.getZoomLevel(), 0);
+  }
+
+  @Test
+  public void onMethodCall_updateGesture_shouldPassZoomLevelAndFocusPoint() {
+    Map<String, Object> focusPoint = new HashMap<>();
+    focusPoint.put("reset", false);
+    focusPoint.put("x", 0.5);
+    focusPoint.put("y", 0.25);
+    Map<String, Object> arguments = new HashMap<>();
+    arguments.put("zoomLevel", 1.5);
+    arguments.put("focusPoint", focusPoint);
+
+    handler.onMethodCall(new MethodCall("updateGesture", arguments), mockResult);
+
+    ArgumentCaptor<Point> pointCaptor = ArgumentCaptor.forClass(Point.class);
+    verify(mockCamera, times(1)).updateGesture(eq(1.5f), pointCaptor.capture());
+    assertEquals(0.5, pointCaptor.getValue().x, 0);
+    assertEquals(0.25, pointCaptor.getValue().y, 0);
+    verify(mockResult, times(1)).success(null);
+  }
+
+  @Test
+  public void onMethodCall_startVideoRecording_shouldPassEncodingOptions() {
+    Map<String, Object> encodingOptions = new HashMap<>();
+    encodingOptions.put("bitrate", 4000000);
+    encodingOptions.put("keyFrameInterval", 2000);
+    encodingOptions.put("codec", "hevc");
+    encodingOptions.put("highSpeedFrameRate", 240);
+    Map<String, Object> arguments = new HashMap<>();
+    arguments.put("encodingOptions", encodingOptions);
+
+    handler.onMethodCall(new MethodCall("startVideoRecording", arguments), mockResult);
+
+    ArgumentCaptor<VideoEncodingOptions> optionsCaptor =
+        ArgumentCaptor.forClass(VideoEncodingOptions.class);
+    verify(mockCamera, times(1)).startVideoRecording(eq(mockResult), optionsCaptor.capture());
+    VideoEncodingOptions options = optionsCaptor.getValue();
+    assertEquals(4000000, options.getBitrate());
+    assertEquals(2000, options.getKeyFrameIntervalMs());
+    assertTrue(options.getPreferHevc());
+    assertEquals(240, options.getHighSpeedFrameRate());
+    assertFalse(options.usesConstantQuality());
+  }
+
+  @Test
+  public void onMethodCall_startVideoRecording_shouldSendErrorResultForInvalidEncodingOptions() {
+    Map<String, Object> encodingOptions = new HashMap<>();
+    encodingOptions.put("constantQuality", 101);
+    Map<String, Object> arguments = new HashMap<>();
+    arguments.put("encodingOptions", encodingOptions);
+
+    handler.onMethodCall(new MethodCall("startVideoRecording", arguments), mockResult);
+
+    verify(mockResult, times(1))
+        .error("videoRecordingFailed", "The constant quality must be between 0 and 100.", null);
+  }
+
+  @Test
+  public void onMethodCall_startImageStream_shouldSendErrorResultForIncompleteRegionOfInterest() {
+    Map<String, Integer> regionOfInterest = new HashMap<>();
+    regionOfInterest.put("left", 0);
+    regionOfInterest.put("top", 0);
+    regionOfInterest.put("width", 100);
+    Map<String, Object> arguments = new HashMap<>();
+    arguments.put("regionOfInterest", regionOfInterest);
+
+    handler.onMethodCall(new MethodCall("startImageStream", arguments), mockResult);
+
+    verify(mockResult, times(1))
+        .error("startImageStreamFailed", "regionOfInterest is missing \"height\".", null);
+    verifyNoInteractions(mockCamera);
+  }
+
+  @Test
+  public void onMethodCall_switchCamera_shouldSendErrorResultWithoutCamera() {
+    TestUtils.setPrivateField(handler, "camera", null);
+    Map<String, Object> arguments = new HashMap<>();
+    arguments.put("cameraName", "1");
+
+    handler.onMethodCall(new MethodCall("switchCamera", arguments), mockResult);
+
+    verify(mockResult, times(1))
+        .error(
+            "cameraNotFound",
+            "Camera not found. Please call the 'create' method before calling 'switchCamera'.",
+            null);
+  }
+
+  @Test
+  public void onMethodCall_getLatencyStatistics_shouldReturnCameraStatistics() {
+    Map<String, Object> statistics = new HashMap<>();
+    statistics.put("shutterLag", new HashMap<String, Object>());
+    when(mockCamera.getLatencyStatistics(false)).thenReturn(statistics);
+
+    handler.onMethodCall(new MethodCall("getLatencyStatistics", null), mockResult);
+
+    verify(mockResult, times(1)).success(statistics);
+  }
+
+  @Test
+  public void onMethodCall_getLatencyStatistics_shouldPassReset() {
+    Map<String, Object> arguments = new HashMap<>();
+    arguments.put("reset", true);
+
+    handler.onMethodCall(new MethodCall("getLatencyStatistics", arguments), mockResult);
+
+    verify(mockCamera, times(1)).getLatencyStatistics(true);
+  }
+
+  @Test
+  public void onMethodCall_setAdaptivePreviewResolution_shouldEnableAdaptivePreview() {
+    Map<String, Object> arguments = new HashMap<>();
+    arguments.put("enabled", true);
+
+    handler.onMethodCall(new MethodCall("setAdaptivePreviewResolution", arguments), mockResult);
+
+    verify(mockCamera, times(1)).setAdaptivePreviewResolution(true);
+    verify(mockResult, times(1)).success(null);
+  }
 }
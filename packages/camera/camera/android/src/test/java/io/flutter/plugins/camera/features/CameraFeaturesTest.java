@@ -0,0 +1,160 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.features;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.app.Activity;
+import android.util.Size;
+import io.flutter.plugins.camera.CameraProperties;
+import io.flutter.plugins.camera.DartMessenger;
+import io.flutter.plugins.camera.features.exposurelock.ExposureLockFeature;
+import io.flutter.plugins.camera.features.exposurelock.ExposureMode;
+import io.flutter.plugins.camera.features.exposurepoint.ExposurePointFeature;
+import io.flutter.plugins.camera.features.flash.FlashFeature;
+import io.flutter.plugins.camera.features.focuspoint.FocusPointFeature;
+import io.flutter.plugins.camera.features.resolution.ResolutionPreset;
+import io.flutter.plugins.camera.features.sensororientation.SensorOrientationFeature;
+import io.flutter.plugins.camera.features.zoomlevel.ZoomLevelFeature;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CameraFeaturesTest {
+  private CameraFeatureFactory mockCameraFeatureFactory;
+  private CameraProperties mockCameraProperties;
+  private SensorOrientationFeature mockSensorOrientationFeature;
+  private CameraFeatures cameraFeatures;
+
+  @Before
+  public void before() {
+    mockCameraFeatureFactory = mock(CameraFeatureFactory.class);
+    mockCameraProperties = mock(CameraProperties.class);
+    mockSensorOrientationFeature = mock(SensorOrientationFeature.class);
+    when(mockCameraFeatureFactory.createSensorOrientationFeature(any(), any(), any()))
+        .thenReturn(mockSensorOrientationFeature);
+    when(mockCameraFeatureFactory.createFlashFeature(any())).thenReturn(mock(FlashFeature.class));
+    when(mockCameraFeatureFactory.createExposurePointFeature(any(), any()))
+        .thenReturn(mock(ExposurePointFeature.class));
+    when(mockCameraFeatureFactory.createFocusPointFeature(any(), any()))
+        .thenReturn(mock(FocusPointFeature.class));
+    when(mockCameraFeatureFactory.createZoomLevelFeature(any()))
+        .thenReturn(mock(ZoomLevelFeature.class));
+
+    cameraFeatures =
+        CameraFeatures.init(
+            mockCameraFeatureFactory,
+            mockCameraProperties,
+            mock(Activity.class),
+            mock(DartMessenger.class),
+            ResolutionPreset.high);
+  }
+
+  @Test
+  public void init_shouldCreateFlashFeatureRightAway() {
+    // The automatic flash default differs from the capture request templates.
+    verify(mockCameraFeatureFactory, times(1)).createFlashFeature(mockCameraProperties);
+    assertTrue(cameraFeatures.getAllFeatures().contains(cameraFeatures.getFlash()));
+  }
+
+  @Test
+  public void getZoomLevel_shouldCreateFeatureOnFirstUse() {
+    verify(mockCameraFeatureFactory, never()).createZoomLevelFeature(any());
+
+    ZoomLevelFeature zoomLevelFeature = cameraFeatures.getZoomLevel();
+
+    assertEquals(zoomLevelFeature, cameraFeatures.getZoomLevel());
+    verify(mockCameraFeatureFactory, times(1)).createZoomLevelFeature(mockCameraProperties);
+  }
+
+  @Test
+  public void getAllFeatures_shouldOnlyContainCreatedFeatures() {
+    assertTrue(cameraFeatures.getAllFeatures().contains(mockSensorOrientationFeature));
+
+    ZoomLevelFeature zoomLevelFeature = cameraFeatures.getZoomLevel();
+
+    assertTrue(cameraFeatures.getAllFeatures().contains(zoomLevelFeature));
+    verify(mockCameraFeatureFactory, never()).createExposureOffsetFeature(any());
+  }
+
+  @Test
+  public void setZoomLevel_shouldReplaceLazyFeature() {
+    ZoomLevelFeature mockZoomLevelFeature = mock(ZoomLevelFeature.class);
+
+    cameraFeatures.setZoomLevel(mockZoomLevelFeature);
+
+    assertEquals(mockZoomLevelFeature, cameraFeatures.getZoomLevel());
+    verify(mockCameraFeatureFactory, never()).createZoomLevelFeature(any());
+  }
+
+  @Test
+  public void getExposureMode_shouldNotCreateExposureLockFeature() {
+    assertEquals(ExposureMode.auto, cameraFeatures.getExposureMode());
+    verify(mockCameraFeatureFactory, never()).createExposureLockFeature(any());
+  }
+
+  @Test
+  public void getExposureMode_shouldUseCreatedExposureLockFeature() {
+    ExposureLockFeature mockExposureLockFeature = mock(ExposureLockFeature.class);
+    when(mockExposureLockFeature.getValue()).thenReturn(ExposureMode.locked);
+    cameraFeatures.setExposureLock(mockExposureLockFeature);
+
+    assertEquals(ExposureMode.locked, cameraFeatures.getExposureMode());
+  }
+
+  @Test
+  public void isPointSupported_shouldNotCreatePointFeatures() {
+    when(mockCameraProperties.getControlMaxRegionsAutoExposure()).thenReturn(1);
+    when(mockCameraProperties.getControlMaxRegionsAutoFocus()).thenReturn(0);
+
+    assertTrue(cameraFeatures.isExposurePointSupported());
+    assertFalse(cameraFeatures.isFocusPointSupported());
+    verify(mockCameraFeatureFactory, never()).createExposurePointFeature(any(), any());
+    verify(mockCameraFeatureFactory, never()).createFocusPointFeature(any(), any());
+  }
+
+  @Test
+  public void setCameraBoundaries_shouldApplyToPointFeaturesCreatedLater() {
+    Size mockCameraBoundaries = mock(Size.class);
+
+    cameraFeatures.setCameraBoundaries(mockCameraBoundaries);
+    verify(mockCameraFeatureFactory, never()).createExposurePointFeature(any(), any());
+    ExposurePointFeature exposurePointFeature = cameraFeatures.getExposurePoint();
+    FocusPointFeature focusPointFeature = cameraFeatures.getFocusPoint();
+
+    verify(mockCameraFeatureFactory, times(1))
+        .createExposurePointFeature(mockCameraProperties, mockSensorOrientationFeature);
+    verify(exposurePointFeature, times(1)).setCameraBoundaries(mockCameraBoundaries);
+    verify(focusPointFeature, times(1)).setCameraBoundaries(mockCameraBoundaries);
+  }
+
+  @Test
+  public void setCameraBoundaries_shouldUpdateCreatedPointFeatures() {
+    ExposurePointFeature exposurePointFeature = cameraFeatures.getExposurePoint();
+    Size mockCameraBoundaries = mock(Size.class);
+
+    cameraFeatures.setCameraBoundaries(mockCameraBoundaries);
+
+    verify(exposurePointFeature, times(1)).setCameraBoundaries(mockCameraBoundaries);
+  }
+
+  @Test
+  public void setCameraBoundaries_shouldSkipUnchangedBoundaries() {
+    ExposurePointFeature exposurePointFeature = cameraFeatures.getExposurePoint();
+    Size mockCameraBoundaries = mock(Size.class);
+
+    cameraFeatures.setCameraBoundaries(mockCameraBoundaries);
+    cameraFeatures.setCameraBoundaries(mockCameraBoundaries);
+
+    verify(exposurePointFeature, times(1)).setCameraBoundaries(mockCameraBoundaries);
+  }
+}
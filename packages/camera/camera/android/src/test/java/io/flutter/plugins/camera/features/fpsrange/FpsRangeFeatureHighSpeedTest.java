@@ -0,0 +1,102 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.features.fpsrange;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import android.util.Range;
+import android.util.Size;
+import io.flutter.plugins.camera.CameraProperties;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class FpsRangeFeatureHighSpeedTest {
+  private static final Size SIZE_1080P = new Size(1920, 1080);
+  private static final Size SIZE_720P = new Size(1280, 720);
+
+  private CameraProperties mockCameraProperties;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void before() {
+    mockCameraProperties = mock(CameraProperties.class);
+    when(mockCameraProperties.getControlAutoExposureAvailableTargetFpsRanges())
+        .thenReturn(new Range[] {new Range<>(15, 30)});
+    when(mockCameraProperties.getHighSpeedVideoSizes())
+        .thenReturn(new Size[] {SIZE_720P, SIZE_1080P});
+    when(mockCameraProperties.getHighSpeedVideoFpsRangesFor(SIZE_1080P))
+        .thenReturn(new Range[] {new Range<>(30, 120), new Range<>(120, 120)});
+    when(mockCameraProperties.getHighSpeedVideoFpsRangesFor(SIZE_720P))
+        .thenReturn(
+            new Range[] {
+              new Range<>(30, 120),
+              new Range<>(120, 120),
+              new Range<>(30, 240),
+              new Range<>(240, 240)
+            });
+  }
+
+  @Test
+  public void getHighSpeedFrameRates_shouldReturnAllFrameRatesInAscendingOrder() {
+    FpsRangeFeature fpsRangeFeature = new FpsRangeFeature(mockCameraProperties);
+
+    assertEquals(Arrays.asList(120, 240), fpsRangeFeature.getHighSpeedFrameRates());
+  }
+
+  @Test
+  public void getHighSpeedFrameRates_shouldBeEmptyWithoutHighSpeedSupport() {
+    when(mockCameraProperties.getHighSpeedVideoSizes()).thenReturn(null);
+    FpsRangeFeature fpsRangeFeature = new FpsRangeFeature(mockCameraProperties);
+
+    assertTrue(fpsRangeFeature.getHighSpeedFrameRates().isEmpty());
+  }
+
+  @Test
+  public void selectHighSpeedVideoSize_shouldSelectLargestSizeSupportingFrameRate() {
+    FpsRangeFeature fpsRangeFeature = new FpsRangeFeature(mockCameraProperties);
+
+    assertEquals(SIZE_1080P, fpsRangeFeature.selectHighSpeedVideoSize(120, SIZE_1080P));
+    assertEquals(SIZE_720P, fpsRangeFeature.selectHighSpeedVideoSize(240, SIZE_1080P));
+  }
+
+  @Test
+  public void selectHighSpeedVideoSize_shouldNotExceedMaximumSize() {
+    FpsRangeFeature fpsRangeFeature = new FpsRangeFeature(mockCameraProperties);
+
+    assertEquals(SIZE_720P, fpsRangeFeature.selectHighSpeedVideoSize(120, SIZE_720P));
+    assertNull(fpsRangeFeature.selectHighSpeedVideoSize(120, new Size(640, 480)));
+  }
+
+  @Test
+  public void selectHighSpeedVideoSize_shouldReturnNullForUnsupportedFrameRate() {
+    FpsRangeFeature fpsRangeFeature = new FpsRangeFeature(mockCameraProperties);
+
+    assertNull(fpsRangeFeature.selectHighSpeedVideoSize(480, SIZE_1080P));
+  }
+
+  @Test
+  public void enableHighSpeed_shouldUseFixedRangeUntilDisabled() {
+    FpsRangeFeature fpsRangeFeature = new FpsRangeFeature(mockCameraProperties);
+
+    fpsRangeFeature.enableHighSpeed(240);
+
+    assertTrue(fpsRangeFeature.isHighSpeed());
+    assertEquals(new Range<>(240, 240), fpsRangeFeature.getValue());
+
+    fpsRangeFeature.disableHighSpeed();
+
+    assertFalse(fpsRangeFeature.isHighSpeed());
+    assertEquals(new Range<>(15, 30), fpsRangeFeature.getValue());
+  }
+}
@@ -0,0 +1,157 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.features.resolution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.os.PowerManager;
+import android.util.Size;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class AdaptivePreviewResolutionTest {
+  private static final Size SIZE_720P = new Size(1280, 720);
+  private static final Size SIZE_480P = new Size(640, 480);
+  private static final Size SIZE_QVGA = new Size(320, 240);
+  private static final long TARGET_INTERVAL_NANOS = 1_000_000_000L / 30;
+  private static final long SLOW_INTERVAL_NANOS = 1_000_000_000L / 15;
+
+  private final List<Size> changedSizes = new ArrayList<>();
+  private final List<AdaptivePreviewResolution.Reason> changedReasons = new ArrayList<>();
+  private AdaptivePreviewResolution adaptive;
+  private long timestampNanos;
+
+  @Before
+  public void before() {
+    adaptive =
+        new AdaptivePreviewResolution(
+            Arrays.asList(SIZE_720P, SIZE_480P, SIZE_QVGA),
+            30,
+            (size, reason) -> {
+              changedSizes.add(size);
+              changedReasons.add(reason);
+            });
+  }
+
+  @Test
+  public void onFrame_shouldKeepResolutionWhileFramesKeepUp() {
+    feedFrames(1000, TARGET_INTERVAL_NANOS);
+
+    assertTrue(changedSizes.isEmpty());
+    assertEquals(SIZE_720P, adaptive.getCurrentSize());
+  }
+
+  @Test
+  public void onFrame_shouldStepDownAfterSustainedSlowFrames() {
+    feedFrames(AdaptivePreviewResolution.WINDOW_FRAMES * 2 + 1, SLOW_INTERVAL_NANOS);
+
+    assertEquals(Arrays.asList(SIZE_480P), changedSizes);
+    assertEquals(
+        Arrays.asList(AdaptivePreviewResolution.Reason.FRAME_INTERVAL), changedReasons);
+    assertEquals(SIZE_480P, adaptive.getCurrentSize());
+  }
+
+  @Test
+  public void onFrame_shouldNotStepDownOnASingleSlowWindow() {
+    feedFrames(AdaptivePreviewResolution.WINDOW_FRAMES + 1, SLOW_INTERVAL_NANOS);
+    feedFrames(AdaptivePreviewResolution.WINDOW_FRAMES, TARGET_INTERVAL_NANOS);
+    feedFrames(AdaptivePreviewResolution.WINDOW_FRAMES, SLOW_INTERVAL_NANOS);
+
+    assertTrue(changedSizes.isEmpty());
+  }
+
+  @Test
+  public void onFrame_shouldWaitBetweenSteps() {
+    // Slow enough to judge two slow windows before the minimum step interval has passed.
+    long intervalNanos =
+        AdaptivePreviewResolution.MIN_STEP_INTERVAL_NANOS
+            / (AdaptivePreviewResolution.WINDOW_FRAMES * 4);
+    adaptive =
+        new AdaptivePreviewResolution(
+            Arrays.asList(SIZE_720P, SIZE_480P, SIZE_QVGA),
+            120,
+            (size, reason) -> changedSizes.add(size));
+
+    feedFrames(AdaptivePreviewResolution.WINDOW_FRAMES * 2 + 1, intervalNanos);
+
+    assertTrue(changedSizes.isEmpty());
+
+    feedFrames(AdaptivePreviewResolution.WINDOW_FRAMES * 2, intervalNanos);
+
+    assertEquals(Arrays.asList(SIZE_480P), changedSizes);
+  }
+
+  @Test
+  public void onFrame_shouldStepDownOnSevereThermalStatus() {
+    adaptive.onThermalStatusChanged(PowerManager.THERMAL_STATUS_SEVERE);
+
+    feedFrames(100, TARGET_INTERVAL_NANOS);
+
+    assertEquals(Arrays.asList(SIZE_480P), changedSizes);
+    assertEquals(Arrays.asList(AdaptivePreviewResolution.Reason.THERMAL), changedReasons);
+  }
+
+  @Test
+  public void onFrame_shouldNotStepBelowTheSmallestSize() {
+    adaptive.onThermalStatusChanged(PowerManager.THERMAL_STATUS_CRITICAL);
+
+    feedFrames(1000, TARGET_INTERVAL_NANOS);
+
+    assertEquals(Arrays.asList(SIZE_480P, SIZE_QVGA), changedSizes);
+    assertEquals(SIZE_QVGA, adaptive.getCurrentSize());
+  }
+
+  @Test
+  public void onFrame_shouldStepUpAfterSustainedHealthyFrames() {
+    adaptive.setCurrentSize(SIZE_480P);
+
+    feedFrames(
+        AdaptivePreviewResolution.WINDOW_FRAMES
+                * AdaptivePreviewResolution.HEALTHY_WINDOWS_TO_STEP_UP
+            + 1,
+        TARGET_INTERVAL_NANOS);
+
+    assertEquals(Arrays.asList(SIZE_720P), changedSizes);
+    assertEquals(Arrays.asList(AdaptivePreviewResolution.Reason.RECOVERED), changedReasons);
+  }
+
+  @Test
+  public void onFrame_shouldNotStepUpWhileTheDeviceIsThrottling() {
+    adaptive.setCurrentSize(SIZE_480P);
+    adaptive.onThermalStatusChanged(PowerManager.THERMAL_STATUS_MODERATE);
+
+    feedFrames(1000, TARGET_INTERVAL_NANOS);
+
+    assertTrue(changedSizes.isEmpty());
+  }
+
+  @Test
+  public void onFrame_shouldIgnoreGapsBetweenFrames() {
+    feedFrames(AdaptivePreviewResolution.WINDOW_FRAMES, TARGET_INTERVAL_NANOS);
+    timestampNanos += 10_000_000_000L;
+    feedFrames(AdaptivePreviewResolution.WINDOW_FRAMES * 2, TARGET_INTERVAL_NANOS);
+
+    assertTrue(changedSizes.isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void setCurrentSize_shouldRejectUnknownSizes() {
+    adaptive.setCurrentSize(new Size(1920, 1080));
+  }
+
+  private void feedFrames(int count, long intervalNanos) {
+    for (int i = 0; i < count; i++) {
+      timestampNanos += intervalNanos;
+      adaptive.onFrame(timestampNanos);
+    }
+  }
+}
@@ -12,7 +12,9 @@ import static org.mockito.Mockito.when;
 
 import android.media.CamcorderProfile;
 import android.media.EncoderProfiles;
+import android.util.Size;
 import io.flutter.plugins.camera.CameraProperties;
+import java.util.Arrays;
 import java.util.List;
 import org.junit.After;
 import org.junit.Before;
@@ -329,4 +331,59 @@ public class ResolutionFeatureTest {
 
     mockedStaticProfile.verify(() -> CamcorderProfile.getAll("1", CamcorderProfile.QUALITY_QVGA));
   }
+
+  @Config(maxSdk = 30)
+  @SuppressWarnings("deprecation")
+  @Test
+  public void getAdaptivePreviewSizes_shouldListPreviewSizesOfLowerPresetsLegacy() {
+    stubLegacyProfile(CamcorderProfile.QUALITY_720P, 1280, 720);
+    stubLegacyProfile(CamcorderProfile.QUALITY_480P, 640, 480);
+    stubLegacyProfile(CamcorderProfile.QUALITY_QVGA, 320, 240);
+    ResolutionFeature resolutionFeature =
+        new ResolutionFeature(mock(CameraProperties.class), ResolutionPreset.max, cameraName);
+
+    assertEquals(
+        Arrays.asList(new Size(1280, 720), new Size(640, 480), new Size(320, 240)),
+        resolutionFeature.getAdaptivePreviewSizes());
+  }
+
+  @Config(maxSdk = 30)
+  @SuppressWarnings("deprecation")
+  @Test
+  public void getAdaptivePreviewSizes_shouldSkipPresetsWithTheSameSizeLegacy() {
+    stubLegacyProfile(CamcorderProfile.QUALITY_720P, 640, 480);
+    stubLegacyProfile(CamcorderProfile.QUALITY_480P, 640, 480);
+    stubLegacyProfile(CamcorderProfile.QUALITY_QVGA, 320, 240);
+    ResolutionFeature resolutionFeature =
+        new ResolutionFeature(mock(CameraProperties.class), ResolutionPreset.high, cameraName);
+
+    assertEquals(
+        Arrays.asList(new Size(640, 480), new Size(320, 240)),
+        resolutionFeature.getAdaptivePreviewSizes());
+  }
+
+  @Config(maxSdk = 30)
+  @SuppressWarnings("deprecation")
+  @Test
+  public void setPreviewSizeOverride_shouldReplacePreviewSizeUntilResolutionChanges() {
+    stubLegacyProfile(CamcorderProfile.QUALITY_720P, 1280, 720);
+    ResolutionFeature resolutionFeature =
+        new ResolutionFeature(mock(CameraProperties.class), ResolutionPreset.high, cameraName);
+
+    resolutionFeature.setPreviewSizeOverride(new Size(320, 240));
+
+    assertEquals(new Size(320, 240), resolutionFeature.getPreviewSize());
+
+    resolutionFeature.setValue(ResolutionPreset.high);
+
+    assertEquals(new Size(1280, 720), resolutionFeature.getPreviewSize());
+  }
+
+  @SuppressWarnings("deprecation")
+  private void stubLegacyProfile(int quality, int width, int height) {
+    CamcorderProfile profile = mock(CamcorderProfile.class);
+    profile.videoFrameWidth = width;
+    profile.videoFrameHeight = height;
+    mockedStaticProfile.when(() -> CamcorderProfile.get(1, quality)).thenReturn(profile);
+  }
 }
@@ -18,6 +18,7 @@ import android.app.Activity;
 import android.content.Context;
 import android.content.res.Configuration;
 import android.content.res.Resources;
+import android.os.Handler;
 import android.provider.Settings;
 import android.view.Display;
 import android.view.Surface;
@@ -26,6 +27,7 @@ import io.flutter.embedding.engine.systemchannels.PlatformChannel.DeviceOrientat
 import io.flutter.plugins.camera.DartMessenger;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 
 public class DeviceOrientationManagerTest {
@@ -169,6 +171,74 @@ public class DeviceOrientationManagerTest {
         .sendDeviceOrientationChangeEvent(DeviceOrientation.LANDSCAPE_LEFT);
   }
 
+  @Test
+  public void handleUIOrientationChange_shouldOnlySendSettledOrientation() {
+    Handler mockHandler = mock(Handler.class);
+    DeviceOrientationManager orientationManager =
+        DeviceOrientationManager.create(
+            mockActivity, mockDartMessenger, false, 0, mockHandler, 300);
+    setUpUIOrientationMocks(Configuration.ORIENTATION_PORTRAIT, Surface.ROTATION_0);
+    orientationManager.handleUIOrientationChange();
+
+    setUpUIOrientationMocks(Configuration.ORIENTATION_LANDSCAPE, Surface.ROTATION_0);
+    orientationManager.handleUIOrientationChange();
+    setUpUIOrientationMocks(Configuration.ORIENTATION_PORTRAIT, Surface.ROTATION_180);
+    orientationManager.handleUIOrientationChange();
+
+    // Photos use the latest orientation before it has settled.
+    assertEquals(DeviceOrientation.PORTRAIT_DOWN, orientationManager.getLastUIOrientation());
+    verify(mockDartMessenger, never())
+        .sendDeviceOrientationChangeEvent(DeviceOrientation.LANDSCAPE_LEFT);
+    verify(mockDartMessenger, never())
+        .sendDeviceOrientationChangeEvent(DeviceOrientation.PORTRAIT_DOWN);
+
+    ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(mockHandler, times(2)).postDelayed(runnableCaptor.capture(), eq(300L));
+    runnableCaptor.getValue().run();
+
+    verify(mockDartMessenger, times(1))
+        .sendDeviceOrientationChangeEvent(DeviceOrientation.PORTRAIT_UP);
+    verify(mockDartMessenger, times(1))
+        .sendDeviceOrientationChangeEvent(DeviceOrientation.PORTRAIT_DOWN);
+    verify(mockDartMessenger, never())
+        .sendDeviceOrientationChangeEvent(DeviceOrientation.LANDSCAPE_LEFT);
+  }
+
+  @Test
+  public void handleUIOrientationChange_shouldNotSendOrientationThatSettlesBack() {
+    Handler mockHandler = mock(Handler.class);
+    DeviceOrientationManager orientationManager =
+        DeviceOrientationManager.create(
+            mockActivity, mockDartMessenger, false, 0, mockHandler, 300);
+    setUpUIOrientationMocks(Configuration.ORIENTATION_PORTRAIT, Surface.ROTATION_0);
+    orientationManager.handleUIOrientationChange();
+
+    setUpUIOrientationMocks(Configuration.ORIENTATION_LANDSCAPE, Surface.ROTATION_0);
+    orientationManager.handleUIOrientationChange();
+    setUpUIOrientationMocks(Configuration.ORIENTATION_PORTRAIT, Surface.ROTATION_0);
+    orientationManager.handleUIOrientationChange();
+
+    verify(mockHandler, times(1)).postDelayed(any(), eq(300L));
+    verify(mockHandler, times(3)).removeCallbacks(any());
+    verify(mockDartMessenger, times(1)).sendDeviceOrientationChangeEvent(any());
+  }
+
+  @Test
+  public void handleUIOrientationChange_shouldSendEveryChangeWithoutSettleWindow() {
+    Handler mockHandler = mock(Handler.class);
+    DeviceOrientationManager orientationManager =
+        DeviceOrientationManager.create(mockActivity, mockDartMessenger, false, 0, mockHandler, 0);
+    setUpUIOrientationMocks(Configuration.ORIENTATION_PORTRAIT, Surface.ROTATION_0);
+    orientationManager.handleUIOrientationChange();
+
+    setUpUIOrientationMocks(Configuration.ORIENTATION_LANDSCAPE, Surface.ROTATION_0);
+    orientationManager.handleUIOrientationChange();
+
+    verify(mockHandler, never()).postDelayed(any(), eq(0L));
+    verify(mockDartMessenger, times(1))
+        .sendDeviceOrientationChangeEvent(DeviceOrientation.LANDSCAPE_LEFT);
+  }
+
   @Test
   public void handleOrientationChange_shouldSendMessageWhenOrientationIsUpdated() {
     DeviceOrientation previousOrientation = DeviceOrientation.PORTRAIT_UP;
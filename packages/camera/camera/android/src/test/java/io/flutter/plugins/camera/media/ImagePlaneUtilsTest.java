@@ -0,0 +1,65 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.media;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import org.junit.Test;
+
+public class ImagePlaneUtilsTest {
+  // A 4x3 plane with a row stride of 6 (2 bytes of row padding).
+  private static final byte[] PLANE = {
+    0, 1, 2, 3, -1, -1,
+    10, 11, 12, 13, -1, -1,
+    20, 21, 22, 23, -1, -1,
+  };
+
+  @Test
+  public void copyPlane_shouldCopyWholePlaneWithoutPadding() {
+    byte[] destination = new byte[12];
+
+    ImagePlaneUtils.copyPlane(ByteBuffer.wrap(PLANE), 6, 1, 0, 0, 4, 3, 1, destination);
+
+    assertArrayEquals(new byte[] {0, 1, 2, 3, 10, 11, 12, 13, 20, 21, 22, 23}, destination);
+  }
+
+  @Test
+  public void copyPlane_shouldCropRegion() {
+    byte[] destination = new byte[4];
+
+    ImagePlaneUtils.copyPlane(ByteBuffer.wrap(PLANE), 6, 1, 1, 1, 2, 2, 1, destination);
+
+    assertArrayEquals(new byte[] {11, 12, 21, 22}, destination);
+  }
+
+  @Test
+  public void copyPlane_shouldSubsample() {
+    byte[] destination = new byte[4];
+
+    ImagePlaneUtils.copyPlane(ByteBuffer.wrap(PLANE), 6, 1, 0, 0, 2, 2, 2, destination);
+
+    assertArrayEquals(new byte[] {0, 2, 20, 22}, destination);
+  }
+
+  @Test
+  public void copyPlane_shouldHonourPixelStride() {
+    // Interleaved chroma plane with a pixel stride of 2.
+    byte[] interleaved = {1, 9, 2, 9, 3, 9, 4, 9};
+    byte[] destination = new byte[4];
+
+    ImagePlaneUtils.copyPlane(ByteBuffer.wrap(interleaved), 8, 2, 0, 0, 4, 1, 1, destination);
+
+    assertArrayEquals(new byte[] {1, 2, 3, 4}, destination);
+  }
+
+  @Test
+  public void getSubsampledSize_shouldRoundUp() {
+    assertEquals(3, ImagePlaneUtils.getSubsampledSize(5, 2));
+    assertEquals(2, ImagePlaneUtils.getSubsampledSize(4, 2));
+    assertEquals(1, ImagePlaneUtils.getSubsampledSize(0, 2));
+  }
+}
@@ -0,0 +1,212 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.media;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.graphics.ImageFormat;
+import android.media.Image;
+import android.os.Handler;
+import android.os.SystemClock;
+import io.flutter.plugin.common.EventChannel;
+import io.flutter.plugins.camera.types.CaptureResultSnapshot;
+import io.flutter.plugins.camera.types.FrameDropPolicy;
+import io.flutter.plugins.camera.types.ImageStreamOptions;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+
+public class ImageStreamFlowControllerTest {
+  private Handler mockHandler;
+  private Image mockImage;
+  private CaptureResultSnapshot captureResult;
+  private EventChannel.EventSink mockSink;
+  private ImageStreamFlowController.OnFramesDroppedListener mockDroppedListener;
+  private MockedStatic<SystemClock> mockSystemClock;
+
+  @Before
+  public void before() {
+    mockHandler = mock(Handler.class);
+    Image.Plane mockPlane = mock(Image.Plane.class);
+    when(mockPlane.getBuffer()).thenReturn(ByteBuffer.allocate(16));
+    mockImage = mock(Image.class);
+    when(mockImage.getPlanes()).thenReturn(new Image.Plane[] {mockPlane});
+    when(mockImage.getFormat()).thenReturn(ImageFormat.YUV_420_888);
+    captureResult = CaptureResultSnapshot.EMPTY;
+    mockSink = mock(EventChannel.EventSink.class);
+    mockDroppedListener = mock(ImageStreamFlowController.OnFramesDroppedListener.class);
+    mockSystemClock = mockStatic(SystemClock.class);
+    mockSystemClock.when(SystemClock::elapsedRealtime).thenReturn(0L);
+  }
+
+  @After
+  public void after() {
+    mockSystemClock.close();
+  }
+
+  @Test
+  public void onImageAvailable_shouldPostFrameToMainHandler() {
+    ImageStreamFlowController controller = createController(new ImageStreamOptions());
+
+    controller.onImageAvailable(mockImage, captureResult, mockSink);
+
+    ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(mockHandler, times(1)).post(runnableCaptor.capture());
+    runnableCaptor.getValue().run();
+    verify(mockSink, times(1)).success(any());
+  }
+
+  @Test
+  public void onImageAvailable_shouldDropNewestFrameWhenWindowIsFull() {
+    ImageStreamFlowController controller =
+        createController(new ImageStreamOptions(2, FrameDropPolicy.dropNewest));
+    List<Runnable> posted = capturePosts();
+
+    for (int i = 0; i < 3; i++) {
+      controller.onImageAvailable(mockImage, captureResult, mockSink);
+    }
+
+    assertEquals(2, posted.size());
+    assertEquals(2, controller.getPendingFrames());
+    assertEquals(1, controller.getDroppedFrames());
+    verify(mockHandler, never()).removeCallbacks(any(Runnable.class));
+  }
+
+  @Test
+  public void onImageAvailable_shouldDropOldestQueuedFrameWhenWindowIsFull() {
+    ImageStreamFlowController controller =
+        createController(new ImageStreamOptions(2, FrameDropPolicy.dropOldest));
+    List<Runnable> posted = capturePosts();
+
+    for (int i = 0; i < 3; i++) {
+      controller.onImageAvailable(mockImage, captureResult, mockSink);
+    }
+
+    assertEquals(3, posted.size());
+    assertEquals(2, controller.getPendingFrames());
+    assertEquals(1, controller.getDroppedFrames());
+    verify(mockHandler, times(1)).removeCallbacks(posted.get(0));
+
+    // The cancelled frame must not be delivered, even if it was already dequeued.
+    posted.get(0).run();
+    verify(mockSink, never()).success(any());
+  }
+
+  @Test
+  public void onImageAvailable_shouldDropIncomingFrameWhenAllPendingFramesWereDelivered() {
+    ImageStreamFlowController controller =
+        createController(new ImageStreamOptions(1, FrameDropPolicy.dropOldest));
+    List<Runnable> posted = capturePosts();
+
+    controller.onImageAvailable(mockImage, captureResult, mockSink);
+    posted.get(0).run();
+    controller.onImageAvailable(mockImage, captureResult, mockSink);
+
+    assertEquals(1, posted.size());
+    assertEquals(1, controller.getDroppedFrames());
+    verify(mockSink, times(1)).success(any());
+  }
+
+  @Test
+  public void onFrameProcessed_shouldOpenTheWindowForTheNextFrame() {
+    ImageStreamFlowController controller =
+        createController(new ImageStreamOptions(1, FrameDropPolicy.dropNewest));
+    List<Runnable> posted = capturePosts();
+
+    controller.onImageAvailable(mockImage, captureResult, mockSink);
+    posted.get(0).run();
+    controller.onFrameProcessed();
+    controller.onImageAvailable(mockImage, captureResult, mockSink);
+
+    assertEquals(2, posted.size());
+    assertEquals(0, controller.getDroppedFrames());
+  }
+
+  @Test
+  public void onFrameProcessed_shouldIgnoreUnexpectedAcknowledgements() {
+    ImageStreamFlowController controller =
+        createController(new ImageStreamOptions(1, FrameDropPolicy.dropNewest));
+
+    controller.onFrameProcessed();
+
+    assertEquals(0, controller.getPendingFrames());
+  }
+
+  @Test
+  public void onImageAvailable_shouldNotRequireAcknowledgementsWithoutFlowControl() {
+    ImageStreamFlowController controller = createController(new ImageStreamOptions());
+    List<Runnable> posted = capturePosts();
+
+    for (int i = 0; i < 10; i++) {
+      controller.onImageAvailable(mockImage, captureResult, mockSink);
+      posted.get(i).run();
+    }
+
+    assertEquals(10, posted.size());
+    assertEquals(0, controller.getDroppedFrames());
+  }
+
+  @Test
+  public void onImageAvailable_shouldThrottleDroppedFrameReports() {
+    ImageStreamFlowController controller =
+        createController(new ImageStreamOptions(1, FrameDropPolicy.dropNewest));
+
+    for (int i = 0; i < 4; i++) {
+      controller.onImageAvailable(mockImage, captureResult, mockSink);
+    }
+    verify(mockDroppedListener, times(1)).onFramesDropped(1);
+
+    mockSystemClock
+        .when(SystemClock::elapsedRealtime)
+        .thenReturn(ImageStreamFlowController.DROPPED_FRAMES_REPORT_INTERVAL_MS);
+    controller.onImageAvailable(mockImage, captureResult, mockSink);
+
+    verify(mockDroppedListener, times(1)).onFramesDropped(4);
+    verify(mockDroppedListener, times(2)).onFramesDropped(anyLong());
+  }
+
+  @Test
+  public void stop_shouldCancelQueuedFrames() {
+    ImageStreamFlowController controller =
+        createController(new ImageStreamOptions(2, FrameDropPolicy.dropOldest));
+    List<Runnable> posted = capturePosts();
+
+    controller.onImageAvailable(mockImage, captureResult, mockSink);
+    controller.onImageAvailable(mockImage, captureResult, mockSink);
+    controller.stop();
+
+    verify(mockHandler, times(1)).removeCallbacks(posted.get(0));
+    verify(mockHandler, times(1)).removeCallbacks(posted.get(1));
+    assertEquals(0, controller.getPendingFrames());
+  }
+
+  private ImageStreamFlowController createController(ImageStreamOptions options) {
+    return new ImageStreamFlowController(mockHandler, options, mockDroppedListener);
+  }
+
+  private List<Runnable> capturePosts() {
+    List<Runnable> posted = new ArrayList<>();
+    when(mockHandler.post(any(Runnable.class)))
+        .thenAnswer(
+            invocation -> {
+              posted.add(invocation.getArgument(0));
+              return true;
+            });
+    return posted;
+  }
+}
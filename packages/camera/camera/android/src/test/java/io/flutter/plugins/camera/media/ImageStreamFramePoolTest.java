@@ -0,0 +1,353 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.media;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import android.graphics.ImageFormat;
+import android.graphics.PixelFormat;
+import android.media.Image;
+import io.flutter.plugin.common.EventChannel;
+import io.flutter.plugins.camera.types.CaptureResultSnapshot;
+import io.flutter.plugins.camera.types.ImageStreamOptions;
+import io.flutter.plugins.camera.types.ImageStreamOutputFormat;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ImageStreamFramePoolTest {
+  private static final int WIDTH = 640;
+  private static final int HEIGHT = 480;
+
+  private Image mockImage;
+  private ByteBuffer yBuffer;
+  private ByteBuffer uBuffer;
+  private ByteBuffer vBuffer;
+  private CaptureResultSnapshot captureResult;
+  private EventChannel.EventSink mockSink;
+
+  @Before
+  public void before() {
+    yBuffer = ByteBuffer.allocateDirect(WIDTH * HEIGHT);
+    uBuffer = ByteBuffer.allocateDirect(WIDTH * HEIGHT / 2 - 1);
+    vBuffer = ByteBuffer.allocateDirect(WIDTH * HEIGHT / 2 - 1);
+
+    Image.Plane yPlane = createPlane(yBuffer, WIDTH, 1);
+    Image.Plane uPlane = createPlane(uBuffer, WIDTH, 2);
+    Image.Plane vPlane = createPlane(vBuffer, WIDTH, 2);
+
+    mockImage = mock(Image.class, withSettings().stubOnly());
+    when(mockImage.getPlanes()).thenReturn(new Image.Plane[] {yPlane, uPlane, vPlane});
+    when(mockImage.getWidth()).thenReturn(WIDTH);
+    when(mockImage.getHeight()).thenReturn(HEIGHT);
+    when(mockImage.getFormat()).thenReturn(ImageFormat.YUV_420_888);
+
+    captureResult = new CaptureResultSnapshot(null, null, 100, 1, 0);
+    mockSink = mock(EventChannel.EventSink.class);
+  }
+
+  @Test
+  public void acquire_shouldCopyPlanesAndMetadata() {
+    yBuffer.put(0, (byte) 0x42);
+    ImageStreamFramePool pool = new ImageStreamFramePool();
+
+    ImageStreamFramePool.Frame frame = pool.acquire(mockImage, captureResult, mockSink);
+
+    assertNotNull(frame);
+    Map<String, Object> imageBuffer = frame.getImageBuffer();
+    assertEquals(WIDTH, imageBuffer.get("width"));
+    assertEquals(HEIGHT, imageBuffer.get("height"));
+    assertEquals(ImageFormat.YUV_420_888, imageBuffer.get("format"));
+    assertEquals(100.0, imageBuffer.get("sensorSensitivity"));
+
+    List<Map<String, Object>> planes = getPlanes(frame);
+    assertEquals(3, planes.size());
+    byte[] yBytes = (byte[]) planes.get(0).get("bytes");
+    assertEquals(WIDTH * HEIGHT, yBytes.length);
+    assertEquals(0x42, yBytes[0]);
+    assertEquals(WIDTH, planes.get(1).get("bytesPerRow"));
+    assertEquals(2, planes.get(1).get("bytesPerPixel"));
+  }
+
+  @Test
+  public void run_shouldDeliverFrameAndReleaseIt() {
+    ImageStreamFramePool pool = new ImageStreamFramePool(1);
+
+    ImageStreamFramePool.Frame frame = pool.acquire(mockImage, captureResult, mockSink);
+    assertTrue(frame.isInUse());
+
+    frame.run();
+
+    verify(mockSink, times(1)).success(frame.getImageBuffer());
+    assertFalse(frame.isInUse());
+  }
+
+  @Test
+  public void cancel_shouldReleaseFrameWithoutDeliveringIt() {
+    ImageStreamFramePool pool = new ImageStreamFramePool(1);
+    ImageStreamFramePool.Frame frame = pool.acquire(mockImage, captureResult, mockSink);
+
+    assertTrue(frame.cancel());
+    frame.run();
+
+    assertFalse(frame.isInUse());
+    assertFalse(frame.cancel());
+    verify(mockSink, never()).success(any());
+  }
+
+  @Test
+  public void run_shouldNotifyOnFrameDeliveredListener() {
+    ImageStreamFramePool.OnFrameDeliveredListener mockListener =
+        mock(ImageStreamFramePool.OnFrameDeliveredListener.class);
+    ImageStreamFramePool pool = new ImageStreamFramePool(1, mockListener);
+    ImageStreamFramePool.Frame frame = pool.acquire(mockImage, captureResult, mockSink);
+
+    frame.run();
+
+    verify(mockListener, times(1)).onFrameDelivered(frame);
+  }
+
+  @Test
+  public void acquire_shouldReturnNullWhenAllFramesAreAwaitingDelivery() {
+    ImageStreamFramePool pool = new ImageStreamFramePool(2);
+
+    assertNotNull(pool.acquire(mockImage, captureResult, mockSink));
+    assertNotNull(pool.acquire(mockImage, captureResult, mockSink));
+    assertNull(pool.acquire(mockImage, captureResult, mockSink));
+  }
+
+  @Test
+  public void acquire_shouldReuseFrameContainersAndPlaneBuffers() {
+    ImageStreamFramePool pool = new ImageStreamFramePool(1);
+
+    ImageStreamFramePool.Frame first = pool.acquire(mockImage, captureResult, mockSink);
+    List<Map<String, Object>> firstPlanes = getPlanes(first);
+    Object[] firstBytes = new Object[firstPlanes.size()];
+    for (int i = 0; i < firstPlanes.size(); i++) {
+      firstBytes[i] = firstPlanes.get(i).get("bytes");
+    }
+    first.run();
+    rewindBuffers();
+
+    ImageStreamFramePool.Frame second = pool.acquire(mockImage, captureResult, mockSink);
+    List<Map<String, Object>> secondPlanes = getPlanes(second);
+
+    assertSame(first, second);
+    assertSame(first.getImageBuffer(), second.getImageBuffer());
+    for (int i = 0; i < secondPlanes.size(); i++) {
+      assertSame(firstPlanes.get(i), secondPlanes.get(i));
+      assertSame(firstBytes[i], secondPlanes.get(i).get("bytes"));
+    }
+  }
+
+  @Test
+  public void acquire_shouldRotateThroughTheRing() {
+    ImageStreamFramePool pool = new ImageStreamFramePool(3);
+    ImageStreamFramePool.Frame[] frames = new ImageStreamFramePool.Frame[3];
+
+    for (int i = 0; i < 3; i++) {
+      frames[i] = pool.acquire(mockImage, captureResult, mockSink);
+      frames[i].run();
+      rewindBuffers();
+    }
+
+    assertSame(frames[0], pool.acquire(mockImage, captureResult, mockSink));
+  }
+
+  @Test
+  public void acquire_shouldNotAllocatePlaneBuffersInSteadyState() {
+    Assume.assumeTrue(
+        ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean threadMXBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    Assume.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+    threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+    EventChannel.EventSink noopSink = new NoopEventSink();
+    ImageStreamFramePool pool = new ImageStreamFramePool();
+    int frameSize = yBuffer.capacity() + uBuffer.capacity() + vBuffer.capacity();
+
+    // Warm up so every frame in the ring owns its buffers.
+    for (int i = 0; i < 50; i++) {
+      streamFrame(pool, noopSink);
+    }
+
+    final int frameCount = 200;
+    long threadId = Thread.currentThread().getId();
+    long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < frameCount; i++) {
+      streamFrame(pool, noopSink);
+    }
+    long allocatedPerFrame =
+        (threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / frameCount;
+
+    // The mocked image accounts for a small amount of garbage, but the plane data itself must no
+    // longer be reallocated for every frame.
+    assertTrue(
+        "Allocated " + allocatedPerFrame + " bytes per frame of " + frameSize + " bytes",
+        allocatedPerFrame < frameSize / 10);
+  }
+
+  @Test
+  public void acquire_shouldReallocatePlaneBufferWhenSizeChanges() {
+    ImageStreamFramePool pool = new ImageStreamFramePool(1);
+    ImageStreamFramePool.Frame frame = pool.acquire(mockImage, captureResult, mockSink);
+    byte[] firstBytes = (byte[]) getPlanes(frame).get(0).get("bytes");
+    frame.run();
+
+    ByteBuffer smallBuffer = ByteBuffer.wrap(new byte[] {0x01, 0x02});
+    Image.Plane smallPlane = createPlane(smallBuffer, 2, 1);
+    when(mockImage.getPlanes()).thenReturn(new Image.Plane[] {smallPlane});
+    frame = pool.acquire(mockImage, captureResult, mockSink);
+
+    List<Map<String, Object>> planes = getPlanes(frame);
+    assertEquals(1, planes.size());
+    assertArrayEquals(new byte[] {0x01, 0x02}, (byte[]) planes.get(0).get("bytes"));
+    assertFalse(firstBytes == planes.get(0).get("bytes"));
+  }
+
+  @Test
+  public void acquire_shouldSendCroppedSubsampledLuminanceOnly() {
+    for (int i = 0; i < yBuffer.capacity(); i++) {
+      yBuffer.put(i, (byte) (i % WIDTH));
+    }
+    ImageStreamOptions options =
+        new ImageStreamOptions.Builder()
+            .setLuminanceOnly(true)
+            .setRegionOfInterest(100, 40, 320, 240)
+            .setSubsampleFactor(4)
+            .build();
+    ImageStreamFramePool pool = new ImageStreamFramePool(1, options, null);
+
+    ImageStreamFramePool.Frame frame = pool.acquire(mockImage, captureResult, mockSink);
+
+    Map<String, Object> imageBuffer = frame.getImageBuffer();
+    assertEquals(80, imageBuffer.get("width"));
+    assertEquals(60, imageBuffer.get("height"));
+    List<Map<String, Object>> planes = getPlanes(frame);
+    assertEquals(1, planes.size());
+    assertEquals(80, planes.get(0).get("bytesPerRow"));
+    assertEquals(1, planes.get(0).get("bytesPerPixel"));
+    byte[] bytes = (byte[]) planes.get(0).get("bytes");
+    assertEquals(80 * 60, bytes.length);
+    assertEquals((byte) 100, bytes[0]);
+    assertEquals((byte) 104, bytes[1]);
+  }
+
+  @Test
+  public void acquire_shouldCropChromaPlanesToHalfTheRegion() {
+    ImageStreamOptions options =
+        new ImageStreamOptions.Builder().setRegionOfInterest(0, 0, 64, 32).build();
+    ImageStreamFramePool pool = new ImageStreamFramePool(1, options, null);
+
+    ImageStreamFramePool.Frame frame = pool.acquire(mockImage, captureResult, mockSink);
+
+    List<Map<String, Object>> planes = getPlanes(frame);
+    assertEquals(3, planes.size());
+    assertEquals(64 * 32, ((byte[]) planes.get(0).get("bytes")).length);
+    assertEquals(32 * 16, ((byte[]) planes.get(1).get("bytes")).length);
+    assertEquals(32, planes.get(1).get("bytesPerRow"));
+    assertEquals(1, planes.get(1).get("bytesPerPixel"));
+  }
+
+  @Test
+  public void acquire_shouldConvertRegionToNv21() {
+    yBuffer.put(WIDTH + 2, (byte) 0x42);
+    uBuffer.put(2, (byte) 0x10);
+    vBuffer.put(2, (byte) 0x20);
+    ImageStreamOptions options =
+        new ImageStreamOptions.Builder()
+            .setOutputFormat(ImageStreamOutputFormat.nv21)
+            .setLuminanceOnly(true)
+            .setRegionOfInterest(2, 0, 64, 32)
+            .build();
+    ImageStreamFramePool pool = new ImageStreamFramePool(1, options, null);
+
+    ImageStreamFramePool.Frame frame = pool.acquire(mockImage, captureResult, mockSink);
+
+    Map<String, Object> imageBuffer = frame.getImageBuffer();
+    assertEquals(ImageFormat.NV21, imageBuffer.get("format"));
+    assertEquals(64, imageBuffer.get("width"));
+    assertEquals(32, imageBuffer.get("height"));
+    List<Map<String, Object>> planes = getPlanes(frame);
+    assertEquals(1, planes.size());
+    assertEquals(64, planes.get(0).get("bytesPerRow"));
+    byte[] bytes = (byte[]) planes.get(0).get("bytes");
+    assertEquals(64 * 32 * 3 / 2, bytes.length);
+    assertEquals((byte) 0x42, bytes[64]);
+    assertEquals((byte) 0x20, bytes[64 * 32]);
+    assertEquals((byte) 0x10, bytes[64 * 32 + 1]);
+  }
+
+  @Test
+  public void acquire_shouldConvertToRgba() {
+    ImageStreamOptions options =
+        new ImageStreamOptions.Builder().setOutputFormat(ImageStreamOutputFormat.rgba8888).build();
+    ImageStreamFramePool pool = new ImageStreamFramePool(1, options, null);
+
+    ImageStreamFramePool.Frame frame = pool.acquire(mockImage, captureResult, mockSink);
+
+    Map<String, Object> imageBuffer = frame.getImageBuffer();
+    assertEquals(PixelFormat.RGBA_8888, imageBuffer.get("format"));
+    List<Map<String, Object>> planes = getPlanes(frame);
+    assertEquals(1, planes.size());
+    assertEquals(WIDTH * 4, planes.get(0).get("bytesPerRow"));
+    assertEquals(4, planes.get(0).get("bytesPerPixel"));
+    assertEquals(WIDTH * HEIGHT * 4, ((byte[]) planes.get(0).get("bytes")).length);
+  }
+
+  private void streamFrame(ImageStreamFramePool pool, EventChannel.EventSink sink) {
+    rewindBuffers();
+    ImageStreamFramePool.Frame frame = pool.acquire(mockImage, captureResult, sink);
+    frame.run();
+  }
+
+  private void rewindBuffers() {
+    yBuffer.rewind();
+    uBuffer.rewind();
+    vBuffer.rewind();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Map<String, Object>> getPlanes(ImageStreamFramePool.Frame frame) {
+    return (List<Map<String, Object>>) frame.getImageBuffer().get("planes");
+  }
+
+  private static Image.Plane createPlane(ByteBuffer buffer, int rowStride, int pixelStride) {
+    Image.Plane plane = mock(Image.Plane.class, withSettings().stubOnly());
+    when(plane.getBuffer()).thenReturn(buffer);
+    when(plane.getRowStride()).thenReturn(rowStride);
+    when(plane.getPixelStride()).thenReturn(pixelStride);
+    return plane;
+  }
+
+  private static class NoopEventSink implements EventChannel.EventSink {
+    @Override
+    public void success(Object event) {}
+
+    @Override
+    public void error(String errorCode, String errorMessage, Object errorDetails) {}
+
+    @Override
+    public void endOfStream() {}
+  }
+}
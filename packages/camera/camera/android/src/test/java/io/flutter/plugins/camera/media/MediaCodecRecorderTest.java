@@ -0,0 +1,257 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.media;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.media.MediaCodec;
+import android.media.MediaCodecInfo;
+import android.media.MediaFormat;
+import android.media.MediaMuxer;
+import android.util.Range;
+import io.flutter.plugins.camera.types.VideoEncodingOptions;
+import io.flutter.plugins.camera.utils.TestUtils;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.mockito.ArgumentCaptor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+public class MediaCodecRecorderTest {
+  private MediaCodecRecorder.Factory mockFactory;
+  private MediaCodecInfo.EncoderCapabilities mockCapabilities;
+
+  @Before
+  public void before() {
+    mockFactory = mock(MediaCodecRecorder.Factory.class);
+    mockCapabilities = mock(MediaCodecInfo.EncoderCapabilities.class);
+    when(mockCapabilities.getQualityRange()).thenReturn(new Range<>(0, 50));
+  }
+
+  private MediaCodecRecorder createRecorder(VideoEncodingOptions options) {
+    return new MediaCodecRecorder(options, "mock_video_file_path", mockFactory)
+        .setVideoSize(1920, 1080)
+        .setVideoFrameRate(30)
+        .setDefaultVideoBitrate(20_000_000);
+  }
+
+  @Test
+  public void createVideoFormat_shouldUseProfileBitrateByDefault() {
+    MediaCodecRecorder recorder = createRecorder(new VideoEncodingOptions.Builder().build());
+
+    MediaFormat format = recorder.createVideoFormat(MediaFormat.MIMETYPE_VIDEO_AVC, null);
+
+    assertEquals(1920, format.getInteger(MediaFormat.KEY_WIDTH));
+    assertEquals(1080, format.getInteger(MediaFormat.KEY_HEIGHT));
+    assertEquals(20_000_000, format.getInteger(MediaFormat.KEY_BIT_RATE));
+    assertEquals(30, format.getInteger(MediaFormat.KEY_FRAME_RATE));
+    assertEquals(
+        MediaCodecInfo.EncoderCapabilities.BITRATE_MODE_VBR,
+        format.getInteger(MediaFormat.KEY_BITRATE_MODE));
+    assertEquals(1f, format.getFloat(MediaFormat.KEY_I_FRAME_INTERVAL), 0);
+  }
+
+  @Test
+  public void createVideoFormat_shouldApplyEncodingOptions() {
+    MediaCodecRecorder recorder =
+        createRecorder(
+            new VideoEncodingOptions.Builder()
+                .setBitrate(4_000_000)
+                .setKeyFrameIntervalMs(2500)
+                .build());
+
+    MediaFormat format = recorder.createVideoFormat(MediaFormat.MIMETYPE_VIDEO_AVC, null);
+
+    assertEquals(4_000_000, format.getInteger(MediaFormat.KEY_BIT_RATE));
+    assertEquals(2.5f, format.getFloat(MediaFormat.KEY_I_FRAME_INTERVAL), 0);
+  }
+
+  @Config(minSdk = 28)
+  @Test
+  public void createVideoFormat_shouldUseConstantQualityWhenSupported() {
+    when(mockCapabilities.isBitrateModeSupported(
+            MediaCodecInfo.EncoderCapabilities.BITRATE_MODE_CQ))
+        .thenReturn(true);
+    MediaCodecRecorder recorder =
+        createRecorder(new VideoEncodingOptions.Builder().setConstantQuality(80).build());
+
+    MediaFormat format =
+        recorder.createVideoFormat(MediaFormat.MIMETYPE_VIDEO_AVC, mockCapabilities);
+
+    assertEquals(
+        MediaCodecInfo.EncoderCapabilities.BITRATE_MODE_CQ,
+        format.getInteger(MediaFormat.KEY_BITRATE_MODE));
+    assertEquals(40, format.getInteger(MediaFormat.KEY_QUALITY));
+  }
+
+  @Test
+  public void createVideoFormat_shouldFallBackToVariableBitrateWithoutConstantQuality() {
+    when(mockCapabilities.isBitrateModeSupported(
+            MediaCodecInfo.EncoderCapabilities.BITRATE_MODE_CQ))
+        .thenReturn(false);
+    MediaCodecRecorder recorder =
+        createRecorder(new VideoEncodingOptions.Builder().setConstantQuality(80).build());
+
+    MediaFormat format =
+        recorder.createVideoFormat(MediaFormat.MIMETYPE_VIDEO_AVC, mockCapabilities);
+
+    assertEquals(
+        MediaCodecInfo.EncoderCapabilities.BITRATE_MODE_VBR,
+        format.getInteger(MediaFormat.KEY_BITRATE_MODE));
+  }
+
+  @Test
+  public void createVideoFormat_shouldSetOperatingRateForHighSpeedRecordings() {
+    MediaCodecRecorder recorder =
+        createRecorder(new VideoEncodingOptions.Builder().setHighSpeedFrameRate(240).build())
+            .setVideoFrameRate(240);
+
+    MediaFormat format = recorder.createVideoFormat(MediaFormat.MIMETYPE_VIDEO_AVC, null);
+
+    assertEquals(240, format.getInteger(MediaFormat.KEY_FRAME_RATE));
+    assertEquals(240, format.getInteger(MediaFormat.KEY_OPERATING_RATE));
+  }
+
+  @Test
+  public void getVideoMimeType_shouldUseHevcWhenAvailable() {
+    when(mockFactory.isEncoderAvailable(MediaFormat.MIMETYPE_VIDEO_HEVC, 1920, 1080))
+        .thenReturn(true);
+    MediaCodecRecorder recorder =
+        createRecorder(new VideoEncodingOptions.Builder().setPreferHevc(true).build());
+
+    assertEquals(MediaFormat.MIMETYPE_VIDEO_HEVC, recorder.getVideoMimeType());
+  }
+
+  @Test
+  public void getVideoMimeType_shouldFallBackToAvcWithoutHevcEncoder() {
+    when(mockFactory.isEncoderAvailable(anyString(), anyInt(), anyInt())).thenReturn(false);
+    MediaCodecRecorder recorder =
+        createRecorder(new VideoEncodingOptions.Builder().setPreferHevc(true).build());
+
+    assertEquals(MediaFormat.MIMETYPE_VIDEO_AVC, recorder.getVideoMimeType());
+  }
+
+  @Test
+  public void track_shouldStartAtZeroWithKeyFrame() {
+    MediaCodecRecorder.Track track = new MediaCodecRecorder.Track(33_333);
+    track.waitForKeyFrame();
+
+    assertEquals(-1, track.toOutputTime(5_000_000, false));
+    assertEquals(0, track.toOutputTime(5_033_333, true));
+    assertEquals(33_333, track.toOutputTime(5_066_666, false));
+  }
+
+  @Test
+  public void track_shouldLeaveOutPausedTime() {
+    MediaCodecRecorder.Track track = new MediaCodecRecorder.Track(33_333);
+    track.waitForKeyFrame();
+    track.toOutputTime(1_000_000, true);
+    track.toOutputTime(1_033_333, false);
+
+    // Paused for ten seconds.
+    track.waitForKeyFrame();
+
+    assertEquals(-1, track.toOutputTime(11_000_000, false));
+    assertEquals(66_666, track.toOutputTime(11_033_333, true));
+    assertEquals(99_999, track.toOutputTime(11_066_666, false));
+  }
+
+  @Test
+  public void track_shouldDropSamplesThatDoNotIncreaseTimestamps() {
+    MediaCodecRecorder.Track track = new MediaCodecRecorder.Track(33_333);
+    track.markResumed();
+    track.toOutputTime(1_000_000, true);
+
+    assertEquals(-1, track.toOutputTime(1_000_000, false));
+  }
+
+  private MediaCodecRecorder.Track prepareVideoTrack(
+      MediaCodecRecorder recorder, MediaMuxer mockMuxer, boolean muxerStarted) {
+    MediaCodecRecorder.Track track = new MediaCodecRecorder.Track(33_333);
+    track.index = 0;
+    track.markResumed();
+    TestUtils.setPrivateField(recorder, "videoTrack", track);
+    TestUtils.setPrivateField(recorder, "muxer", mockMuxer);
+    TestUtils.setPrivateField(recorder, "muxerStarted", muxerStarted);
+    return track;
+  }
+
+  private static MediaCodec.BufferInfo createInfo(int offset, long presentationTimeUs, int flags) {
+    MediaCodec.BufferInfo info = new MediaCodec.BufferInfo();
+    info.set(offset, 10, presentationTimeUs, flags);
+    return info;
+  }
+
+  @Test
+  public void writeSample_shouldKeepOffsetOfEncodedSample() {
+    MediaMuxer mockMuxer = mock(MediaMuxer.class);
+    MediaCodecRecorder recorder = createRecorder(new VideoEncodingOptions.Builder().build());
+    MediaCodecRecorder.Track track = prepareVideoTrack(recorder, mockMuxer, true);
+
+    recorder.writeSample(
+        track,
+        ByteBuffer.allocate(64),
+        createInfo(16, 1_000_000, MediaCodec.BUFFER_FLAG_KEY_FRAME));
+
+    ArgumentCaptor<MediaCodec.BufferInfo> infoCaptor =
+        ArgumentCaptor.forClass(MediaCodec.BufferInfo.class);
+    verify(mockMuxer).writeSampleData(eq(0), any(ByteBuffer.class), infoCaptor.capture());
+    assertEquals(16, infoCaptor.getValue().offset);
+    assertEquals(10, infoCaptor.getValue().size);
+  }
+
+  @Test
+  public void writeSample_shouldLimitPendingSamples() {
+    MediaMuxer mockMuxer = mock(MediaMuxer.class);
+    MediaCodecRecorder recorder = createRecorder(new VideoEncodingOptions.Builder().build());
+    MediaCodecRecorder.Track track = prepareVideoTrack(recorder, mockMuxer, false);
+
+    for (int i = 0; i <= MediaCodecRecorder.MAX_PENDING_SAMPLES; i++) {
+      recorder.writeSample(
+          track,
+          ByteBuffer.allocate(64),
+          createInfo(16, 1_000_000 + i * 33_333L, MediaCodec.BUFFER_FLAG_KEY_FRAME));
+    }
+
+    List<?> pendingSamples = (List<?>) TestUtils.getPrivateField(recorder, "pendingSamples");
+    assertEquals(MediaCodecRecorder.MAX_PENDING_SAMPLES, pendingSamples.size());
+    verify(mockMuxer, never()).writeSampleData(anyInt(), any(), any());
+  }
+
+  @Test
+  public void finish_shouldReportRecordingWithoutFrames() {
+    MediaMuxer mockMuxer = mock(MediaMuxer.class);
+    MediaCodecRecorder recorder = createRecorder(new VideoEncodingOptions.Builder().build());
+    prepareVideoTrack(recorder, mockMuxer, false);
+
+    assertEquals("No video frames were recorded.", recorder.finish());
+    verify(mockMuxer, never()).stop();
+    verify(mockMuxer).release();
+  }
+
+  @Test
+  public void finish_shouldStopMuxerAfterEncodersFinished() {
+    MediaMuxer mockMuxer = mock(MediaMuxer.class);
+    MediaCodecRecorder recorder = createRecorder(new VideoEncodingOptions.Builder().build());
+    prepareVideoTrack(recorder, mockMuxer, true);
+
+    assertNull(recorder.finish());
+    verify(mockMuxer).stop();
+    verify(mockMuxer).release();
+  }
+}
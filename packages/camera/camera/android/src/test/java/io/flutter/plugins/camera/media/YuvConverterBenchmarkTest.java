@@ -0,0 +1,74 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.media;
+
+import io.flutter.plugins.camera.utils.Benchmark;
+import java.nio.ByteBuffer;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares the cost of converting a 720p frame with the plain plane copy of the image stream.
+ *
+ * <p>Skipped unless benchmarks are enabled, see {@link Benchmark}.
+ */
+public class YuvConverterBenchmarkTest {
+  private static final int WIDTH = 1280;
+  private static final int HEIGHT = 720;
+  private static final int WARMUP_ITERATIONS = 50;
+  private static final int MEASURED_ITERATIONS = 200;
+
+  private ByteBuffer yBuffer;
+  private ByteBuffer uBuffer;
+  private ByteBuffer vBuffer;
+  private YuvConverter.YuvPlanes planes;
+
+  @Before
+  public void before() {
+    Benchmark.assumeEnabled();
+
+    yBuffer = ByteBuffer.allocateDirect(WIDTH * HEIGHT);
+    uBuffer = ByteBuffer.allocateDirect(WIDTH * HEIGHT / 2 - 1);
+    vBuffer = ByteBuffer.allocateDirect(WIDTH * HEIGHT / 2 - 1);
+    for (int i = 0; i < yBuffer.capacity(); i++) {
+      yBuffer.put(i, (byte) i);
+    }
+    for (int i = 0; i < uBuffer.capacity(); i++) {
+      uBuffer.put(i, (byte) (i * 3));
+      vBuffer.put(i, (byte) (i * 7));
+    }
+    planes = new YuvConverter.YuvPlanes().set(yBuffer, WIDTH, 1, uBuffer, vBuffer, WIDTH, 2);
+  }
+
+  @Test
+  public void benchmarkConversions() {
+    byte[] luma = new byte[WIDTH * HEIGHT];
+    byte[] u = new byte[WIDTH * HEIGHT / 4];
+    byte[] v = new byte[WIDTH * HEIGHT / 4];
+    byte[] nv21 = new byte[YuvConverter.getNv21Size(WIDTH, HEIGHT)];
+    byte[] rgba = new byte[YuvConverter.getRgbaSize(WIDTH, HEIGHT)];
+    YuvConverter converter = new YuvConverter();
+
+    Benchmark.run(
+        "yuv420 copy 720p",
+        WARMUP_ITERATIONS,
+        MEASURED_ITERATIONS,
+        () -> {
+          ImagePlaneUtils.copyPlane(yBuffer, WIDTH, 1, 0, 0, WIDTH, HEIGHT, 1, luma);
+          ImagePlaneUtils.copyPlane(uBuffer, WIDTH, 2, 0, 0, WIDTH / 2, HEIGHT / 2, 1, u);
+          ImagePlaneUtils.copyPlane(vBuffer, WIDTH, 2, 0, 0, WIDTH / 2, HEIGHT / 2, 1, v);
+        });
+    Benchmark.run(
+        "nv21 720p",
+        WARMUP_ITERATIONS,
+        MEASURED_ITERATIONS,
+        () -> converter.toNv21(planes, 0, 0, WIDTH, HEIGHT, nv21));
+    Benchmark.run(
+        "rgba8888 720p",
+        WARMUP_ITERATIONS,
+        MEASURED_ITERATIONS,
+        () -> converter.toRgba(planes, 0, 0, WIDTH, HEIGHT, rgba));
+  }
+}
@@ -0,0 +1,126 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.media;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import org.junit.Test;
+
+public class YuvConverterTest {
+  // A 4x2 luminance plane with a row stride of 6 (2 bytes of row padding).
+  private static final byte[] Y_PLANE = {
+    0, 1, 2, 3, -1, -1,
+    10, 11, 12, 13, -1, -1,
+  };
+  // 2x1 chroma planes with a pixel stride of 2, as produced by semi-planar devices.
+  private static final byte[] U_PLANE = {50, -1, 51};
+  private static final byte[] V_PLANE = {60, -1, 61};
+
+  private final YuvConverter converter = new YuvConverter();
+
+  @Test
+  public void toNv21_shouldInterleaveChromaWithoutPadding() {
+    byte[] destination = new byte[YuvConverter.getNv21Size(4, 2)];
+
+    converter.toNv21(createPlanes(), 0, 0, 4, 2, destination);
+
+    assertArrayEquals(new byte[] {0, 1, 2, 3, 10, 11, 12, 13, 60, 50, 61, 51}, destination);
+  }
+
+  @Test
+  public void toNv21_shouldCropRegion() {
+    byte[] destination = new byte[YuvConverter.getNv21Size(2, 2)];
+
+    converter.toNv21(createPlanes(), 2, 0, 2, 2, destination);
+
+    assertArrayEquals(new byte[] {2, 3, 12, 13, 61, 51}, destination);
+  }
+
+  @Test
+  public void toRgba_shouldKeepGreyPixelsGrey() {
+    byte[] destination = new byte[YuvConverter.getRgbaSize(2, 2)];
+
+    converter.toRgba(createUniformPlanes(128, 128, 128), 0, 0, 2, 2, destination);
+
+    for (int i = 0; i < destination.length; i += 4) {
+      assertEquals((byte) 128, destination[i]);
+      assertEquals((byte) 128, destination[i + 1]);
+      assertEquals((byte) 128, destination[i + 2]);
+      assertEquals((byte) 0xFF, destination[i + 3]);
+    }
+  }
+
+  @Test
+  public void toRgba_shouldConvertAndClampColours() {
+    byte[] destination = new byte[YuvConverter.getRgbaSize(2, 2)];
+
+    converter.toRgba(createUniformPlanes(100, 128, 255), 0, 0, 2, 2, destination);
+
+    assertArrayEquals(new byte[] {(byte) 255, 10, 100, (byte) 0xFF}, pixel(destination, 3));
+
+    converter.toRgba(createUniformPlanes(100, 0, 128), 0, 0, 2, 2, destination);
+
+    assertArrayEquals(new byte[] {100, (byte) 144, 0, (byte) 0xFF}, pixel(destination, 0));
+  }
+
+  @Test
+  public void toRgba_shouldUseTheChromaSamplesOfEachPixel() {
+    byte[] destination = new byte[YuvConverter.getRgbaSize(4, 2)];
+
+    converter.toRgba(createPlanes(), 0, 0, 4, 2, destination);
+
+    // The first two columns share U 50 and V 60, the last two U 51 and V 61.
+    assertArrayEquals(pixel(destination, 0), rgba(0, 50, 60));
+    assertArrayEquals(pixel(destination, 5), rgba(11, 50, 60));
+    assertArrayEquals(pixel(destination, 7), rgba(13, 51, 61));
+  }
+
+  private static YuvConverter.YuvPlanes createPlanes() {
+    return new YuvConverter.YuvPlanes()
+        .set(
+            ByteBuffer.wrap(Y_PLANE),
+            6,
+            1,
+            ByteBuffer.wrap(U_PLANE),
+            ByteBuffer.wrap(V_PLANE),
+            4,
+            2);
+  }
+
+  private static YuvConverter.YuvPlanes createUniformPlanes(int y, int u, int v) {
+    return new YuvConverter.YuvPlanes()
+        .set(
+            ByteBuffer.wrap(new byte[] {(byte) y, (byte) y, (byte) y, (byte) y}),
+            2,
+            1,
+            ByteBuffer.wrap(new byte[] {(byte) u}),
+            ByteBuffer.wrap(new byte[] {(byte) v}),
+            1,
+            1);
+  }
+
+  private static byte[] pixel(byte[] rgba, int index) {
+    byte[] pixel = new byte[4];
+    System.arraycopy(rgba, index * 4, pixel, 0, 4);
+    return pixel;
+  }
+
+  private static byte[] rgba(int y, int u, int v) {
+    u -= 128;
+    v -= 128;
+    return new byte[] {
+      clamp(y + ((1436 * v) >> 10)),
+      clamp(y - ((352 * u + 731 * v) >> 10)),
+      clamp(y + ((1815 * u) >> 10)),
+      (byte) 0xFF
+    };
+  }
+
+  private static byte clamp(int value) {
+    return (byte) Math.max(0, Math.min(255, value));
+  }
+}
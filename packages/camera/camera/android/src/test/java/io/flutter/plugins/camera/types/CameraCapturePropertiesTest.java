@@ -0,0 +1,74 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class CameraCapturePropertiesTest {
+  @Test
+  public void getSnapshot_shouldReturnEmptySnapshotBeforePublish() {
+    CameraCaptureProperties captureProps = new CameraCaptureProperties();
+
+    assertSame(CaptureResultSnapshot.EMPTY, captureProps.getSnapshot());
+    assertNull(captureProps.getLastSensorSensitivity());
+  }
+
+  @Test
+  public void getSnapshot_shouldReturnLatestPublishedSnapshot() {
+    CameraCaptureProperties captureProps = new CameraCaptureProperties();
+    CaptureResultSnapshot first = new CaptureResultSnapshot(1.8f, 100L, 50, 1, 1000);
+    CaptureResultSnapshot second = new CaptureResultSnapshot(1.8f, 200L, 100, 2, 2000);
+
+    captureProps.publish(first);
+    captureProps.publish(second);
+
+    assertSame(second, captureProps.getSnapshot());
+    assertEquals(200L, (long) captureProps.getLastSensorExposureTime());
+    assertEquals(100, (int) captureProps.getLastSensorSensitivity());
+  }
+
+  @Test
+  public void getSnapshot_shouldMatchFrameBySensorTimestamp() {
+    CameraCaptureProperties captureProps = new CameraCaptureProperties();
+    CaptureResultSnapshot first = new CaptureResultSnapshot(null, null, 50, 1, 1000);
+    CaptureResultSnapshot second = new CaptureResultSnapshot(null, null, 100, 2, 2000);
+
+    captureProps.publish(first);
+    captureProps.publish(second);
+
+    assertSame(first, captureProps.getSnapshot(1000));
+    assertSame(second, captureProps.getSnapshot(2000));
+  }
+
+  @Test
+  public void getSnapshot_shouldFallBackToLatestWhenFrameIsUnknown() {
+    CameraCaptureProperties captureProps = new CameraCaptureProperties();
+    CaptureResultSnapshot first = new CaptureResultSnapshot(null, null, 50, 0, 1000);
+    captureProps.publish(first);
+    for (int i = 1; i <= CameraCaptureProperties.HISTORY_SIZE; i++) {
+      captureProps.publish(new CaptureResultSnapshot(null, null, 100, i, 1000 + i));
+    }
+
+    CaptureResultSnapshot snapshot = captureProps.getSnapshot(1000);
+
+    assertEquals(CameraCaptureProperties.HISTORY_SIZE, snapshot.getFrameNumber());
+  }
+
+  @Test
+  public void setLastSensorSensitivity_shouldKeepOtherValues() {
+    CameraCaptureProperties captureProps = new CameraCaptureProperties();
+    captureProps.publish(new CaptureResultSnapshot(1.8f, 100L, 50, 1, 1000));
+
+    captureProps.setLastSensorSensitivity(400);
+
+    assertEquals(1.8f, captureProps.getLastLensAperture(), 0);
+    assertEquals(100L, (long) captureProps.getLastSensorExposureTime());
+    assertEquals(400, (int) captureProps.getLastSensorSensitivity());
+  }
+}
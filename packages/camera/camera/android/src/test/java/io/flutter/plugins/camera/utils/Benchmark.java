@@ -0,0 +1,103 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.camera.utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import org.junit.Assume;
+
+/**
+ * Measures the time and the memory an operation takes on the current thread.
+ *
+ * <p>Benchmarks are skipped unless the tests are run with {@code -Pcamera.benchmark=true}. Results
+ * are printed with a {@code Benchmark |} prefix, so they can be collected from the test output and
+ * compared between builds.
+ */
+public final class Benchmark {
+  /** The system property that enables benchmarks. */
+  public static final String ENABLED_PROPERTY = "camera.benchmark";
+
+  private Benchmark() {}
+
+  /** Skips the calling test unless benchmarks are enabled. */
+  public static void assumeEnabled() {
+    Assume.assumeTrue("Benchmarks are disabled.", Boolean.getBoolean(ENABLED_PROPERTY));
+  }
+
+  /**
+   * Runs an operation a number of times without measuring it, then measures running it a number of
+   * times and prints the result.
+   *
+   * @param name the name the result is printed with.
+   * @param warmupOperations the number of operations to run before measuring.
+   * @param operations the number of operations to measure.
+   * @param operation the operation to measure.
+   * @return the measured result.
+   */
+  public static Result run(String name, int warmupOperations, int operations, Runnable operation) {
+    for (int i = 0; i < warmupOperations; i++) {
+      operation.run();
+    }
+
+    long allocatedBytesBefore = getAllocatedBytes();
+    long startNanos = System.nanoTime();
+    for (int i = 0; i < operations; i++) {
+      operation.run();
+    }
+    long elapsedNanos = System.nanoTime() - startNanos;
+    long allocatedBytesAfter = getAllocatedBytes();
+
+    long bytesPerOperation =
+        allocatedBytesBefore < 0 ? -1 : (allocatedBytesAfter - allocatedBytesBefore) / operations;
+    Result result = new Result(name, elapsedNanos / operations, bytesPerOperation);
+    System.out.println("Benchmark | " + result);
+    return result;
+  }
+
+  /** Gets the bytes allocated by the current thread so far, or -1 when the JVM cannot tell. */
+  private static long getAllocatedBytes() {
+    ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+      return -1;
+    }
+    com.sun.management.ThreadMXBean sunThreadMXBean =
+        (com.sun.management.ThreadMXBean) threadMXBean;
+    if (!sunThreadMXBean.isThreadAllocatedMemorySupported()) {
+      return -1;
+    }
+    return sunThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /** The measured cost of a single operation. */
+  public static final class Result {
+    public final String name;
+    public final long nanosPerOperation;
+    /** The bytes allocated per operation, or -1 when the JVM cannot measure allocations. */
+    public final long bytesPerOperation;
+
+    private Result(String name, long nanosPerOperation, long bytesPerOperation) {
+      this.name = name;
+      this.nanosPerOperation = nanosPerOperation;
+      this.bytesPerOperation = bytesPerOperation;
+    }
+
+    /** Gets the number of operations that can run per second. */
+    public double getOperationsPerSecond() {
+      return nanosPerOperation == 0 ? Double.POSITIVE_INFINITY : 1e9 / nanosPerOperation;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          Locale.ENGLISH,
+          "%s: %.3f ms/op, %.1f op/s, %d B/op",
+          name,
+          nanosPerOperation / 1e6,
+          getOperationsPerSecond(),
+          bytesPerOperation);
+    }
+  }
+}
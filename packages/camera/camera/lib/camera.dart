@@ -12,8 +12,12 @@ export 'package:camera_platform_interface/camera_platform_interface.dart'
         FocusMode,
         ResolutionPreset,
         XFile,
-        ImageFormatGroup;
+        ImageFormatGroup,
+        LatencyStatistics,
+        VideoCodec,
+        VideoEncodingOptions;
 
 export 'src/camera_controller.dart';
 export 'src/camera_image.dart';
 export 'src/camera_preview.dart';
+export 'src/image_stream_options.dart';
@@ -16,11 +16,16 @@ const MethodChannel _channel = MethodChannel('plugins.flutter.io/camera');
 
 /// Signature for a callback receiving the a camera image.
 ///
+/// The callback may return a [Future] when it processes the image
+/// asynchronously. When frames are acknowledged, see
+/// [ImageStreamOptions.maxPendingFrames], the frame is only acknowledged once
+/// that future completes.
+///
 /// This is used by [CameraController.startImageStream].
 // TODO(stuartmorgan): Fix this naming the next time there's a breaking change
 // to this package.
 // ignore: camel_case_types
-typedef onLatestImageAvailable = Function(CameraImage image);
+typedef onLatestImageAvailable = FutureOr<void> Function(CameraImage image);
 
 /// Completes with a list of available cameras.
 ///
@@ -226,14 +231,18 @@ class CameraValue {
 class CameraController extends ValueNotifier<CameraValue> {
   /// Creates a new camera controller in an uninitialized state.
   CameraController(
-    this.description,
+    CameraDescription description,
     this.resolutionPreset, {
     this.enableAudio = true,
     this.imageFormatGroup,
-  }) : super(const CameraValue.uninitialized());
+  })  : _description = description,
+        super(const CameraValue.uninitialized());
 
   /// The properties of the camera device controlled by this controller.
-  final CameraDescription description;
+  ///
+  /// Changes when another camera is selected with [setDescription].
+  CameraDescription get description => _description;
+  CameraDescription _description;
 
   /// The resolution this controller is targeting.
   ///
@@ -261,6 +270,8 @@ class CameraController extends ValueNotifier<CameraValue> {
   FutureOr<bool>? _initCalled;
   StreamSubscription<DeviceOrientationChangedEvent>?
       _deviceOrientationSubscription;
+  StreamSubscription<PreviewResolutionChangedEvent>?
+      _previewResolutionSubscription;
 
   /// Checks whether [CameraController.dispose] has completed successfully.
   ///
@@ -381,6 +392,100 @@ class CameraController extends ValueNotifier<CameraValue> {
     }
   }
 
+  /// Enables or disables adapting the preview resolution at runtime.
+  ///
+  /// While enabled, the preview and image stream resolution is lowered when
+  /// frames arrive considerably slower than the target frame rate or the
+  /// device overheats, and raised again once frames keep up. The resolution is
+  /// never raised above the one of the [resolutionPreset], and it is not
+  /// changed while a video is being recorded. Every change updates the
+  /// [CameraValue.previewSize].
+  ///
+  /// The `setAdaptivePreviewResolution` method is only available on Android.
+  Future<void> setAdaptivePreviewResolution(bool enabled) async {
+    assert(defaultTargetPlatform == TargetPlatform.android);
+    _throwIfNotInitialized('setAdaptivePreviewResolution');
+    // Also listens after disabling, which restores the default resolution.
+    _previewResolutionSubscription ??= CameraPlatform.instance
+        .onPreviewResolutionChanged(_cameraId)
+        .listen((PreviewResolutionChangedEvent event) {
+      value = value.copyWith(
+        previewSize: Size(event.previewWidth, event.previewHeight),
+      );
+    });
+    try {
+      await CameraPlatform.instance
+          .setAdaptivePreviewResolution(_cameraId, enabled);
+    } on PlatformException catch (e) {
+      throw CameraException(e.code, e.message);
+    }
+  }
+
+  /// Switches this controller to the camera described by [description].
+  ///
+  /// Only the camera device and its capture session are replaced, the preview
+  /// texture and other resources are kept, which makes switching between
+  /// lenses considerably faster than disposing the controller and creating a
+  /// new one.
+  ///
+  /// The `setDescription` method is only available on Android.
+  ///
+  /// Throws a [CameraException] if a video is being recorded, images are
+  /// being streamed or the switch fails.
+  Future<void> setDescription(CameraDescription description) async {
+    assert(defaultTargetPlatform == TargetPlatform.android);
+    _throwIfNotInitialized('setDescription');
+    if (value.isRecordingVideo) {
+      throw CameraException(
+        'A video recording is already started.',
+        'setDescription was called while a video is being recorded.',
+      );
+    }
+    if (value.isStreamingImages) {
+      throw CameraException(
+        'A camera has started streaming images.',
+        'setDescription was called while a camera was streaming images.',
+      );
+    }
+
+    try {
+      final Future<CameraInitializedEvent> initialized =
+          CameraPlatform.instance.onCameraInitialized(_cameraId).first;
+      await CameraPlatform.instance.setDescription(_cameraId, description);
+      final CameraInitializedEvent event = await initialized;
+      _description = description;
+      value = value.copyWith(
+        previewSize: Size(event.previewWidth, event.previewHeight),
+        exposureMode: event.exposureMode,
+        focusMode: event.focusMode,
+        exposurePointSupported: event.exposurePointSupported,
+        focusPointSupported: event.focusPointSupported,
+      );
+    } on PlatformException catch (e) {
+      throw CameraException(e.code, e.message);
+    }
+  }
+
+  /// Returns statistics about how long opening the camera and taking pictures
+  /// took, keyed by phase.
+  ///
+  /// The phases are `deviceOpen`, `sessionConfiguration`, `firstFrame`,
+  /// `timeToFirstFrame`, `precapture`, `shutterLag` and `imageSave`. Phases
+  /// that were not measured yet are left out. When [reset] is true the
+  /// measurements are forgotten once they have been read.
+  ///
+  /// The `getLatencyStatistics` method is only available on Android.
+  Future<Map<String, LatencyStatistics>> getLatencyStatistics(
+      {bool reset = false}) async {
+    assert(defaultTargetPlatform == TargetPlatform.android);
+    try {
+      return await CameraPlatform.instance
+          .getLatencyStatistics(_cameraId, reset: reset);
+    } on PlatformException catch (e) {
+      throw CameraException(e.code, e.message);
+    }
+  }
+
   /// Captures an image and returns the file where it was saved.
   ///
   /// Throws a [CameraException] if the capture fails.
@@ -403,6 +508,39 @@ class CameraController extends ValueNotifier<CameraValue> {
     }
   }
 
+  /// Captures [count] images in quick succession and returns the files where
+  /// they were saved, in capture order.
+  ///
+  /// Focus and exposure are only locked once, before the first image. When
+  /// [interval] is [Duration.zero] the images are captured as fast as the
+  /// camera allows, otherwise one image is captured every [interval].
+  ///
+  /// The `takePictureBurst` method is only available on Android.
+  ///
+  /// Throws a [CameraException] if the capture fails.
+  Future<List<XFile>> takePictureBurst(int count,
+      {Duration interval = Duration.zero}) async {
+    assert(defaultTargetPlatform == TargetPlatform.android);
+    assert(count > 0);
+    _throwIfNotInitialized('takePictureBurst');
+    if (value.isTakingPicture) {
+      throw CameraException(
+        'Previous capture has not returned yet.',
+        'takePictureBurst was called before the previous capture returned.',
+      );
+    }
+    try {
+      value = value.copyWith(isTakingPicture: true);
+      final List<XFile> files = await CameraPlatform.instance
+          .takePictureBurst(_cameraId, count, interval: interval);
+      value = value.copyWith(isTakingPicture: false);
+      return files;
+    } on PlatformException catch (e) {
+      value = value.copyWith(isTakingPicture: false);
+      throw CameraException(e.code, e.message);
+    }
+  }
+
   /// Start streaming images from platform camera.
   ///
   /// Settings for capturing images on iOS and Android is set to always use the
@@ -413,18 +551,34 @@ class CameraController extends ValueNotifier<CameraValue> {
   /// have significant frame rate drops for [CameraPreview] on lower end
   /// devices.
   ///
-  /// Throws a [CameraException] if image streaming or video recording has
-  /// already started.
+  /// On Android, [options] can be used to limit the number of frames that are
+  /// in flight, see [ImageStreamOptions]. A frame stays in flight until
+  /// [onAvailable] returns, or until the future it returns completes, so an
+  /// asynchronous consumer does not receive the next frame while it is still
+  /// processing the previous one.
+  ///
+  /// On Android, images can be streamed while a video is being recorded. When
+  /// the camera cannot record and stream at the preview resolution at once,
+  /// the images are streamed at a lower resolution. Adding the image stream to
+  /// a recording in progress would interrupt the recording, so the image
+  /// stream has to be started before the recording. Stopping and restarting
+  /// that image stream during the recording is supported.
+  ///
+  /// Throws a [CameraException] if image streaming has already started, on
+  /// Android if a video recording was started without an image stream, or on
+  /// iOS if video recording has already started.
   ///
   /// The `startImageStream` method is only available on Android and iOS (other
   /// platforms won't be supported in current setup).
   ///
   // TODO(bmparr): Add settings for resolution and fps.
-  Future<void> startImageStream(onLatestImageAvailable onAvailable) async {
+  Future<void> startImageStream(onLatestImageAvailable onAvailable,
+      {ImageStreamOptions? options}) async {
     assert(defaultTargetPlatform == TargetPlatform.android ||
         defaultTargetPlatform == TargetPlatform.iOS);
     _throwIfNotInitialized('startImageStream');
-    if (value.isRecordingVideo) {
+    if (value.isRecordingVideo &&
+        defaultTargetPlatform != TargetPlatform.android) {
       throw CameraException(
         'A video recording is already started.',
         'startImageStream was called while a video is being recorded.',
@@ -438,16 +592,19 @@ class CameraController extends ValueNotifier<CameraValue> {
     }
 
     try {
-      await _channel.invokeMethod<void>('startImageStream');
+      await _channel.invokeMethod<void>('startImageStream', options?.toMap());
       value = value.copyWith(isStreamingImages: true);
     } on PlatformException catch (e) {
       throw CameraException(e.code, e.message);
     }
     const EventChannel cameraEventChannel =
         EventChannel('plugins.flutter.io/camera/imageStream');
+    final bool acknowledgeAfterProcessing =
+        defaultTargetPlatform == TargetPlatform.android &&
+            options?.maxPendingFrames != null;
     _imageStreamSubscription =
         cameraEventChannel.receiveBroadcastStream().listen(
-      (dynamic imageData) {
+      (dynamic imageData) async {
         if (defaultTargetPlatform == TargetPlatform.iOS) {
           try {
             _channel.invokeMethod<void>('receivedImageStreamData');
@@ -455,16 +612,22 @@ class CameraController extends ValueNotifier<CameraValue> {
             throw CameraException(e.code, e.message);
           }
         }
-        onAvailable(
-            CameraImage.fromPlatformData(imageData as Map<dynamic, dynamic>));
+        try {
+          await onAvailable(
+              CameraImage.fromPlatformData(imageData as Map<dynamic, dynamic>));
+        } finally {
+          if (acknowledgeAfterProcessing) {
+            _unawaited(_channel.invokeMethod<void>('receivedImageStreamData'));
+          }
+        }
       },
     );
   }
 
   /// Stop streaming images from platform camera.
   ///
-  /// Throws a [CameraException] if image streaming was not started or video
-  /// recording was started.
+  /// Throws a [CameraException] if image streaming was not started, or on iOS
+  /// if video recording was started.
   ///
   /// The `stopImageStream` method is only available on Android and iOS (other
   /// platforms won't be supported in current setup).
@@ -472,7 +635,8 @@ class CameraController extends ValueNotifier<CameraValue> {
     assert(defaultTargetPlatform == TargetPlatform.android ||
         defaultTargetPlatform == TargetPlatform.iOS);
     _throwIfNotInitialized('stopImageStream');
-    if (value.isRecordingVideo) {
+    if (value.isRecordingVideo &&
+        defaultTargetPlatform != TargetPlatform.android) {
       throw CameraException(
         'A video recording is already started.',
         'stopImageStream was called while a video is being recorded.',
@@ -496,11 +660,53 @@ class CameraController extends ValueNotifier<CameraValue> {
     _imageStreamSubscription = null;
   }
 
+  /// Emits the total number of image stream frames dropped since the image
+  /// stream was started, at most once per second while frames are dropped.
+  ///
+  /// Frames are only dropped when [startImageStream] was called with
+  /// [ImageStreamOptions.maxPendingFrames] set.
+  ///
+  /// The `onImageStreamFramesDropped` method is only available on Android.
+  Stream<int> onImageStreamFramesDropped() {
+    assert(defaultTargetPlatform == TargetPlatform.android);
+    _throwIfNotInitialized('onImageStreamFramesDropped');
+    return CameraPlatform.instance
+        .onImageStreamFramesDropped(_cameraId)
+        .map((ImageStreamFramesDroppedEvent event) => event.droppedFrames);
+  }
+
+  /// Returns the frame rates at which videos can be recorded in a constrained
+  /// high speed capture session, in ascending order.
+  ///
+  /// The list is empty when the camera does not support high speed recording.
+  /// Pass one of the frame rates as [VideoEncodingOptions.highSpeedFrameRate]
+  /// to [startVideoRecording] to record at it.
+  ///
+  /// The `getHighSpeedFrameRates` method is only available on Android.
+  Future<List<int>> getHighSpeedFrameRates() async {
+    assert(defaultTargetPlatform == TargetPlatform.android);
+    _throwIfNotInitialized('getHighSpeedFrameRates');
+    try {
+      return await CameraPlatform.instance.getHighSpeedFrameRates(_cameraId);
+    } on PlatformException catch (e) {
+      throw CameraException(e.code, e.message);
+    }
+  }
+
   /// Start a video recording.
   ///
   /// The video is returned as a [XFile] after calling [stopVideoRecording].
   /// Throws a [CameraException] if the capture fails.
-  Future<void> startVideoRecording() async {
+  ///
+  /// When [encodingOptions] are supplied, the video is recorded with the
+  /// hardware encoder configured by them instead of the defaults of the
+  /// resolution preset. The `encodingOptions` are only supported on Android.
+  ///
+  /// On Android, a video can be recorded while images are being streamed, see
+  /// [startImageStream].
+  Future<void> startVideoRecording({
+    VideoEncodingOptions? encodingOptions,
+  }) async {
     _throwIfNotInitialized('startVideoRecording');
     if (value.isRecordingVideo) {
       throw CameraException(
@@ -508,7 +714,8 @@ class CameraController extends ValueNotifier<CameraValue> {
         'startVideoRecording was called when a recording is already started.',
       );
     }
-    if (value.isStreamingImages) {
+    if (value.isStreamingImages &&
+        defaultTargetPlatform != TargetPlatform.android) {
       throw CameraException(
         'A camera has started streaming images.',
         'startVideoRecording was called while a camera was streaming images.',
@@ -516,7 +723,8 @@ class CameraController extends ValueNotifier<CameraValue> {
     }
 
     try {
-      await CameraPlatform.instance.startVideoRecording(_cameraId);
+      await CameraPlatform.instance
+          .startVideoRecording(_cameraId, encodingOptions: encodingOptions);
       value = value.copyWith(
           isRecordingVideo: true,
           isRecordingPaused: false,
@@ -633,6 +841,109 @@ class CameraController extends ValueNotifier<CameraValue> {
     }
   }
 
+  /// Applies several camera settings at once.
+  ///
+  /// Settings that are not supplied keep their current value. Set
+  /// [resetExposurePoint] or [resetFocusPoint] to reset the exposure or focus
+  /// point to its default value. The preview is only updated once, instead of
+  /// once per setting as when calling [setFlashMode], [setExposureMode],
+  /// [setExposurePoint], [setExposureOffset], [setFocusMode], [setFocusPoint]
+  /// and [setZoomLevel] one after the other. Either all settings are applied
+  /// or, when one of them is invalid, none is.
+  ///
+  /// The `updateSettings` method is only available on Android.
+  Future<void> updateSettings({
+    FlashMode? flashMode,
+    ExposureMode? exposureMode,
+    Offset? exposurePoint,
+    bool resetExposurePoint = false,
+    double? exposureOffset,
+    FocusMode? focusMode,
+    Offset? focusPoint,
+    bool resetFocusPoint = false,
+    double? zoomLevel,
+  }) async {
+    assert(defaultTargetPlatform == TargetPlatform.android);
+    _throwIfNotInitialized('updateSettings');
+    for (final Offset? point in <Offset?>[exposurePoint, focusPoint]) {
+      if (point != null &&
+          (point.dx < 0 || point.dx > 1 || point.dy < 0 || point.dy > 1)) {
+        throw ArgumentError(
+            'The values of point should be anywhere between (0,0) and (1,1).');
+      }
+    }
+    if (exposureOffset != null) {
+      exposureOffset = await _roundExposureOffset(exposureOffset);
+    }
+
+    try {
+      await CameraPlatform.instance.updateSettings(
+        _cameraId,
+        CameraSettings(
+          flashMode: flashMode,
+          exposureMode: exposureMode,
+          exposurePoint: exposurePoint == null
+              ? null
+              : Point<double>(exposurePoint.dx, exposurePoint.dy),
+          resetExposurePoint: resetExposurePoint,
+          exposureOffset: exposureOffset,
+          focusMode: focusMode,
+          focusPoint: focusPoint == null
+              ? null
+              : Point<double>(focusPoint.dx, focusPoint.dy),
+          resetFocusPoint: resetFocusPoint,
+          zoomLevel: zoomLevel,
+        ),
+      );
+      value = value.copyWith(
+        flashMode: flashMode,
+        exposureMode: exposureMode,
+        focusMode: focusMode,
+      );
+    } on PlatformException catch (e) {
+      throw CameraException(e.code, e.message);
+    }
+  }
+
+  /// Updates the zoom level and focus point while a gesture is in progress,
+  /// like a pinch to zoom.
+  ///
+  /// Calls may be made for every gesture event. Updates that arrive faster
+  /// than the camera produces frames are coalesced, so the camera receives at
+  /// most one new request per preview frame and the latest values win. The
+  /// returned future completes once the update has been queued.
+  ///
+  /// Unlike [setZoomLevel], the [zoomLevel] is clamped to the supported range
+  /// instead of being rejected. Unlike [setFocusPoint], the focus is not
+  /// triggered again, so call [setFocusPoint] when the gesture ends to lock
+  /// the focus on the final point.
+  ///
+  /// The `updateGesture` method is only available on Android.
+  Future<void> updateGesture({double? zoomLevel, Offset? focusPoint}) async {
+    assert(defaultTargetPlatform == TargetPlatform.android);
+    _throwIfNotInitialized('updateGesture');
+    if (focusPoint != null &&
+        (focusPoint.dx < 0 ||
+            focusPoint.dx > 1 ||
+            focusPoint.dy < 0 ||
+            focusPoint.dy > 1)) {
+      throw ArgumentError(
+          'The values of point should be anywhere between (0,0) and (1,1).');
+    }
+
+    try {
+      await CameraPlatform.instance.updateGesture(
+        _cameraId,
+        zoomLevel: zoomLevel,
+        focusPoint: focusPoint == null
+            ? null
+            : Point<double>(focusPoint.dx, focusPoint.dy),
+      );
+    } on PlatformException catch (e) {
+      throw CameraException(e.code, e.message);
+    }
+  }
+
   /// Sets the flash mode for taking pictures.
   Future<void> setFlashMode(FlashMode mode) async {
     try {
@@ -724,6 +1035,17 @@ class CameraController extends ValueNotifier<CameraValue> {
   /// Returns the (rounded) offset value that was set.
   Future<double> setExposureOffset(double offset) async {
     _throwIfNotInitialized('setExposureOffset');
+    offset = await _roundExposureOffset(offset);
+
+    try {
+      return CameraPlatform.instance.setExposureOffset(_cameraId, offset);
+    } on PlatformException catch (e) {
+      throw CameraException(e.code, e.message);
+    }
+  }
+
+  /// Checks that the offset is supported and rounds it to the closest step.
+  Future<double> _roundExposureOffset(double offset) async {
     // Check if offset is in range
     final List<double> range = await Future.wait(
         <Future<double>>[getMinExposureOffset(), getMaxExposureOffset()]);
@@ -746,12 +1068,7 @@ class CameraController extends ValueNotifier<CameraValue> {
       }
       offset = roundedOffset;
     }
-
-    try {
-      return CameraPlatform.instance.setExposureOffset(_cameraId, offset);
-    } on PlatformException catch (e) {
-      throw CameraException(e.code, e.message);
-    }
+    return offset;
   }
 
   /// Locks the capture orientation.
@@ -822,6 +1139,7 @@ class CameraController extends ValueNotifier<CameraValue> {
       return;
     }
     _unawaited(_deviceOrientationSubscription?.cancel());
+    _unawaited(_previewResolutionSubscription?.cancel());
     _isDisposed = true;
     super.dispose();
     if (_initCalled != null) {
@@ -0,0 +1,134 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:ui';
+
+/// Decides which frame is dropped when too many image stream frames are
+/// pending.
+enum FrameDropPolicy {
+  /// Drops the oldest frame that was not delivered yet, so the latest frame
+  /// is always processed.
+  dropOldest,
+
+  /// Drops the incoming frame and keeps the frames that are already queued.
+  dropNewest,
+}
+
+/// Selects which planes of YUV images are sent with each image stream frame.
+enum ImageStreamPlanes {
+  /// Sends all planes of the image.
+  all,
+
+  /// Only sends the luminance (Y) plane of YUV images.
+  luminance,
+}
+
+/// Selects the format YUV images are converted into before they are sent.
+enum ImageStreamOutputFormat {
+  /// Sends the YUV planes as they are produced by the camera.
+  yuv420,
+
+  /// Converts YUV images into a single NV21 plane on the platform side.
+  ///
+  /// The `raw` format of the resulting [CameraImage] is 17.
+  nv21,
+
+  /// Converts YUV images into a single RGBA plane with 8 bits per channel on
+  /// the platform side.
+  ///
+  /// The `raw` format of the resulting [CameraImage] is 1.
+  rgba8888,
+}
+
+/// Options that control how the platform processes and delivers image stream
+/// frames.
+///
+/// Currently only used on Android.
+class ImageStreamOptions {
+  /// Creates new image stream options.
+  const ImageStreamOptions({
+    this.maxPendingFrames,
+    this.frameDropPolicy = FrameDropPolicy.dropOldest,
+    this.planes = ImageStreamPlanes.all,
+    this.regionOfInterest,
+    this.subsampleFactor = 1,
+    this.outputFormat = ImageStreamOutputFormat.yuv420,
+  })  : assert(maxPendingFrames == null || maxPendingFrames > 0),
+        assert(subsampleFactor > 0);
+
+  /// The maximum number of frames that may be in flight before the platform
+  /// starts dropping frames.
+  ///
+  /// A frame stays in flight until the [CameraController] acknowledges it,
+  /// which happens after the `onAvailable` callback of
+  /// `CameraController.startImageStream` returns, or after the future it
+  /// returns completes. When `null`, frames are not acknowledged and are sent
+  /// as fast as the camera produces them.
+  final int? maxPendingFrames;
+
+  /// The policy used to drop frames once [maxPendingFrames] is reached.
+  final FrameDropPolicy frameDropPolicy;
+
+  /// The planes of YUV images that are sent to Dart.
+  final ImageStreamPlanes planes;
+
+  /// The region of the image that is sent to Dart, in image pixels.
+  ///
+  /// The region is cropped on the platform side before the image is sent,
+  /// and is aligned to even coordinates for YUV images. When `null`, the
+  /// whole image is sent.
+  final Rect? regionOfInterest;
+
+  /// The integer factor by which images are subsampled in both directions
+  /// before they are sent to Dart.
+  ///
+  /// A factor of 2 sends every second pixel of every second row.
+  final int subsampleFactor;
+
+  /// The format YUV images are converted into before they are sent to Dart.
+  ///
+  /// Converting on the platform side spares Dart code from interleaving the
+  /// chroma planes or converting to RGB itself. [planes] and
+  /// [subsampleFactor] only apply to [ImageStreamOutputFormat.yuv420], while
+  /// [regionOfInterest] applies to every format.
+  final ImageStreamOutputFormat outputFormat;
+
+  /// Converts the options to the arguments of the `startImageStream` call.
+  Map<String, dynamic> toMap() {
+    return <String, dynamic>{
+      if (maxPendingFrames != null) 'maxPendingFrames': maxPendingFrames,
+      'frameDropPolicy': _serializeFrameDropPolicy(frameDropPolicy),
+      'planes': planes == ImageStreamPlanes.luminance ? 'luminance' : 'all',
+      if (regionOfInterest != null)
+        'regionOfInterest': <String, int>{
+          'left': regionOfInterest!.left.round(),
+          'top': regionOfInterest!.top.round(),
+          'width': regionOfInterest!.width.round(),
+          'height': regionOfInterest!.height.round(),
+        },
+      'subsampleFactor': subsampleFactor,
+      'outputFormat': _serializeOutputFormat(outputFormat),
+    };
+  }
+}
+
+String _serializeFrameDropPolicy(FrameDropPolicy policy) {
+  switch (policy) {
+    case FrameDropPolicy.dropOldest:
+      return 'dropOldest';
+    case FrameDropPolicy.dropNewest:
+      return 'dropNewest';
+  }
+}
+
+String _serializeOutputFormat(ImageStreamOutputFormat format) {
+  switch (format) {
+    case ImageStreamOutputFormat.yuv420:
+      return 'yuv420';
+    case ImageStreamOutputFormat.nv21:
+      return 'nv21';
+    case ImageStreamOutputFormat.rgba8888:
+      return 'rgba8888';
+  }
+}
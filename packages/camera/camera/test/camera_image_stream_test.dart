@@ -2,8 +2,13 @@
 // Use of this source code is governed by a BSD-style license that can be
 // found in the LICENSE file.
 
+import 'dart:async';
+import 'dart:typed_data';
+
 import 'package:camera/camera.dart';
 import 'package:camera_platform_interface/camera_platform_interface.dart';
+import 'package:flutter/foundation.dart';
+import 'package:flutter/services.dart';
 import 'package:flutter_test/flutter_test.dart';
 
 import 'camera_test.dart';
@@ -42,8 +47,10 @@ void main() {
     );
   });
 
-  test('startImageStream() throws $CameraException when recording videos',
+  test('startImageStream() throws $CameraException when recording videos on iOS',
       () async {
+    debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+    addTearDown(() => debugDefaultTargetPlatformOverride = null);
     final CameraController cameraController = CameraController(
         const CameraDescription(
             name: 'cam',
@@ -64,6 +71,31 @@ void main() {
           'startImageStream was called while a video is being recorded.',
         )));
   });
+
+  test('startImageStream() streams images while recording videos on Android',
+      () async {
+    final MethodChannelMock cameraChannelMock = MethodChannelMock(
+        channelName: 'plugins.flutter.io/camera',
+        methods: <String, dynamic>{'startImageStream': <String, dynamic>{}});
+    MethodChannelMock(
+        channelName: 'plugins.flutter.io/camera/imageStream',
+        methods: <String, dynamic>{'listen': <String, dynamic>{}});
+    final CameraController cameraController = CameraController(
+        const CameraDescription(
+            name: 'cam',
+            lensDirection: CameraLensDirection.back,
+            sensorOrientation: 90),
+        ResolutionPreset.max);
+    await cameraController.initialize();
+    cameraController.value =
+        cameraController.value.copyWith(isRecordingVideo: true);
+
+    await cameraController.startImageStream((CameraImage image) => null);
+
+    expect(cameraChannelMock.log,
+        <Matcher>[isMethodCall('startImageStream', arguments: null)]);
+    expect(cameraController.value.isStreamingImages, isTrue);
+  });
   test(
       'startImageStream() throws $CameraException when already streaming images',
       () async {
@@ -110,6 +142,92 @@ void main() {
         <Matcher>[isMethodCall('listen', arguments: null)]);
   });
 
+  test(
+      'startImageStream() acknowledges a frame once an asynchronous callback completes',
+      () async {
+    const String imageStreamChannelName =
+        'plugins.flutter.io/camera/imageStream';
+    final ByteData frame =
+        const StandardMethodCodec().encodeSuccessEnvelope(<dynamic, dynamic>{
+      'format': 35,
+      'height': 1,
+      'width': 4,
+      'planes': <dynamic>[
+        <dynamic, dynamic>{
+          'bytes': Uint8List.fromList(<int>[1, 2, 3, 4]),
+          'bytesPerPixel': 1,
+          'bytesPerRow': 4,
+        }
+      ]
+    });
+    Future<void> sendFrame() async {
+      await _ambiguate(ServicesBinding.instance)
+          ?.defaultBinaryMessenger
+          .handlePlatformMessage(
+              imageStreamChannelName, frame, (ByteData? data) {});
+    }
+
+    final List<String> log = <String>[];
+    const MethodChannel('plugins.flutter.io/camera')
+        .setMockMethodCallHandler((MethodCall methodCall) async {
+      log.add(methodCall.method);
+      if (methodCall.method == 'receivedImageStreamData') {
+        // Like the platform with a single pending frame, the next frame is
+        // only sent once the previous one has been acknowledged.
+        await sendFrame();
+      }
+      return null;
+    });
+    _ambiguate(ServicesBinding.instance)
+        ?.defaultBinaryMessenger
+        .setMockMessageHandler(imageStreamChannelName,
+            (ByteData? message) async {
+      return const StandardMethodCodec().encodeSuccessEnvelope(null);
+    });
+    final CameraController cameraController = CameraController(
+        const CameraDescription(
+            name: 'cam',
+            lensDirection: CameraLensDirection.back,
+            sensorOrientation: 90),
+        ResolutionPreset.max);
+    await cameraController.initialize();
+    final List<Completer<void>> processedFrames = <Completer<void>>[];
+
+    await cameraController.startImageStream((CameraImage image) {
+      log.add('frame');
+      final Completer<void> processed = Completer<void>();
+      processedFrames.add(processed);
+      return processed.future;
+    }, options: const ImageStreamOptions(maxPendingFrames: 1));
+    await sendFrame();
+    await pumpEventQueue();
+
+    expect(log, <String>['startImageStream', 'frame']);
+
+    processedFrames.first.complete();
+    await pumpEventQueue();
+
+    expect(log, <String>[
+      'startImageStream',
+      'frame',
+      'receivedImageStreamData',
+      'frame',
+    ]);
+  });
+
+  test('onImageStreamFramesDropped() emits the dropped frame counts',
+      () async {
+    final CameraController cameraController = CameraController(
+        const CameraDescription(
+            name: 'cam',
+            lensDirection: CameraLensDirection.back,
+            sensorOrientation: 90),
+        ResolutionPreset.max);
+    await cameraController.initialize();
+
+    expect(await cameraController.onImageStreamFramesDropped().first, 4);
+  });
+
   test('stopImageStream() throws $CameraException when uninitialized', () {
     final CameraController cameraController = CameraController(
         const CameraDescription(
@@ -136,8 +254,10 @@ void main() {
     );
   });
 
-  test('stopImageStream() throws $CameraException when recording videos',
+  test('stopImageStream() throws $CameraException when recording videos on iOS',
       () async {
+    debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+    addTearDown(() => debugDefaultTargetPlatformOverride = null);
     final CameraController cameraController = CameraController(
         const CameraDescription(
             name: 'cam',
@@ -212,3 +332,10 @@ void main() {
     ]);
   });
 }
+
+/// This allows a value of type T or T? to be treated as a value of type T?.
+///
+/// We use this so that APIs that have become non-nullable can still be used
+/// with `!` and `?` on the stable branch.
+// TODO(ianh): Remove this once we roll stable in late 2021.
+T? _ambiguate<T>(T? value) => value;
@@ -87,6 +87,22 @@ class FakeController extends ValueNotifier<CameraValue>
   @override
   Future<void> setFlashMode(FlashMode mode) async {}
 
+  @override
+  Future<void> updateSettings({
+    FlashMode? flashMode,
+    ExposureMode? exposureMode,
+    Offset? exposurePoint,
+    bool resetExposurePoint = false,
+    double? exposureOffset,
+    FocusMode? focusMode,
+    Offset? focusPoint,
+    bool resetFocusPoint = false,
+    double? zoomLevel,
+  }) async {}
+
+  @override
+  Future<void> updateGesture({double? zoomLevel, Offset? focusPoint}) async {}
+
   @override
   Future<void> setFocusMode(FocusMode mode) async {}
 
@@ -97,10 +113,12 @@ class FakeController extends ValueNotifier<CameraValue>
   Future<void> setZoomLevel(double zoom) async {}
 
   @override
-  Future<void> startImageStream(onLatestImageAvailable onAvailable) async {}
+  Future<void> startImageStream(onLatestImageAvailable onAvailable,
+      {ImageStreamOptions? options}) async {}
 
   @override
-  Future<void> startVideoRecording() async {}
+  Future<void> startVideoRecording(
+      {VideoEncodingOptions? encodingOptions}) async {}
 
   @override
   Future<void> stopImageStream() async {}
@@ -111,6 +129,22 @@ class FakeController extends ValueNotifier<CameraValue>
   @override
   Future<XFile> takePicture() async => XFile('');
 
+  @override
+  Future<void> setDescription(CameraDescription description) async {}
+
+  @override
+  Future<List<int>> getHighSpeedFrameRates() async => <int>[];
+
+  @override
+  Future<Map<String, LatencyStatistics>> getLatencyStatistics(
+          {bool reset = false}) async =>
+      <String, LatencyStatistics>{};
+
+  @override
+  Future<List<XFile>> takePictureBurst(int count,
+          {Duration interval = Duration.zero}) async =>
+      <XFile>[];
+
   @override
   Future<void> unlockCaptureOrientation() async {}
 
@@ -119,6 +153,9 @@ class FakeController extends ValueNotifier<CameraValue>
 
   @override
   Future<void> resumePreview() async {}
+
+  @override
+  Future<void> setAdaptivePreviewResolution(bool enabled) async {}
 }
 
 void main() {
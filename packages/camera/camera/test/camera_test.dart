@@ -47,9 +47,25 @@ CameraClosingEvent get mockOnCameraClosingEvent => const CameraClosingEvent(13);
 CameraErrorEvent get mockOnCameraErrorEvent =>
     const CameraErrorEvent(13, 'closing');
 
-XFile mockTakePicture = XFile('foo/bar.png');
+ImageStreamFramesDroppedEvent get mockOnImageStreamFramesDroppedEvent =>
+    const ImageStreamFramesDroppedEvent(13, 4);
+
+PreviewResolutionChangedEvent get mockOnPreviewResolutionChangedEvent =>
+    const PreviewResolutionChangedEvent(13, 640, 360, 'thermal');
+
+Map<String, LatencyStatistics> get mockLatencyStatistics =>
+    <String, LatencyStatistics>{
+      'shutterLag': const LatencyStatistics(
+        count: 3,
+        mean: Duration(milliseconds: 120),
+        p50: Duration(milliseconds: 110),
+        p90: Duration(milliseconds: 150),
+        p99: Duration(milliseconds: 150),
+        max: Duration(milliseconds: 150),
+      ),
+    };
 
-XFile mockVideoRecordingXFile = XFile('foo/bar.mpeg');
+XFile mockTakePicture = XFile('foo/bar.png');
 
 bool mockPlatformException = false;
 
@@ -287,6 +303,251 @@ void main() {
       mockPlatformException = false;
     });
 
+    test('takePictureBurst() calls $CameraPlatform', () async {
+      final CameraController cameraController = CameraController(
+          const CameraDescription(
+              name: 'cam',
+              lensDirection: CameraLensDirection.back,
+              sensorOrientation: 90),
+          ResolutionPreset.max);
+      await cameraController.initialize();
+      when(CameraPlatform.instance.takePictureBurst(mockInitializeCamera, 2,
+              interval: const Duration(milliseconds: 100)))
+          .thenAnswer((_) async => <XFile>[XFile('a.jpg'), XFile('b.jpg')]);
+
+      final List<XFile> files = await cameraController.takePictureBurst(2,
+          interval: const Duration(milliseconds: 100));
+
+      expect(files.map((XFile file) => file.path), <String>['a.jpg', 'b.jpg']);
+      expect(cameraController.value.isTakingPicture, isFalse);
+      verify(CameraPlatform.instance.takePictureBurst(mockInitializeCamera, 2,
+              interval: const Duration(milliseconds: 100)))
+          .called(1);
+    });
+
+    test('takePictureBurst() throws $CameraException when takePicture is true',
+        () async {
+      final CameraController cameraController = CameraController(
+          const CameraDescription(
+              name: 'cam',
+              lensDirection: CameraLensDirection.back,
+              sensorOrientation: 90),
+          ResolutionPreset.max);
+      await cameraController.initialize();
+
+      cameraController.value =
+          cameraController.value.copyWith(isTakingPicture: true);
+      expect(
+          cameraController.takePictureBurst(2),
+          throwsA(isA<CameraException>().having(
+            (CameraException error) => error.description,
+            'Previous capture has not returned yet.',
+            'takePictureBurst was called before the previous capture returned.',
+          )));
+    });
+
+    test('updateSettings() calls $CameraPlatform with all settings', () async {
+      final CameraController cameraController = CameraController(
+          const CameraDescription(
+              name: 'cam',
+              lensDirection: CameraLensDirection.back,
+              sensorOrientation: 90),
+          ResolutionPreset.max);
+      await cameraController.initialize();
+
+      await cameraController.updateSettings(
+        flashMode: FlashMode.torch,
+        focusMode: FocusMode.locked,
+        focusPoint: const Offset(0.25, 0.75),
+        resetExposurePoint: true,
+        zoomLevel: 2.0,
+      );
+
+      verify(CameraPlatform.instance.updateSettings(
+              mockInitializeCamera,
+              const CameraSettings(
+                flashMode: FlashMode.torch,
+                resetExposurePoint: true,
+                focusMode: FocusMode.locked,
+                focusPoint: Point<double>(0.25, 0.75),
+                zoomLevel: 2.0,
+              )))
+          .called(1);
+      expect(cameraController.value.flashMode, FlashMode.torch);
+      expect(cameraController.value.focusMode, FocusMode.locked);
+    });
+
+    test('updateSettings() throws $ArgumentError when point is out of bounds',
+        () async {
+      final CameraController cameraController = CameraController(
+          const CameraDescription(
+              name: 'cam',
+              lensDirection: CameraLensDirection.back,
+              sensorOrientation: 90),
+          ResolutionPreset.max);
+      await cameraController.initialize();
+
+      expect(
+          () => cameraController.updateSettings(
+              exposurePoint: const Offset(1.5, 0.5)),
+          throwsA(isA<ArgumentError>()));
+    });
+
+    test('updateGesture() calls $CameraPlatform', () async {
+      final CameraController cameraController = CameraController(
+          const CameraDescription(
+              name: 'cam',
+              lensDirection: CameraLensDirection.back,
+              sensorOrientation: 90),
+          ResolutionPreset.max);
+      await cameraController.initialize();
+
+      await cameraController.updateGesture(
+          zoomLevel: 1.5, focusPoint: const Offset(0.5, 0.25));
+      await cameraController.updateGesture(zoomLevel: 1.6);
+
+      verify(CameraPlatform.instance.updateGesture(mockInitializeCamera,
+              zoomLevel: 1.5, focusPoint: const Point<double>(0.5, 0.25)))
+          .called(1);
+      verify(CameraPlatform.instance
+              .updateGesture(mockInitializeCamera, zoomLevel: 1.6))
+          .called(1);
+    });
+
+    test('updateGesture() throws $ArgumentError when point is out of bounds',
+        () async {
+      final CameraController cameraController = CameraController(
+          const CameraDescription(
+              name: 'cam',
+              lensDirection: CameraLensDirection.back,
+              sensorOrientation: 90),
+          ResolutionPreset.max);
+      await cameraController.initialize();
+
+      expect(
+          () => cameraController.updateGesture(
+              focusPoint: const Offset(0.5, -1)),
+          throwsA(isA<ArgumentError>()));
+    });
+
+    test('startVideoRecording() sends encoding options to $CameraPlatform',
+        () async {
+      const VideoEncodingOptions encodingOptions = VideoEncodingOptions(
+        bitrate: 4000000,
+        keyFrameInterval: Duration(seconds: 2),
+        codec: VideoCodec.hevc,
+      );
+      final CameraController cameraController = CameraController(
+          const CameraDescription(
+              name: 'cam',
+              lensDirection: CameraLensDirection.back,
+              sensorOrientation: 90),
+          ResolutionPreset.max);
+      await cameraController.initialize();
+
+      await cameraController.startVideoRecording(
+          encodingOptions: encodingOptions);
+
+      verify(CameraPlatform.instance.startVideoRecording(mockInitializeCamera,
+              encodingOptions: encodingOptions))
+          .called(1);
+      expect(cameraController.value.isRecordingVideo, isTrue);
+    });
+
+    test('setDescription() calls $CameraPlatform', () async {
+      const CameraDescription frontCamera = CameraDescription(
+          name: 'front',
+          lensDirection: CameraLensDirection.front,
+          sensorOrientation: 270);
+      final CameraController cameraController = CameraController(
+          const CameraDescription(
+              name: 'cam',
+              lensDirection: CameraLensDirection.back,
+              sensorOrientation: 90),
+          ResolutionPreset.max);
+      await cameraController.initialize();
+
+      await cameraController.setDescription(frontCamera);
+
+      verify(CameraPlatform.instance
+              .setDescription(mockInitializeCamera, frontCamera))
+          .called(1);
+      expect(cameraController.description, frontCamera);
+      expect(cameraController.value.previewSize, const Size(75, 75));
+    });
+
+    test('getLatencyStatistics() calls $CameraPlatform', () async {
+      final CameraController cameraController = CameraController(
+          const CameraDescription(
+              name: 'cam',
+              lensDirection: CameraLensDirection.back,
+              sensorOrientation: 90),
+          ResolutionPreset.max);
+      await cameraController.initialize();
+      when(CameraPlatform.instance
+              .getLatencyStatistics(mockInitializeCamera, reset: true))
+          .thenAnswer((_) async => mockLatencyStatistics);
+
+      final Map<String, LatencyStatistics> statistics =
+          await cameraController.getLatencyStatistics(reset: true);
+
+      expect(statistics, mockLatencyStatistics);
+      verify(CameraPlatform.instance
+              .getLatencyStatistics(mockInitializeCamera, reset: true))
+          .called(1);
+    });
+
+    test('getHighSpeedFrameRates() calls $CameraPlatform', () async {
+      final CameraController cameraController = CameraController(
+          const CameraDescription(
+              name: 'cam',
+              lensDirection: CameraLensDirection.back,
+              sensorOrientation: 90),
+          ResolutionPreset.max);
+      await cameraController.initialize();
+      when(CameraPlatform.instance.getHighSpeedFrameRates(mockInitializeCamera))
+          .thenAnswer((_) async => <int>[120, 240]);
+
+      final List<int> frameRates =
+          await cameraController.getHighSpeedFrameRates();
+
+      expect(frameRates, <int>[120, 240]);
+      verify(CameraPlatform.instance
+              .getHighSpeedFrameRates(mockInitializeCamera))
+          .called(1);
+    });
+
+    test('setAdaptivePreviewResolution() calls $CameraPlatform', () async {
+      final CameraController cameraController = CameraController(
+          const CameraDescription(
+              name: 'cam',
+              lensDirection: CameraLensDirection.back,
+              sensorOrientation: 90),
+          ResolutionPreset.max);
+      await cameraController.initialize();
+
+      await cameraController.setAdaptivePreviewResolution(true);
+
+      verify(CameraPlatform.instance
+              .setAdaptivePreviewResolution(mockInitializeCamera, true))
+          .called(1);
+    });
+
+    test('setAdaptivePreviewResolution() updates the preview size', () async {
+      final CameraController cameraController = CameraController(
+          const CameraDescription(
+              name: 'cam',
+              lensDirection: CameraLensDirection.back,
+              sensorOrientation: 90),
+          ResolutionPreset.max);
+      await cameraController.initialize();
+
+      await cameraController.setAdaptivePreviewResolution(true);
+      await Future<void>.delayed(Duration.zero);
+
+      expect(cameraController.value.previewSize, const Size(640, 360));
+    });
+
     test('startVideoRecording() throws $CameraException when uninitialized',
         () async {
       final CameraController cameraController = CameraController(
@@ -337,8 +598,10 @@ void main() {
     });
 
     test(
-        'startVideoRecording() throws $CameraException when already streaming images',
+        'startVideoRecording() throws $CameraException when already streaming images on iOS',
         () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+      addTearDown(() => debugDefaultTargetPlatformOverride = null);
       final CameraController cameraController = CameraController(
           const CameraDescription(
               name: 'cam',
@@ -1411,6 +1674,12 @@ class MockCameraPlatform extends Mock
           ? throw PlatformException(code: 'foo', message: 'bar')
           : Future<int>.value(mockInitializeCamera);
 
+  @override
+  Future<void> setDescription(
+          int? cameraId, CameraDescription? description) async =>
+      super.noSuchMethod(Invocation.method(
+          #setDescription, <Object?>[cameraId, description]));
+
   @override
   Stream<CameraInitializedEvent> onCameraInitialized(int cameraId) =>
       Stream<CameraInitializedEvent>.value(mockOnCameraInitializedEvent);
@@ -1423,6 +1692,18 @@ class MockCameraPlatform extends Mock
   Stream<CameraErrorEvent> onCameraError(int cameraId) =>
       Stream<CameraErrorEvent>.value(mockOnCameraErrorEvent);
 
+  @override
+  Stream<ImageStreamFramesDroppedEvent> onImageStreamFramesDropped(
+          int cameraId) =>
+      Stream<ImageStreamFramesDroppedEvent>.value(
+          mockOnImageStreamFramesDroppedEvent);
+
+  @override
+  Stream<PreviewResolutionChangedEvent> onPreviewResolutionChanged(
+          int cameraId) =>
+      Stream<PreviewResolutionChangedEvent>.value(
+          mockOnPreviewResolutionChangedEvent);
+
   @override
   Stream<DeviceOrientationChangedEvent> onDeviceOrientationChanged() =>
       Stream<DeviceOrientationChangedEvent>.value(
@@ -1433,14 +1714,44 @@ class MockCameraPlatform extends Mock
       ? throw PlatformException(code: 'foo', message: 'bar')
       : Future<XFile>.value(mockTakePicture);
 
+  @override
+  Future<List<XFile>> takePictureBurst(int? cameraId, int? count,
+          {Duration interval = Duration.zero}) async =>
+      super.noSuchMethod(
+        Invocation.method(#takePictureBurst, <Object?>[cameraId, count],
+            <Symbol, dynamic>{#interval: interval}),
+        returnValue: Future<List<XFile>>.value(<XFile>[]),
+      ) as Future<List<XFile>>;
+
   @override
   Future<void> prepareForVideoRecording() async =>
       super.noSuchMethod(Invocation.method(#prepareForVideoRecording, null));
 
   @override
-  Future<XFile> startVideoRecording(int cameraId,
-          {Duration? maxVideoDuration}) =>
-      Future<XFile>.value(mockVideoRecordingXFile);
+  Future<void> startVideoRecording(int? cameraId,
+          {Duration? maxVideoDuration,
+          VideoEncodingOptions? encodingOptions}) async =>
+      super.noSuchMethod(Invocation.method(
+        #startVideoRecording,
+        <Object?>[cameraId],
+        <Symbol, dynamic>{
+          #maxVideoDuration: maxVideoDuration,
+          #encodingOptions: encodingOptions,
+        },
+      ));
+
+  @override
+  Future<List<int>> getHighSpeedFrameRates(int? cameraId) async =>
+      super.noSuchMethod(
+        Invocation.method(#getHighSpeedFrameRates, <Object?>[cameraId]),
+        returnValue: Future<List<int>>.value(<int>[]),
+      ) as Future<List<int>>;
+
+  @override
+  Future<void> setAdaptivePreviewResolution(
+          int? cameraId, bool? enabled) async =>
+      super.noSuchMethod(Invocation.method(
+          #setAdaptivePreviewResolution, <Object?>[cameraId, enabled]));
 
   @override
   Future<void> lockCaptureOrientation(
@@ -1461,6 +1772,31 @@ class MockCameraPlatform extends Mock
   Future<void> resumePreview(int? cameraId) async => super
       .noSuchMethod(Invocation.method(#resumePreview, <Object?>[cameraId]));
 
+  @override
+  Future<void> updateSettings(int? cameraId, CameraSettings? settings) async =>
+      super.noSuchMethod(
+          Invocation.method(#updateSettings, <Object?>[cameraId, settings]));
+
+  @override
+  Future<void> updateGesture(int? cameraId,
+          {double? zoomLevel, Point<double>? focusPoint}) async =>
+      super.noSuchMethod(Invocation.method(#updateGesture, <Object?>[
+        cameraId
+      ], <Symbol, dynamic>{
+        #zoomLevel: zoomLevel,
+        #focusPoint: focusPoint,
+      }));
+
+  @override
+  Future<Map<String, LatencyStatistics>> getLatencyStatistics(int? cameraId,
+          {bool reset = false}) async =>
+      super.noSuchMethod(
+        Invocation.method(#getLatencyStatistics, <Object?>[cameraId],
+            <Symbol, dynamic>{#reset: reset}),
+        returnValue: Future<Map<String, LatencyStatistics>>.value(
+            <String, LatencyStatistics>{}),
+      ) as Future<Map<String, LatencyStatistics>>;
+
   @override
   Future<double> getMaxZoomLevel(int? cameraId) async => super.noSuchMethod(
         Invocation.method(#getMaxZoomLevel, <Object?>[cameraId]),
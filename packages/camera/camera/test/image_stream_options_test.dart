@@ -0,0 +1,59 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:ui';
+
+import 'package:camera/camera.dart';
+import 'package:flutter_test/flutter_test.dart';
+
+void main() {
+  group('image_stream_options', () {
+    test('toMap() serializes the default options', () {
+      const ImageStreamOptions options = ImageStreamOptions();
+
+      expect(options.toMap(), <String, dynamic>{
+        'frameDropPolicy': 'dropOldest',
+        'planes': 'all',
+        'subsampleFactor': 1,
+        'outputFormat': 'yuv420',
+      });
+    });
+
+    test('toMap() serializes all options', () {
+      const ImageStreamOptions options = ImageStreamOptions(
+        maxPendingFrames: 2,
+        frameDropPolicy: FrameDropPolicy.dropNewest,
+        planes: ImageStreamPlanes.luminance,
+        regionOfInterest: Rect.fromLTWH(10, 20, 320, 240),
+        subsampleFactor: 2,
+        outputFormat: ImageStreamOutputFormat.nv21,
+      );
+
+      expect(options.toMap(), <String, dynamic>{
+        'maxPendingFrames': 2,
+        'frameDropPolicy': 'dropNewest',
+        'planes': 'luminance',
+        'regionOfInterest': <String, int>{
+          'left': 10,
+          'top': 20,
+          'width': 320,
+          'height': 240,
+        },
+        'subsampleFactor': 2,
+        'outputFormat': 'nv21',
+      });
+    });
+
+    test('toMap() serializes every output format', () {
+      expect(
+        ImageStreamOutputFormat.values
+            .map((ImageStreamOutputFormat format) =>
+                ImageStreamOptions(outputFormat: format)
+                    .toMap()['outputFormat'])
+            .toList(),
+        <String>['yuv420', 'nv21', 'rgba8888'],
+      );
+    });
+  });
+}
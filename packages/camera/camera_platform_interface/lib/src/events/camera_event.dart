@@ -286,3 +286,99 @@ class VideoRecordedEvent extends CameraEvent {
   @override
   int get hashCode => Object.hash(super.hashCode, file, maxVideoDuration);
 }
+
+/// An event fired when image stream frames were dropped because the Dart side
+/// did not acknowledge earlier frames in time.
+class ImageStreamFramesDroppedEvent extends CameraEvent {
+  /// Build an ImageStreamFramesDroppedEvent triggered from the camera with the
+  /// `cameraId`.
+  ///
+  /// The `droppedFrames` represents the total number of frames dropped since
+  /// the image stream was started.
+  const ImageStreamFramesDroppedEvent(int cameraId, this.droppedFrames)
+      : super(cameraId);
+
+  /// Converts the supplied [Map] to an instance of the
+  /// [ImageStreamFramesDroppedEvent] class.
+  ImageStreamFramesDroppedEvent.fromJson(Map<String, dynamic> json)
+      : droppedFrames = json['droppedFrames']! as int,
+        super(json['cameraId']! as int);
+
+  /// The total number of frames dropped since the image stream was started.
+  final int droppedFrames;
+
+  /// Converts the [ImageStreamFramesDroppedEvent] instance into a [Map]
+  /// instance that can be serialized to JSON.
+  Map<String, dynamic> toJson() => <String, Object>{
+        'cameraId': cameraId,
+        'droppedFrames': droppedFrames,
+      };
+
+  @override
+  bool operator ==(Object other) =>
+      identical(this, other) ||
+      super == other &&
+          other is ImageStreamFramesDroppedEvent &&
+          runtimeType == other.runtimeType &&
+          droppedFrames == other.droppedFrames;
+
+  @override
+  int get hashCode => Object.hash(super.hashCode, droppedFrames);
+}
+
+/// An event fired when the preview resolution was adapted while the camera is
+/// running.
+class PreviewResolutionChangedEvent extends CameraEvent {
+  /// Build a PreviewResolutionChangedEvent triggered from the camera
+  /// represented by `cameraId`.
+  ///
+  /// The `previewWidth` and `previewHeight` represent the new size of the
+  /// preview in pixels. The `reason` is one of `frameInterval`, `thermal`,
+  /// `recovered` or `disabled`.
+  const PreviewResolutionChangedEvent(
+    int cameraId,
+    this.previewWidth,
+    this.previewHeight,
+    this.reason,
+  ) : super(cameraId);
+
+  /// Converts the supplied [Map] to an instance of the
+  /// [PreviewResolutionChangedEvent] class.
+  PreviewResolutionChangedEvent.fromJson(Map<String, dynamic> json)
+      : previewWidth = json['previewWidth']! as double,
+        previewHeight = json['previewHeight']! as double,
+        reason = json['reason']! as String,
+        super(json['cameraId']! as int);
+
+  /// The new preview width in pixels.
+  final double previewWidth;
+
+  /// The new preview height in pixels.
+  final double previewHeight;
+
+  /// Why the preview resolution changed.
+  final String reason;
+
+  /// Converts the [PreviewResolutionChangedEvent] instance into a [Map]
+  /// instance that can be serialized to JSON.
+  Map<String, dynamic> toJson() => <String, Object>{
+        'cameraId': cameraId,
+        'previewWidth': previewWidth,
+        'previewHeight': previewHeight,
+        'reason': reason,
+      };
+
+  @override
+  bool operator ==(Object other) =>
+      identical(this, other) ||
+      super == other &&
+          other is PreviewResolutionChangedEvent &&
+          runtimeType == other.runtimeType &&
+          previewWidth == other.previewWidth &&
+          previewHeight == other.previewHeight &&
+          reason == other.reason;
+
+  @override
+  int get hashCode =>
+      Object.hash(super.hashCode, previewWidth, previewHeight, reason);
+}
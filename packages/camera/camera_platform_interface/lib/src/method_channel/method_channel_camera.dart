@@ -155,6 +155,18 @@ class MethodChannelCamera extends CameraPlatform {
     );
   }
 
+  @override
+  Future<void> setDescription(
+      int cameraId, CameraDescription description) async {
+    await _channel.invokeMethod<void>(
+      'switchCamera',
+      <String, dynamic>{
+        'cameraId': cameraId,
+        'cameraName': description.name,
+      },
+    );
+  }
+
   @override
   Stream<CameraInitializedEvent> onCameraInitialized(int cameraId) {
     return _cameraEvents(cameraId).whereType<CameraInitializedEvent>();
@@ -180,6 +192,18 @@ class MethodChannelCamera extends CameraPlatform {
     return _cameraEvents(cameraId).whereType<VideoRecordedEvent>();
   }
 
+  @override
+  Stream<ImageStreamFramesDroppedEvent> onImageStreamFramesDropped(
+      int cameraId) {
+    return _cameraEvents(cameraId).whereType<ImageStreamFramesDroppedEvent>();
+  }
+
+  @override
+  Stream<PreviewResolutionChangedEvent> onPreviewResolutionChanged(
+      int cameraId) {
+    return _cameraEvents(cameraId).whereType<PreviewResolutionChangedEvent>();
+  }
+
   @override
   Stream<DeviceOrientationChangedEvent> onDeviceOrientationChanged() {
     return deviceEventStreamController.stream
@@ -225,22 +249,57 @@ class MethodChannelCamera extends CameraPlatform {
     return XFile(path);
   }
 
+  @override
+  Future<List<XFile>> takePictureBurst(int cameraId, int count,
+      {Duration interval = Duration.zero}) async {
+    final List<String>? paths = await _channel.invokeListMethod<String>(
+      'takePictureBurst',
+      <String, dynamic>{
+        'cameraId': cameraId,
+        'count': count,
+        'intervalMs': interval.inMilliseconds,
+      },
+    );
+
+    if (paths == null) {
+      throw CameraException(
+        'INVALID_PATH',
+        'The platform "$defaultTargetPlatform" did not return the paths while reporting success. The platform should always return valid paths or report an error.',
+      );
+    }
+
+    return paths.map((String path) => XFile(path)).toList();
+  }
+
   @override
   Future<void> prepareForVideoRecording() =>
       _channel.invokeMethod<void>('prepareForVideoRecording');
 
   @override
   Future<void> startVideoRecording(int cameraId,
-      {Duration? maxVideoDuration}) async {
+      {Duration? maxVideoDuration,
+      VideoEncodingOptions? encodingOptions}) async {
     await _channel.invokeMethod<void>(
       'startVideoRecording',
       <String, dynamic>{
         'cameraId': cameraId,
         'maxVideoDuration': maxVideoDuration?.inMilliseconds,
+        if (encodingOptions != null)
+          'encodingOptions': encodingOptions.toMap(),
       },
     );
   }
 
+  @override
+  Future<List<int>> getHighSpeedFrameRates(int cameraId) async {
+    final List<int>? frameRates = await _channel.invokeListMethod<int>(
+      'getHighSpeedFrameRates',
+      <String, dynamic>{'cameraId': cameraId},
+    );
+
+    return frameRates ?? <int>[];
+  }
+
   @override
   Future<XFile> stopVideoRecording(int cameraId) async {
     final String? path = await _channel.invokeMethod<String>(
@@ -376,6 +435,66 @@ class MethodChannelCamera extends CameraPlatform {
     );
   }
 
+  @override
+  Future<void> updateSettings(int cameraId, CameraSettings settings) async {
+    final FlashMode? flashMode = settings.flashMode;
+    final ExposureMode? exposureMode = settings.exposureMode;
+    final FocusMode? focusMode = settings.focusMode;
+    await _channel.invokeMethod<void>(
+      'updateSettings',
+      <String, dynamic>{
+        'cameraId': cameraId,
+        if (flashMode != null) 'flashMode': _serializeFlashMode(flashMode),
+        if (exposureMode != null)
+          'exposureMode': serializeExposureMode(exposureMode),
+        if (settings.exposurePoint != null || settings.resetExposurePoint)
+          'exposurePoint': _serializePoint(
+              settings.exposurePoint, settings.resetExposurePoint),
+        if (settings.exposureOffset != null)
+          'exposureOffset': settings.exposureOffset,
+        if (focusMode != null) 'focusMode': serializeFocusMode(focusMode),
+        if (settings.focusPoint != null || settings.resetFocusPoint)
+          'focusPoint':
+              _serializePoint(settings.focusPoint, settings.resetFocusPoint),
+        if (settings.zoomLevel != null) 'zoomLevel': settings.zoomLevel,
+      },
+    );
+  }
+
+  @override
+  Future<void> updateGesture(int cameraId,
+      {double? zoomLevel, Point<double>? focusPoint}) {
+    assert(focusPoint == null || focusPoint.x >= 0 && focusPoint.x <= 1);
+    assert(focusPoint == null || focusPoint.y >= 0 && focusPoint.y <= 1);
+
+    return _channel.invokeMethod<void>(
+      'updateGesture',
+      <String, dynamic>{
+        'cameraId': cameraId,
+        if (zoomLevel != null) 'zoomLevel': zoomLevel,
+        if (focusPoint != null)
+          'focusPoint': _serializePoint(focusPoint, false),
+      },
+    );
+  }
+
+  @override
+  Future<Map<String, LatencyStatistics>> getLatencyStatistics(int cameraId,
+      {bool reset = false}) async {
+    final Map<String, dynamic>? statistics =
+        await _channel.invokeMapMethod<String, dynamic>(
+      'getLatencyStatistics',
+      <String, dynamic>{'cameraId': cameraId, 'reset': reset},
+    );
+
+    if (statistics == null) {
+      return <String, LatencyStatistics>{};
+    }
+    return statistics.map((String phase, dynamic value) =>
+        MapEntry<String, LatencyStatistics>(
+            phase, LatencyStatistics.fromMap(value as Map<dynamic, dynamic>)));
+  }
+
   @override
   Future<double> getMaxZoomLevel(int cameraId) async {
     final double? maxZoomLevel = await _channel.invokeMethod<double>(
@@ -411,6 +530,16 @@ class MethodChannelCamera extends CameraPlatform {
     }
   }
 
+  @override
+  Future<void> setAdaptivePreviewResolution(int cameraId, bool enabled) =>
+      _channel.invokeMethod<void>(
+        'setAdaptivePreviewResolution',
+        <String, dynamic>{
+          'cameraId': cameraId,
+          'enabled': enabled,
+        },
+      );
+
   @override
   Future<void> pausePreview(int cameraId) async {
     await _channel.invokeMethod<double>(
@@ -448,6 +577,15 @@ class MethodChannelCamera extends CameraPlatform {
     }
   }
 
+  /// Returns the point as a map, like the arguments of [setExposurePoint].
+  Map<String, dynamic> _serializePoint(Point<double>? point, bool reset) {
+    return <String, dynamic>{
+      'reset': reset || point == null,
+      if (!reset && point != null) 'x': point.x,
+      if (!reset && point != null) 'y': point.y,
+    };
+  }
+
   /// Returns the resolution preset as a String.
   String _serializeResolutionPreset(ResolutionPreset resolutionPreset) {
     switch (resolutionPreset) {
@@ -530,6 +668,20 @@ class MethodChannelCamera extends CameraPlatform {
           call.arguments['description']! as String,
         ));
         break;
+      case 'image_stream_frames_dropped':
+        cameraEventStreamController.add(ImageStreamFramesDroppedEvent(
+          cameraId,
+          call.arguments['droppedFrames']! as int,
+        ));
+        break;
+      case 'preview_resolution_changed':
+        cameraEventStreamController.add(PreviewResolutionChangedEvent(
+          cameraId,
+          call.arguments['previewWidth']! as double,
+          call.arguments['previewHeight']! as double,
+          call.arguments['reason']! as String,
+        ));
+        break;
       default:
         throw MissingPluginException();
     }
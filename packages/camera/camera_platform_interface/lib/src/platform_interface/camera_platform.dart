@@ -72,6 +72,15 @@ abstract class CameraPlatform extends PlatformInterface {
     throw UnimplementedError('initializeCamera() is not implemented.');
   }
 
+  /// Switches the selected camera to the camera described by [description].
+  ///
+  /// Only the camera device and its capture session are replaced, the preview
+  /// texture of [cameraId] is kept. A [CameraInitializedEvent] is emitted
+  /// through [onCameraInitialized] once the new camera is open.
+  Future<void> setDescription(int cameraId, CameraDescription description) {
+    throw UnimplementedError('setDescription() is not implemented.');
+  }
+
   /// The camera has been initialized.
   Stream<CameraInitializedEvent> onCameraInitialized(int cameraId) {
     throw UnimplementedError('onCameraInitialized() is not implemented.');
@@ -98,6 +107,25 @@ abstract class CameraPlatform extends PlatformInterface {
     throw UnimplementedError('onCameraTimeLimitReached() is not implemented.');
   }
 
+  /// Image stream frames were dropped because earlier frames were not
+  /// acknowledged in time.
+  ///
+  /// Only emitted on platforms that support image stream backpressure.
+  Stream<ImageStreamFramesDroppedEvent> onImageStreamFramesDropped(
+      int cameraId) {
+    throw UnimplementedError(
+        'onImageStreamFramesDropped() is not implemented.');
+  }
+
+  /// The preview resolution was adapted while the camera is running.
+  ///
+  /// Only emitted on platforms that support adapting the preview resolution.
+  Stream<PreviewResolutionChangedEvent> onPreviewResolutionChanged(
+      int cameraId) {
+    throw UnimplementedError(
+        'onPreviewResolutionChanged() is not implemented.');
+  }
+
   /// The ui orientation changed.
   ///
   /// Implementations for this:
@@ -123,6 +151,17 @@ abstract class CameraPlatform extends PlatformInterface {
     throw UnimplementedError('takePicture() is not implemented.');
   }
 
+  /// Captures [count] images in quick succession and returns the files where
+  /// they were saved, in capture order.
+  ///
+  /// Focus and exposure are only locked once, before the first image. When
+  /// [interval] is [Duration.zero] the images are captured as fast as the
+  /// camera allows, otherwise one image is captured every [interval].
+  Future<List<XFile>> takePictureBurst(int cameraId, int count,
+      {Duration interval = Duration.zero}) {
+    throw UnimplementedError('takePictureBurst() is not implemented.');
+  }
+
   /// Prepare the capture session for video recording.
   Future<void> prepareForVideoRecording() {
     throw UnimplementedError('prepareForVideoRecording() is not implemented.');
@@ -135,10 +174,27 @@ abstract class CameraPlatform extends PlatformInterface {
   /// meaning the recording will continue until manually stopped.
   /// With [maxVideoDuration] set the video is returned in a [VideoRecordedEvent]
   /// through the [onVideoRecordedEvent] stream when the set duration is reached.
-  Future<void> startVideoRecording(int cameraId, {Duration? maxVideoDuration}) {
+  ///
+  /// When [encodingOptions] are supplied, the video is recorded with the
+  /// hardware encoder configured by them instead of the defaults of the
+  /// resolution preset. Platforms that do not support encoding options ignore
+  /// them.
+  Future<void> startVideoRecording(int cameraId,
+      {Duration? maxVideoDuration, VideoEncodingOptions? encodingOptions}) {
     throw UnimplementedError('startVideoRecording() is not implemented.');
   }
 
+  /// Gets the frame rates at which the selected camera can record videos in a
+  /// constrained high speed capture session, in ascending order.
+  ///
+  /// Returns an empty list when the camera does not support high speed
+  /// recording. Pass one of the frame rates as
+  /// [VideoEncodingOptions.highSpeedFrameRate] to [startVideoRecording] to
+  /// record at it.
+  Future<List<int>> getHighSpeedFrameRates(int cameraId) {
+    throw UnimplementedError('getHighSpeedFrameRates() is not implemented.');
+  }
+
   /// Stops the video recording and returns the file where it was saved.
   Future<XFile> stopVideoRecording(int cameraId) {
     throw UnimplementedError('stopVideoRecording() is not implemented.');
@@ -218,6 +274,40 @@ abstract class CameraPlatform extends PlatformInterface {
     throw UnimplementedError('setFocusPoint() is not implemented.');
   }
 
+  /// Applies several settings to the selected camera at once.
+  ///
+  /// The preview is only updated once, instead of once per setting as when
+  /// calling [setFlashMode], [setExposureMode], [setExposurePoint],
+  /// [setExposureOffset], [setFocusMode], [setFocusPoint] and [setZoomLevel]
+  /// one after the other. Either all [settings] are applied or, when one of
+  /// them is invalid, none is.
+  Future<void> updateSettings(int cameraId, CameraSettings settings) {
+    throw UnimplementedError('updateSettings() is not implemented.');
+  }
+
+  /// Updates the zoom level and focus point of the selected camera while a
+  /// gesture is in progress.
+  ///
+  /// Updates that arrive faster than the camera produces frames are
+  /// coalesced, and the latest values win. The [zoomLevel] is clamped to the
+  /// supported range and the focus is not triggered again.
+  Future<void> updateGesture(int cameraId,
+      {double? zoomLevel, Point<double>? focusPoint}) {
+    throw UnimplementedError('updateGesture() is not implemented.');
+  }
+
+  /// Gets statistics about how long opening the selected camera and taking
+  /// pictures took, keyed by phase.
+  ///
+  /// The phases are `deviceOpen`, `sessionConfiguration`, `firstFrame`,
+  /// `timeToFirstFrame`, `precapture`, `shutterLag` and `imageSave`. Phases
+  /// that were not measured yet are left out. When [reset] is true the
+  /// measurements are forgotten once they have been read.
+  Future<Map<String, LatencyStatistics>> getLatencyStatistics(int cameraId,
+      {bool reset = false}) {
+    throw UnimplementedError('getLatencyStatistics() is not implemented.');
+  }
+
   /// Gets the maximum supported zoom level for the selected camera.
   Future<double> getMaxZoomLevel(int cameraId) {
     throw UnimplementedError('getMaxZoomLevel() is not implemented.');
@@ -237,6 +327,18 @@ abstract class CameraPlatform extends PlatformInterface {
     throw UnimplementedError('setZoomLevel() is not implemented.');
   }
 
+  /// Enables or disables adapting the preview resolution of the selected
+  /// camera at runtime.
+  ///
+  /// While enabled, the preview and image stream resolution is lowered when
+  /// frames arrive too slowly or the device overheats, and raised again once
+  /// frames keep up. Every change is reported through
+  /// [onPreviewResolutionChanged].
+  Future<void> setAdaptivePreviewResolution(int cameraId, bool enabled) {
+    throw UnimplementedError(
+        'setAdaptivePreviewResolution() is not implemented.');
+  }
+
   /// Pause the active preview on the current frame for the selected camera.
   Future<void> pausePreview(int cameraId) {
     throw UnimplementedError('pausePreview() is not implemented.');
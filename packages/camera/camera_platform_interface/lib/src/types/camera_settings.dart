@@ -0,0 +1,106 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:math';
+
+import 'package:camera_platform_interface/src/types/exposure_mode.dart';
+import 'package:camera_platform_interface/src/types/flash_mode.dart';
+import 'package:camera_platform_interface/src/types/focus_mode.dart';
+
+/// Several camera settings that are applied at once.
+///
+/// Settings that are `null` keep their current value.
+class CameraSettings {
+  /// Creates new camera settings.
+  ///
+  /// The [exposurePoint] and [focusPoint] should be anywhere between (0,0)
+  /// and (1,1).
+  const CameraSettings({
+    this.flashMode,
+    this.exposureMode,
+    this.exposurePoint,
+    this.resetExposurePoint = false,
+    this.exposureOffset,
+    this.focusMode,
+    this.focusPoint,
+    this.resetFocusPoint = false,
+    this.zoomLevel,
+  })  : assert(exposurePoint == null ||
+            exposurePoint.x >= 0 &&
+                exposurePoint.x <= 1 &&
+                exposurePoint.y >= 0 &&
+                exposurePoint.y <= 1),
+        assert(focusPoint == null ||
+            focusPoint.x >= 0 &&
+                focusPoint.x <= 1 &&
+                focusPoint.y >= 0 &&
+                focusPoint.y <= 1);
+
+  /// The flash mode for taking pictures.
+  final FlashMode? flashMode;
+
+  /// The exposure mode for taking pictures.
+  final ExposureMode? exposureMode;
+
+  /// The point used for automatically determining the exposure values.
+  final Point<double>? exposurePoint;
+
+  /// Whether the exposure point is reset to its default value.
+  ///
+  /// Takes precedence over [exposurePoint].
+  final bool resetExposurePoint;
+
+  /// The exposure offset in EV units, already rounded to a supported step.
+  final double? exposureOffset;
+
+  /// The focus mode for taking pictures.
+  final FocusMode? focusMode;
+
+  /// The point used for automatically determining the focus values.
+  final Point<double>? focusPoint;
+
+  /// Whether the focus point is reset to its default value.
+  ///
+  /// Takes precedence over [focusPoint].
+  final bool resetFocusPoint;
+
+  /// The zoom level, between the minimum and maximum supported zoom level.
+  final double? zoomLevel;
+
+  @override
+  bool operator ==(Object other) =>
+      identical(this, other) ||
+      other is CameraSettings &&
+          runtimeType == other.runtimeType &&
+          flashMode == other.flashMode &&
+          exposureMode == other.exposureMode &&
+          exposurePoint == other.exposurePoint &&
+          resetExposurePoint == other.resetExposurePoint &&
+          exposureOffset == other.exposureOffset &&
+          focusMode == other.focusMode &&
+          focusPoint == other.focusPoint &&
+          resetFocusPoint == other.resetFocusPoint &&
+          zoomLevel == other.zoomLevel;
+
+  @override
+  int get hashCode => Object.hash(
+        flashMode,
+        exposureMode,
+        exposurePoint,
+        resetExposurePoint,
+        exposureOffset,
+        focusMode,
+        focusPoint,
+        resetFocusPoint,
+        zoomLevel,
+      );
+
+  @override
+  String toString() => 'CameraSettings(flashMode: $flashMode, '
+      'exposureMode: $exposureMode, exposurePoint: $exposurePoint, '
+      'resetExposurePoint: $resetExposurePoint, '
+      'exposureOffset: $exposureOffset, focusMode: $focusMode, '
+      'focusPoint: $focusPoint, resetFocusPoint: $resetFocusPoint, '
+      'zoomLevel: $zoomLevel)';
+}
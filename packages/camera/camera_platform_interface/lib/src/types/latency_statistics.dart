@@ -0,0 +1,74 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+/// Aggregated durations of a single camera phase, like opening the camera or
+/// taking a picture.
+///
+/// Currently only reported on Android.
+class LatencyStatistics {
+  /// Creates new latency statistics.
+  const LatencyStatistics({
+    required this.count,
+    required this.mean,
+    required this.p50,
+    required this.p90,
+    required this.p99,
+    required this.max,
+  });
+
+  /// Converts the supplied [Map] sent by the platform to an instance of the
+  /// [LatencyStatistics] class.
+  ///
+  /// The durations in the map are expected in milliseconds.
+  factory LatencyStatistics.fromMap(Map<dynamic, dynamic> map) {
+    return LatencyStatistics(
+      count: map['count']! as int,
+      mean: _fromMilliseconds(map['mean']! as double),
+      p50: _fromMilliseconds(map['p50']! as double),
+      p90: _fromMilliseconds(map['p90']! as double),
+      p99: _fromMilliseconds(map['p99']! as double),
+      max: _fromMilliseconds(map['max']! as double),
+    );
+  }
+
+  /// The total number of times the phase was measured.
+  final int count;
+
+  /// The mean duration of the most recent measurements.
+  final Duration mean;
+
+  /// The median duration of the most recent measurements.
+  final Duration p50;
+
+  /// The 90th percentile of the most recent measurements.
+  final Duration p90;
+
+  /// The 99th percentile of the most recent measurements.
+  final Duration p99;
+
+  /// The longest of the most recent measurements.
+  final Duration max;
+
+  static Duration _fromMilliseconds(double milliseconds) =>
+      Duration(microseconds: (milliseconds * 1000).round());
+
+  @override
+  bool operator ==(Object other) =>
+      identical(this, other) ||
+      other is LatencyStatistics &&
+          runtimeType == other.runtimeType &&
+          count == other.count &&
+          mean == other.mean &&
+          p50 == other.p50 &&
+          p90 == other.p90 &&
+          p99 == other.p99 &&
+          max == other.max;
+
+  @override
+  int get hashCode => Object.hash(count, mean, p50, p90, p99, max);
+
+  @override
+  String toString() => 'LatencyStatistics(count: $count, mean: $mean, '
+      'p50: $p50, p90: $p90, p99: $p99, max: $max)';
+}
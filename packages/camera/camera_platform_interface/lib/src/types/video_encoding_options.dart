@@ -0,0 +1,73 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+/// The codec used to encode recorded videos.
+enum VideoCodec {
+  /// H.264, supported by every device.
+  h264,
+
+  /// HEVC (H.265), which produces smaller files at the same quality.
+  ///
+  /// Devices without an HEVC encoder record with H.264 instead.
+  hevc,
+}
+
+/// Options that configure the hardware encoder used to record videos,
+/// instead of the defaults of the recording profile of the resolution
+/// preset.
+///
+/// Currently only used on Android.
+class VideoEncodingOptions {
+  /// Creates new video encoding options.
+  const VideoEncodingOptions({
+    this.bitrate,
+    this.keyFrameInterval = const Duration(seconds: 1),
+    this.codec = VideoCodec.h264,
+    this.constantQuality,
+    this.highSpeedFrameRate,
+  })  : assert(bitrate == null || bitrate > 0),
+        assert(constantQuality == null ||
+            (constantQuality >= 0 && constantQuality <= 100)),
+        assert(highSpeedFrameRate == null || highSpeedFrameRate > 0);
+
+  /// The video bitrate in bits per second.
+  ///
+  /// When `null`, the bitrate of the recording profile is used.
+  final int? bitrate;
+
+  /// The interval between key frames.
+  final Duration keyFrameInterval;
+
+  /// The preferred codec.
+  final VideoCodec codec;
+
+  /// The constant quality between 0 and 100, which takes precedence over
+  /// [bitrate].
+  ///
+  /// Devices that do not support constant quality encoding record with a
+  /// variable bitrate instead.
+  final int? constantQuality;
+
+  /// The frame rate to record at in a constrained high speed capture
+  /// session, like 120 or 240 frames per second.
+  ///
+  /// The video size is lowered to the largest size at which the camera
+  /// supports the frame rate. Pictures cannot be taken and images cannot be
+  /// streamed while recording at a high frame rate. See
+  /// `CameraPlatform.getHighSpeedFrameRates` for the supported frame rates.
+  ///
+  /// When `null`, the frame rate of the recording profile is used.
+  final int? highSpeedFrameRate;
+
+  /// Converts the options to the arguments of the `startVideoRecording` call.
+  Map<String, dynamic> toMap() {
+    return <String, dynamic>{
+      if (bitrate != null) 'bitrate': bitrate,
+      'keyFrameInterval': keyFrameInterval.inMilliseconds,
+      'codec': codec == VideoCodec.hevc ? 'hevc' : 'h264',
+      if (constantQuality != null) 'constantQuality': constantQuality,
+      if (highSpeedFrameRate != null) 'highSpeedFrameRate': highSpeedFrameRate,
+    };
+  }
+}
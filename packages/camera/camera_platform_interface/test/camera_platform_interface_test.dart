@@ -370,6 +370,117 @@ void main() {
       );
     });
 
+    test(
+        'Default implementation of setDescription() should throw unimplemented error',
+        () {
+      // Arrange
+      final ExtendsCameraPlatform cameraPlatform = ExtendsCameraPlatform();
+
+      // Act & Assert
+      expect(
+        () => cameraPlatform.setDescription(
+          1,
+          const CameraDescription(
+            name: 'Test',
+            lensDirection: CameraLensDirection.front,
+            sensorOrientation: 0,
+          ),
+        ),
+        throwsUnimplementedError,
+      );
+    });
+
+    test(
+        'Default implementation of takePictureBurst() should throw unimplemented error',
+        () {
+      // Arrange
+      final ExtendsCameraPlatform cameraPlatform = ExtendsCameraPlatform();
+
+      // Act & Assert
+      expect(
+        () => cameraPlatform.takePictureBurst(1, 2),
+        throwsUnimplementedError,
+      );
+    });
+
+    test(
+        'Default implementation of getHighSpeedFrameRates() should throw unimplemented error',
+        () {
+      // Arrange
+      final ExtendsCameraPlatform cameraPlatform = ExtendsCameraPlatform();
+
+      // Act & Assert
+      expect(
+        () => cameraPlatform.getHighSpeedFrameRates(1),
+        throwsUnimplementedError,
+      );
+    });
+
+    test(
+        'Default implementation of updateSettings() should throw unimplemented error',
+        () {
+      // Arrange
+      final ExtendsCameraPlatform cameraPlatform = ExtendsCameraPlatform();
+
+      // Act & Assert
+      expect(
+        () => cameraPlatform.updateSettings(1, const CameraSettings()),
+        throwsUnimplementedError,
+      );
+    });
+
+    test(
+        'Default implementation of updateGesture() should throw unimplemented error',
+        () {
+      // Arrange
+      final ExtendsCameraPlatform cameraPlatform = ExtendsCameraPlatform();
+
+      // Act & Assert
+      expect(
+        () => cameraPlatform.updateGesture(1, zoomLevel: 2.0),
+        throwsUnimplementedError,
+      );
+    });
+
+    test(
+        'Default implementation of getLatencyStatistics() should throw unimplemented error',
+        () {
+      // Arrange
+      final ExtendsCameraPlatform cameraPlatform = ExtendsCameraPlatform();
+
+      // Act & Assert
+      expect(
+        () => cameraPlatform.getLatencyStatistics(1),
+        throwsUnimplementedError,
+      );
+    });
+
+    test(
+        'Default implementation of onImageStreamFramesDropped() should throw unimplemented error',
+        () {
+      // Arrange
+      final ExtendsCameraPlatform cameraPlatform = ExtendsCameraPlatform();
+
+      // Act & Assert
+      expect(
+        () => cameraPlatform.onImageStreamFramesDropped(1),
+        throwsUnimplementedError,
+      );
+    });
+
+    test(
+        'Default implementation of onPreviewResolutionChanged() should throw unimplemented error',
+        () {
+      // Arrange
+      final ExtendsCameraPlatform cameraPlatform = ExtendsCameraPlatform();
+
+      // Act & Assert
+      expect(
+        () => cameraPlatform.onPreviewResolutionChanged(1),
+        throwsUnimplementedError,
+      );
+    });
+
     test(
         'Default implementation of getMaxZoomLevel() should throw unimplemented error',
         () {
@@ -409,6 +520,19 @@ void main() {
       );
     });
 
+    test(
+        'Default implementation of setAdaptivePreviewResolution() should throw unimplemented error',
+        () {
+      // Arrange
+      final ExtendsCameraPlatform cameraPlatform = ExtendsCameraPlatform();
+
+      // Act & Assert
+      expect(
+        () => cameraPlatform.setAdaptivePreviewResolution(1, true),
+        throwsUnimplementedError,
+      );
+    });
+
     test(
         'Default implementation of pausePreview() should throw unimplemented error',
         () {
@@ -333,4 +333,164 @@ void main() {
       expect(event.hashCode, expectedHashCode);
     });
   });
+
+  group('ImageStreamFramesDroppedEvent tests', () {
+    test('Constructor should initialize all properties', () {
+      const ImageStreamFramesDroppedEvent event =
+          ImageStreamFramesDroppedEvent(1, 12);
+
+      expect(event.cameraId, 1);
+      expect(event.droppedFrames, 12);
+    });
+
+    test('fromJson should initialize all properties', () {
+      final ImageStreamFramesDroppedEvent event =
+          ImageStreamFramesDroppedEvent.fromJson(
+              const <String, dynamic>{'cameraId': 1, 'droppedFrames': 12});
+
+      expect(event.cameraId, 1);
+      expect(event.droppedFrames, 12);
+    });
+
+    test('toJson should return a map with all fields', () {
+      const ImageStreamFramesDroppedEvent event =
+          ImageStreamFramesDroppedEvent(1, 12);
+
+      final Map<String, dynamic> jsonMap = event.toJson();
+
+      expect(jsonMap.length, 2);
+      expect(jsonMap['cameraId'], 1);
+      expect(jsonMap['droppedFrames'], 12);
+    });
+
+    test('equals should return true if objects are the same', () {
+      const ImageStreamFramesDroppedEvent firstEvent =
+          ImageStreamFramesDroppedEvent(1, 12);
+      const ImageStreamFramesDroppedEvent secondEvent =
+          ImageStreamFramesDroppedEvent(1, 12);
+
+      expect(firstEvent == secondEvent, true);
+    });
+
+    test('equals should return false if cameraId is different', () {
+      const ImageStreamFramesDroppedEvent firstEvent =
+          ImageStreamFramesDroppedEvent(1, 12);
+      const ImageStreamFramesDroppedEvent secondEvent =
+          ImageStreamFramesDroppedEvent(2, 12);
+
+      expect(firstEvent == secondEvent, false);
+    });
+
+    test('equals should return false if droppedFrames is different', () {
+      const ImageStreamFramesDroppedEvent firstEvent =
+          ImageStreamFramesDroppedEvent(1, 12);
+      const ImageStreamFramesDroppedEvent secondEvent =
+          ImageStreamFramesDroppedEvent(1, 13);
+
+      expect(firstEvent == secondEvent, false);
+    });
+
+    test('hashCode should match hashCode of all properties', () {
+      const ImageStreamFramesDroppedEvent event =
+          ImageStreamFramesDroppedEvent(1, 12);
+      final int expectedHashCode =
+          Object.hash(event.cameraId, event.droppedFrames);
+
+      expect(event.hashCode, expectedHashCode);
+    });
+  });
+
+  group('PreviewResolutionChangedEvent tests', () {
+    test('Constructor should initialize all properties', () {
+      const PreviewResolutionChangedEvent event =
+          PreviewResolutionChangedEvent(1, 640, 360, 'thermal');
+
+      expect(event.cameraId, 1);
+      expect(event.previewWidth, 640);
+      expect(event.previewHeight, 360);
+      expect(event.reason, 'thermal');
+    });
+
+    test('fromJson should initialize all properties', () {
+      final PreviewResolutionChangedEvent event =
+          PreviewResolutionChangedEvent.fromJson(const <String, dynamic>{
+        'cameraId': 1,
+        'previewWidth': 640.0,
+        'previewHeight': 360.0,
+        'reason': 'thermal',
+      });
+
+      expect(event.cameraId, 1);
+      expect(event.previewWidth, 640);
+      expect(event.previewHeight, 360);
+      expect(event.reason, 'thermal');
+    });
+
+    test('toJson should return a map with all fields', () {
+      const PreviewResolutionChangedEvent event =
+          PreviewResolutionChangedEvent(1, 640, 360, 'thermal');
+
+      final Map<String, dynamic> jsonMap = event.toJson();
+
+      expect(jsonMap.length, 4);
+      expect(jsonMap['cameraId'], 1);
+      expect(jsonMap['previewWidth'], 640);
+      expect(jsonMap['previewHeight'], 360);
+      expect(jsonMap['reason'], 'thermal');
+    });
+
+    test('equals should return true if objects are the same', () {
+      const PreviewResolutionChangedEvent firstEvent =
+          PreviewResolutionChangedEvent(1, 640, 360, 'thermal');
+      const PreviewResolutionChangedEvent secondEvent =
+          PreviewResolutionChangedEvent(1, 640, 360, 'thermal');
+
+      expect(firstEvent == secondEvent, true);
+    });
+
+    test('equals should return false if cameraId is different', () {
+      const PreviewResolutionChangedEvent firstEvent =
+          PreviewResolutionChangedEvent(1, 640, 360, 'thermal');
+      const PreviewResolutionChangedEvent secondEvent =
+          PreviewResolutionChangedEvent(2, 640, 360, 'thermal');
+
+      expect(firstEvent == secondEvent, false);
+    });
+
+    test('equals should return false if previewWidth is different', () {
+      const PreviewResolutionChangedEvent firstEvent =
+          PreviewResolutionChangedEvent(1, 640, 360, 'thermal');
+      const PreviewResolutionChangedEvent secondEvent =
+          PreviewResolutionChangedEvent(1, 1280, 360, 'thermal');
+
+      expect(firstEvent == secondEvent, false);
+    });
+
+    test('equals should return false if previewHeight is different', () {
+      const PreviewResolutionChangedEvent firstEvent =
+          PreviewResolutionChangedEvent(1, 640, 360, 'thermal');
+      const PreviewResolutionChangedEvent secondEvent =
+          PreviewResolutionChangedEvent(1, 640, 720, 'thermal');
+
+      expect(firstEvent == secondEvent, false);
+    });
+
+    test('equals should return false if reason is different', () {
+      const PreviewResolutionChangedEvent firstEvent =
+          PreviewResolutionChangedEvent(1, 640, 360, 'thermal');
+      const PreviewResolutionChangedEvent secondEvent =
+          PreviewResolutionChangedEvent(1, 640, 360, 'frameInterval');
+
+      expect(firstEvent == secondEvent, false);
+    });
+
+    test('hashCode should match hashCode of all properties', () {
+      const PreviewResolutionChangedEvent event =
+          PreviewResolutionChangedEvent(1, 640, 360, 'thermal');
+      final int expectedHashCode = Object.hash(event.cameraId,
+          event.previewWidth, event.previewHeight, event.reason);
+
+      expect(event.hashCode, expectedHashCode);
+    });
+  });
 }
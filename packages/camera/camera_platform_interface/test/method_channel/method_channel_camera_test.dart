@@ -395,6 +395,60 @@ void main() {
         await streamQueue.cancel();
       });
 
+      test('Should receive image stream frames dropped events', () async {
+        // Act
+        final Stream<ImageStreamFramesDroppedEvent> eventStream =
+            camera.onImageStreamFramesDropped(cameraId);
+        final StreamQueue<ImageStreamFramesDroppedEvent> streamQueue =
+            StreamQueue<ImageStreamFramesDroppedEvent>(eventStream);
+
+        // Emit test events
+        final ImageStreamFramesDroppedEvent firstEvent =
+            ImageStreamFramesDroppedEvent(cameraId, 3);
+        final ImageStreamFramesDroppedEvent secondEvent =
+            ImageStreamFramesDroppedEvent(cameraId, 7);
+        await camera.handleCameraMethodCall(
+            MethodCall('image_stream_frames_dropped', firstEvent.toJson()),
+            cameraId);
+        await camera.handleCameraMethodCall(
+            MethodCall('image_stream_frames_dropped', secondEvent.toJson()),
+            cameraId);
+
+        // Assert
+        expect(await streamQueue.next, firstEvent);
+        expect(await streamQueue.next, secondEvent);
+
+        // Clean up
+        await streamQueue.cancel();
+      });
+
+      test('Should receive preview resolution changed events', () async {
+        // Act
+        final Stream<PreviewResolutionChangedEvent> eventStream =
+            camera.onPreviewResolutionChanged(cameraId);
+        final StreamQueue<PreviewResolutionChangedEvent> streamQueue =
+            StreamQueue<PreviewResolutionChangedEvent>(eventStream);
+
+        // Emit test events
+        final PreviewResolutionChangedEvent firstEvent =
+            PreviewResolutionChangedEvent(cameraId, 640, 360, 'thermal');
+        final PreviewResolutionChangedEvent secondEvent =
+            PreviewResolutionChangedEvent(cameraId, 1280, 720, 'recovered');
+        await camera.handleCameraMethodCall(
+            MethodCall('preview_resolution_changed', firstEvent.toJson()),
+            cameraId);
+        await camera.handleCameraMethodCall(
+            MethodCall('preview_resolution_changed', secondEvent.toJson()),
+            cameraId);
+
+        // Assert
+        expect(await streamQueue.next, firstEvent);
+        expect(await streamQueue.next, secondEvent);
+
+        // Clean up
+        await streamQueue.cancel();
+      });
+
       test('Should receive device orientation change events', () async {
         // Act
         final Stream<DeviceOrientationChangedEvent> eventStream =
@@ -541,6 +595,57 @@ void main() {
         expect(file.path, '/test/path.jpg');
       });
 
+      test('Should switch to another camera', () async {
+        // Arrange
+        final MethodChannelMock channel = MethodChannelMock(
+          channelName: 'plugins.flutter.io/camera',
+          methods: <String, dynamic>{'switchCamera': null},
+        );
+
+        // Act
+        await camera.setDescription(
+          cameraId,
+          const CameraDescription(
+            name: 'Front',
+            lensDirection: CameraLensDirection.front,
+            sensorOrientation: 270,
+          ),
+        );
+
+        // Assert
+        expect(channel.log, <Matcher>[
+          isMethodCall('switchCamera', arguments: <String, Object?>{
+            'cameraId': cameraId,
+            'cameraName': 'Front',
+          }),
+        ]);
+      });
+
+      test('Should take a burst of pictures and return XFile instances',
+          () async {
+        // Arrange
+        final MethodChannelMock channel = MethodChannelMock(
+            channelName: 'plugins.flutter.io/camera',
+            methods: <String, dynamic>{
+              'takePictureBurst': <String>['/test/a.jpg', '/test/b.jpg']
+            });
+
+        // Act
+        final List<XFile> files = await camera.takePictureBurst(cameraId, 2,
+            interval: const Duration(milliseconds: 100));
+
+        // Assert
+        expect(channel.log, <Matcher>[
+          isMethodCall('takePictureBurst', arguments: <String, Object?>{
+            'cameraId': cameraId,
+            'count': 2,
+            'intervalMs': 100,
+          }),
+        ]);
+        expect(files.map((XFile file) => file.path),
+            <String>['/test/a.jpg', '/test/b.jpg']);
+      });
+
       test('Should prepare for video recording', () async {
         // Arrange
         final MethodChannelMock channel = MethodChannelMock(
@@ -599,6 +704,60 @@ void main() {
         ]);
       });
 
+      test('Should pass encodingOptions when starting recording a video',
+          () async {
+        // Arrange
+        final MethodChannelMock channel = MethodChannelMock(
+          channelName: 'plugins.flutter.io/camera',
+          methods: <String, dynamic>{'startVideoRecording': null},
+        );
+
+        // Act
+        await camera.startVideoRecording(
+          cameraId,
+          encodingOptions: const VideoEncodingOptions(
+            bitrate: 4000000,
+            keyFrameInterval: Duration(seconds: 2),
+            codec: VideoCodec.hevc,
+          ),
+        );
+
+        // Assert
+        expect(channel.log, <Matcher>[
+          isMethodCall('startVideoRecording', arguments: <String, Object?>{
+            'cameraId': cameraId,
+            'maxVideoDuration': null,
+            'encodingOptions': <String, Object?>{
+              'bitrate': 4000000,
+              'keyFrameInterval': 2000,
+              'codec': 'hevc',
+            },
+          }),
+        ]);
+      });
+
+      test('Should get the high speed frame rates', () async {
+        // Arrange
+        final MethodChannelMock channel = MethodChannelMock(
+          channelName: 'plugins.flutter.io/camera',
+          methods: <String, dynamic>{
+            'getHighSpeedFrameRates': <int>[120, 240]
+          },
+        );
+
+        // Act
+        final List<int> frameRates =
+            await camera.getHighSpeedFrameRates(cameraId);
+
+        // Assert
+        expect(frameRates, <int>[120, 240]);
+        expect(channel.log, <Matcher>[
+          isMethodCall('getHighSpeedFrameRates', arguments: <String, Object?>{
+            'cameraId': cameraId,
+          }),
+        ]);
+      });
+
       test('Should stop a video recording and return the file', () async {
         // Arrange
         final MethodChannelMock channel = MethodChannelMock(
@@ -893,6 +1052,137 @@ void main() {
             throwsA(isA<MissingPluginException>()));
       });
 
+      test('Should get the latency statistics per phase', () async {
+        // Arrange
+        final MethodChannelMock channel = MethodChannelMock(
+          channelName: 'plugins.flutter.io/camera',
+          methods: <String, dynamic>{
+            'getLatencyStatistics': <String, dynamic>{
+              'shutterLag': <String, dynamic>{
+                'count': 3,
+                'mean': 120.0,
+                'p50': 110.0,
+                'p90': 150.5,
+                'p99': 150.5,
+                'max': 150.5,
+              }
+            }
+          },
+        );
+
+        // Act
+        final Map<String, LatencyStatistics> statistics =
+            await camera.getLatencyStatistics(cameraId, reset: true);
+
+        // Assert
+        expect(statistics, <String, LatencyStatistics>{
+          'shutterLag': const LatencyStatistics(
+            count: 3,
+            mean: Duration(milliseconds: 120),
+            p50: Duration(milliseconds: 110),
+            p90: Duration(microseconds: 150500),
+            p99: Duration(microseconds: 150500),
+            max: Duration(microseconds: 150500),
+          ),
+        });
+        expect(channel.log, <Matcher>[
+          isMethodCall('getLatencyStatistics', arguments: <String, Object?>{
+            'cameraId': cameraId,
+            'reset': true,
+          }),
+        ]);
+      });
+
+      test('Should update several settings at once', () async {
+        // Arrange
+        final MethodChannelMock channel = MethodChannelMock(
+          channelName: 'plugins.flutter.io/camera',
+          methods: <String, dynamic>{'updateSettings': null},
+        );
+
+        // Act
+        await camera.updateSettings(
+          cameraId,
+          const CameraSettings(
+            flashMode: FlashMode.torch,
+            exposurePoint: Point<double>(0.5, 0.5),
+            resetExposurePoint: true,
+            exposureOffset: 1.0,
+            focusMode: FocusMode.locked,
+            focusPoint: Point<double>(0.25, 0.75),
+            zoomLevel: 2.0,
+          ),
+        );
+
+        // Assert
+        expect(channel.log, <Matcher>[
+          isMethodCall('updateSettings', arguments: <String, Object?>{
+            'cameraId': cameraId,
+            'flashMode': 'torch',
+            'exposurePoint': <String, Object?>{'reset': true},
+            'exposureOffset': 1.0,
+            'focusMode': 'locked',
+            'focusPoint': <String, Object?>{
+              'reset': false,
+              'x': 0.25,
+              'y': 0.75,
+            },
+            'zoomLevel': 2.0,
+          }),
+        ]);
+      });
+
+      test('Should only send the settings that are set', () async {
+        // Arrange
+        final MethodChannelMock channel = MethodChannelMock(
+          channelName: 'plugins.flutter.io/camera',
+          methods: <String, dynamic>{'updateSettings': null},
+        );
+
+        // Act
+        await camera.updateSettings(
+            cameraId, const CameraSettings(exposureMode: ExposureMode.locked));
+
+        // Assert
+        expect(channel.log, <Matcher>[
+          isMethodCall('updateSettings', arguments: <String, Object?>{
+            'cameraId': cameraId,
+            'exposureMode': 'locked',
+          }),
+        ]);
+      });
+
+      test('Should update the zoom level and focus point of a gesture',
+          () async {
+        // Arrange
+        final MethodChannelMock channel = MethodChannelMock(
+          channelName: 'plugins.flutter.io/camera',
+          methods: <String, dynamic>{'updateGesture': null},
+        );
+
+        // Act
+        await camera.updateGesture(cameraId,
+            zoomLevel: 1.5, focusPoint: const Point<double>(0.5, 0.25));
+        await camera.updateGesture(cameraId, zoomLevel: 1.6);
+
+        // Assert
+        expect(channel.log, <Matcher>[
+          isMethodCall('updateGesture', arguments: <String, Object?>{
+            'cameraId': cameraId,
+            'zoomLevel': 1.5,
+            'focusPoint': <String, Object?>{
+              'reset': false,
+              'x': 0.5,
+              'y': 0.25,
+            },
+          }),
+          isMethodCall('updateGesture', arguments: <String, Object?>{
+            'cameraId': cameraId,
+            'zoomLevel': 1.6,
+          }),
+        ]);
+      });
+
       test('Should get the max zoom level', () async {
         // Arrange
         final MethodChannelMock channel = MethodChannelMock(
@@ -1008,6 +1298,26 @@ void main() {
         ]);
       });
 
+      test('Should enable adaptive preview resolution', () async {
+        // Arrange
+        final MethodChannelMock channel = MethodChannelMock(
+          channelName: 'plugins.flutter.io/camera',
+          methods: <String, dynamic>{'setAdaptivePreviewResolution': null},
+        );
+
+        // Act
+        await camera.setAdaptivePreviewResolution(cameraId, true);
+
+        // Assert
+        expect(channel.log, <Matcher>[
+          isMethodCall('setAdaptivePreviewResolution',
+              arguments: <String, Object?>{
+                'cameraId': cameraId,
+                'enabled': true,
+              }),
+        ]);
+      });
+
       test('Should pause the camera preview', () async {
         // Arrange
         final MethodChannelMock channel = MethodChannelMock(
@@ -0,0 +1,78 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:math';
+
+import 'package:camera_platform_interface/camera_platform_interface.dart';
+import 'package:flutter_test/flutter_test.dart';
+
+void main() {
+  test('Constructor should keep unset settings null', () {
+    const CameraSettings settings = CameraSettings();
+
+    expect(settings.flashMode, isNull);
+    expect(settings.exposureMode, isNull);
+    expect(settings.exposurePoint, isNull);
+    expect(settings.resetExposurePoint, isFalse);
+    expect(settings.exposureOffset, isNull);
+    expect(settings.focusMode, isNull);
+    expect(settings.focusPoint, isNull);
+    expect(settings.resetFocusPoint, isFalse);
+    expect(settings.zoomLevel, isNull);
+  });
+
+  test('Constructor should assert points are between (0,0) and (1,1)', () {
+    expect(
+      () => CameraSettings(exposurePoint: const Point<double>(1.5, 0.5)),
+      throwsAssertionError,
+    );
+    expect(
+      () => CameraSettings(focusPoint: const Point<double>(0.5, -1)),
+      throwsAssertionError,
+    );
+  });
+
+  test('equals should compare all properties', () {
+    const CameraSettings settings = CameraSettings(
+      flashMode: FlashMode.torch,
+      focusPoint: Point<double>(0.25, 0.75),
+      zoomLevel: 2.0,
+    );
+    const CameraSettings other = CameraSettings(
+      flashMode: FlashMode.torch,
+      focusPoint: Point<double>(0.25, 0.75),
+      zoomLevel: 3.0,
+    );
+
+    expect(
+        settings,
+        const CameraSettings(
+          flashMode: FlashMode.torch,
+          focusPoint: Point<double>(0.25, 0.75),
+          zoomLevel: 2.0,
+        ));
+    expect(settings == other, isFalse);
+  });
+
+  test('hashCode should match hashCode of all properties', () {
+    const CameraSettings settings = CameraSettings(
+      exposureMode: ExposureMode.locked,
+      resetExposurePoint: true,
+      exposureOffset: 1.0,
+    );
+    final int expectedHashCode = Object.hash(
+      null,
+      ExposureMode.locked,
+      null,
+      true,
+      1.0,
+      null,
+      null,
+      false,
+      null,
+    );
+
+    expect(settings.hashCode, expectedHashCode);
+  });
+}
@@ -0,0 +1,58 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'package:camera_platform_interface/camera_platform_interface.dart';
+import 'package:flutter_test/flutter_test.dart';
+
+void main() {
+  test('fromMap should convert milliseconds to durations', () {
+    final LatencyStatistics statistics =
+        LatencyStatistics.fromMap(<String, dynamic>{
+      'count': 4,
+      'mean': 12.5,
+      'p50': 10.0,
+      'p90': 20.25,
+      'p99': 30.0,
+      'max': 30.0,
+    });
+
+    expect(statistics.count, 4);
+    expect(statistics.mean, const Duration(microseconds: 12500));
+    expect(statistics.p50, const Duration(milliseconds: 10));
+    expect(statistics.p90, const Duration(microseconds: 20250));
+    expect(statistics.p99, const Duration(milliseconds: 30));
+    expect(statistics.max, const Duration(milliseconds: 30));
+  });
+
+  test('equals should compare all properties', () {
+    const LatencyStatistics statistics = LatencyStatistics(
+      count: 1,
+      mean: Duration(milliseconds: 5),
+      p50: Duration(milliseconds: 5),
+      p90: Duration(milliseconds: 5),
+      p99: Duration(milliseconds: 5),
+      max: Duration(milliseconds: 5),
+    );
+    const LatencyStatistics other = LatencyStatistics(
+      count: 2,
+      mean: Duration(milliseconds: 5),
+      p50: Duration(milliseconds: 5),
+      p90: Duration(milliseconds: 5),
+      p99: Duration(milliseconds: 5),
+      max: Duration(milliseconds: 5),
+    );
+
+    expect(
+        statistics,
+        const LatencyStatistics(
+          count: 1,
+          mean: Duration(milliseconds: 5),
+          p50: Duration(milliseconds: 5),
+          p90: Duration(milliseconds: 5),
+          p99: Duration(milliseconds: 5),
+          max: Duration(milliseconds: 5),
+        ));
+    expect(statistics == other, isFalse);
+  });
+}
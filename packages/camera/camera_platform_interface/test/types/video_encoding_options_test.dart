@@ -0,0 +1,33 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'package:camera_platform_interface/camera_platform_interface.dart';
+import 'package:flutter_test/flutter_test.dart';
+
+void main() {
+  test('toMap should only contain the default options', () {
+    expect(const VideoEncodingOptions().toMap(), <String, dynamic>{
+      'keyFrameInterval': 1000,
+      'codec': 'h264',
+    });
+  });
+
+  test('toMap should contain all supplied options', () {
+    const VideoEncodingOptions options = VideoEncodingOptions(
+      bitrate: 4000000,
+      keyFrameInterval: Duration(seconds: 2),
+      codec: VideoCodec.hevc,
+      constantQuality: 80,
+      highSpeedFrameRate: 240,
+    );
+
+    expect(options.toMap(), <String, dynamic>{
+      'bitrate': 4000000,
+      'keyFrameInterval': 2000,
+      'codec': 'hevc',
+      'constantQuality': 80,
+      'highSpeedFrameRate': 240,
+    });
+  });
+}
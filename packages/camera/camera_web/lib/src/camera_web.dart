@@ -449,7 +449,9 @@ class CameraPlugin extends CameraPlatform {
   }
 
   @override
-  Future<void> startVideoRecording(int cameraId, {Duration? maxVideoDuration}) {
+  Future<void> startVideoRecording(int cameraId,
+      {Duration? maxVideoDuration, VideoEncodingOptions? encodingOptions}) {
+    // The encoding options are not supported on the web and are ignored.
     try {
       final Camera camera = getCamera(cameraId);
 
@@ -218,7 +218,9 @@ class CameraWindows extends CameraPlatform {
   Future<void> startVideoRecording(
     int cameraId, {
     Duration? maxVideoDuration,
+    VideoEncodingOptions? encodingOptions,
   }) async {
+    // The encoding options are not supported on Windows and are ignored.
     await pluginChannel.invokeMethod<void>(
       'startVideoRecording',
       <String, dynamic>{
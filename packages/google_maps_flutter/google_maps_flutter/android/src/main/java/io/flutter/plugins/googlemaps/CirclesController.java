@@ -8,6 +8,7 @@ import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.model.Circle;
 import com.google.android.gms.maps.model.CircleOptions;
 import io.flutter.plugin.common.MethodChannel;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,13 +17,18 @@ class CirclesController {
 
   private final Map<String, CircleController> circleIdToController;
   private final Map<String, String> googleMapsCircleIdToDartCircleId;
+  // The options of all circles while viewport culling is enabled.
+  private final Map<String, Object> circleIdToCircle;
   private final MethodChannel methodChannel;
   private final float density;
   private GoogleMap googleMap;
+  // Null unless viewport culling is enabled.
+  private VisibleObjects visibleObjects;
 
   CirclesController(MethodChannel methodChannel, float density) {
     this.circleIdToController = new HashMap<>();
     this.googleMapsCircleIdToDartCircleId = new HashMap<>();
+    this.circleIdToCircle = new HashMap<>();
     this.methodChannel = methodChannel;
     this.density = density;
   }
@@ -31,11 +37,20 @@ class CirclesController {
     this.googleMap = googleMap;
   }
 
+  /**
+   * Makes the map only have the circles near the visible region, which are updated when the camera
+   * stops moving. Must be called before circles are added.
+   */
+  void setViewportCullingEnabled(boolean viewportCullingEnabled) {
+    visibleObjects = viewportCullingEnabled ? new VisibleObjects() : null;
+  }
+
   void addCircles(List<Object> circlesToAdd) {
     if (circlesToAdd != null) {
       for (Object circleToAdd : circlesToAdd) {
         addCircle(circleToAdd);
       }
+      updateVisibleCircles();
     }
   }
 
@@ -44,6 +59,7 @@ class CirclesController {
       for (Object circleToChange : circlesToChange) {
         changeCircle(circleToChange);
       }
+      updateVisibleCircles();
     }
   }
 
@@ -56,14 +72,18 @@ class CirclesController {
         continue;
       }
       String circleId = (String) rawCircleId;
-      final CircleController circleController = circleIdToController.remove(circleId);
-      if (circleController != null) {
-        circleController.remove();
-        googleMapsCircleIdToDartCircleId.remove(circleController.getGoogleMapsCircleId());
+      circleIdToCircle.remove(circleId);
+      if (visibleObjects != null) {
+        visibleObjects.remove(circleId);
       }
+      removeCircleFromMap(circleId);
     }
   }
 
+  void onCameraIdle() {
+    updateVisibleCircles();
+  }
+
   boolean onCircleTap(String googleCircleId) {
     String circleId = googleMapsCircleIdToDartCircleId.get(googleCircleId);
     if (circleId == null) {
@@ -77,10 +97,38 @@ class CirclesController {
     return false;
   }
 
+  /** Adds the circles near the visible region to the map and removes the others. */
+  private void updateVisibleCircles() {
+    if (visibleObjects == null || googleMap == null) {
+      return;
+    }
+    visibleObjects.setVisibleBounds(googleMap.getProjection().getVisibleRegion().latLngBounds);
+    for (String circleId : new ArrayList<>(circleIdToController.keySet())) {
+      if (!visibleObjects.isVisible(circleId)) {
+        removeCircleFromMap(circleId);
+      }
+    }
+    for (String circleId : visibleObjects.getVisibleIds()) {
+      if (!circleIdToController.containsKey(circleId)) {
+        addCircleToMap(circleIdToCircle.get(circleId));
+      }
+    }
+  }
+
   private void addCircle(Object circle) {
     if (circle == null) {
       return;
     }
+    if (visibleObjects != null) {
+      final String circleId = getCircleId(circle);
+      circleIdToCircle.put(circleId, circle);
+      putBounds(circleId, circle);
+      return;
+    }
+    addCircleToMap(circle);
+  }
+
+  private void addCircleToMap(Object circle) {
     CircleBuilder circleBuilder = new CircleBuilder(density);
     String circleId = Convert.interpretCircleOptions(circle, circleBuilder);
     CircleOptions options = circleBuilder.build();
@@ -99,12 +147,32 @@ class CirclesController {
       return;
     }
     String circleId = getCircleId(circle);
+    if (visibleObjects != null && circleIdToCircle.containsKey(circleId)) {
+      circleIdToCircle.put(circleId, circle);
+      putBounds(circleId, circle);
+    }
     CircleController circleController = circleIdToController.get(circleId);
     if (circleController != null) {
       Convert.interpretCircleOptions(circle, circleController);
     }
   }
 
+  private void removeCircleFromMap(String circleId) {
+    final CircleController circleController = circleIdToController.remove(circleId);
+    if (circleController != null) {
+      circleController.remove();
+      googleMapsCircleIdToDartCircleId.remove(circleController.getGoogleMapsCircleId());
+    }
+  }
+
+  private void putBounds(String circleId, Object circle) {
+    final Map<?, ?> circleMap = (Map<?, ?>) circle;
+    visibleObjects.put(
+        circleId,
+        Convert.toLatLng(circleMap.get("center")),
+        Convert.toDouble(circleMap.get("radius")));
+  }
+
   @SuppressWarnings("unchecked")
   private static String getCircleId(Object circle) {
     Map<String, Object> circleMap = (Map<String, Object>) circle;
@@ -0,0 +1,75 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import com.google.android.gms.maps.model.BitmapDescriptor;
+import com.google.android.gms.maps.model.BitmapDescriptorFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Draws the marker icons of clusters, which show how many markers a cluster has. */
+class ClusterIconFactory {
+
+  private static final int DIAMETER = 40;
+  private static final int BORDER_WIDTH = 2;
+  private static final int TEXT_SIZE = 14;
+  private static final int COLOR = 0xff1a73e8;
+  private static final int BORDER_COLOR = 0xffffffff;
+  private static final int TEXT_COLOR = 0xffffffff;
+
+  private final float density;
+  private final Map<String, BitmapDescriptor> labelToIcon = new HashMap<>();
+
+  ClusterIconFactory(float density) {
+    this.density = density;
+  }
+
+  BitmapDescriptor getIcon(int size) {
+    final String label = getLabel(size);
+    BitmapDescriptor icon = labelToIcon.get(label);
+    if (icon == null) {
+      icon = BitmapDescriptorFactory.fromBitmap(createBitmap(label));
+      labelToIcon.put(label, icon);
+    }
+    return icon;
+  }
+
+  /** Rounds large sizes down, so that only a few distinct icons are needed. */
+  static String getLabel(int size) {
+    if (size < 100) {
+      return Integer.toString(size);
+    }
+    if (size < 1000) {
+      return (size / 100 * 100) + "+";
+    }
+    return (size / 1000) + "k+";
+  }
+
+  private Bitmap createBitmap(String label) {
+    final int diameter = Math.round(DIAMETER * density);
+    final float radius = diameter / 2f;
+    final float borderWidth = BORDER_WIDTH * density;
+    final Bitmap bitmap = Bitmap.createBitmap(diameter, diameter, Bitmap.Config.ARGB_8888);
+    final Canvas canvas = new Canvas(bitmap);
+    final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    paint.setColor(BORDER_COLOR);
+    canvas.drawCircle(radius, radius, radius, paint);
+    paint.setColor(COLOR);
+    canvas.drawCircle(radius, radius, radius - borderWidth, paint);
+
+    paint.setColor(TEXT_COLOR);
+    paint.setTextAlign(Paint.Align.CENTER);
+    paint.setTextSize(TEXT_SIZE * density);
+    paint.setTypeface(Typeface.DEFAULT_BOLD);
+    final float baseline = radius - (paint.descent() + paint.ascent()) / 2;
+    canvas.drawText(label, radius, baseline, paint);
+    return bitmap;
+  }
+}
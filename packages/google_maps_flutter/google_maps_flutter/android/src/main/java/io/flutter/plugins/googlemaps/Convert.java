@@ -131,7 +131,7 @@ class Convert {
     }
   }
 
-  private static double toDouble(Object o) {
+  static double toDouble(Object o) {
     return ((Number) o).doubleValue();
   }
 
@@ -376,6 +376,14 @@ class Convert {
     if (buildingsEnabled != null) {
       sink.setBuildingsEnabled(toBoolean(buildingsEnabled));
     }
+    final Object markerClusteringEnabled = data.get("markerClusteringEnabled");
+    if (markerClusteringEnabled != null) {
+      sink.setMarkerClusteringEnabled(toBoolean(markerClusteringEnabled));
+    }
+    final Object viewportCullingEnabled = data.get("viewportCullingEnabled");
+    if (viewportCullingEnabled != null) {
+      sink.setViewportCullingEnabled(toBoolean(viewportCullingEnabled));
+    }
   }
 
   /** Returns the dartMarkerId of the interpreted marker. */
@@ -592,7 +600,7 @@ class Convert {
     }
   }
 
-  private static List<LatLng> toPoints(Object o) {
+  static List<LatLng> toPoints(Object o) {
     final List<?> data = toList(o);
     final List<LatLng> points = new ArrayList<>(data.size());
 
@@ -679,6 +687,18 @@ class Convert {
     if (visible != null) {
       sink.setVisible(toBoolean(visible));
     }
+    final String urlTemplate = (String) data.get("urlTemplate");
+    if (urlTemplate != null) {
+      if (!UrlTileFetcher.isSupportedUrlTemplate(urlTemplate)) {
+        throw new IllegalArgumentException(
+            "urlTemplate is not an http or https URL: " + urlTemplate);
+      }
+      sink.setUrlTemplate(urlTemplate);
+    }
+    final Object tileSize = data.get("tileSize");
+    if (tileSize != null) {
+      sink.setTileSize(toInt(tileSize));
+    }
     final String tileOverlayId = (String) data.get("tileOverlayId");
     if (tileOverlayId == null) {
       throw new IllegalArgumentException("tileOverlayId was null");
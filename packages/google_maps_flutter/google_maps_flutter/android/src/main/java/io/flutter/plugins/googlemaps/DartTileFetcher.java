@@ -0,0 +1,68 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.util.Log;
+import androidx.annotation.NonNull;
+import com.google.android.gms.maps.model.Tile;
+import com.google.android.gms.maps.model.TileProvider;
+import io.flutter.plugin.common.MethodChannel;
+import java.util.Map;
+
+/** Requests tiles from the Dart tile provider of a tile overlay. */
+class DartTileFetcher implements TileFetcher {
+
+  private static final String TAG = "DartTileFetcher";
+
+  private final MethodChannel methodChannel;
+  private final String tileOverlayId;
+
+  DartTileFetcher(MethodChannel methodChannel, String tileOverlayId) {
+    this.methodChannel = methodChannel;
+    this.tileOverlayId = tileOverlayId;
+  }
+
+  @Override
+  public void fetchTile(int x, int y, int zoom, @NonNull Callback callback) {
+    methodChannel.invokeMethod(
+        "tileOverlay#getTile",
+        Convert.tileOverlayArgumentsToJson(tileOverlayId, x, y, zoom),
+        new MethodChannel.Result() {
+          @Override
+          @SuppressWarnings("unchecked")
+          public void success(Object data) {
+            Tile tile;
+            try {
+              tile = Convert.interpretTile((Map<String, ?>) data);
+            } catch (Exception e) {
+              Log.e(TAG, "Can't parse tile data", e);
+              tile = TileProvider.NO_TILE;
+            }
+            callback.onTile(tile);
+          }
+
+          @Override
+          public void error(String errorCode, String errorMessage, Object data) {
+            Log.e(
+                TAG,
+                String.format(
+                    "Can't get tile: errorCode = %s, errorMessage = %s, data = %s",
+                    errorCode, errorMessage, data));
+            callback.onTile(TileProvider.NO_TILE);
+          }
+
+          @Override
+          public void notImplemented() {
+            Log.e(TAG, "Can't get tile: notImplemented");
+            callback.onTile(TileProvider.NO_TILE);
+          }
+        });
+  }
+
+  @Override
+  public void cancelTile(@NonNull Callback callback) {
+    // Method channel calls cannot be aborted, the callback is called once Dart answers.
+  }
+}
@@ -21,6 +21,8 @@ class GoogleMapBuilder implements GoogleMapOptionsSink {
   private boolean indoorEnabled = true;
   private boolean trafficEnabled = false;
   private boolean buildingsEnabled = true;
+  private boolean markerClusteringEnabled = false;
+  private boolean viewportCullingEnabled = false;
   private Object initialMarkers;
   private Object initialPolygons;
   private Object initialPolylines;
@@ -42,6 +44,8 @@ class GoogleMapBuilder implements GoogleMapOptionsSink {
     controller.setTrafficEnabled(trafficEnabled);
     controller.setBuildingsEnabled(buildingsEnabled);
     controller.setTrackCameraPosition(trackCameraPosition);
+    controller.setMarkerClusteringEnabled(markerClusteringEnabled);
+    controller.setViewportCullingEnabled(viewportCullingEnabled);
     controller.setInitialMarkers(initialMarkers);
     controller.setInitialPolygons(initialPolygons);
     controller.setInitialPolylines(initialPolylines);
@@ -135,6 +139,16 @@ class GoogleMapBuilder implements GoogleMapOptionsSink {
     this.buildingsEnabled = buildingsEnabled;
   }
 
+  @Override
+  public void setMarkerClusteringEnabled(boolean markerClusteringEnabled) {
+    this.markerClusteringEnabled = markerClusteringEnabled;
+  }
+
+  @Override
+  public void setViewportCullingEnabled(boolean viewportCullingEnabled) {
+    this.viewportCullingEnabled = viewportCullingEnabled;
+  }
+
   @Override
   public void setMyLocationEnabled(boolean myLocationEnabled) {
     this.myLocationEnabled = myLocationEnabled;
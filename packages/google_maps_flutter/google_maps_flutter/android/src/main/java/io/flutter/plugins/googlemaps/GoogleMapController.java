@@ -97,11 +97,12 @@ final class GoogleMapController
     methodChannel = new MethodChannel(binaryMessenger, "plugins.flutter.io/google_maps_" + id);
     methodChannel.setMethodCallHandler(this);
     this.lifecycleProvider = lifecycleProvider;
-    this.markersController = new MarkersController(methodChannel);
+    this.markersController = new MarkersController(methodChannel, density);
     this.polygonsController = new PolygonsController(methodChannel, density);
     this.polylinesController = new PolylinesController(methodChannel, density);
     this.circlesController = new CirclesController(methodChannel, density);
-    this.tileOverlaysController = new TileOverlaysController(methodChannel);
+    this.tileOverlaysController =
+        new TileOverlaysController(methodChannel, TileCache.getInstance(context));
   }
 
   @Override
@@ -458,6 +459,11 @@ final class GoogleMapController
 
   @Override
   public void onCameraIdle() {
+    markersController.onCameraIdle();
+    polygonsController.onCameraIdle();
+    polylinesController.onCameraIdle();
+    circlesController.onCameraIdle();
+    tileOverlaysController.onCameraIdle();
     methodChannel.invokeMethod("camera#onIdle", Collections.singletonMap("map", id));
   }
 
@@ -836,4 +842,25 @@ final class GoogleMapController
   public void setBuildingsEnabled(boolean buildingsEnabled) {
     this.buildingsEnabled = buildingsEnabled;
   }
+
+  @Override
+  public void setMarkerClusteringEnabled(boolean markerClusteringEnabled) {
+    // The markers are added once the map is ready, after which the mode can't change.
+    if (googleMap != null) {
+      return;
+    }
+    markersController.setClusteringEnabled(markerClusteringEnabled);
+  }
+
+  @Override
+  public void setViewportCullingEnabled(boolean viewportCullingEnabled) {
+    // The map objects are added once the map is ready, after which the mode can't change.
+    if (googleMap != null) {
+      return;
+    }
+    markersController.setViewportCullingEnabled(viewportCullingEnabled);
+    polygonsController.setViewportCullingEnabled(viewportCullingEnabled);
+    polylinesController.setViewportCullingEnabled(viewportCullingEnabled);
+    circlesController.setViewportCullingEnabled(viewportCullingEnabled);
+  }
 }
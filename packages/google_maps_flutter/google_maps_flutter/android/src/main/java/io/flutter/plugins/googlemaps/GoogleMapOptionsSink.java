@@ -46,6 +46,10 @@ interface GoogleMapOptionsSink {
 
   void setBuildingsEnabled(boolean buildingsEnabled);
 
+  void setMarkerClusteringEnabled(boolean markerClusteringEnabled);
+
+  void setViewportCullingEnabled(boolean viewportCullingEnabled);
+
   void setInitialMarkers(Object initialMarkers);
 
   void setInitialPolygons(Object initialPolygons);
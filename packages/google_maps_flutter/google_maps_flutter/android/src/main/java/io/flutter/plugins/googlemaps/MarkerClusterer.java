@@ -0,0 +1,221 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Groups markers that are close to each other on the screen into clusters.
+ *
+ * <p>The markers of a zoom level are grouped by the square grid cell they fall into. The grid of a
+ * zoom level is built the first time it is needed and is then kept up to date as markers are
+ * added, moved and removed, so changing the markers or moving the camera never regroups all
+ * markers.
+ */
+class MarkerClusterer {
+
+  /** The size of a grid cell in density-independent pixels. */
+  static final int CELL_SIZE = 96;
+
+  /** Markers are still grouped at higher zoom levels as if the map was at this zoom level. */
+  static final int MAX_ZOOM = 21;
+
+  private static final int TILE_SIZE = 256;
+  private static final double MAX_LATITUDE = 85.05112878;
+
+  private final Map<String, LatLng> markerIdToPosition = new HashMap<>();
+  private final Map<Integer, Map<Long, Cluster>> zoomToGrid = new HashMap<>();
+
+  /** Adds a marker, or moves it if it was added before. */
+  void add(String markerId, LatLng position) {
+    final LatLng previousPosition = markerIdToPosition.put(markerId, position);
+    if (position.equals(previousPosition)) {
+      return;
+    }
+    for (Map.Entry<Integer, Map<Long, Cluster>> grid : zoomToGrid.entrySet()) {
+      if (previousPosition != null) {
+        removeFromGrid(grid.getValue(), grid.getKey(), markerId, previousPosition);
+      }
+      addToGrid(grid.getValue(), grid.getKey(), markerId, position);
+    }
+  }
+
+  void remove(String markerId) {
+    final LatLng position = markerIdToPosition.remove(markerId);
+    if (position == null) {
+      return;
+    }
+    for (Map.Entry<Integer, Map<Long, Cluster>> grid : zoomToGrid.entrySet()) {
+      removeFromGrid(grid.getValue(), grid.getKey(), markerId, position);
+    }
+  }
+
+  /**
+   * Returns the clusters in or next to the visible bounds at the given camera zoom.
+   *
+   * <p>A cluster of a single marker stands for that marker.
+   */
+  List<Cluster> getClusters(LatLngBounds visibleBounds, float cameraZoom) {
+    final int zoom = Math.max(0, Math.min(MAX_ZOOM, (int) cameraZoom));
+    final Map<Long, Cluster> grid = getGrid(zoom);
+    final int cellCount = getCellCount(zoom);
+    // One cell of margin keeps clusters at the edges of the screen.
+    final int minX = getCellX(visibleBounds.southwest.longitude, zoom) - 1;
+    final int maxX = getCellX(visibleBounds.northeast.longitude, zoom) + 1;
+    final int minY = getCellY(visibleBounds.northeast.latitude, zoom) - 1;
+    final int maxY = getCellY(visibleBounds.southwest.latitude, zoom) + 1;
+    // The bounds cross the antimeridian if the western edge is east of the eastern edge.
+    final int spanX = minX <= maxX ? maxX - minX : maxX + cellCount - minX;
+
+    final List<Cluster> clusters = new ArrayList<>();
+    for (Cluster cluster : grid.values()) {
+      if (cluster.cellY < minY || cluster.cellY > maxY) {
+        continue;
+      }
+      if (spanX + 1 < cellCount && wrap(cluster.cellX - minX, cellCount) > spanX) {
+        continue;
+      }
+      clusters.add(cluster);
+    }
+    return clusters;
+  }
+
+  /** Returns the bounds of the markers in the cluster. */
+  LatLngBounds getBounds(Cluster cluster) {
+    final LatLngBounds.Builder builder = LatLngBounds.builder();
+    for (String markerId : cluster.markerIds) {
+      builder.include(markerIdToPosition.get(markerId));
+    }
+    return builder.build();
+  }
+
+  private Map<Long, Cluster> getGrid(int zoom) {
+    Map<Long, Cluster> grid = zoomToGrid.get(zoom);
+    if (grid == null) {
+      grid = new HashMap<>();
+      for (Map.Entry<String, LatLng> marker : markerIdToPosition.entrySet()) {
+        addToGrid(grid, zoom, marker.getKey(), marker.getValue());
+      }
+      zoomToGrid.put(zoom, grid);
+    }
+    return grid;
+  }
+
+  private static void addToGrid(
+      Map<Long, Cluster> grid, int zoom, String markerId, LatLng position) {
+    final int cellX = getCellX(position.longitude, zoom);
+    final int cellY = getCellY(position.latitude, zoom);
+    final long key = getCellKey(cellX, cellY);
+    Cluster cluster = grid.get(key);
+    if (cluster == null) {
+      cluster = new Cluster(zoom, cellX, cellY);
+      grid.put(key, cluster);
+    }
+    cluster.add(markerId, position);
+  }
+
+  private static void removeFromGrid(
+      Map<Long, Cluster> grid, int zoom, String markerId, LatLng position) {
+    final long key =
+        getCellKey(getCellX(position.longitude, zoom), getCellY(position.latitude, zoom));
+    final Cluster cluster = grid.get(key);
+    if (cluster != null) {
+      cluster.remove(markerId, position);
+      if (cluster.markerIds.isEmpty()) {
+        grid.remove(key);
+      }
+    }
+  }
+
+  private static long getCellKey(int cellX, int cellY) {
+    return ((long) cellX << 32) | (cellY & 0xffffffffL);
+  }
+
+  private static int getCellCount(int zoom) {
+    return (int) Math.ceil(getWorldSize(zoom) / CELL_SIZE);
+  }
+
+  private static double getWorldSize(int zoom) {
+    return TILE_SIZE * Math.pow(2, zoom);
+  }
+
+  private static int getCellX(double longitude, int zoom) {
+    final double x = (longitude + 180) / 360 * getWorldSize(zoom);
+    return Math.min(getCellCount(zoom) - 1, (int) Math.floor(x / CELL_SIZE));
+  }
+
+  private static int getCellY(double latitude, int zoom) {
+    final double sin =
+        Math.sin(Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude))));
+    final double y = (0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI)) * getWorldSize(zoom);
+    return Math.min(getCellCount(zoom) - 1, (int) Math.floor(y / CELL_SIZE));
+  }
+
+  private static int wrap(int value, int count) {
+    final int result = value % count;
+    return result < 0 ? result + count : result;
+  }
+
+  /** The markers in one grid cell of a zoom level. */
+  static final class Cluster {
+    private final int zoom;
+    private final int cellX;
+    private final int cellY;
+    private final Set<String> markerIds = new LinkedHashSet<>();
+    private double latitudeSum;
+    // Longitudes are summed as unit vectors, so clusters near the antimeridian average correctly.
+    private double longitudeSinSum;
+    private double longitudeCosSum;
+
+    private Cluster(int zoom, int cellX, int cellY) {
+      this.zoom = zoom;
+      this.cellX = cellX;
+      this.cellY = cellY;
+    }
+
+    /** Returns an id that is unique among the clusters of all zoom levels. */
+    String getId() {
+      return zoom + "/" + cellX + "/" + cellY;
+    }
+
+    int getSize() {
+      return markerIds.size();
+    }
+
+    /** Returns the ids of the markers, in the order they were added. */
+    Set<String> getMarkerIds() {
+      return Collections.unmodifiableSet(markerIds);
+    }
+
+    /** Returns the average position of the markers. */
+    LatLng getPosition() {
+      return new LatLng(
+          latitudeSum / markerIds.size(),
+          Math.toDegrees(Math.atan2(longitudeSinSum, longitudeCosSum)));
+    }
+
+    private void add(String markerId, LatLng position) {
+      markerIds.add(markerId);
+      latitudeSum += position.latitude;
+      longitudeSinSum += Math.sin(Math.toRadians(position.longitude));
+      longitudeCosSum += Math.cos(Math.toRadians(position.longitude));
+    }
+
+    private void remove(String markerId, LatLng position) {
+      markerIds.remove(markerId);
+      latitudeSum -= position.latitude;
+      longitudeSinSum -= Math.sin(Math.toRadians(position.longitude));
+      longitudeCosSum -= Math.cos(Math.toRadians(position.longitude));
+    }
+  }
+}
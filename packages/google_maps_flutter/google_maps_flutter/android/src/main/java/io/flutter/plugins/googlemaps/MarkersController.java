@@ -4,37 +4,90 @@
 
 package io.flutter.plugins.googlemaps;
 
+import com.google.android.gms.maps.CameraUpdateFactory;
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.Marker;
 import com.google.android.gms.maps.model.MarkerOptions;
 import io.flutter.plugin.common.MethodChannel;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 class MarkersController {
 
+  // The padding around the markers of a tapped cluster when zooming into it.
+  private static final int CLUSTER_PADDING = 64;
+
   private final Map<String, MarkerController> markerIdToController;
   private final Map<String, String> googleMapsMarkerIdToDartMarkerId;
+  // The options of clustered or culled markers, including those that are not on the map.
+  private final Map<String, Object> markerIdToMarker;
+  private final Map<String, ClusterMarker> clusterIdToClusterMarker;
+  private final Map<String, String> googleMapsMarkerIdToClusterId;
   private final MethodChannel methodChannel;
+  private final ClusterIconFactory clusterIconFactory;
+  private final float density;
   private GoogleMap googleMap;
+  // Null unless clustering is enabled.
+  private MarkerClusterer markerClusterer;
+  // Null unless viewport culling is enabled.
+  private VisibleObjects visibleObjects;
 
   MarkersController(MethodChannel methodChannel) {
+    this(methodChannel, 1);
+  }
+
+  MarkersController(MethodChannel methodChannel, float density) {
+    this(methodChannel, new ClusterIconFactory(density), density);
+  }
+
+  MarkersController(
+      MethodChannel methodChannel, ClusterIconFactory clusterIconFactory, float density) {
     this.markerIdToController = new HashMap<>();
     this.googleMapsMarkerIdToDartMarkerId = new HashMap<>();
+    this.markerIdToMarker = new HashMap<>();
+    this.clusterIdToClusterMarker = new HashMap<>();
+    this.googleMapsMarkerIdToClusterId = new HashMap<>();
     this.methodChannel = methodChannel;
+    this.clusterIconFactory = clusterIconFactory;
+    this.density = density;
   }
 
   void setGoogleMap(GoogleMap googleMap) {
     this.googleMap = googleMap;
   }
 
+  /**
+   * Enables or disables grouping markers into clusters. Must be called before markers are added.
+   *
+   * <p>While clustering, only the clusters and single markers near the visible region are on the
+   * map. They are updated as markers change and when the camera stops moving.
+   */
+  void setClusteringEnabled(boolean clusteringEnabled) {
+    markerClusterer = clusteringEnabled ? new MarkerClusterer() : null;
+  }
+
+  /**
+   * Makes the map only have the markers near the visible region, which are updated when the camera
+   * stops moving. Must be called before markers are added. Clustering markers culls them as well.
+   */
+  void setViewportCullingEnabled(boolean viewportCullingEnabled) {
+    visibleObjects = viewportCullingEnabled ? new VisibleObjects() : null;
+  }
+
   void addMarkers(List<Object> markersToAdd) {
     if (markersToAdd != null) {
       for (Object markerToAdd : markersToAdd) {
         addMarker(markerToAdd);
       }
+      updateMarkers();
     }
   }
 
@@ -43,6 +96,7 @@ class MarkersController {
       for (Object markerToChange : markersToChange) {
         changeMarker(markerToChange);
       }
+      updateMarkers();
     }
   }
 
@@ -55,16 +109,32 @@ class MarkersController {
         continue;
       }
       String markerId = (String) rawMarkerId;
-      final MarkerController markerController = markerIdToController.remove(markerId);
-      if (markerController != null) {
-        markerController.remove();
-        googleMapsMarkerIdToDartMarkerId.remove(markerController.getGoogleMapsMarkerId());
+      markerIdToMarker.remove(markerId);
+      if (markerClusterer != null) {
+        markerClusterer.remove(markerId);
+      }
+      if (visibleObjects != null) {
+        visibleObjects.remove(markerId);
       }
+      removeMarkerFromMap(markerId);
     }
+    updateMarkers();
+  }
+
+  void onCameraIdle() {
+    updateMarkers();
   }
 
+  /**
+   * Shows the info window of a marker. Clustered and culled markers are added to the map to show
+   * it, until the markers are updated again.
+   */
   void showMarkerInfoWindow(String markerId, MethodChannel.Result result) {
     MarkerController markerController = markerIdToController.get(markerId);
+    if (markerController == null && markerIdToMarker.containsKey(markerId)) {
+      addMarkerToMap(markerIdToMarker.get(markerId));
+      markerController = markerIdToController.get(markerId);
+    }
     if (markerController != null) {
       markerController.showInfoWindow();
       result.success(null);
@@ -78,6 +148,9 @@ class MarkersController {
     if (markerController != null) {
       markerController.hideInfoWindow();
       result.success(null);
+    } else if (markerIdToMarker.containsKey(markerId)) {
+      // Clustered and culled markers are not on the map, so their info window is hidden.
+      result.success(null);
     } else {
       result.error("Invalid markerId", "hideInfoWindow called with invalid markerId", null);
     }
@@ -87,12 +160,19 @@ class MarkersController {
     MarkerController markerController = markerIdToController.get(markerId);
     if (markerController != null) {
       result.success(markerController.isInfoWindowShown());
+    } else if (markerIdToMarker.containsKey(markerId)) {
+      result.success(false);
     } else {
       result.error("Invalid markerId", "isInfoWindowShown called with invalid markerId", null);
     }
   }
 
   boolean onMarkerTap(String googleMarkerId) {
+    final String clusterId = googleMapsMarkerIdToClusterId.get(googleMarkerId);
+    if (clusterId != null) {
+      onClusterTap(clusterIdToClusterMarker.get(clusterId).cluster);
+      return true;
+    }
     String markerId = googleMapsMarkerIdToDartMarkerId.get(googleMarkerId);
     if (markerId == null) {
       return false;
@@ -146,10 +226,100 @@ class MarkersController {
     methodChannel.invokeMethod("infoWindow#onTap", Convert.markerIdToJson(markerId));
   }
 
+  /**
+   * Reports a tap on the first marker of the cluster, as the cluster has no id of its own, and
+   * zooms into the cluster.
+   */
+  private void onClusterTap(MarkerClusterer.Cluster cluster) {
+    final String markerId = cluster.getMarkerIds().iterator().next();
+    methodChannel.invokeMethod("marker#onTap", Convert.markerIdToJson(markerId));
+    final LatLngBounds bounds = markerClusterer.getBounds(cluster);
+    googleMap.animateCamera(
+        CameraUpdateFactory.newLatLngBounds(bounds, (int) (CLUSTER_PADDING * density)));
+  }
+
+  /**
+   * Makes the map show the clusters and single markers near the visible region while clustering or
+   * culling markers.
+   *
+   * <p>Markers and clusters that are already on the map and still visible are kept.
+   */
+  private void updateMarkers() {
+    if (googleMap == null || (markerClusterer == null && visibleObjects == null)) {
+      return;
+    }
+    final LatLngBounds visibleBounds = googleMap.getProjection().getVisibleRegion().latLngBounds;
+    final Set<String> visibleMarkerIds;
+    final Map<String, MarkerClusterer.Cluster> visibleClusters = new HashMap<>();
+    if (markerClusterer != null) {
+      visibleMarkerIds = new HashSet<>();
+      final float zoom = googleMap.getCameraPosition().zoom;
+      for (MarkerClusterer.Cluster cluster : markerClusterer.getClusters(visibleBounds, zoom)) {
+        if (cluster.getSize() == 1) {
+          visibleMarkerIds.addAll(cluster.getMarkerIds());
+        } else {
+          visibleClusters.put(cluster.getId(), cluster);
+        }
+      }
+    } else {
+      visibleObjects.setVisibleBounds(visibleBounds);
+      visibleMarkerIds = visibleObjects.getVisibleIds();
+    }
+
+    for (String markerId : new ArrayList<>(markerIdToController.keySet())) {
+      if (!visibleMarkerIds.contains(markerId)) {
+        removeMarkerFromMap(markerId);
+      }
+    }
+    for (String markerId : visibleMarkerIds) {
+      if (!markerIdToController.containsKey(markerId)) {
+        addMarkerToMap(markerIdToMarker.get(markerId));
+      }
+    }
+
+    final Iterator<ClusterMarker> clusterMarkers = clusterIdToClusterMarker.values().iterator();
+    while (clusterMarkers.hasNext()) {
+      final ClusterMarker clusterMarker = clusterMarkers.next();
+      final MarkerClusterer.Cluster cluster = visibleClusters.remove(clusterMarker.cluster.getId());
+      if (cluster == null) {
+        clusterMarker.marker.remove();
+        googleMapsMarkerIdToClusterId.remove(clusterMarker.marker.getId());
+        clusterMarkers.remove();
+      } else {
+        clusterMarker.update(cluster);
+      }
+    }
+    for (MarkerClusterer.Cluster cluster : visibleClusters.values()) {
+      final Marker marker =
+          googleMap.addMarker(
+              new MarkerOptions()
+                  .position(cluster.getPosition())
+                  .icon(clusterIconFactory.getIcon(cluster.getSize()))
+                  .anchor(0.5f, 0.5f));
+      clusterIdToClusterMarker.put(cluster.getId(), new ClusterMarker(marker, cluster));
+      googleMapsMarkerIdToClusterId.put(marker.getId(), cluster.getId());
+    }
+  }
+
   private void addMarker(Object marker) {
     if (marker == null) {
       return;
     }
+    final String markerId = getMarkerId(marker);
+    if (markerClusterer != null) {
+      markerIdToMarker.put(markerId, marker);
+      markerClusterer.add(markerId, getPosition(marker));
+      return;
+    }
+    if (visibleObjects != null) {
+      markerIdToMarker.put(markerId, marker);
+      visibleObjects.put(markerId, Collections.singletonList(getPosition(marker)));
+      return;
+    }
+    addMarkerToMap(marker);
+  }
+
+  private void addMarkerToMap(Object marker) {
     MarkerBuilder markerBuilder = new MarkerBuilder();
     String markerId = Convert.interpretMarkerOptions(marker, markerBuilder);
     MarkerOptions options = markerBuilder.build();
@@ -168,15 +338,68 @@ class MarkersController {
       return;
     }
     String markerId = getMarkerId(marker);
+    if (markerClusterer != null || visibleObjects != null) {
+      if (!markerIdToMarker.containsKey(markerId)) {
+        return;
+      }
+      markerIdToMarker.put(markerId, marker);
+      if (markerClusterer != null) {
+        markerClusterer.add(markerId, getPosition(marker));
+      } else {
+        visibleObjects.put(markerId, Collections.singletonList(getPosition(marker)));
+      }
+    }
     MarkerController markerController = markerIdToController.get(markerId);
     if (markerController != null) {
       Convert.interpretMarkerOptions(marker, markerController);
     }
   }
 
+  private void removeMarkerFromMap(String markerId) {
+    final MarkerController markerController = markerIdToController.remove(markerId);
+    if (markerController != null) {
+      markerController.remove();
+      googleMapsMarkerIdToDartMarkerId.remove(markerController.getGoogleMapsMarkerId());
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private static String getMarkerId(Object marker) {
     Map<String, Object> markerMap = (Map<String, Object>) marker;
     return (String) markerMap.get("markerId");
   }
+
+  private static LatLng getPosition(Object marker) {
+    final Map<?, ?> markerMap = (Map<?, ?>) marker;
+    return Convert.toLatLng(markerMap.get("position"));
+  }
+
+  /** A marker on the map that stands for a cluster of markers. */
+  private final class ClusterMarker {
+    final Marker marker;
+    MarkerClusterer.Cluster cluster;
+    private int size;
+    private LatLng position;
+
+    ClusterMarker(Marker marker, MarkerClusterer.Cluster cluster) {
+      this.marker = marker;
+      this.cluster = cluster;
+      this.size = cluster.getSize();
+      this.position = cluster.getPosition();
+    }
+
+    /** Updates the marker if markers were added to or removed from the cluster. */
+    void update(MarkerClusterer.Cluster cluster) {
+      this.cluster = cluster;
+      if (size != cluster.getSize()) {
+        size = cluster.getSize();
+        marker.setIcon(clusterIconFactory.getIcon(size));
+      }
+      final LatLng newPosition = cluster.getPosition();
+      if (!newPosition.equals(position)) {
+        position = newPosition;
+        marker.setPosition(position);
+      }
+    }
+  }
 }
@@ -8,6 +8,7 @@ import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.model.Polygon;
 import com.google.android.gms.maps.model.PolygonOptions;
 import io.flutter.plugin.common.MethodChannel;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,13 +17,18 @@ class PolygonsController {
 
   private final Map<String, PolygonController> polygonIdToController;
   private final Map<String, String> googleMapsPolygonIdToDartPolygonId;
+  // The options of all polygons while viewport culling is enabled.
+  private final Map<String, Object> polygonIdToPolygon;
   private final MethodChannel methodChannel;
   private final float density;
   private GoogleMap googleMap;
+  // Null unless viewport culling is enabled.
+  private VisibleObjects visibleObjects;
 
   PolygonsController(MethodChannel methodChannel, float density) {
     this.polygonIdToController = new HashMap<>();
     this.googleMapsPolygonIdToDartPolygonId = new HashMap<>();
+    this.polygonIdToPolygon = new HashMap<>();
     this.methodChannel = methodChannel;
     this.density = density;
   }
@@ -31,11 +37,20 @@ class PolygonsController {
     this.googleMap = googleMap;
   }
 
+  /**
+   * Makes the map only have the polygons near the visible region, which are updated when the camera
+   * stops moving. Must be called before polygons are added.
+   */
+  void setViewportCullingEnabled(boolean viewportCullingEnabled) {
+    visibleObjects = viewportCullingEnabled ? new VisibleObjects() : null;
+  }
+
   void addPolygons(List<Object> polygonsToAdd) {
     if (polygonsToAdd != null) {
       for (Object polygonToAdd : polygonsToAdd) {
         addPolygon(polygonToAdd);
       }
+      updateVisiblePolygons();
     }
   }
 
@@ -44,6 +59,7 @@ class PolygonsController {
       for (Object polygonToChange : polygonsToChange) {
         changePolygon(polygonToChange);
       }
+      updateVisiblePolygons();
     }
   }
 
@@ -56,14 +72,18 @@ class PolygonsController {
         continue;
       }
       String polygonId = (String) rawPolygonId;
-      final PolygonController polygonController = polygonIdToController.remove(polygonId);
-      if (polygonController != null) {
-        polygonController.remove();
-        googleMapsPolygonIdToDartPolygonId.remove(polygonController.getGoogleMapsPolygonId());
+      polygonIdToPolygon.remove(polygonId);
+      if (visibleObjects != null) {
+        visibleObjects.remove(polygonId);
       }
+      removePolygonFromMap(polygonId);
     }
   }
 
+  void onCameraIdle() {
+    updateVisiblePolygons();
+  }
+
   boolean onPolygonTap(String googlePolygonId) {
     String polygonId = googleMapsPolygonIdToDartPolygonId.get(googlePolygonId);
     if (polygonId == null) {
@@ -77,10 +97,38 @@ class PolygonsController {
     return false;
   }
 
+  /** Adds the polygons near the visible region to the map and removes the others. */
+  private void updateVisiblePolygons() {
+    if (visibleObjects == null || googleMap == null) {
+      return;
+    }
+    visibleObjects.setVisibleBounds(googleMap.getProjection().getVisibleRegion().latLngBounds);
+    for (String polygonId : new ArrayList<>(polygonIdToController.keySet())) {
+      if (!visibleObjects.isVisible(polygonId)) {
+        removePolygonFromMap(polygonId);
+      }
+    }
+    for (String polygonId : visibleObjects.getVisibleIds()) {
+      if (!polygonIdToController.containsKey(polygonId)) {
+        addPolygonToMap(polygonIdToPolygon.get(polygonId));
+      }
+    }
+  }
+
   private void addPolygon(Object polygon) {
     if (polygon == null) {
       return;
     }
+    if (visibleObjects != null) {
+      final String polygonId = getPolygonId(polygon);
+      polygonIdToPolygon.put(polygonId, polygon);
+      putBounds(polygonId, polygon);
+      return;
+    }
+    addPolygonToMap(polygon);
+  }
+
+  private void addPolygonToMap(Object polygon) {
     PolygonBuilder polygonBuilder = new PolygonBuilder(density);
     String polygonId = Convert.interpretPolygonOptions(polygon, polygonBuilder);
     PolygonOptions options = polygonBuilder.build();
@@ -100,12 +148,29 @@ class PolygonsController {
       return;
     }
     String polygonId = getPolygonId(polygon);
+    if (visibleObjects != null && polygonIdToPolygon.containsKey(polygonId)) {
+      polygonIdToPolygon.put(polygonId, polygon);
+      putBounds(polygonId, polygon);
+    }
     PolygonController polygonController = polygonIdToController.get(polygonId);
     if (polygonController != null) {
       Convert.interpretPolygonOptions(polygon, polygonController);
     }
   }
 
+  private void removePolygonFromMap(String polygonId) {
+    final PolygonController polygonController = polygonIdToController.remove(polygonId);
+    if (polygonController != null) {
+      polygonController.remove();
+      googleMapsPolygonIdToDartPolygonId.remove(polygonController.getGoogleMapsPolygonId());
+    }
+  }
+
+  private void putBounds(String polygonId, Object polygon) {
+    final Map<?, ?> polygonMap = (Map<?, ?>) polygon;
+    visibleObjects.put(polygonId, Convert.toPoints(polygonMap.get("points")));
+  }
+
   @SuppressWarnings("unchecked")
   private static String getPolygonId(Object polygon) {
     Map<String, Object> polygonMap = (Map<String, Object>) polygon;
@@ -8,6 +8,7 @@ import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.model.Polyline;
 import com.google.android.gms.maps.model.PolylineOptions;
 import io.flutter.plugin.common.MethodChannel;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,13 +17,18 @@ class PolylinesController {
 
   private final Map<String, PolylineController> polylineIdToController;
   private final Map<String, String> googleMapsPolylineIdToDartPolylineId;
+  // The options of all polylines while viewport culling is enabled.
+  private final Map<String, Object> polylineIdToPolyline;
   private final MethodChannel methodChannel;
   private GoogleMap googleMap;
+  // Null unless viewport culling is enabled.
+  private VisibleObjects visibleObjects;
   private final float density;
 
   PolylinesController(MethodChannel methodChannel, float density) {
     this.polylineIdToController = new HashMap<>();
     this.googleMapsPolylineIdToDartPolylineId = new HashMap<>();
+    this.polylineIdToPolyline = new HashMap<>();
     this.methodChannel = methodChannel;
     this.density = density;
   }
@@ -31,11 +37,20 @@ class PolylinesController {
     this.googleMap = googleMap;
   }
 
+  /**
+   * Makes the map only have the polylines near the visible region, which are updated when the
+   * camera stops moving. Must be called before polylines are added.
+   */
+  void setViewportCullingEnabled(boolean viewportCullingEnabled) {
+    visibleObjects = viewportCullingEnabled ? new VisibleObjects() : null;
+  }
+
   void addPolylines(List<Object> polylinesToAdd) {
     if (polylinesToAdd != null) {
       for (Object polylineToAdd : polylinesToAdd) {
         addPolyline(polylineToAdd);
       }
+      updateVisiblePolylines();
     }
   }
 
@@ -44,6 +59,7 @@ class PolylinesController {
       for (Object polylineToChange : polylinesToChange) {
         changePolyline(polylineToChange);
       }
+      updateVisiblePolylines();
     }
   }
 
@@ -56,14 +72,18 @@ class PolylinesController {
         continue;
       }
       String polylineId = (String) rawPolylineId;
-      final PolylineController polylineController = polylineIdToController.remove(polylineId);
-      if (polylineController != null) {
-        polylineController.remove();
-        googleMapsPolylineIdToDartPolylineId.remove(polylineController.getGoogleMapsPolylineId());
+      polylineIdToPolyline.remove(polylineId);
+      if (visibleObjects != null) {
+        visibleObjects.remove(polylineId);
       }
+      removePolylineFromMap(polylineId);
     }
   }
 
+  void onCameraIdle() {
+    updateVisiblePolylines();
+  }
+
   boolean onPolylineTap(String googlePolylineId) {
     String polylineId = googleMapsPolylineIdToDartPolylineId.get(googlePolylineId);
     if (polylineId == null) {
@@ -77,10 +97,38 @@ class PolylinesController {
     return false;
   }
 
+  /** Adds the polylines near the visible region to the map and removes the others. */
+  private void updateVisiblePolylines() {
+    if (visibleObjects == null || googleMap == null) {
+      return;
+    }
+    visibleObjects.setVisibleBounds(googleMap.getProjection().getVisibleRegion().latLngBounds);
+    for (String polylineId : new ArrayList<>(polylineIdToController.keySet())) {
+      if (!visibleObjects.isVisible(polylineId)) {
+        removePolylineFromMap(polylineId);
+      }
+    }
+    for (String polylineId : visibleObjects.getVisibleIds()) {
+      if (!polylineIdToController.containsKey(polylineId)) {
+        addPolylineToMap(polylineIdToPolyline.get(polylineId));
+      }
+    }
+  }
+
   private void addPolyline(Object polyline) {
     if (polyline == null) {
       return;
     }
+    if (visibleObjects != null) {
+      final String polylineId = getPolylineId(polyline);
+      polylineIdToPolyline.put(polylineId, polyline);
+      putBounds(polylineId, polyline);
+      return;
+    }
+    addPolylineToMap(polyline);
+  }
+
+  private void addPolylineToMap(Object polyline) {
     PolylineBuilder polylineBuilder = new PolylineBuilder(density);
     String polylineId = Convert.interpretPolylineOptions(polyline, polylineBuilder);
     PolylineOptions options = polylineBuilder.build();
@@ -100,12 +148,29 @@ class PolylinesController {
       return;
     }
     String polylineId = getPolylineId(polyline);
+    if (visibleObjects != null && polylineIdToPolyline.containsKey(polylineId)) {
+      polylineIdToPolyline.put(polylineId, polyline);
+      putBounds(polylineId, polyline);
+    }
     PolylineController polylineController = polylineIdToController.get(polylineId);
     if (polylineController != null) {
       Convert.interpretPolylineOptions(polyline, polylineController);
     }
   }
 
+  private void removePolylineFromMap(String polylineId) {
+    final PolylineController polylineController = polylineIdToController.remove(polylineId);
+    if (polylineController != null) {
+      polylineController.remove();
+      googleMapsPolylineIdToDartPolylineId.remove(polylineController.getGoogleMapsPolylineId());
+    }
+  }
+
+  private void putBounds(String polylineId, Object polyline) {
+    final Map<?, ?> polylineMap = (Map<?, ?>) polyline;
+    visibleObjects.put(polylineId, Convert.toPoints(polylineMap.get("points")));
+  }
+
   @SuppressWarnings("unchecked")
   private static String getPolylineId(Object polyline) {
     Map<String, Object> polylineMap = (Map<String, Object>) polyline;
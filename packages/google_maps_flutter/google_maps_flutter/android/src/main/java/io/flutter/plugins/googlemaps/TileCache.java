@@ -0,0 +1,355 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.LruCache;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.google.android.gms.maps.model.Tile;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the tiles of tile overlays in memory and on disk.
+ *
+ * <p>Both tiers keep the most recently used tiles within a byte budget. Tiles are keyed by tile
+ * overlay id and tile coordinates, and expire once they are older than the max age they are looked
+ * up with. Methods other than {@link #invalidate} and {@link #getGeneration} may do disk I/O and
+ * should be called on the tile threads of the Maps SDK.
+ *
+ * <p>Every invalidation starts a new generation of the tile overlay. Tiles are only cached if they
+ * were requested in the current generation, so tiles that were in flight while the cache was
+ * invalidated are not cached.
+ *
+ * <p>All maps of the process share one instance from {@link #getInstance}, as they share the
+ * cache directory, its byte budget and the generations of the tile overlays in it.
+ */
+class TileCache {
+
+  private static final String TAG = "TileCache";
+
+  static final String DIRECTORY_NAME = "google_maps_flutter_tiles";
+  static final int MEMORY_CACHE_BYTES = 8 * 1024 * 1024;
+  static final long DISK_CACHE_BYTES = 64L * 1024 * 1024;
+
+  private static final int FORMAT_VERSION = 1;
+  private static final String TEMPORARY_FILE_INFIX = ".tmp";
+  private static final String DELETED_DIRECTORY_INFIX = ".deleted";
+
+  private static final Executor deleteExecutor =
+      new ThreadPoolExecutor(0, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+
+  private static TileCache instance;
+
+  // Serializes disk writes and trims.
+  private final Object diskLock = new Object();
+  private final File directory;
+  private final long diskCacheBytes;
+  private final LruCache<String, Entry> memoryCache;
+  // Guarded by diskLock, negative until the directory was measured.
+  private long diskSize = -1;
+  // Guarded by diskLock, missing tile overlays are in generation 0.
+  private final Map<String, Integer> generations = new HashMap<>();
+
+  /** Returns the tile cache of the process. */
+  static synchronized TileCache getInstance(Context context) {
+    if (instance == null) {
+      instance =
+          new TileCache(new File(context.getApplicationContext().getCacheDir(), DIRECTORY_NAME));
+    }
+    return instance;
+  }
+
+  @VisibleForTesting
+  TileCache(File directory) {
+    this(directory, MEMORY_CACHE_BYTES, DISK_CACHE_BYTES);
+  }
+
+  @VisibleForTesting
+  TileCache(File directory, int memoryCacheBytes, long diskCacheBytes) {
+    this.directory = directory;
+    this.diskCacheBytes = diskCacheBytes;
+    this.memoryCache =
+        new LruCache<String, Entry>(memoryCacheBytes) {
+          @Override
+          protected int sizeOf(String key, Entry entry) {
+            return entry.tile.data.length;
+          }
+        };
+    // Directories of invalidated tile overlays are left behind if the process ended before they
+    // were deleted.
+    deleteExecutor.execute(this::deleteInvalidatedDirectories);
+  }
+
+  /** Returns the cached tile, or null if it is not cached or older than the max age. */
+  @Nullable
+  Tile get(String tileOverlayId, int x, int y, int zoom, long maxAgeMillis) {
+    final String key = getKey(tileOverlayId, x, y, zoom);
+    final long now = System.currentTimeMillis();
+    Entry entry = memoryCache.get(key);
+    if (entry != null) {
+      if (now - entry.createdAtMillis <= maxAgeMillis) {
+        return entry.tile;
+      }
+      memoryCache.remove(key);
+    }
+
+    entry = readEntry(new File(directory, key), now, maxAgeMillis);
+    if (entry == null) {
+      return null;
+    }
+    memoryCache.put(key, entry);
+    return entry.tile;
+  }
+
+  /** Returns the generation of a tile overlay, which should be passed to {@link #put}. */
+  int getGeneration(String tileOverlayId) {
+    synchronized (diskLock) {
+      final Integer generation = generations.get(tileOverlayId);
+      return generation == null ? 0 : generation;
+    }
+  }
+
+  /**
+   * Caches a tile that has image data, unless the tile overlay was invalidated since the generation
+   * was read before the tile was requested.
+   */
+  void put(String tileOverlayId, int x, int y, int zoom, @NonNull Tile tile, int generation) {
+    if (tile.data == null) {
+      return;
+    }
+    final String key = getKey(tileOverlayId, x, y, zoom);
+    final Entry entry = new Entry(tile, System.currentTimeMillis());
+    synchronized (diskLock) {
+      if (generation != getGeneration(tileOverlayId)) {
+        return;
+      }
+      memoryCache.put(key, entry);
+    }
+    writeEntry(tileOverlayId, generation, new File(directory, key), entry);
+  }
+
+  /**
+   * Removes all tiles of a tile overlay.
+   *
+   * <p>The files are deleted in the background, so this method can be called on the main thread.
+   */
+  void invalidate(String tileOverlayId) {
+    final String prefix = getOverlayDirectoryName(tileOverlayId) + File.separator;
+    final File overlayDirectory = new File(directory, getOverlayDirectoryName(tileOverlayId));
+    final File deletedDirectory =
+        new File(
+            directory, overlayDirectory.getName() + DELETED_DIRECTORY_INFIX + System.nanoTime());
+    synchronized (diskLock) {
+      generations.put(tileOverlayId, getGeneration(tileOverlayId) + 1);
+      for (String key : memoryCache.snapshot().keySet()) {
+        if (key.startsWith(prefix)) {
+          memoryCache.remove(key);
+        }
+      }
+      if (!overlayDirectory.renameTo(deletedDirectory)) {
+        return;
+      }
+      // Recomputed on the next write.
+      diskSize = -1;
+    }
+    deleteExecutor.execute(() -> deleteRecursively(deletedDirectory));
+  }
+
+  @Nullable
+  private static Entry readEntry(File file, long now, long maxAgeMillis) {
+    if (!file.isFile()) {
+      return null;
+    }
+    try (DataInputStream input =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      if (input.readInt() != FORMAT_VERSION) {
+        file.delete();
+        return null;
+      }
+      final long createdAtMillis = input.readLong();
+      if (now - createdAtMillis > maxAgeMillis) {
+        file.delete();
+        return null;
+      }
+      final int width = input.readInt();
+      final int height = input.readInt();
+      final byte[] data = new byte[input.readInt()];
+      input.readFully(data);
+      // The modification time orders the files for trimming.
+      file.setLastModified(now);
+      return new Entry(new Tile(width, height, data), createdAtMillis);
+    } catch (IOException e) {
+      Log.w(TAG, "Can't read cached tile " + file, e);
+      file.delete();
+      return null;
+    }
+  }
+
+  private void writeEntry(String tileOverlayId, int generation, File file, Entry entry) {
+    final File parent = file.getParentFile();
+    final File temporaryFile =
+        new File(
+            parent, file.getName() + TEMPORARY_FILE_INFIX + Thread.currentThread().getId());
+    try {
+      if (!parent.isDirectory() && !parent.mkdirs()) {
+        throw new IOException("Can't create " + parent);
+      }
+      try (DataOutputStream output =
+          new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+        output.writeInt(FORMAT_VERSION);
+        output.writeLong(entry.createdAtMillis);
+        output.writeInt(entry.tile.width);
+        output.writeInt(entry.tile.height);
+        output.writeInt(entry.tile.data.length);
+        output.write(entry.tile.data);
+      }
+      synchronized (diskLock) {
+        if (generation != getGeneration(tileOverlayId)) {
+          temporaryFile.delete();
+          return;
+        }
+        // Overwritten files no longer take up space.
+        final long replacedLength = file.length();
+        if (!temporaryFile.renameTo(file)) {
+          throw new IOException("Can't rename " + temporaryFile);
+        }
+        if (diskSize < 0) {
+          diskSize = getSize(directory);
+        } else {
+          diskSize += file.length() - replacedLength;
+        }
+        if (diskSize > diskCacheBytes) {
+          trim();
+        }
+      }
+    } catch (IOException e) {
+      Log.w(TAG, "Can't cache tile " + file, e);
+      temporaryFile.delete();
+    }
+  }
+
+  /** Deletes the least recently used files until the cache uses three quarters of its budget. */
+  private void trim() {
+    final List<File> files = new ArrayList<>();
+    collectFiles(directory, files);
+    Collections.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+    long size = getSize(files);
+    final long targetSize = diskCacheBytes * 3 / 4;
+    for (int i = 0; i < files.size() && size > targetSize; i++) {
+      final File file = files.get(i);
+      final long length = file.length();
+      if (file.delete()) {
+        size -= length;
+      }
+    }
+    diskSize = size;
+  }
+
+  private static String getKey(String tileOverlayId, int x, int y, int zoom) {
+    return getOverlayDirectoryName(tileOverlayId)
+        + File.separator
+        + zoom
+        + "_"
+        + x
+        + "_"
+        + y;
+  }
+
+  /** Encodes the tile overlay id, which can contain any character, as a file name. */
+  private static String getOverlayDirectoryName(String tileOverlayId) {
+    final StringBuilder name = new StringBuilder();
+    for (byte b : tileOverlayId.getBytes(StandardCharsets.UTF_8)) {
+      name.append(String.format("%02x", b));
+    }
+    return name.toString();
+  }
+
+  private void deleteInvalidatedDirectories() {
+    final File[] children = directory.listFiles();
+    if (children == null) {
+      return;
+    }
+    for (File child : children) {
+      if (child.getName().contains(DELETED_DIRECTORY_INFIX)) {
+        deleteRecursively(child);
+      }
+    }
+  }
+
+  /**
+   * Collects the cached tiles, leaving out the temporary files of writes in progress and the
+   * directories of invalidated tile overlays that are being deleted.
+   */
+  private static void collectFiles(File directory, List<File> files) {
+    final File[] children = directory.listFiles();
+    if (children == null) {
+      return;
+    }
+    for (File child : children) {
+      final String name = child.getName();
+      if (child.isDirectory()) {
+        if (!name.contains(DELETED_DIRECTORY_INFIX)) {
+          collectFiles(child, files);
+        }
+      } else if (!name.contains(TEMPORARY_FILE_INFIX)) {
+        files.add(child);
+      }
+    }
+  }
+
+  private static long getSize(File directory) {
+    final List<File> files = new ArrayList<>();
+    collectFiles(directory, files);
+    return getSize(files);
+  }
+
+  private static long getSize(List<File> files) {
+    long size = 0;
+    for (File file : files) {
+      size += file.length();
+    }
+    return size;
+  }
+
+  private static void deleteRecursively(File file) {
+    final File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        deleteRecursively(child);
+      }
+    }
+    file.delete();
+  }
+
+  private static final class Entry {
+    final Tile tile;
+    final long createdAtMillis;
+
+    Entry(Tile tile, long createdAtMillis) {
+      this.tile = tile;
+      this.createdAtMillis = createdAtMillis;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.android.gms.maps.model.Tile;
+
+/** Source of the tiles of a {@link TileProviderController}. */
+interface TileFetcher {
+  /**
+   * Starts fetching a tile.
+   *
+   * <p>This method is called on the main thread and must not block. The callback must be called
+   * on the main thread as well.
+   */
+  void fetchTile(int x, int y, int zoom, @NonNull Callback callback);
+
+  /**
+   * Stops fetching a tile if possible, because nobody waits for it anymore.
+   *
+   * <p>This method is called on the main thread. The callback of the tile must still be called,
+   * e.g. with null once the fetch was aborted, as the request occupies one of the concurrent
+   * requests until then.
+   */
+  void cancelTile(@NonNull Callback callback);
+
+  /** Receiver of fetched tiles. */
+  interface Callback {
+    /**
+     * Called with the fetched tile, {@link com.google.android.gms.maps.model.TileProvider#NO_TILE}
+     * if there is no tile at the coordinates, or null if the tile is not available right now.
+     */
+    void onTile(@Nullable Tile tile);
+  }
+}
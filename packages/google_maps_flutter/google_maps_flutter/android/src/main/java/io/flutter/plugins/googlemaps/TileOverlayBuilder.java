@@ -10,6 +10,8 @@ import com.google.android.gms.maps.model.TileProvider;
 class TileOverlayBuilder implements TileOverlaySink {
 
   private final TileOverlayOptions tileOverlayOptions;
+  private String urlTemplate;
+  private int tileSize = UrlTileFetcher.DEFAULT_TILE_SIZE;
 
   TileOverlayBuilder() {
     this.tileOverlayOptions = new TileOverlayOptions();
@@ -19,6 +21,14 @@ class TileOverlayBuilder implements TileOverlaySink {
     return tileOverlayOptions;
   }
 
+  String getUrlTemplate() {
+    return urlTemplate;
+  }
+
+  int getTileSize() {
+    return tileSize;
+  }
+
   @Override
   public void setFadeIn(boolean fadeIn) {
     tileOverlayOptions.fadeIn(fadeIn);
@@ -43,4 +53,14 @@ class TileOverlayBuilder implements TileOverlaySink {
   public void setTileProvider(TileProvider tileProvider) {
     tileOverlayOptions.tileProvider(tileProvider);
   }
+
+  @Override
+  public void setUrlTemplate(String urlTemplate) {
+    this.urlTemplate = urlTemplate;
+  }
+
+  @Override
+  public void setTileSize(int tileSize) {
+    this.tileSize = tileSize;
+  }
 }
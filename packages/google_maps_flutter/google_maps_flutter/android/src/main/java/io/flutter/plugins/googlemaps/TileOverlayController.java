@@ -4,6 +4,7 @@
 
 package io.flutter.plugins.googlemaps;
 
+import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.TileOverlay;
 import com.google.android.gms.maps.model.TileProvider;
 import java.util.HashMap;
@@ -12,16 +13,24 @@ import java.util.Map;
 class TileOverlayController implements TileOverlaySink {
 
   private final TileOverlay tileOverlay;
+  private final TileProviderController tileProviderController;
 
-  TileOverlayController(TileOverlay tileOverlay) {
+  TileOverlayController(TileOverlay tileOverlay, TileProviderController tileProviderController) {
     this.tileOverlay = tileOverlay;
+    this.tileProviderController = tileProviderController;
   }
 
   void remove() {
     tileOverlay.remove();
+    tileProviderController.cancelAll();
+  }
+
+  void cancelTilesOutside(LatLngBounds bounds, float zoom) {
+    tileProviderController.cancelTilesOutside(bounds, zoom);
   }
 
   void clearTileCache() {
+    tileProviderController.invalidateTiles();
     tileOverlay.clearTileCache();
   }
 
@@ -59,4 +68,14 @@ class TileOverlayController implements TileOverlaySink {
   public void setTileProvider(TileProvider tileProvider) {
     // You can not change tile provider after creation
   }
+
+  @Override
+  public void setUrlTemplate(String urlTemplate) {
+    // You can not change the url template after creation
+  }
+
+  @Override
+  public void setTileSize(int tileSize) {
+    // You can not change the tile size after creation
+  }
 }
@@ -5,22 +5,28 @@
 package io.flutter.plugins.googlemaps;
 
 import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.TileOverlay;
 import com.google.android.gms.maps.model.TileOverlayOptions;
 import io.flutter.plugin.common.MethodChannel;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 class TileOverlaysController {
 
   private final Map<String, TileOverlayController> tileOverlayIdToController;
   private final MethodChannel methodChannel;
+  private final TileCache tileCache;
+  // Downloads the tiles of all tile overlays with a URL template, created when first needed.
+  private Executor urlTileExecutor;
   private GoogleMap googleMap;
 
-  TileOverlaysController(MethodChannel methodChannel) {
+  TileOverlaysController(MethodChannel methodChannel, TileCache tileCache) {
     this.tileOverlayIdToController = new HashMap<>();
     this.methodChannel = methodChannel;
+    this.tileCache = tileCache;
   }
 
   void setGoogleMap(GoogleMap googleMap) {
@@ -78,6 +84,17 @@ class TileOverlaysController {
     return tileOverlayController.getTileOverlayInfo();
   }
 
+  void onCameraIdle() {
+    if (googleMap == null || tileOverlayIdToController.isEmpty()) {
+      return;
+    }
+    LatLngBounds bounds = googleMap.getProjection().getVisibleRegion().latLngBounds;
+    float zoom = googleMap.getCameraPosition().zoom;
+    for (TileOverlayController tileOverlayController : tileOverlayIdToController.values()) {
+      tileOverlayController.cancelTilesOutside(bounds, zoom);
+    }
+  }
+
   private void addTileOverlay(Map<String, ?> tileOverlayOptions) {
     if (tileOverlayOptions == null) {
       return;
@@ -85,12 +102,27 @@ class TileOverlaysController {
     TileOverlayBuilder tileOverlayOptionsBuilder = new TileOverlayBuilder();
     String tileOverlayId =
         Convert.interpretTileOverlayOptions(tileOverlayOptions, tileOverlayOptionsBuilder);
+    String urlTemplate = tileOverlayOptionsBuilder.getUrlTemplate();
+    TileFetcher tileFetcher;
+    if (urlTemplate == null) {
+      tileFetcher = new DartTileFetcher(methodChannel, tileOverlayId);
+    } else {
+      if (urlTileExecutor == null) {
+        urlTileExecutor = UrlTileFetcher.createExecutor();
+      }
+      tileFetcher =
+          new UrlTileFetcher(urlTemplate, tileOverlayOptionsBuilder.getTileSize(), urlTileExecutor);
+    }
+    Long cacheMaxAge = getCacheMaxAge(tileOverlayOptions);
     TileProviderController tileProviderController =
-        new TileProviderController(methodChannel, tileOverlayId);
+        cacheMaxAge == null
+            ? new TileProviderController(tileFetcher, tileOverlayId, null, 0)
+            : new TileProviderController(tileFetcher, tileOverlayId, tileCache, cacheMaxAge);
     tileOverlayOptionsBuilder.setTileProvider(tileProviderController);
     TileOverlayOptions options = tileOverlayOptionsBuilder.build();
     TileOverlay tileOverlay = googleMap.addTileOverlay(options);
-    TileOverlayController tileOverlayController = new TileOverlayController(tileOverlay);
+    TileOverlayController tileOverlayController =
+        new TileOverlayController(tileOverlay, tileProviderController);
     tileOverlayIdToController.put(tileOverlayId, tileOverlayController);
   }
 
@@ -117,4 +149,9 @@ class TileOverlaysController {
   private static String getTileOverlayId(Map<String, ?> tileOverlay) {
     return (String) tileOverlay.get("tileOverlayId");
   }
+
+  private static Long getCacheMaxAge(Map<String, ?> tileOverlay) {
+    Object cacheMaxAge = tileOverlay.get("cacheMaxAge");
+    return cacheMaxAge == null ? null : ((Number) cacheMaxAge).longValue();
+  }
 }
@@ -7,95 +7,305 @@ package io.flutter.plugins.googlemaps;
 import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
-import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.Tile;
 import com.google.android.gms.maps.model.TileProvider;
-import io.flutter.plugin.common.MethodChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Fetches tiles with a {@link TileFetcher} for the tile threads of the Maps SDK.
+ *
+ * <p>Requests are queued on the main thread and at most {@link #MAX_CONCURRENT_REQUESTS} are
+ * fetched at a time. Identical tiles requested while a request is queued or in flight share that
+ * request. Tile threads wait at most {@link #TILE_TIMEOUT_MS} for a tile, and requests for tiles
+ * that are no longer visible can be cancelled with {@link #cancelTilesOutside}. Timed out and
+ * cancelled tiles are reported as unavailable, so the Maps SDK requests them again when needed.
+ * Cancelled requests that are in flight keep occupying a slot until the {@link TileFetcher} calls
+ * back, so cancelling never lets more than {@link #MAX_CONCURRENT_REQUESTS} fetches run at once.
+ *
+ * <p>When a {@link TileCache} is supplied, tiles are looked up in it before they are fetched, and
+ * fetched tiles are added to it.
+ */
 class TileProviderController implements TileProvider {
 
   private static final String TAG = "TileProviderController";
 
+  static final int MAX_CONCURRENT_REQUESTS = 4;
+  static final long TILE_TIMEOUT_MS = 10000;
+
   private final String tileOverlayId;
-  private final MethodChannel methodChannel;
-  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final TileFetcher tileFetcher;
+  @Nullable private final TileCache tileCache;
+  private final long cacheMaxAgeMillis;
+  private final Handler handler;
+  private final int maxConcurrentRequests;
+  private final long tileTimeoutMs;
+
+  // Queued and in flight requests, shared by the tile threads.
+  private final Map<TileKey, TileRequest> requests = new ConcurrentHashMap<>();
+  // Only accessed on the main thread.
+  private final ArrayDeque<TileRequest> queuedRequests = new ArrayDeque<>();
+  private final List<TileRequest> activeRequests = new ArrayList<>();
 
-  TileProviderController(MethodChannel methodChannel, String tileOverlayId) {
+  TileProviderController(
+      TileFetcher tileFetcher,
+      String tileOverlayId,
+      @Nullable TileCache tileCache,
+      long cacheMaxAgeMillis) {
+    this(
+        tileFetcher,
+        tileOverlayId,
+        tileCache,
+        cacheMaxAgeMillis,
+        new Handler(Looper.getMainLooper()),
+        MAX_CONCURRENT_REQUESTS,
+        TILE_TIMEOUT_MS);
+  }
+
+  @VisibleForTesting
+  TileProviderController(
+      TileFetcher tileFetcher,
+      String tileOverlayId,
+      @Nullable TileCache tileCache,
+      long cacheMaxAgeMillis,
+      Handler handler,
+      int maxConcurrentRequests,
+      long tileTimeoutMs) {
     this.tileOverlayId = tileOverlayId;
-    this.methodChannel = methodChannel;
+    this.tileFetcher = tileFetcher;
+    this.tileCache = tileCache;
+    this.cacheMaxAgeMillis = cacheMaxAgeMillis;
+    this.handler = handler;
+    this.maxConcurrentRequests = maxConcurrentRequests;
+    this.tileTimeoutMs = tileTimeoutMs;
   }
 
   @Override
+  @Nullable
   public Tile getTile(final int x, final int y, final int zoom) {
-    Worker worker = new Worker(x, y, zoom);
-    return worker.getTile();
+    if (tileCache != null) {
+      Tile cachedTile = tileCache.get(tileOverlayId, x, y, zoom, cacheMaxAgeMillis);
+      if (cachedTile != null) {
+        return cachedTile;
+      }
+    }
+
+    TileKey key = new TileKey(x, y, zoom);
+    final TileRequest request = new TileRequest(key);
+    TileRequest existingRequest = requests.putIfAbsent(key, request);
+    if (existingRequest != null) {
+      return existingRequest.await();
+    }
+    // Read before the tile is fetched, so tiles fetched before an invalidation are not cached.
+    int cacheGeneration = tileCache != null ? tileCache.getGeneration(tileOverlayId) : 0;
+    handler.post(() -> enqueue(request));
+    Tile tile = request.await();
+    // Only the thread that requested the tile caches it.
+    if (tileCache != null && tile != null && tile.data != null) {
+      tileCache.put(tileOverlayId, x, y, zoom, tile, cacheGeneration);
+    }
+    return tile;
   }
 
-  private final class Worker implements MethodChannel.Result {
+  /**
+   * Cancels the requests for tiles that are not within the bounds, or more than one zoom level away
+   * from the zoom level.
+   *
+   * <p>This method should be called on the main thread.
+   */
+  void cancelTilesOutside(LatLngBounds bounds, float zoom) {
+    if (requests.isEmpty()) {
+      return;
+    }
+    int visibleZoom = (int) Math.floor(zoom);
+    for (TileRequest request : new ArrayList<>(requests.values())) {
+      if (!isVisible(request.key, bounds, visibleZoom)) {
+        cancel(request);
+      }
+    }
+  }
 
-    private final CountDownLatch countDownLatch = new CountDownLatch(1);
-    private final int x;
-    private final int y;
-    private final int zoom;
-    private Map<String, ?> result;
+  /**
+   * Cancels all requests.
+   *
+   * <p>This method should be called on the main thread.
+   */
+  void cancelAll() {
+    for (TileRequest request : new ArrayList<>(requests.values())) {
+      cancel(request);
+    }
+  }
+
+  /**
+   * Cancels all requests and removes the cached tiles, so all tiles are requested from Dart again.
+   *
+   * <p>This method should be called on the main thread.
+   */
+  void invalidateTiles() {
+    cancelAll();
+    if (tileCache != null) {
+      tileCache.invalidate(tileOverlayId);
+    }
+  }
+
+  private void enqueue(TileRequest request) {
+    if (request.isDone()) {
+      return;
+    }
+    queuedRequests.add(request);
+    dispatchRequests();
+  }
+
+  private void dispatchRequests() {
+    while (activeRequests.size() < maxConcurrentRequests && !queuedRequests.isEmpty()) {
+      TileRequest request = queuedRequests.poll();
+      activeRequests.add(request);
+      tileFetcher.fetchTile(request.key.x, request.key.y, request.key.zoom, request);
+    }
+  }
+
+  /** Called by the tile fetcher once a dispatched request finished, even if it was cancelled. */
+  private void complete(TileRequest request, @Nullable Tile tile) {
+    request.finish(tile);
+    requests.remove(request.key, request);
+    if (activeRequests.remove(request)) {
+      dispatchRequests();
+    }
+  }
+
+  private void cancel(TileRequest request) {
+    if (!request.finish(null)) {
+      return;
+    }
+    requests.remove(request.key, request);
+    if (!queuedRequests.remove(request) && activeRequests.contains(request)) {
+      // The request keeps its slot until the fetcher calls back.
+      tileFetcher.cancelTile(request);
+    }
+  }
+
+  private static boolean isVisible(TileKey key, LatLngBounds bounds, int visibleZoom) {
+    if (Math.abs(key.zoom - visibleZoom) > 1) {
+      return false;
+    }
+    // Keep a margin of one tile, the Maps SDK also loads tiles just outside the viewport.
+    int tileCount = 1 << key.zoom;
+    int minY = latitudeToTileY(bounds.northeast.latitude, tileCount) - 1;
+    int maxY = latitudeToTileY(bounds.southwest.latitude, tileCount) + 1;
+    if (key.y < minY || key.y > maxY) {
+      return false;
+    }
+    int minX = longitudeToTileX(bounds.southwest.longitude, tileCount) - 1;
+    int maxX = longitudeToTileX(bounds.northeast.longitude, tileCount) + 1;
+    if (maxX - minX + 1 >= tileCount) {
+      return true;
+    }
+    // The bounds may cross the antimeridian, so compare the offsets from the western edge.
+    return wrap(key.x - minX, tileCount) <= wrap(maxX - minX, tileCount);
+  }
 
-    Worker(int x, int y, int zoom) {
+  private static int wrap(int value, int tileCount) {
+    return ((value % tileCount) + tileCount) % tileCount;
+  }
+
+  private static int longitudeToTileX(double longitude, int tileCount) {
+    int x = (int) Math.floor((longitude + 180) / 360 * tileCount);
+    return Math.min(Math.max(x, 0), tileCount - 1);
+  }
+
+  private static int latitudeToTileY(double latitude, int tileCount) {
+    double latitudeRadians = Math.toRadians(latitude);
+    double mercatorY =
+        Math.log(Math.tan(latitudeRadians) + 1 / Math.cos(latitudeRadians)) / Math.PI;
+    int y = (int) Math.floor((1 - mercatorY) / 2 * tileCount);
+    return Math.min(Math.max(y, 0), tileCount - 1);
+  }
+
+  private static final class TileKey {
+    final int x;
+    final int y;
+    final int zoom;
+
+    TileKey(int x, int y, int zoom) {
       this.x = x;
       this.y = y;
       this.zoom = zoom;
     }
 
-    @NonNull
-    Tile getTile() {
-      handler.post(
-          () ->
-              methodChannel.invokeMethod(
-                  "tileOverlay#getTile",
-                  Convert.tileOverlayArgumentsToJson(tileOverlayId, x, y, zoom),
-                  this));
-      try {
-        // Because `methodChannel.invokeMethod` is async, we use a `countDownLatch` make it synchronized.
-        countDownLatch.await();
-      } catch (InterruptedException e) {
-        Log.e(
-            TAG,
-            String.format("countDownLatch: can't get tile: x = %d, y= %d, zoom = %d", x, y, zoom),
-            e);
-        return TileProvider.NO_TILE;
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
       }
-      try {
-        return Convert.interpretTile(result);
-      } catch (Exception e) {
-        Log.e(TAG, "Can't parse tile data", e);
-        return TileProvider.NO_TILE;
+      if (!(o instanceof TileKey)) {
+        return false;
       }
+      TileKey other = (TileKey) o;
+      return x == other.x && y == other.y && zoom == other.zoom;
     }
 
     @Override
-    @SuppressWarnings("unchecked")
-    public void success(Object data) {
-      result = (Map<String, ?>) data;
-      countDownLatch.countDown();
+    public int hashCode() {
+      return (31 * x + y) * 31 + zoom;
     }
 
     @Override
-    public void error(String errorCode, String errorMessage, Object data) {
-      Log.e(
-          TAG,
-          String.format(
-              "Can't get tile: errorCode = %s, errorMessage = %s, date = %s",
-              errorCode, errorCode, data));
-      result = null;
+    public String toString() {
+      return String.format("x = %d, y = %d, zoom = %d", x, y, zoom);
+    }
+  }
+
+  private final class TileRequest implements TileFetcher.Callback {
+
+    private final CountDownLatch countDownLatch = new CountDownLatch(1);
+    private final TileKey key;
+    private volatile Tile tile;
+
+    TileRequest(TileKey key) {
+      this.key = key;
+    }
+
+    boolean isDone() {
+      return countDownLatch.getCount() == 0;
+    }
+
+    /** Returns false if the request was already finished. */
+    synchronized boolean finish(@Nullable Tile tile) {
+      if (isDone()) {
+        return false;
+      }
+      this.tile = tile;
       countDownLatch.countDown();
+      return true;
+    }
+
+    @Nullable
+    Tile await() {
+      try {
+        if (!countDownLatch.await(tileTimeoutMs, TimeUnit.MILLISECONDS)) {
+          Log.w(TAG, "Timed out getting tile: " + key);
+          handler.post(() -> cancel(this));
+          return null;
+        }
+      } catch (InterruptedException e) {
+        Log.e(TAG, "Interrupted getting tile: " + key, e);
+        Thread.currentThread().interrupt();
+        return null;
+      }
+      return tile;
     }
 
     @Override
-    public void notImplemented() {
-      Log.e(TAG, "Can't get tile: notImplemented");
-      result = null;
-      countDownLatch.countDown();
+    public void onTile(@Nullable Tile tile) {
+      complete(this, tile);
     }
   }
 }
@@ -0,0 +1,202 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.google.android.gms.maps.model.Tile;
+import com.google.android.gms.maps.model.TileProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Locale;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Downloads tiles from a URL template such as {@code https://example.com/{z}/{x}/{y}.png}.
+ *
+ * <p>Downloads run on a pool of background threads that is shared by the tile overlays of a map.
+ * Responses are read completely, so {@link HttpURLConnection} can keep the connections alive and
+ * reuse them for the next tiles. Cancelled downloads are disconnected, or skipped if they have not
+ * started yet.
+ */
+class UrlTileFetcher implements TileFetcher {
+
+  private static final String TAG = "UrlTileFetcher";
+
+  static final int DEFAULT_TILE_SIZE = 256;
+  static final int TIMEOUT_MS = 10000;
+
+  private final String urlTemplate;
+  private final int tileSize;
+  private final Handler handler;
+  private final Executor executor;
+  // Accessed on the main thread only.
+  private final Map<Callback, Download> downloads = new HashMap<>();
+
+  UrlTileFetcher(String urlTemplate, int tileSize, Executor executor) {
+    this(urlTemplate, tileSize, new Handler(Looper.getMainLooper()), executor);
+  }
+
+  @VisibleForTesting
+  UrlTileFetcher(String urlTemplate, int tileSize, Handler handler, Executor executor) {
+    this.urlTemplate = urlTemplate;
+    this.tileSize = tileSize;
+    this.handler = handler;
+    this.executor = executor;
+  }
+
+  @Override
+  public void fetchTile(int x, int y, int zoom, @NonNull Callback callback) {
+    final Download download = new Download(getTileUrl(x, y, zoom));
+    downloads.put(callback, download);
+    executor.execute(
+        () -> {
+          final Tile tile = download.run();
+          handler.post(
+              () -> {
+                downloads.remove(callback);
+                callback.onTile(tile);
+              });
+        });
+  }
+
+  @Override
+  public void cancelTile(@NonNull Callback callback) {
+    final Download download = downloads.get(callback);
+    if (download != null) {
+      download.cancel();
+    }
+  }
+
+  /** Returns whether tiles can be downloaded from the URL template, which must be http or https. */
+  static boolean isSupportedUrlTemplate(String urlTemplate) {
+    final String lowerCaseUrlTemplate = urlTemplate.toLowerCase(Locale.ROOT);
+    return lowerCaseUrlTemplate.startsWith("http://")
+        || lowerCaseUrlTemplate.startsWith("https://");
+  }
+
+  @VisibleForTesting
+  String getTileUrl(int x, int y, int zoom) {
+    return urlTemplate
+        .replace("{x}", Integer.toString(x))
+        .replace("{y}", Integer.toString(y))
+        .replace("{z}", Integer.toString(zoom));
+  }
+
+  /** The download of one tile, which can be cancelled from the main thread. */
+  private final class Download {
+    private final String url;
+    // Guarded by this.
+    private boolean cancelled;
+    @Nullable private HttpURLConnection connection;
+
+    Download(String url) {
+      this.url = url;
+    }
+
+    /**
+     * Returns the tile, {@link TileProvider#NO_TILE} if the server has none, or null.
+     *
+     * <p>Never throws, as the callback of the tile must be called to release its request.
+     */
+    @Nullable
+    Tile run() {
+      HttpURLConnection connection = null;
+      try {
+        final URLConnection urlConnection = new URL(url).openConnection();
+        if (!(urlConnection instanceof HttpURLConnection)) {
+          throw new IOException("Not an http or https URL");
+        }
+        connection = (HttpURLConnection) urlConnection;
+        synchronized (this) {
+          if (cancelled) {
+            return null;
+          }
+          this.connection = connection;
+        }
+        connection.setConnectTimeout(TIMEOUT_MS);
+        connection.setReadTimeout(TIMEOUT_MS);
+        final int responseCode = connection.getResponseCode();
+        if (responseCode == HttpURLConnection.HTTP_OK) {
+          return new Tile(tileSize, tileSize, readFully(connection.getInputStream()));
+        }
+        readFully(connection.getErrorStream());
+        if (responseCode == HttpURLConnection.HTTP_NOT_FOUND
+            || responseCode == HttpURLConnection.HTTP_NO_CONTENT) {
+          return TileProvider.NO_TILE;
+        }
+        Log.w(TAG, "Can't get tile " + url + ": HTTP " + responseCode);
+        return null;
+      } catch (IOException | RuntimeException e) {
+        if (!isCancelled()) {
+          Log.w(TAG, "Can't get tile " + url, e);
+        }
+        if (connection != null) {
+          // The connection is in an unknown state, so it must not be reused.
+          connection.disconnect();
+        }
+        return null;
+      } finally {
+        synchronized (this) {
+          // Finished connections may be reused and must not be closed by cancel.
+          this.connection = null;
+        }
+      }
+    }
+
+    /** Skips the download if it has not started yet, or aborts it by closing its connection. */
+    synchronized void cancel() {
+      cancelled = true;
+      if (connection != null) {
+        connection.disconnect();
+      }
+    }
+
+    private synchronized boolean isCancelled() {
+      return cancelled;
+    }
+  }
+
+  private static byte[] readFully(@Nullable InputStream input) throws IOException {
+    if (input == null) {
+      return new byte[0];
+    }
+    try (InputStream stream = input) {
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[16 * 1024];
+      int count;
+      while ((count = stream.read(buffer)) != -1) {
+        output.write(buffer, 0, count);
+      }
+      return output.toByteArray();
+    }
+  }
+
+  /** Creates the executor that downloads the tiles of the tile overlays of a map. */
+  static Executor createExecutor() {
+    final ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            TileProviderController.MAX_CONCURRENT_REQUESTS,
+            TileProviderController.MAX_CONCURRENT_REQUESTS,
+            30,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+}
@@ -0,0 +1,124 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tracks the bounds of map objects to tell which of them are near the visible region.
+ *
+ * <p>Objects are visible if their bounds intersect the visible region, grown by {@link #MARGIN} on
+ * every side so that objects are added before they scroll into view.
+ */
+class VisibleObjects {
+
+  /** How far the visible region is grown on every side, relative to its size. */
+  static final double MARGIN = 0.25;
+
+  private static final double EARTH_RADIUS_METERS = 6371009;
+
+  // The south, west, north and east edges of the objects. West is never east of east, objects
+  // that cross the antimeridian span all longitudes instead.
+  private final Map<String, double[]> idToBounds = new HashMap<>();
+  private boolean hasVisibleBounds;
+  private double south;
+  private double west;
+  private double north;
+  private double east;
+  private boolean allLongitudes;
+
+  /** Sets the bounds of an object to the bounds of its points. */
+  void put(String id, List<LatLng> points) {
+    if (points.isEmpty()) {
+      idToBounds.remove(id);
+      return;
+    }
+    final double[] bounds = {90, 180, -90, -180};
+    for (LatLng point : points) {
+      bounds[0] = Math.min(bounds[0], point.latitude);
+      bounds[1] = Math.min(bounds[1], point.longitude);
+      bounds[2] = Math.max(bounds[2], point.latitude);
+      bounds[3] = Math.max(bounds[3], point.longitude);
+    }
+    idToBounds.put(id, bounds);
+  }
+
+  /** Sets the bounds of an object to the bounds of a circle. */
+  void put(String id, LatLng center, double radiusMeters) {
+    final double latitudeRadius = Math.toDegrees(radiusMeters / EARTH_RADIUS_METERS);
+    final double south = Math.max(-90, center.latitude - latitudeRadius);
+    final double north = Math.min(90, center.latitude + latitudeRadius);
+    final double cos = Math.cos(Math.toRadians(Math.max(Math.abs(south), Math.abs(north))));
+    final double longitudeRadius = cos > 0 ? latitudeRadius / cos : 180;
+    double west = center.longitude - longitudeRadius;
+    double east = center.longitude + longitudeRadius;
+    if (west < -180 || east > 180) {
+      west = -180;
+      east = 180;
+    }
+    idToBounds.put(id, new double[] {south, west, north, east});
+  }
+
+  void remove(String id) {
+    idToBounds.remove(id);
+  }
+
+  void setVisibleBounds(LatLngBounds visibleBounds) {
+    hasVisibleBounds = true;
+    final double latitudeMargin =
+        (visibleBounds.northeast.latitude - visibleBounds.southwest.latitude) * MARGIN;
+    south = Math.max(-90, visibleBounds.southwest.latitude - latitudeMargin);
+    north = Math.min(90, visibleBounds.northeast.latitude + latitudeMargin);
+
+    double width = visibleBounds.northeast.longitude - visibleBounds.southwest.longitude;
+    if (width < 0) {
+      // The visible region crosses the antimeridian.
+      width += 360;
+    }
+    final double longitudeMargin = width * MARGIN;
+    allLongitudes = width + 2 * longitudeMargin >= 360;
+    west = normalizeLongitude(visibleBounds.southwest.longitude - longitudeMargin);
+    east = normalizeLongitude(visibleBounds.northeast.longitude + longitudeMargin);
+  }
+
+  /** Returns whether the object is near the visible region, false before it is known. */
+  boolean isVisible(String id) {
+    final double[] bounds = idToBounds.get(id);
+    if (bounds == null || !hasVisibleBounds) {
+      return false;
+    }
+    if (bounds[2] < south || bounds[0] > north) {
+      return false;
+    }
+    if (allLongitudes) {
+      return true;
+    }
+    if (west <= east) {
+      return bounds[3] >= west && bounds[1] <= east;
+    }
+    return bounds[3] >= west || bounds[1] <= east;
+  }
+
+  Set<String> getVisibleIds() {
+    final Set<String> visibleIds = new HashSet<>();
+    for (String id : idToBounds.keySet()) {
+      if (isVisible(id)) {
+        visibleIds.add(id);
+      }
+    }
+    return visibleIds;
+  }
+
+  private static double normalizeLongitude(double longitude) {
+    final double result = (longitude + 180) % 360;
+    return (result < 0 ? result + 360 : result) - 180;
+  }
+}
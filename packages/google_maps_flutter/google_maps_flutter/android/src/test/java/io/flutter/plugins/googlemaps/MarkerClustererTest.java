@@ -0,0 +1,97 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class MarkerClustererTest {
+
+  private static final LatLngBounds WORLD =
+      new LatLngBounds(new LatLng(-85, -180), new LatLng(85, 179.9));
+
+  @Test
+  public void getClusters_groupsNearbyMarkersBelowTheirZoomLevel() {
+    final MarkerClusterer clusterer = new MarkerClusterer();
+    clusterer.add("a", new LatLng(0, 0));
+    clusterer.add("b", new LatLng(0.001, 0.001));
+    clusterer.add("c", new LatLng(10, 10));
+
+    assertEquals(Arrays.asList(1, 2), getSizes(clusterer.getClusters(WORLD, 3)));
+    assertEquals(Arrays.asList(1, 1, 1), getSizes(clusterer.getClusters(WORLD, 20.5f)));
+  }
+
+  @Test
+  public void getClusters_skipsClustersOutsideTheVisibleBounds() {
+    final MarkerClusterer clusterer = new MarkerClusterer();
+    clusterer.add("visible", new LatLng(0.5, 0.5));
+    clusterer.add("offscreen", new LatLng(20, 20));
+
+    final List<MarkerClusterer.Cluster> clusters =
+        clusterer.getClusters(new LatLngBounds(new LatLng(0, 0), new LatLng(1, 1)), 10);
+
+    assertEquals(1, clusters.size());
+    assertEquals(Collections.singleton("visible"), clusters.get(0).getMarkerIds());
+  }
+
+  @Test
+  public void getClusters_supportsBoundsAcrossTheAntimeridian() {
+    final MarkerClusterer clusterer = new MarkerClusterer();
+    clusterer.add("east", new LatLng(0, 179));
+    clusterer.add("west", new LatLng(0, -179));
+    clusterer.add("offscreen", new LatLng(0, 0));
+
+    final List<MarkerClusterer.Cluster> clusters =
+        clusterer.getClusters(new LatLngBounds(new LatLng(-10, 170), new LatLng(10, -170)), 5);
+
+    assertEquals(Arrays.asList(1, 1), getSizes(clusters));
+  }
+
+  @Test
+  public void add_updatesExistingClustersWhenMarkersMove() {
+    final MarkerClusterer clusterer = new MarkerClusterer();
+    clusterer.add("a", new LatLng(0, 0));
+    clusterer.add("b", new LatLng(10, 10));
+    assertEquals(Arrays.asList(1, 1), getSizes(clusterer.getClusters(WORLD, 3)));
+
+    clusterer.add("b", new LatLng(0.001, 0.001));
+    final List<MarkerClusterer.Cluster> clusters = clusterer.getClusters(WORLD, 3);
+    assertEquals(Arrays.asList(2), getSizes(clusters));
+    assertEquals(0.0005, clusters.get(0).getPosition().latitude, 1e-9);
+
+    clusterer.remove("a");
+    assertEquals(Arrays.asList(1), getSizes(clusterer.getClusters(WORLD, 3)));
+  }
+
+  @Test
+  public void getPosition_averagesTheMarkerPositions() {
+    final MarkerClusterer clusterer = new MarkerClusterer();
+    clusterer.add("a", new LatLng(10, 100));
+    clusterer.add("b", new LatLng(20, 170));
+
+    final List<MarkerClusterer.Cluster> clusters = clusterer.getClusters(WORLD, 0);
+
+    assertEquals(Arrays.asList(2), getSizes(clusters));
+    assertEquals(15, clusters.get(0).getPosition().latitude, 1e-9);
+    assertEquals(135, clusters.get(0).getPosition().longitude, 1e-9);
+  }
+
+  /** Returns the sizes of the clusters in ascending order. */
+  private static List<Integer> getSizes(List<MarkerClusterer.Cluster> clusters) {
+    final List<Integer> sizes = new ArrayList<>();
+    for (MarkerClusterer.Cluster cluster : clusters) {
+      sizes.add(cluster.getSize());
+    }
+    Collections.sort(sizes);
+    return sizes;
+  }
+}
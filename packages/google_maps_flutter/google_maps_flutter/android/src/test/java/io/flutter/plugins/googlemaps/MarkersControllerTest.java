@@ -4,15 +4,22 @@
 
 package io.flutter.plugins.googlemaps;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.Projection;
+import com.google.android.gms.maps.model.CameraPosition;
 import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.Marker;
 import com.google.android.gms.maps.model.MarkerOptions;
+import com.google.android.gms.maps.model.VisibleRegion;
 import io.flutter.plugin.common.BinaryMessenger;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.MethodCodec;
@@ -22,6 +29,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 public class MarkersControllerTest {
@@ -124,4 +132,167 @@ public class MarkersControllerTest {
     data.put("position", points);
     Mockito.verify(methodChannel).invokeMethod("marker#onDrag", data);
   }
+
+  @Test
+  public void controller_ClustersVisibleMarkers() {
+    final MethodChannel methodChannel =
+        spy(new MethodChannel(mock(BinaryMessenger.class), "no-name", mock(MethodCodec.class)));
+    final ClusterIconFactory clusterIconFactory = mock(ClusterIconFactory.class);
+    final MarkersController controller =
+        new MarkersController(methodChannel, clusterIconFactory, 1);
+    final GoogleMap googleMap = mock(GoogleMap.class);
+    final LatLng center = new LatLng(0, 0);
+    final LatLngBounds visibleBounds = new LatLngBounds(new LatLng(-10, -10), new LatLng(10, 10));
+    final Projection projection = mock(Projection.class);
+    when(googleMap.getProjection()).thenReturn(projection);
+    when(projection.getVisibleRegion())
+        .thenReturn(new VisibleRegion(center, center, center, center, visibleBounds));
+    when(googleMap.getCameraPosition()).thenReturn(new CameraPosition(center, 3, 0, 0));
+    final List<Marker> addedMarkers = new ArrayList<>();
+    when(googleMap.addMarker(any(MarkerOptions.class)))
+        .thenAnswer(
+            invocation -> {
+              final Marker marker = mock(Marker.class);
+              when(marker.getId()).thenReturn("m" + addedMarkers.size());
+              addedMarkers.add(marker);
+              return marker;
+            });
+    controller.setGoogleMap(googleMap);
+    controller.setClusteringEnabled(true);
+
+    controller.addMarkers(
+        Arrays.<Object>asList(
+            createMarker("first", 1, 1),
+            createMarker("second", 1.001, 1.001),
+            createMarker("offscreen", 60, 60)));
+
+    final ArgumentCaptor<MarkerOptions> options = ArgumentCaptor.forClass(MarkerOptions.class);
+    verify(googleMap).addMarker(options.capture());
+    assertEquals(1.0005, options.getValue().getPosition().latitude, 1e-9);
+    verify(clusterIconFactory).getIcon(2);
+
+    when(googleMap.getCameraPosition()).thenReturn(new CameraPosition(center, 20, 0, 0));
+    controller.onCameraIdle();
+
+    verify(addedMarkers.get(0)).remove();
+    verify(googleMap, times(3)).addMarker(any(MarkerOptions.class));
+  }
+
+  @Test
+  public void controller_CullsMarkersOutsideTheVisibleRegion() {
+    final MethodChannel methodChannel =
+        spy(new MethodChannel(mock(BinaryMessenger.class), "no-name", mock(MethodCodec.class)));
+    final MarkersController controller = new MarkersController(methodChannel);
+    final GoogleMap googleMap = mock(GoogleMap.class);
+    final LatLng center = new LatLng(0, 0);
+    final Projection projection = mock(Projection.class);
+    when(googleMap.getProjection()).thenReturn(projection);
+    when(projection.getVisibleRegion())
+        .thenReturn(
+            new VisibleRegion(
+                center,
+                center,
+                center,
+                center,
+                new LatLngBounds(new LatLng(-10, -10), new LatLng(10, 10))));
+    final Marker marker = mock(Marker.class);
+    when(marker.getId()).thenReturn("m0");
+    when(googleMap.addMarker(any(MarkerOptions.class))).thenReturn(marker);
+    controller.setGoogleMap(googleMap);
+    controller.setViewportCullingEnabled(true);
+
+    controller.addMarkers(
+        Arrays.<Object>asList(createMarker("visible", 1, 1), createMarker("offscreen", 60, 60)));
+
+    final ArgumentCaptor<MarkerOptions> options = ArgumentCaptor.forClass(MarkerOptions.class);
+    verify(googleMap).addMarker(options.capture());
+    assertEquals(1, options.getValue().getPosition().latitude, 1e-9);
+
+    when(projection.getVisibleRegion())
+        .thenReturn(
+            new VisibleRegion(
+                center,
+                center,
+                center,
+                center,
+                new LatLngBounds(new LatLng(50, 50), new LatLng(70, 70))));
+    controller.onCameraIdle();
+
+    verify(marker).remove();
+    verify(googleMap, times(2)).addMarker(any(MarkerOptions.class));
+  }
+
+  @Test
+  public void controller_ShowsInfoWindowsOfClusteredMarkers() {
+    final MarkersController controller =
+        new MarkersController(mock(MethodChannel.class), mock(ClusterIconFactory.class), 1);
+    final List<Marker> addedMarkers = new ArrayList<>();
+    controller.setGoogleMap(
+        createGoogleMap(new LatLngBounds(new LatLng(-10, -10), new LatLng(10, 10)), addedMarkers));
+    controller.setClusteringEnabled(true);
+    controller.addMarkers(
+        Arrays.<Object>asList(createMarker("first", 1, 1), createMarker("second", 1.001, 1.001)));
+    assertEquals(1, addedMarkers.size());
+
+    verifyInfoWindowOfMarkerOffTheMap(controller, "first", addedMarkers);
+  }
+
+  @Test
+  public void controller_ShowsInfoWindowsOfCulledMarkers() {
+    final MarkersController controller = new MarkersController(mock(MethodChannel.class));
+    final List<Marker> addedMarkers = new ArrayList<>();
+    controller.setGoogleMap(
+        createGoogleMap(new LatLngBounds(new LatLng(-10, -10), new LatLng(10, 10)), addedMarkers));
+    controller.setViewportCullingEnabled(true);
+    controller.addMarkers(Arrays.<Object>asList(createMarker("offscreen", 60, 60)));
+    assertEquals(0, addedMarkers.size());
+
+    verifyInfoWindowOfMarkerOffTheMap(controller, "offscreen", addedMarkers);
+  }
+
+  /** Verifies the info window calls for a marker that was added but is not on the map. */
+  private static void verifyInfoWindowOfMarkerOffTheMap(
+      MarkersController controller, String markerId, List<Marker> addedMarkers) {
+    final MethodChannel.Result isShownResult = mock(MethodChannel.Result.class);
+    controller.isInfoWindowShown(markerId, isShownResult);
+    verify(isShownResult).success(false);
+
+    final MethodChannel.Result hideResult = mock(MethodChannel.Result.class);
+    controller.hideMarkerInfoWindow(markerId, hideResult);
+    verify(hideResult).success(null);
+
+    final int markerCount = addedMarkers.size();
+    final MethodChannel.Result showResult = mock(MethodChannel.Result.class);
+    controller.showMarkerInfoWindow(markerId, showResult);
+    verify(showResult).success(null);
+    assertEquals(markerCount + 1, addedMarkers.size());
+    verify(addedMarkers.get(markerCount)).showInfoWindow();
+  }
+
+  private static GoogleMap createGoogleMap(LatLngBounds visibleBounds, List<Marker> addedMarkers) {
+    final GoogleMap googleMap = mock(GoogleMap.class);
+    final LatLng center = new LatLng(0, 0);
+    final Projection projection = mock(Projection.class);
+    when(googleMap.getProjection()).thenReturn(projection);
+    when(projection.getVisibleRegion())
+        .thenReturn(new VisibleRegion(center, center, center, center, visibleBounds));
+    when(googleMap.getCameraPosition()).thenReturn(new CameraPosition(center, 3, 0, 0));
+    when(googleMap.addMarker(any(MarkerOptions.class)))
+        .thenAnswer(
+            invocation -> {
+              final Marker marker = mock(Marker.class);
+              when(marker.getId()).thenReturn("m" + addedMarkers.size());
+              addedMarkers.add(marker);
+              return marker;
+            });
+    return googleMap;
+  }
+
+  private static Map<String, Object> createMarker(
+      String markerId, double latitude, double longitude) {
+    final Map<String, Object> marker = new HashMap<>();
+    marker.put("markerId", markerId);
+    marker.put("position", Arrays.asList(latitude, longitude));
+    return marker;
+  }
 }
@@ -0,0 +1,154 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.os.Build;
+import com.google.android.gms.maps.model.Tile;
+import java.io.File;
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.P)
+public class TileCacheTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File directory;
+
+  @Before
+  public void before() {
+    directory = new File(temporaryFolder.getRoot(), TileCache.DIRECTORY_NAME);
+  }
+
+  @Test
+  public void get_returnsTilesFromDiskInNewInstances() {
+    final TileCache writingTileCache = new TileCache(directory);
+    writingTileCache.put(
+        "overlay",
+        1,
+        2,
+        3,
+        new Tile(256, 128, new byte[] {1, 2}),
+        writingTileCache.getGeneration("overlay"));
+
+    final Tile tile = new TileCache(directory).get("overlay", 1, 2, 3, 60000);
+
+    assertNotNull(tile);
+    assertEquals(256, tile.width);
+    assertEquals(128, tile.height);
+    assertArrayEquals(new byte[] {1, 2}, tile.data);
+    assertNull(new TileCache(directory).get("other overlay", 1, 2, 3, 60000));
+  }
+
+  @Test
+  public void get_ignoresExpiredTiles() throws InterruptedException {
+    final TileCache tileCache = new TileCache(directory);
+    tileCache.put(
+        "overlay", 1, 2, 3, new Tile(256, 256, new byte[] {1}), tileCache.getGeneration("overlay"));
+    Thread.sleep(5);
+
+    assertNull(tileCache.get("overlay", 1, 2, 3, 1));
+    assertNull(new TileCache(directory).get("overlay", 1, 2, 3, 60000));
+  }
+
+  @Test
+  public void put_ignoresTilesWithoutData() {
+    final TileCache tileCache = new TileCache(directory);
+    tileCache.put(
+        "overlay", 1, 2, 3, new Tile(-1, -1, null), tileCache.getGeneration("overlay"));
+
+    assertNull(tileCache.get("overlay", 1, 2, 3, 60000));
+  }
+
+  @Test
+  public void put_trimsLeastRecentlyUsedTilesFromDisk() {
+    final TileCache tileCache = new TileCache(directory, 1, 340);
+    tileCache.put(
+        "overlay", 0, 0, 1, new Tile(256, 256, new byte[100]), tileCache.getGeneration("overlay"));
+    new File(directory, "6f7665726c6179/1_0_0").setLastModified(0);
+    tileCache.put(
+        "overlay", 1, 0, 1, new Tile(256, 256, new byte[100]), tileCache.getGeneration("overlay"));
+    tileCache.put(
+        "overlay", 1, 1, 1, new Tile(256, 256, new byte[100]), tileCache.getGeneration("overlay"));
+
+    assertNull(tileCache.get("overlay", 0, 0, 1, 60000));
+    assertNotNull(tileCache.get("overlay", 1, 1, 1, 60000));
+  }
+
+  @Test
+  public void put_keepsTemporaryFilesOfWritesInProgressWhenTrimming() throws IOException {
+    final TileCache tileCache = new TileCache(directory, 1, 340);
+    final File temporaryFile = new File(directory, "6f7665726c6179/1_0_0.tmp42");
+    temporaryFile.getParentFile().mkdirs();
+    temporaryFile.createNewFile();
+    temporaryFile.setLastModified(0);
+
+    for (int x = 0; x < 4; x++) {
+      final int generation = tileCache.getGeneration("overlay");
+      tileCache.put("overlay", x, 0, 1, new Tile(256, 256, new byte[100]), generation);
+    }
+
+    assertTrue(temporaryFile.exists());
+  }
+
+  @Test
+  public void constructor_deletesDirectoriesOfInvalidatedTileOverlays() throws Exception {
+    final File deletedDirectory = new File(directory, "6f7665726c6179.deleted1");
+    deletedDirectory.mkdirs();
+    new File(deletedDirectory, "1_2_3").createNewFile();
+
+    new TileCache(directory);
+
+    for (int i = 0; i < 100 && deletedDirectory.exists(); i++) {
+      Thread.sleep(10);
+    }
+    assertFalse(deletedDirectory.exists());
+  }
+
+  @Test
+  public void invalidate_removesTilesOfTheTileOverlay() {
+    final TileCache tileCache = new TileCache(directory);
+    tileCache.put(
+        "overlay", 1, 2, 3, new Tile(256, 256, new byte[] {1}), tileCache.getGeneration("overlay"));
+    tileCache.put(
+        "other overlay",
+        1,
+        2,
+        3,
+        new Tile(256, 256, new byte[] {2}),
+        tileCache.getGeneration("other overlay"));
+
+    tileCache.invalidate("overlay");
+
+    assertNull(tileCache.get("overlay", 1, 2, 3, 60000));
+    assertNotNull(tileCache.get("other overlay", 1, 2, 3, 60000));
+  }
+
+  @Test
+  public void put_ignoresTilesRequestedBeforeAnInvalidation() {
+    final TileCache tileCache = new TileCache(directory);
+    final int generation = tileCache.getGeneration("overlay");
+
+    tileCache.invalidate("overlay");
+    tileCache.put("overlay", 1, 2, 3, new Tile(256, 256, new byte[] {1}), generation);
+
+    assertNull(tileCache.get("overlay", 1, 2, 3, 60000));
+    assertNull(new TileCache(directory).get("overlay", 1, 2, 3, 60000));
+  }
+}
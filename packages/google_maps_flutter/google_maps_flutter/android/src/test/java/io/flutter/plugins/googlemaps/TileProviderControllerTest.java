@@ -0,0 +1,170 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.os.Handler;
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
+import com.google.android.gms.maps.model.Tile;
+import io.flutter.plugin.common.MethodChannel;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class TileProviderControllerTest {
+
+  private ExecutorService mainThread;
+  private Handler mainHandler;
+  private MethodChannel methodChannel;
+  private TileFetcher tileFetcher;
+
+  @Before
+  public void before() {
+    mainThread = Executors.newSingleThreadExecutor();
+    mainHandler = mock(Handler.class);
+    when(mainHandler.post(any(Runnable.class)))
+        .thenAnswer(
+            invocation -> {
+              mainThread.execute(invocation.getArgument(0));
+              return true;
+            });
+    methodChannel = mock(MethodChannel.class);
+    tileFetcher = new DartTileFetcher(methodChannel, "overlay");
+  }
+
+  @After
+  public void after() {
+    mainThread.shutdownNow();
+  }
+
+  @Test
+  public void getTile_sharesIdenticalRequestsAndLimitsConcurrentRequests() throws Exception {
+    final TileProviderController controller =
+        new TileProviderController(tileFetcher, "overlay", null, 0, mainHandler, 1, 10000);
+
+    final FutureTask<Tile> first = startGetTile(controller, 1, 2, 3);
+    final FutureTask<Tile> second = startGetTile(controller, 1, 2, 3);
+    final FutureTask<Tile> third = startGetTile(controller, 4, 5, 3);
+
+    final List<MethodChannel.Result> results = verifyTileRequests(1);
+    final byte[] data = new byte[] {1, 2, 3};
+    runOnMainThread(() -> results.get(0).success(createTileData(data)));
+
+    assertArrayEquals(data, first.get(1, TimeUnit.SECONDS).data);
+    assertArrayEquals(data, second.get(1, TimeUnit.SECONDS).data);
+    final List<MethodChannel.Result> nextResults = verifyTileRequests(2);
+    runOnMainThread(() -> nextResults.get(1).success(createTileData(data)));
+    assertArrayEquals(data, third.get(1, TimeUnit.SECONDS).data);
+  }
+
+  @Test
+  public void getTile_returnsNullAfterTimeout() throws Exception {
+    final TileProviderController controller =
+        new TileProviderController(tileFetcher, "overlay", null, 0, mainHandler, 1, 100);
+
+    assertNull(controller.getTile(1, 2, 3));
+
+    // The timed out request occupies the only slot until Dart answers it.
+    final FutureTask<Tile> next = startGetTile(controller, 4, 5, 3);
+    final List<MethodChannel.Result> timedOutResults = verifyTileRequests(1);
+    runOnMainThread(() -> timedOutResults.get(0).success(createTileData(new byte[] {2})));
+
+    final List<MethodChannel.Result> results = verifyTileRequests(2);
+    runOnMainThread(() -> results.get(1).success(createTileData(new byte[] {1})));
+    assertEquals(1, next.get(1, TimeUnit.SECONDS).data.length);
+  }
+
+  @Test
+  public void cancelTilesOutside_releasesTilesThatAreNoLongerVisible() throws Exception {
+    final TileProviderController controller =
+        new TileProviderController(tileFetcher, "overlay", null, 0, mainHandler, 1, 10000);
+
+    // Zoom level 4 splits the world into 16 x 16 tiles, the bounds cover tile (8, 7).
+    final FutureTask<Tile> visible = startGetTile(controller, 8, 7, 4);
+    final FutureTask<Tile> offscreen = startGetTile(controller, 2, 2, 4);
+    final FutureTask<Tile> otherZoom = startGetTile(controller, 8, 7, 7);
+    final LatLngBounds bounds = new LatLngBounds(new LatLng(1, 1), new LatLng(2, 2));
+    runOnMainThread(() -> controller.cancelTilesOutside(bounds, 4.5f));
+
+    assertNull(offscreen.get(1, TimeUnit.SECONDS));
+    assertNull(otherZoom.get(1, TimeUnit.SECONDS));
+    final List<MethodChannel.Result> results = verifyTileRequests(1);
+    runOnMainThread(() -> results.get(0).success(createTileData(new byte[] {1})));
+    assertEquals(1, visible.get(1, TimeUnit.SECONDS).data.length);
+  }
+
+  @Test
+  public void getTile_returnsCachedTilesAndCachesRequestedTiles() throws Exception {
+    final TileCache tileCache = mock(TileCache.class);
+    final Tile cachedTile = new Tile(256, 256, new byte[] {1});
+    when(tileCache.get("overlay", 1, 2, 3, 1000)).thenReturn(cachedTile);
+    final TileProviderController controller =
+        new TileProviderController(tileFetcher, "overlay", tileCache, 1000, mainHandler, 1, 10000);
+
+    assertSame(cachedTile, controller.getTile(1, 2, 3));
+    verify(methodChannel, never()).invokeMethod(any(), any(), any());
+
+    final FutureTask<Tile> requested = startGetTile(controller, 4, 5, 3);
+    final List<MethodChannel.Result> results = verifyTileRequests(1);
+    runOnMainThread(() -> results.get(0).success(createTileData(new byte[] {2})));
+    final Tile tile = requested.get(1, TimeUnit.SECONDS);
+    verify(tileCache).put("overlay", 4, 5, 3, tile, 0);
+  }
+
+  private FutureTask<Tile> startGetTile(
+      TileProviderController controller, int x, int y, int zoom) throws Exception {
+    final FutureTask<Tile> task = new FutureTask<>(() -> controller.getTile(x, y, zoom));
+    final Thread thread = new Thread(task);
+    thread.start();
+    // Wait until the tile thread waits for the tile and its request was queued.
+    while (thread.getState() != Thread.State.TIMED_WAITING && !task.isDone()) {
+      Thread.sleep(1);
+    }
+    runOnMainThread(() -> {});
+    return task;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<MethodChannel.Result> verifyTileRequests(int count) throws Exception {
+    runOnMainThread(() -> {});
+    final ArgumentCaptor<MethodChannel.Result> captor =
+        ArgumentCaptor.forClass(MethodChannel.Result.class);
+    verify(methodChannel, times(count))
+        .invokeMethod(eq("tileOverlay#getTile"), any(), captor.capture());
+    return captor.getAllValues();
+  }
+
+  private void runOnMainThread(Runnable runnable) throws Exception {
+    mainThread.submit(runnable).get(1, TimeUnit.SECONDS);
+  }
+
+  private static Map<String, Object> createTileData(byte[] data) {
+    final Map<String, Object> tileData = new HashMap<>();
+    tileData.put("width", 256);
+    tileData.put("height", 256);
+    tileData.put("data", data);
+    return tileData;
+  }
+}
@@ -0,0 +1,169 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import android.os.Handler;
+import com.google.android.gms.maps.model.Tile;
+import com.google.android.gms.maps.model.TileProvider;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class UrlTileFetcherTest {
+
+  private static final byte[] TILE_DATA = new byte[] {1, 2, 3};
+  private static final int TILE_SIZE = 512;
+
+  private HttpServer server;
+  private final Set<Integer> clientPorts = new HashSet<>();
+  private Handler mainHandler;
+
+  @Before
+  public void before() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          synchronized (clientPorts) {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+          }
+          final String path = exchange.getRequestURI().getPath();
+          if (path.equals("/tiles/3/1/2.png")) {
+            exchange.sendResponseHeaders(200, TILE_DATA.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+              body.write(TILE_DATA);
+            }
+          } else {
+            exchange.sendResponseHeaders(path.startsWith("/tiles/") ? 404 : 500, -1);
+            exchange.close();
+          }
+        });
+    server.start();
+
+    mainHandler = mock(Handler.class);
+    when(mainHandler.post(any(Runnable.class)))
+        .thenAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return true;
+            });
+  }
+
+  @After
+  public void after() {
+    server.stop(0);
+  }
+
+  @Test
+  public void getTileUrl_replacesTileCoordinates() {
+    final UrlTileFetcher fetcher =
+        new UrlTileFetcher("https://example.com/{z}/{x}/{y}.png?zoom={z}", TILE_SIZE, null, null);
+
+    assertEquals("https://example.com/7/12/34.png?zoom=7", fetcher.getTileUrl(12, 34, 7));
+  }
+
+  @Test
+  public void fetchTile_downloadsTile() {
+    final Tile tile = fetchTile("/tiles/{z}/{x}/{y}.png", 1, 2, 3);
+
+    assertEquals(TILE_SIZE, tile.width);
+    assertEquals(TILE_SIZE, tile.height);
+    assertArrayEquals(TILE_DATA, tile.data);
+  }
+
+  @Test
+  public void fetchTile_returnsNoTileForMissingTiles() {
+    assertSame(TileProvider.NO_TILE, fetchTile("/tiles/{z}/{x}/{y}.png", 5, 5, 3));
+  }
+
+  @Test
+  public void fetchTile_returnsNullForServerErrors() {
+    final AtomicReference<Tile> result = new AtomicReference<>(TileProvider.NO_TILE);
+    createFetcher("/error/{z}/{x}/{y}.png").fetchTile(1, 2, 3, result::set);
+
+    assertNull(result.get());
+  }
+
+  @Test
+  public void fetchTile_returnsNullForUrlsThatAreNotHttp() {
+    for (String urlTemplate : new String[] {"file:///tiles/{z}/{x}/{y}.png", "tiles/{z}/{x}/{y}"}) {
+      final AtomicReference<Tile> result = new AtomicReference<>(TileProvider.NO_TILE);
+      new UrlTileFetcher(urlTemplate, TILE_SIZE, mainHandler, Runnable::run)
+          .fetchTile(1, 2, 3, result::set);
+
+      assertNull(result.get());
+    }
+  }
+
+  @Test
+  public void isSupportedUrlTemplate_acceptsOnlyHttpAndHttps() {
+    assertTrue(UrlTileFetcher.isSupportedUrlTemplate("http://example.com/{z}/{x}/{y}.png"));
+    assertTrue(UrlTileFetcher.isSupportedUrlTemplate("HTTPS://example.com/{z}/{x}/{y}.png"));
+    assertFalse(UrlTileFetcher.isSupportedUrlTemplate("file:///tiles/{z}/{x}/{y}.png"));
+    assertFalse(UrlTileFetcher.isSupportedUrlTemplate("ftp://example.com/{z}/{x}/{y}.png"));
+  }
+
+  @Test
+  public void fetchTile_reusesConnections() {
+    final UrlTileFetcher fetcher = createFetcher("/tiles/{z}/{x}/{y}.png");
+    fetcher.fetchTile(1, 2, 3, tile -> {});
+    fetcher.fetchTile(1, 2, 3, tile -> {});
+
+    assertEquals(1, clientPorts.size());
+  }
+
+  @Test
+  public void cancelTile_skipsDownloadsThatHaveNotStarted() {
+    final List<Runnable> downloads = new ArrayList<>();
+    final UrlTileFetcher fetcher = createFetcher("/tiles/{z}/{x}/{y}.png", downloads::add);
+    final AtomicReference<Tile> result = new AtomicReference<>(TileProvider.NO_TILE);
+    final TileFetcher.Callback callback = result::set;
+    fetcher.fetchTile(1, 2, 3, callback);
+
+    fetcher.cancelTile(callback);
+    downloads.get(0).run();
+
+    assertNull(result.get());
+    assertEquals(0, clientPorts.size());
+  }
+
+  private UrlTileFetcher createFetcher(String pathTemplate) {
+    return createFetcher(pathTemplate, Runnable::run);
+  }
+
+  private UrlTileFetcher createFetcher(String pathTemplate, Executor executor) {
+    return new UrlTileFetcher(
+        "http://127.0.0.1:" + server.getAddress().getPort() + pathTemplate,
+        TILE_SIZE,
+        mainHandler,
+        executor);
+  }
+
+  private Tile fetchTile(String pathTemplate, int x, int y, int zoom) {
+    final AtomicReference<Tile> result = new AtomicReference<>();
+    createFetcher(pathTemplate).fetchTile(x, y, zoom, result::set);
+    return result.get();
+  }
+}
@@ -0,0 +1,67 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.googlemaps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import org.junit.Test;
+
+public class VisibleObjectsTest {
+
+  @Test
+  public void isVisible_includesObjectsWithinTheMargin() {
+    final VisibleObjects visibleObjects = new VisibleObjects();
+    visibleObjects.put("inside", Collections.singletonList(new LatLng(5, 5)));
+    visibleObjects.put("margin", Collections.singletonList(new LatLng(12, 12)));
+    visibleObjects.put("outside", Collections.singletonList(new LatLng(20, 5)));
+
+    visibleObjects.setVisibleBounds(new LatLngBounds(new LatLng(0, 0), new LatLng(10, 10)));
+
+    assertEquals(new HashSet<>(Arrays.asList("inside", "margin")), visibleObjects.getVisibleIds());
+  }
+
+  @Test
+  public void isVisible_includesObjectsThatCrossTheVisibleRegion() {
+    final VisibleObjects visibleObjects = new VisibleObjects();
+    visibleObjects.put("line", Arrays.asList(new LatLng(5, -50), new LatLng(5, 50)));
+    visibleObjects.put("circle", new LatLng(5, 20), 1000000);
+
+    visibleObjects.setVisibleBounds(new LatLngBounds(new LatLng(0, 0), new LatLng(10, 10)));
+
+    assertTrue(visibleObjects.isVisible("line"));
+    assertTrue(visibleObjects.isVisible("circle"));
+  }
+
+  @Test
+  public void isVisible_supportsVisibleRegionsAcrossTheAntimeridian() {
+    final VisibleObjects visibleObjects = new VisibleObjects();
+    visibleObjects.put("east", Collections.singletonList(new LatLng(0, 179)));
+    visibleObjects.put("west", Collections.singletonList(new LatLng(0, -179)));
+    visibleObjects.put("outside", Collections.singletonList(new LatLng(0, 0)));
+
+    visibleObjects.setVisibleBounds(new LatLngBounds(new LatLng(-10, 170), new LatLng(10, -170)));
+
+    assertEquals(new HashSet<>(Arrays.asList("east", "west")), visibleObjects.getVisibleIds());
+  }
+
+  @Test
+  public void isVisible_isFalseBeforeTheVisibleRegionIsKnownAndAfterRemoval() {
+    final VisibleObjects visibleObjects = new VisibleObjects();
+    visibleObjects.put("marker", Collections.singletonList(new LatLng(5, 5)));
+    assertFalse(visibleObjects.isVisible("marker"));
+
+    visibleObjects.setVisibleBounds(new LatLngBounds(new LatLng(0, 0), new LatLng(10, 10)));
+    visibleObjects.remove("marker");
+
+    assertFalse(visibleObjects.isVisible("marker"));
+  }
+}
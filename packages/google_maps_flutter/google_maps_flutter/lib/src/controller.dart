@@ -170,8 +170,9 @@ class GoogleMapController {
   ///
   /// The current tiles from this tile overlay will also be
   /// cleared from the map after calling this method. The API maintains a small
-  /// in-memory cache of tiles. If you want to cache tiles for longer, you
-  /// should implement an on-disk cache.
+  /// in-memory cache of tiles. On Android, tiles can be cached for longer with
+  /// [TileOverlay.cacheMaxAge], and this method removes them from that cache
+  /// as well.
   Future<void> clearTileCache(TileOverlayId tileOverlayId) async {
     assert(tileOverlayId != null);
     return GoogleMapsFlutterPlatform.instance
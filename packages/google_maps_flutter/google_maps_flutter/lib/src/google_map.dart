@@ -109,6 +109,8 @@ class GoogleMap extends StatefulWidget {
     this.indoorViewEnabled = false,
     this.trafficEnabled = false,
     this.buildingsEnabled = true,
+    this.markerClusteringEnabled = false,
+    this.viewportCullingEnabled = false,
     this.markers = const <Marker>{},
     this.polygons = const <Polygon>{},
     this.polylines = const <Polyline>{},
@@ -268,6 +270,25 @@ class GoogleMap extends StatefulWidget {
   /// Enables or disables showing 3D buildings where available
   final bool buildingsEnabled;
 
+  /// True if markers that are close to each other should be grouped into
+  /// clusters. Android only.
+  ///
+  /// Only the clusters and markers in the visible region are added to the
+  /// map, which keeps maps with many thousands of markers responsive. Tapping
+  /// a cluster zooms into it and calls the [Marker.onTap] callback of the
+  /// first marker in the cluster. This can only be set when the map is
+  /// created.
+  final bool markerClusteringEnabled;
+
+  /// True if markers, polylines, polygons and circles should only be added to
+  /// the map while they are near the visible region. Android only.
+  ///
+  /// The objects are added and removed when the camera stops moving, so the
+  /// memory and drawing cost of the map depend on what is on screen rather
+  /// than on the number of objects. This can only be set when the map is
+  /// created.
+  final bool viewportCullingEnabled;
+
   /// Which gestures should be consumed by the map.
   ///
   /// It is possible for other gesture recognizers to be competing with the map on pointer
@@ -545,6 +566,8 @@ class _GoogleMapOptions {
         indoorViewEnabled = map.indoorViewEnabled,
         trafficEnabled = map.trafficEnabled,
         buildingsEnabled = map.buildingsEnabled,
+        markerClusteringEnabled = map.markerClusteringEnabled,
+        viewportCullingEnabled = map.viewportCullingEnabled,
         assert(!map.liteModeEnabled || Platform.isAndroid);
 
   final bool compassEnabled;
@@ -583,6 +606,10 @@ class _GoogleMapOptions {
 
   final bool buildingsEnabled;
 
+  final bool markerClusteringEnabled;
+
+  final bool viewportCullingEnabled;
+
   Map<String, dynamic> toMap() {
     return <String, dynamic>{
       'compassEnabled': compassEnabled,
@@ -608,6 +635,8 @@ class _GoogleMapOptions {
       'indoorEnabled': indoorViewEnabled,
       'trafficEnabled': trafficEnabled,
       'buildingsEnabled': buildingsEnabled,
+      'markerClusteringEnabled': markerClusteringEnabled,
+      'viewportCullingEnabled': viewportCullingEnabled,
     };
   }
 
@@ -57,6 +57,10 @@ class FakePlatformGoogleMap {
 
   bool? buildingsEnabled;
 
+  bool? markerClusteringEnabled;
+
+  bool? viewportCullingEnabled;
+
   bool? myLocationButtonEnabled;
 
   List<dynamic>? padding;
@@ -436,6 +440,12 @@ class FakePlatformGoogleMap {
     if (options.containsKey('buildingsEnabled')) {
       buildingsEnabled = options['buildingsEnabled'] as bool?;
     }
+    if (options.containsKey('markerClusteringEnabled')) {
+      markerClusteringEnabled = options['markerClusteringEnabled'] as bool?;
+    }
+    if (options.containsKey('viewportCullingEnabled')) {
+      viewportCullingEnabled = options['viewportCullingEnabled'] as bool?;
+    }
     if (options.containsKey('padding')) {
       padding = options['padding'] as List<dynamic>?;
     }
@@ -589,6 +589,52 @@ void main() {
     expect(platformGoogleMap.buildingsEnabled, true);
   });
 
+  testWidgets('Can update markerClusteringEnabled',
+      (WidgetTester tester) async {
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+        ),
+      ),
+    );
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView!;
+
+    expect(platformGoogleMap.markerClusteringEnabled, false);
+
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+          markerClusteringEnabled: true,
+        ),
+      ),
+    );
+
+    expect(platformGoogleMap.markerClusteringEnabled, true);
+  });
+
+  testWidgets('Can set viewportCullingEnabled', (WidgetTester tester) async {
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: GoogleMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+          viewportCullingEnabled: true,
+        ),
+      ),
+    );
+
+    final FakePlatformGoogleMap platformGoogleMap =
+        fakePlatformViewsController.lastCreatedView!;
+
+    expect(platformGoogleMap.viewportCullingEnabled, true);
+  });
+
   testWidgets(
     'Default Android widget is AndroidView',
     (WidgetTester tester) async {
@@ -52,6 +52,8 @@ class TileOverlay implements MapsObject {
     this.zIndex = 0,
     this.visible = true,
     this.tileSize = 256,
+    this.cacheMaxAge,
+    this.urlTemplate,
   }) : assert(transparency >= 0.0 && transparency <= 1.0);
 
   /// Uniquely identifies a [TileOverlay].
@@ -85,6 +87,30 @@ class TileOverlay implements MapsObject {
   /// would give on a non-retina device.
   final int tileSize;
 
+  /// How long tiles of the [tileProvider] are cached by the plugin. Android only.
+  ///
+  /// When set, tiles are kept in a memory cache and a disk cache under the app
+  /// cache directory, so tiles that were received before are not requested from
+  /// the [tileProvider] again until they are older than this duration. Use
+  /// `GoogleMapController.clearTileCache` to remove all cached tiles of the
+  /// tile overlay.
+  ///
+  /// Defaults to null, which only uses the small in-memory cache of the map.
+  /// Can not be changed after the tile overlay was added to the map.
+  final Duration? cacheMaxAge;
+
+  /// The URL of the tiles, with `{x}`, `{y}` and `{z}` as placeholders for the
+  /// tile coordinates and the zoom level. Must be an `http` or `https` URL.
+  /// Android only.
+  ///
+  /// When set, tiles are downloaded by the platform, without calling the
+  /// [tileProvider]. Tiles that the server responds to with 404 or 204 are
+  /// treated as empty. Set the [tileProvider] as well to show the tiles on
+  /// other platforms.
+  ///
+  /// Can not be changed after the tile overlay was added to the map.
+  final String? urlTemplate;
+
   /// Creates a new [TileOverlay] object whose values are the same as this instance,
   /// unless overwritten by the specified parameters.
   TileOverlay copyWith({
@@ -94,6 +120,8 @@ class TileOverlay implements MapsObject {
     int? zIndexParam,
     bool? visibleParam,
     int? tileSizeParam,
+    Duration? cacheMaxAgeParam,
+    String? urlTemplateParam,
   }) {
     return TileOverlay(
       tileOverlayId: tileOverlayId,
@@ -103,6 +131,8 @@ class TileOverlay implements MapsObject {
       zIndex: zIndexParam ?? zIndex,
       visible: visibleParam ?? visible,
       tileSize: tileSizeParam ?? tileSize,
+      cacheMaxAge: cacheMaxAgeParam ?? cacheMaxAge,
+      urlTemplate: urlTemplateParam ?? urlTemplate,
     );
   }
 
@@ -124,6 +154,8 @@ class TileOverlay implements MapsObject {
     addIfPresent('zIndex', zIndex);
     addIfPresent('visible', visible);
     addIfPresent('tileSize', tileSize);
+    addIfPresent('cacheMaxAge', cacheMaxAge?.inMilliseconds);
+    addIfPresent('urlTemplate', urlTemplate);
 
     return json;
   }
@@ -140,10 +172,12 @@ class TileOverlay implements MapsObject {
         transparency == other.transparency &&
         zIndex == other.zIndex &&
         visible == other.visible &&
-        tileSize == other.tileSize;
+        tileSize == other.tileSize &&
+        cacheMaxAge == other.cacheMaxAge &&
+        urlTemplate == other.urlTemplate;
   }
 
   @override
   int get hashCode => Object.hash(tileOverlayId, fadeIn, tileProvider,
-      transparency, zIndex, visible, tileSize);
+      transparency, zIndex, visible, tileSize, cacheMaxAge, urlTemplate);
 }
@@ -39,7 +39,9 @@ void main() {
           transparency: 0.1,
           zIndex: 1,
           visible: false,
-          tileSize: 128);
+          tileSize: 128,
+          cacheMaxAge: Duration(hours: 1),
+          urlTemplate: 'https://example.com/{z}/{x}/{y}.png');
       final Object json = tileOverlay.toJson();
       expect(json, <String, Object>{
         'tileOverlayId': 'id',
@@ -48,6 +50,8 @@ void main() {
         'zIndex': 1,
         'visible': false,
         'tileSize': 128,
+        'cacheMaxAge': 3600000,
+        'urlTemplate': 'https://example.com/{z}/{x}/{y}.png',
       });
     });
 
@@ -99,6 +103,14 @@ void main() {
       expect(tileOverlay1, tileOverlaySameValues);
       expect(tileOverlay1, isNot(tileOverlayDifferentId));
       expect(tileOverlay1, isNot(tileOverlayDifferentProvider));
+      expect(
+          tileOverlay1,
+          isNot(tileOverlay1.copyWith(
+              cacheMaxAgeParam: const Duration(days: 1))));
+      expect(
+          tileOverlay1,
+          isNot(tileOverlay1.copyWith(
+              urlTemplateParam: 'https://example.com/{z}/{x}/{y}.png')));
     });
 
     test('clone', () async {
@@ -111,7 +123,9 @@ void main() {
           transparency: 0.1,
           zIndex: 1,
           visible: false,
-          tileSize: 128);
+          tileSize: 128,
+          cacheMaxAge: const Duration(minutes: 5),
+          urlTemplate: 'https://example.com/{z}/{x}/{y}.png');
       expect(tileOverlay, tileOverlay.clone());
     });
 
@@ -135,7 +149,9 @@ void main() {
               tileOverlay.transparency,
               tileOverlay.zIndex,
               tileOverlay.visible,
-              tileOverlay.tileSize));
+              tileOverlay.tileSize,
+              tileOverlay.cacheMaxAge,
+              tileOverlay.urlTemplate));
     });
   });
 }